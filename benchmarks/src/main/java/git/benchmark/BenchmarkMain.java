@@ -0,0 +1,25 @@
+package git.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		final var commandLineOptions = new CommandLineOptions(args);
+
+		final var builder = new OptionsBuilder().parent(commandLineOptions);
+		if (List.of(args).stream().noneMatch((argument) -> argument.startsWith("-prof"))) {
+			builder.addProfiler(GCProfiler.class);
+		}
+
+		new Runner(builder.build()).run();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package git.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import git.Git;
+import git.domain.Tree;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+	@Param({ "3" })
+	private int depth;
+
+	@Param({ "4" })
+	private int directoriesPerLevel;
+
+	@Param({ "16" })
+	private int filesPerDirectory;
+
+	@Param({ "1024" })
+	private int fileSize;
+
+	private Path root;
+	private Git git;
+	private Tree tree;
+	private Path target;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, NoSuchAlgorithmException {
+		root = Fixtures.createTemporaryDirectory("checkout");
+		git = Git.init(root.resolve("source"));
+
+		Fixtures.generateFiles(root.resolve("source"), depth, directoriesPerLevel, filesPerDirectory, fileSize, new Random(Fixtures.SEED));
+		tree = git.readTree(git.writeTree(root.resolve("source")));
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareTarget() throws IOException {
+		target = Fixtures.createTemporaryDirectory("checkout-target");
+	}
+
+	@TearDown(Level.Invocation)
+	public void deleteTarget() throws IOException {
+		Fixtures.deleteRecursively(target);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Fixtures.deleteRecursively(root);
+	}
+
+	@Benchmark
+	public void checkout() throws IOException {
+		git.checkout(tree, target);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package git.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import git.pack.DeltaApplier;
+import git.pack.DeltaIndex;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeltaApplierBenchmark {
+
+	@Param({ "1024", "65536", "1048576" })
+	private int size;
+
+	@Param({ "16" })
+	private int edits;
+
+	private byte[] base;
+	private byte[] delta;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final var random = new Random(Fixtures.SEED);
+
+		base = Fixtures.randomText(random, size);
+		delta = new DeltaIndex(base).delta(Fixtures.mutate(random, base, edits), Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public byte[] apply() {
+		return DeltaApplier.apply(base, delta);
+	}
+
+}
\ No newline at end of file
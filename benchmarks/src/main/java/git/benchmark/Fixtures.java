@@ -0,0 +1,89 @@
+package git.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.pack.PackWriter;
+
+public class Fixtures {
+
+	public static final long SEED = 42;
+
+	public static Path createTemporaryDirectory(String prefix) throws IOException {
+		return Files.createTempDirectory("git-benchmark-" + prefix);
+	}
+
+	public static void deleteRecursively(Path root) throws IOException {
+		if (root == null || !Files.exists(root)) {
+			return;
+		}
+
+		try (final var paths = Files.walk(root)) {
+			for (final var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	public static byte[] randomText(Random random, int size) {
+		final var bytes = new byte[size];
+
+		for (var index = 0; index < size; ++index) {
+			bytes[index] = (byte) (index % 61 == 60 ? '\n' : 'a' + random.nextInt(26));
+		}
+
+		return bytes;
+	}
+
+	public static byte[] mutate(Random random, byte[] base, int edits) {
+		final var result = base.clone();
+
+		for (var edit = 0; edit < edits; ++edit) {
+			result[random.nextInt(result.length)] = (byte) ('A' + random.nextInt(26));
+		}
+
+		return result;
+	}
+
+	public static void generateFiles(Path root, int depth, int directoriesPerLevel, int filesPerDirectory, int fileSize, Random random) throws IOException {
+		Files.createDirectories(root);
+
+		for (var index = 0; index < filesPerDirectory; ++index) {
+			Files.write(root.resolve("file-%03d.txt".formatted(index)), randomText(random, fileSize));
+		}
+
+		if (depth == 0) {
+			return;
+		}
+
+		for (var index = 0; index < directoriesPerLevel; ++index) {
+			generateFiles(root.resolve("directory-%02d".formatted(index)), depth - 1, directoriesPerLevel, filesPerDirectory, fileSize, random);
+		}
+	}
+
+	public static byte[] syntheticPack(Git git, int objectCount, int objectSize) throws IOException, NoSuchAlgorithmException {
+		final var random = new Random(SEED);
+		final var hashes = new ArrayList<String>(objectCount);
+
+		var content = randomText(random, objectSize);
+		for (var index = 0; index < objectCount; ++index) {
+			hashes.add(git.writeRawObject(new RawObject(ObjectType.BLOB, content)));
+			content = mutate(random, content, 4);
+		}
+
+		final var outputStream = new ByteArrayOutputStream();
+		new PackWriter(git).write(hashes, outputStream);
+
+		return outputStream.toByteArray();
+	}
+
+}
\ No newline at end of file
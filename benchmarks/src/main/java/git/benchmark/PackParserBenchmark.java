@@ -0,0 +1,75 @@
+package git.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import git.Git;
+import git.pack.PackObject;
+import git.pack.PackParser;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackParserBenchmark {
+
+	public static final String SYNTHETIC = "synthetic";
+
+	@Param({ SYNTHETIC })
+	private String pack;
+
+	@Param({ "1000" })
+	private int objectCount;
+
+	@Param({ "4096" })
+	private int objectSize;
+
+	private Path root;
+	private byte[] bytes;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, NoSuchAlgorithmException {
+		if (!SYNTHETIC.equals(pack)) {
+			bytes = Files.readAllBytes(Paths.get(pack));
+			return;
+		}
+
+		root = Fixtures.createTemporaryDirectory("pack");
+		bytes = Fixtures.syntheticPack(Git.init(root), objectCount, objectSize);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Fixtures.deleteRecursively(root);
+	}
+
+	@Benchmark
+	public List<PackObject> parse() throws IOException, DataFormatException {
+		return new PackParser(Channels.newChannel(new ByteArrayInputStream(bytes))).parse();
+	}
+
+}
\ No newline at end of file
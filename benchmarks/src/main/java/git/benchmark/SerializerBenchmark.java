@@ -0,0 +1,105 @@
+package git.benchmark;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import git.Git;
+import git.domain.AuthorSignature;
+import git.domain.Blob;
+import git.domain.Commit;
+import git.domain.ObjectType;
+import git.domain.Tree;
+import git.domain.tree.TreeEntry;
+import git.domain.tree.TreeEntryMode;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+	@Param({ "64" })
+	private int treeEntryCount;
+
+	@Param({ "4096" })
+	private int blobSize;
+
+	private Tree tree;
+	private byte[] treeContent;
+	private Commit commit;
+	private byte[] commitContent;
+	private Blob blob;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final var random = new Random(Fixtures.SEED);
+
+		final var entries = new ArrayList<TreeEntry>(treeEntryCount);
+		for (var index = 0; index < treeEntryCount; ++index) {
+			final var mode = index % 8 == 0 ? TreeEntryMode.directory() : TreeEntryMode.regularFile(0644);
+			entries.add(new TreeEntry(mode, "entry-%04d".formatted(index), randomHash(random)));
+		}
+
+		tree = new Tree(entries);
+		treeContent = ObjectType.TREE.serializeContent(tree);
+
+		final var signature = new AuthorSignature("Benchmark", "benchmark@example.com", Instant.ofEpochSecond(1_700_000_000).atZone(ZoneOffset.UTC));
+		commit = new Commit(randomHash(random), List.of(randomHash(random)), signature, signature, "Benchmark commit\n\nWith a body.\n");
+		commitContent = ObjectType.COMMIT.serializeContent(commit);
+
+		blob = new Blob(Fixtures.randomText(random, blobSize));
+	}
+
+	@Benchmark
+	public Tree treeRoundTrip() throws IOException {
+		return ObjectType.TREE.deserialize(ObjectType.TREE.serializeContent(tree));
+	}
+
+	@Benchmark
+	public Tree treeDeserialize() throws IOException {
+		return ObjectType.TREE.deserialize(treeContent);
+	}
+
+	@Benchmark
+	public Commit commitRoundTrip() throws IOException {
+		return ObjectType.COMMIT.deserialize(ObjectType.COMMIT.serializeContent(commit));
+	}
+
+	@Benchmark
+	public Commit commitDeserialize() throws IOException {
+		return ObjectType.COMMIT.deserialize(commitContent);
+	}
+
+	@Benchmark
+	public byte[] blobSerialize() throws IOException {
+		return ObjectType.BLOB.serialize(blob);
+	}
+
+	private static String randomHash(Random random) {
+		final var bytes = new byte[Git.HASH_BYTES_LENGTH];
+		random.nextBytes(bytes);
+
+		return Git.HEX.formatHex(bytes);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package git.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.odb.InMemoryObjectDatabase;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteRawObjectBenchmark {
+
+	@Param({ "256", "16384" })
+	private int size;
+
+	@Param({ "loose", "memory" })
+	private String backend;
+
+	private Path root;
+	private Git git;
+	private InMemoryObjectDatabase memory;
+	private byte[] content;
+	private long sequence;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		root = Fixtures.createTemporaryDirectory("write");
+		git = Git.init(root);
+		content = Fixtures.randomText(new Random(Fixtures.SEED), size);
+
+		if ("memory".equals(backend)) {
+			memory = new InMemoryObjectDatabase();
+			git.setObjectDatabase(memory);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void clear() {
+		if (memory != null) {
+			memory.clear();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Fixtures.deleteRecursively(root);
+	}
+
+	@Benchmark
+	public String writeRawObject() throws IOException, NoSuchAlgorithmException {
+		ByteBuffer.wrap(content).putLong(0, ++sequence);
+
+		return git.writeRawObject(new RawObject(ObjectType.BLOB, content.clone()));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package git.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import git.Git;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteTreeBenchmark {
+
+	@Param({ "3" })
+	private int depth;
+
+	@Param({ "4" })
+	private int directoriesPerLevel;
+
+	@Param({ "16" })
+	private int filesPerDirectory;
+
+	@Param({ "1024" })
+	private int fileSize;
+
+	private Path root;
+	private Git git;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		root = Fixtures.createTemporaryDirectory("tree");
+		git = Git.init(root);
+
+		Fixtures.generateFiles(root, depth, directoriesPerLevel, filesPerDirectory, fileSize, new Random(Fixtures.SEED));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Fixtures.deleteRecursively(root);
+	}
+
+	@Benchmark
+	public String writeTree() throws IOException, NoSuchAlgorithmException {
+		return git.writeTree(root);
+	}
+
+}
\ No newline at end of file
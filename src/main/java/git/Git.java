@@ -1,43 +1,92 @@
 package git;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.FileInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
-import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Predicate;
 import java.util.zip.DataFormatException;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.InflaterInputStream;
 
+import git.checkout.Checkout;
+import git.checkout.CheckoutReport;
+import git.config.GitConfig;
 import git.domain.AuthorSignature;
 import git.domain.Blob;
 import git.domain.Commit;
 import git.domain.GitObject;
+import git.domain.ObjectCounts;
+import git.domain.ObjectInfo;
 import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.domain.RefSpec;
+import git.domain.Reference;
+import git.domain.ReferenceUpdate;
+import git.domain.Tag;
 import git.domain.Tree;
 import git.domain.tree.TreeEntry;
 import git.domain.tree.TreeEntryMode;
-import git.pack.DeltaInstruction;
+import git.index.FileStat;
+import git.ignore.IgnoreStack;
+import git.index.Index;
+import git.index.IndexEntry;
+import git.odb.CompositeObjectDatabase;
+import git.odb.LooseObjectDatabase;
+import git.odb.ObjectDatabase;
+import git.odb.PackObjectDatabase;
+import git.odb.WritableObjectDatabase;
+import git.pack.DeltaApplier;
+import git.pack.MultiPackIndex;
+import git.pack.MultiPackIndexWriter;
+import git.pack.PackBitmapIndex;
+import git.pack.PackBitmapWriter;
+import git.pack.PackFile;
+import git.pack.PackIndexWriter;
 import git.pack.PackObject;
 import git.pack.PackParser;
-import git.protocol.GitClient;
+import git.pack.PackWriter;
+import git.pack.RepackOptions;
+import git.pack.RepackResult;
+import git.protocol.Negotiator;
+import git.protocol.ObjectFilter;
+import git.protocol.Transport;
+import git.refs.ReferenceDatabase;
+import git.sparse.SparseCheckout;
+import git.trace.Counter;
+import git.trace.Trace;
+import git.util.LockFile;
 import git.util.Platform;
+import git.walk.CommitNegotiator;
+import git.walk.BitmapWalker;
+import git.walk.ObjectWalker;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
@@ -48,17 +97,48 @@ public class Git {
 	public static final int HASH_STRING_LENGTH = 40;
 
 	public static final HexFormat HEX = HexFormat.of();
+	public static final String DOT_GIT = ".git";
 	public static final Set<Path> FORBIDDEN_DIRECTORIES = Set.of(
-		Paths.get(".git")
+		Paths.get(DOT_GIT)
 	);
 
 	private static final byte[] SPACE_BYTES = { ' ' };
 	private static final byte[] NULL_BYTES = { 0 };
 
+	public static final String DEFAULT_REMOTE = "origin";
+	public static final String HEAD = "HEAD";
+	public static final String HEADS_PREFIX = "refs/heads/";
+	public static final String REMOTES_PREFIX = "refs/remotes/";
+	public static final int PROMISOR_FETCH_BATCH_SIZE = 1000;
+	public static final int FILE_BUFFER_SIZE = 64 * 1024;
+	public static final long DEFAULT_BIG_FILE_THRESHOLD = 512L * 1024 * 1024;
+	public static final int MAX_ALTERNATE_DEPTH = 5;
+
 	private final Path root;
+	private final Path dotGit;
+	private GitConfig config;
+	private LooseObjectDatabase looseObjectDatabase;
+	private PackObjectDatabase packObjectDatabase;
+	private WritableObjectDatabase objectDatabase;
+	private List<Path> alternates;
+	private List<PackObjectDatabase> alternatePackObjectDatabases = List.of();
+	private volatile LoadedBitmapIndex bitmapIndex;
+	private ReferenceDatabase references;
+
+	public Path getRoot() {
+		return root;
+	}
 
 	public Path getDotGit() {
-		return root.resolve(".git");
+		return dotGit;
+	}
+
+	public boolean isBare() {
+		return root.equals(dotGit);
+	}
+
+	public long getBigFileThreshold() throws IOException {
+		return getConfig().getSize("core", null, "bigFileThreshold", DEFAULT_BIG_FILE_THRESHOLD);
 	}
 
 	public Path getObjectsDirectory() {
@@ -77,6 +157,476 @@ public class Git {
 		return getDotGit().resolve("config");
 	}
 
+	public Path getAlternatesFile() {
+		return getObjectsDirectory().resolve("info").resolve("alternates");
+	}
+
+	public Path getPackDirectory() {
+		return getObjectsDirectory().resolve("pack");
+	}
+
+	public Path getMultiPackIndexFile() {
+		return getPackObjectDatabase().getMultiPackIndexFile();
+	}
+
+	public Path getIndexFile() {
+		return getDotGit().resolve("index");
+	}
+
+	public Index readIndex() throws IOException {
+		return Index.read(getIndexFile());
+	}
+
+	public void writeIndex(Index index) throws IOException {
+		index.write(getIndexFile());
+	}
+
+	public void resetIndex(String treeHash) throws IOException {
+		writeIndex(Index.fromTree(this, treeHash, root, getSparseRoot()));
+	}
+
+	public Path getSparseCheckoutFile() {
+		return getDotGit().resolve("info").resolve("sparse-checkout");
+	}
+
+	public SparseCheckout getSparseCheckout() throws IOException {
+		if (!getConfig().getBoolean("core", null, "sparseCheckout", false)) {
+			return null;
+		}
+
+		final var file = getSparseCheckoutFile();
+		if (!Files.exists(file)) {
+			return null;
+		}
+
+		return SparseCheckout.parse(Files.readString(file));
+	}
+
+	public SparseCheckout.Node getSparseRoot() throws IOException {
+		final var sparseCheckout = getSparseCheckout();
+
+		return sparseCheckout == null ? SparseCheckout.Node.ALL : sparseCheckout.getRoot();
+	}
+
+	public void setSparseCheckout(SparseCheckout sparseCheckout) throws IOException {
+		final var config = getConfig();
+
+		if (sparseCheckout == null) {
+			config.set("core", null, "sparseCheckout", "false");
+		} else {
+			final var file = getSparseCheckoutFile();
+			Files.createDirectories(file.getParent());
+
+			try (final var lock = LockFile.acquire(file)) {
+				lock.write(sparseCheckout.format().getBytes(StandardCharsets.UTF_8));
+				lock.commit();
+			}
+
+			config.set("core", null, "sparseCheckout", "true");
+			config.set("core", null, "sparseCheckoutCone", "true");
+		}
+
+		saveConfig();
+	}
+
+	public int applySparseCheckout() throws IOException {
+		final var sparseCheckout = getSparseCheckout();
+		final var index = readIndex();
+		final var entries = new ArrayList<IndexEntry>(index.getEntries());
+
+		final var missingHashes = new LinkedHashSet<String>();
+		for (final var entry : entries) {
+			if (entry.skipWorktree() && (sparseCheckout == null || sparseCheckout.includes(entry.path())) && !hasObject(entry.hash())) {
+				missingHashes.add(entry.hash());
+			}
+		}
+
+		if (!missingHashes.isEmpty()) {
+			fetchPromisedObjects(missingHashes);
+		}
+
+		final var emptied = new HashSet<Path>();
+		var changedCount = 0;
+
+		for (var position = 0; position < entries.size(); ++position) {
+			final var entry = entries.get(position);
+			if (entry.stage() != 0) {
+				continue;
+			}
+
+			final var included = sparseCheckout == null || sparseCheckout.includes(entry.path());
+			final var path = root.resolve(entry.path());
+
+			if (included && entry.skipWorktree()) {
+				Files.createDirectories(path.getParent());
+				checkout(entry.hash(), path, entry.mode());
+
+				entries.set(position, entry.withSkipWorktree(false).withStat(FileStat.read(path)));
+				++changedCount;
+			} else if (!included && !entry.skipWorktree()) {
+				final var stat = FileStat.read(path);
+
+				if (stat != null && !entry.stat().matches(stat)) {
+					System.err.println("warning: not removing modified file %s".formatted(entry.path()));
+					continue;
+				}
+
+				Files.deleteIfExists(path);
+				emptied.add(path.getParent());
+
+				entries.set(position, entry.withSkipWorktree(true));
+				++changedCount;
+			}
+		}
+
+		deleteEmptyDirectories(emptied);
+
+		writeIndex(new Index(entries, index.getCacheTree(), null));
+
+		return changedCount;
+	}
+
+	public Path getPackedReferencesFile() {
+		return getReferences().getPackedReferencesFile();
+	}
+
+	public Path getLooseObjectPath(String hash) {
+		return getLooseObjectDatabase().getPath(hash);
+	}
+
+	public LooseObjectDatabase getLooseObjectDatabase() {
+		if (looseObjectDatabase == null) {
+			looseObjectDatabase = new LooseObjectDatabase(getObjectsDirectory());
+		}
+
+		return looseObjectDatabase;
+	}
+
+	public PackObjectDatabase getPackObjectDatabase() {
+		if (packObjectDatabase == null) {
+			packObjectDatabase = new PackObjectDatabase(getPackDirectory());
+		}
+
+		return packObjectDatabase;
+	}
+
+	public WritableObjectDatabase getObjectDatabase() throws IOException {
+		if (objectDatabase == null) {
+			final var databases = new ArrayList<ObjectDatabase>(List.of(getLooseObjectDatabase(), getPackObjectDatabase()));
+			final var packDatabases = new ArrayList<PackObjectDatabase>();
+
+			for (final var alternate : getAlternates()) {
+				final var packDatabase = new PackObjectDatabase(alternate.resolve("pack"));
+
+				databases.add(new LooseObjectDatabase(alternate));
+				databases.add(packDatabase);
+				packDatabases.add(packDatabase);
+			}
+
+			alternatePackObjectDatabases = packDatabases;
+			objectDatabase = new CompositeObjectDatabase(databases, getLooseObjectDatabase());
+		}
+
+		return objectDatabase;
+	}
+
+	public List<Path> getAlternates() throws IOException {
+		if (alternates == null) {
+			final var seen = new LinkedHashSet<Path>();
+			seen.add(getObjectsDirectory().toAbsolutePath().normalize());
+
+			readAlternates(getObjectsDirectory(), seen, 0);
+
+			alternates = List.copyOf(seen).subList(1, seen.size());
+		}
+
+		return alternates;
+	}
+
+	private static void readAlternates(Path objectsDirectory, Set<Path> seen, int depth) throws IOException {
+		final var file = objectsDirectory.resolve("info").resolve("alternates");
+		if (!Files.isRegularFile(file)) {
+			return;
+		}
+
+		if (depth >= MAX_ALTERNATE_DEPTH) {
+			System.err.println("warning: ignoring alternates of %s: nested too deep".formatted(objectsDirectory));
+			return;
+		}
+
+		for (final var line : Files.readAllLines(file)) {
+			final var trimmed = line.strip();
+			if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+				continue;
+			}
+
+			final var alternate = objectsDirectory.resolve(trimmed).toAbsolutePath().normalize();
+			if (!Files.isDirectory(alternate)) {
+				System.err.println("warning: ignoring missing alternate object store %s".formatted(alternate));
+				continue;
+			}
+
+			if (seen.add(alternate)) {
+				readAlternates(alternate, seen, depth + 1);
+			}
+		}
+	}
+
+	public void addAlternate(Path objectsDirectory) throws IOException {
+		final var file = getAlternatesFile();
+		Files.createDirectories(file.getParent());
+
+		final var line = objectsDirectory.toAbsolutePath().normalize() + "\n";
+		Files.writeString(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+		alternates = null;
+		objectDatabase = null;
+		alternatePackObjectDatabases = List.of();
+	}
+
+	public void setObjectDatabase(WritableObjectDatabase objectDatabase) {
+		this.objectDatabase = objectDatabase;
+	}
+
+	public GitConfig getConfig() throws IOException {
+		if (config == null) {
+			config = GitConfig.load(getConfigFile());
+		}
+
+		return config;
+	}
+
+	public void saveConfig() throws IOException {
+		getConfig().save(getConfigFile());
+	}
+
+	public List<PackFile> getPacks() throws IOException {
+		return getPackObjectDatabase().getPacks();
+	}
+
+	public void reloadPacks() {
+		getPackObjectDatabase().reload();
+		alternatePackObjectDatabases.forEach(PackObjectDatabase::reload);
+		bitmapIndex = null;
+	}
+
+	public PackBitmapIndex getBitmapIndex() throws IOException {
+		final var snapshot = getPackObjectDatabase().getSnapshot();
+
+		final var current = bitmapIndex;
+		if (current != null && current.snapshot() == snapshot) {
+			return current.index();
+		}
+
+		PackBitmapIndex loaded = null;
+		for (final var pack : snapshot.packs()) {
+			if (!Files.exists(PackBitmapIndex.pathFor(pack))) {
+				continue;
+			}
+
+			try {
+				loaded = PackBitmapIndex.open(pack);
+				break;
+			} catch (IOException exception) {
+				System.err.println("warning: ignoring bitmap for %s: %s".formatted(pack.getPath().getFileName(), exception.getMessage()));
+			}
+		}
+
+		bitmapIndex = new LoadedBitmapIndex(snapshot, loaded);
+		return loaded;
+	}
+
+	public MultiPackIndex getMultiPackIndex() throws IOException {
+		return getPackObjectDatabase().getMultiPackIndex();
+	}
+
+	public boolean hasObject(String hash) throws IOException {
+		return getObjectDatabase().has(hash);
+	}
+
+	public PackFile findPack(String hash) throws IOException {
+		final var pack = getPackObjectDatabase().find(hash);
+		if (pack != null) {
+			return pack;
+		}
+
+		getObjectDatabase();
+		for (final var packDatabase : alternatePackObjectDatabases) {
+			final var alternatePack = packDatabase.find(hash);
+
+			if (alternatePack != null) {
+				return alternatePack;
+			}
+		}
+
+		return null;
+	}
+
+	public MultiPackIndex writeMultiPackIndex() throws IOException, NoSuchAlgorithmException {
+		reloadPacks();
+
+		final var path = getMultiPackIndexFile();
+		final var currentPacks = getPacks();
+
+		if (currentPacks.isEmpty()) {
+			Files.deleteIfExists(path);
+			reloadPacks();
+
+			return null;
+		}
+
+		final var temporary = Files.createTempFile(getPackDirectory(), "tmp_midx_", "");
+		try {
+			try (final var outputStream = new BufferedOutputStream(Files.newOutputStream(temporary), FILE_BUFFER_SIZE)) {
+				MultiPackIndexWriter.write(currentPacks, outputStream);
+			}
+
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+
+		reloadPacks();
+
+		return getMultiPackIndex();
+	}
+
+	public void verifyMultiPackIndex() throws IOException, NoSuchAlgorithmException {
+		final var snapshot = getPackObjectDatabase().getSnapshot();
+		final var index = snapshot.multiPackIndex();
+		if (index == null) {
+			throw new IOException("no usable multi-pack-index");
+		}
+
+		final var digest = MessageDigest.getInstance("SHA-1");
+		digest.update(index.getContent());
+		if (!Arrays.equals(digest.digest(), index.getChecksum())) {
+			throw new IOException("multi-pack-index checksum mismatch");
+		}
+
+		for (var position = 0; position < index.getObjectCount(); ++position) {
+			final var hash = index.getHash(position);
+			final var pack = snapshot.multiPackIndexPacks().get(index.getPackId(position));
+			final var packPosition = pack.getIndex().find(hash);
+
+			if (packPosition == -1 || pack.getIndex().getOffset(packPosition) != index.getOffset(position)) {
+				throw new IOException("multi-pack-index entry for %s does not match %s".formatted(hash, pack.getPath().getFileName()));
+			}
+		}
+	}
+
+	public ReferenceDatabase getReferences() {
+		if (references == null) {
+			references = new ReferenceDatabase(getDotGit());
+		}
+
+		return references;
+	}
+
+	public String resolveReference(String name) throws IOException {
+		return getReferences().resolve(name);
+	}
+
+	public String readSymbolicReference(String name) throws IOException {
+		return getReferences().readSymbolic(name);
+	}
+
+	public List<Reference> listReferences(String prefix) throws IOException {
+		return getReferences().list(prefix);
+	}
+
+	public void updateReference(String name, String hash) throws IOException {
+		getReferences().update(name, hash);
+	}
+
+	public void updateSymbolicReference(String name, String target) throws IOException {
+		getReferences().updateSymbolic(name, target);
+	}
+
+	public String getPromisorRemote() throws IOException {
+		return getConfig().get("extensions", null, "partialclone").orElse(null);
+	}
+
+	public void fetchPromisedObjects(Collection<String> hashes) throws IOException {
+		final var remoteName = getPromisorRemote();
+		if (remoteName == null) {
+			return;
+		}
+
+		final var missingHashes = new ArrayList<String>();
+		for (final var hash : hashes) {
+			if (!hasObject(hash)) {
+				missingHashes.add(hash);
+			}
+		}
+
+		if (missingHashes.isEmpty()) {
+			return;
+		}
+
+		final var url = getConfig().get("remote", remoteName, "url")
+			.orElseThrow(() -> new IllegalStateException("promisor remote has no url: " + remoteName));
+
+		final var transport = Transport.open(URI.create(url));
+		transport.fetchReferences();
+
+		for (var start = 0; start < missingHashes.size(); start += PROMISOR_FETCH_BATCH_SIZE) {
+			final var end = Math.min(start + PROMISOR_FETCH_BATCH_SIZE, missingHashes.size());
+
+			try {
+				transport.fetch(this, missingHashes.subList(start, end), Negotiator.none(), null);
+			} catch (DataFormatException | NoSuchAlgorithmException exception) {
+				throw new IOException("could not unpack promised objects", exception);
+			}
+		}
+	}
+
+	private void fetchIfPromised(String hash) throws IOException {
+		if (!hasObject(hash) && getPromisorRemote() != null) {
+			fetchPromisedObjects(List.of(hash));
+		}
+	}
+
+	public String resolveObjectName(String name) throws IOException {
+		if (name.length() == HASH_STRING_LENGTH && name.chars().allMatch(HexFormat::isHexDigit)) {
+			return name.toLowerCase();
+		}
+
+		for (final var candidate : List.of(name, "refs/" + name, "refs/tags/" + name, HEADS_PREFIX + name, REMOTES_PREFIX + name, REMOTES_PREFIX + name + "/" + HEAD)) {
+			final var hash = resolveReference(candidate);
+
+			if (hash != null) {
+				return hash;
+			}
+		}
+
+		return null;
+	}
+
+	public String resolveTreeHash(String name) throws IOException {
+		final var hash = resolveObjectName(name);
+		if (hash == null) {
+			return null;
+		}
+
+		final var info = readObjectInfo(hash);
+		if (info == null) {
+			return null;
+		}
+
+		if (info.type() == ObjectType.COMMIT) {
+			return readCommit(hash).treeHash();
+		}
+
+		return hash;
+	}
+
+	public ObjectInfo readObjectInfo(String hash) throws IOException {
+		fetchIfPromised(hash);
+
+		return getObjectDatabase().open(hash);
+	}
+
 	public Blob readBlob(String hash) throws FileNotFoundException, IOException {
 		return readObject(ObjectType.BLOB, hash);
 	}
@@ -89,118 +639,304 @@ public class Git {
 		return readObject(ObjectType.TREE, hash);
 	}
 
-	public <T extends GitObject> T readObject(ObjectType<T> type, String hash) throws FileNotFoundException, IOException {
-		final var first2 = hash.substring(0, 2);
-		final var remaining38 = hash.substring(2);
-
-		final var path = getObjectsDirectory().resolve(first2).resolve(remaining38);
+	public Tag readTag(String hash) throws FileNotFoundException, IOException {
+		return readObject(ObjectType.TAG, hash);
+	}
 
-		try (
-			final var inputStream = new FileInputStream(path.toFile());
-			final var inflaterInputStream = new InflaterInputStream(inputStream)
-		) {
-			final var builder = new StringBuilder();
+	public String peelToCommit(String hash) throws IOException {
+		var current = hash;
 
-			int value;
-			while ((value = inflaterInputStream.read()) != -1 && value != ' ') {
-				builder.append((char) value);
+		while (true) {
+			final var info = readObjectInfo(current);
+			if (info == null) {
+				return null;
 			}
 
-			final var typeString = builder.toString();
-			if (!type.getName().equals(typeString)) {
-				throw new IllegalArgumentException("trying to read %s as %s (%s)".formatted(typeString, type.getName(), hash));
+			if (info.type() == ObjectType.COMMIT) {
+				return current;
 			}
 
-			builder.setLength(0);
-			while ((value = inflaterInputStream.read()) != -1 && value != 0) {
-				builder.append((char) value);
+			if (info.type() != ObjectType.TAG) {
+				return null;
 			}
 
-			@SuppressWarnings("unused")
-			final var length = Integer.parseInt(builder.toString());
+			current = readTag(current).objectHash();
+		}
+	}
 
-			return type.deserialize(new DataInputStream(inflaterInputStream));
+	public <T extends GitObject> T readObject(ObjectType<T> type, String hash) throws FileNotFoundException, IOException {
+		final var object = readRawObject(hash);
+		if (object.type() != type) {
+			throw new IllegalArgumentException("trying to read %s as %s (%s)".formatted(object.type().getName(), type.getName(), hash));
 		}
+
+		return type.deserialize(object.content());
 	}
 
 	public RawObject readRawObject(String hash) throws FileNotFoundException, IOException {
-		final var first2 = hash.substring(0, 2);
-		final var remaining38 = hash.substring(2);
+		fetchIfPromised(hash);
+
+		final var object = getObjectDatabase().read(hash);
+		if (object == null) {
+			throw new FileNotFoundException("object not found: " + hash);
+		}
+
+		return object;
+	}
+
+	@SuppressWarnings("unchecked")
+	public String writeObject(git.domain.GitObject object) throws IOException, NoSuchAlgorithmException {
+		final var objectType = ObjectType.byClass(object.getClass());
+
+		return writeRawObject(new RawObject(objectType, objectType.serializeContent(object)));
+	}
 
-		final var path = getObjectsDirectory().resolve(first2).resolve(remaining38);
+	public String writeRawObject(RawObject object) throws IOException, NoSuchAlgorithmException {
+		return getObjectDatabase().insert(object);
+	}
 
-		try (
-			final var inputStream = new FileInputStream(path.toFile());
-			final var inflaterInputStream = new InflaterInputStream(inputStream)
-		) {
-			final var builder = new StringBuilder();
+	public List<String> writeRawObjects(Collection<RawObject> objects) throws IOException {
+		return getObjectDatabase().insertAll(objects);
+	}
 
-			int value;
-			while ((value = inflaterInputStream.read()) != -1 && value != ' ') {
-				builder.append((char) value);
+	public List<String> listLooseObjects() throws IOException {
+		return getLooseObjectDatabase().list();
+	}
+
+	public ObjectCounts countObjects() throws IOException {
+		final var looseHashes = listLooseObjects();
+
+		var size = 0L;
+		var prunePackable = 0;
+		for (final var hash : looseHashes) {
+			size += Files.size(getLooseObjectPath(hash));
+
+			if (findPack(hash) != null) {
+				++prunePackable;
 			}
+		}
+
+		var inPack = 0;
+		var sizePack = 0L;
+		final var currentPacks = getPacks();
+		for (final var pack : currentPacks) {
+			inPack += pack.getIndex().getObjectCount();
+			sizePack += Files.size(pack.getPath());
+			sizePack += Files.size(pack.getPath().resolveSibling(MultiPackIndexWriter.indexName(pack)));
+		}
+
+		return new ObjectCounts(looseHashes.size(), size, inPack, currentPacks.size(), sizePack, prunePackable);
+	}
 
-			final var type = ObjectType.byName(builder.toString());
+	public int countReachableObjects() throws IOException {
+		final var tips = listTips();
 
-			builder.setLength(0);
-			while ((value = inflaterInputStream.read()) != -1 && value != 0) {
-				builder.append((char) value);
+		final var bitmapWalker = BitmapWalker.open(this);
+		if (bitmapWalker != null) {
+			final var reachable = bitmapWalker.reach(tips);
+
+			if (reachable != null) {
+				return reachable.cardinality();
 			}
+		}
+
+		return new ObjectWalker(this).walk(tips, List.of(), null).size();
+	}
 
-			final var length = Integer.parseInt(builder.toString());
-			final var content = inflaterInputStream.readNBytes(length);
+	public RepackResult repack(RepackOptions options) throws IOException, NoSuchAlgorithmException {
+		final var looseHashes = listLooseObjects();
+		final var hashes = new LinkedHashSet<String>(looseHashes);
 
-			return new RawObject(type, content);
+		final var oldPacks = options.all() ? getPacks() : List.<PackFile>of();
+		for (final var pack : oldPacks) {
+			final var index = pack.getIndex();
+
+			for (var position = 0; position < index.getObjectCount(); ++position) {
+				hashes.add(index.getHash(position));
+			}
 		}
+
+		if (hashes.isEmpty()) {
+			return null;
+		}
+
+		final var packDirectory = getPackDirectory();
+		Files.createDirectories(packDirectory);
+
+		final var writer = new PackWriter(this);
+		writer.setWindow(options.window());
+		writer.setDepth(options.depth());
+		writer.setThreads(options.threads());
+		writer.setReuseDeltas(options.reuseDeltas());
+		writer.setOffsetDeltas(true);
+		final var paths = collectPaths();
+		writer.setPaths(paths);
+
+		final var temporaryPack = Files.createTempFile(packDirectory, "tmp_pack_", "");
+		final var temporaryIndex = Files.createTempFile(packDirectory, "tmp_idx_", "");
+
+		final Path packPath;
+		final Path indexPath;
+
+		try {
+			byte[] checksum;
+			try (final var outputStream = new BufferedOutputStream(Files.newOutputStream(temporaryPack), FILE_BUFFER_SIZE)) {
+				checksum = writer.write(hashes, outputStream);
+			}
+
+			try (final var outputStream = new BufferedOutputStream(Files.newOutputStream(temporaryIndex), FILE_BUFFER_SIZE)) {
+				PackIndexWriter.write(writer.getWrittenObjects(), checksum, outputStream);
+			}
+
+			final var name = "pack-" + HEX.formatHex(checksum);
+			packPath = packDirectory.resolve(name + PackFile.PACK_EXTENSION);
+			indexPath = packDirectory.resolve(name + PackFile.INDEX_EXTENSION);
+
+			Files.move(temporaryPack, packPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			Files.move(temporaryIndex, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryPack);
+			Files.deleteIfExists(temporaryIndex);
+		}
+
+		final var pack = PackFile.open(indexPath);
+		for (final var object : writer.getWrittenObjects()) {
+			final var hash = hashRawObject(pack.read(object.hash()));
+
+			if (!hash.equals(object.hash())) {
+				throw new IOException("pack verification failed for %s: got %s".formatted(object.hash(), hash));
+			}
+		}
+
+		var bitmapWritten = false;
+		if (options.writeBitmap() && options.all()) {
+			bitmapWritten = writeBitmapIndex(pack, paths);
+		}
+
+		var prunedCount = 0;
+		if (options.deleteRedundant()) {
+			for (final var hash : looseHashes) {
+				if (Files.deleteIfExists(getLooseObjectPath(hash))) {
+					++prunedCount;
+				}
+			}
+
+			try (final var directories = Files.list(getObjectsDirectory())) {
+				for (final var directory : (Iterable<Path>) directories::iterator) {
+					if (directory.getFileName().toString().length() == 2 && isEmptyDirectory(directory)) {
+						Files.delete(directory);
+					}
+				}
+			}
+
+			for (final var oldPack : oldPacks) {
+				if (oldPack.getPath().equals(packPath)) {
+					continue;
+				}
+
+				final var fileName = oldPack.getPath().getFileName().toString();
+				final var baseName = fileName.substring(0, fileName.length() - PackFile.PACK_EXTENSION.length());
+
+				Files.deleteIfExists(packDirectory.resolve(baseName + PackFile.INDEX_EXTENSION));
+				Files.deleteIfExists(oldPack.getPath());
+
+				for (final var extension : List.of(".bitmap", ".rev", ".promisor")) {
+					Files.deleteIfExists(packDirectory.resolve(baseName + extension));
+				}
+			}
+		}
+
+		reloadPacks();
+
+		if (Files.exists(getMultiPackIndexFile())) {
+			writeMultiPackIndex();
+		}
+
+		return new RepackResult(packPath, hashes.size(), writer.getReusedCount(), writer.getDeltaCount(), prunedCount, bitmapWritten);
 	}
 
-	@SuppressWarnings("unchecked")
-	public String writeObject(git.domain.GitObject object) throws IOException, NoSuchAlgorithmException {
-		final var objectType = ObjectType.byClass(object.getClass());
+	private boolean writeBitmapIndex(PackFile pack, Map<String, String> paths) throws IOException, NoSuchAlgorithmException {
+		final var bitmapPath = PackBitmapIndex.pathFor(pack);
+		final var temporary = Files.createTempFile(getPackDirectory(), "tmp_bitmap_", "");
+
+		try {
+			boolean written;
+			try (final var outputStream = new BufferedOutputStream(Files.newOutputStream(temporary), FILE_BUFFER_SIZE)) {
+				written = new PackBitmapWriter(this, pack).write(listTips(), paths, outputStream);
+			}
+
+			if (!written) {
+				System.err.println("warning: some reachable objects are not in the pack, not writing a bitmap");
+				return false;
+			}
 
-		return writeRawObject(objectType.serialize(object));
+			Files.move(temporary, bitmapPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
 	}
 
-	public String writeRawObject(RawObject object) throws IOException, NoSuchAlgorithmException {
-		final var content = object.content();
-		final var lengthBytes = String.valueOf(content.length).getBytes();
+	public Set<String> listTips() throws IOException {
+		final var tips = new LinkedHashSet<String>();
 
-		byte[] data;
-		try (
-			final var outputStream = new ByteArrayOutputStream();
-			final var dataOutputStream = new DataOutputStream(outputStream)
-		) {
-			outputStream.write(object.type().getName().getBytes());
-			outputStream.write(SPACE_BYTES);
-			outputStream.write(lengthBytes);
-			outputStream.write(NULL_BYTES);
-			outputStream.write(content);
+		final var headHash = resolveReference(HEAD);
+		if (headHash != null) {
+			tips.add(headHash);
+		}
 
-			data = outputStream.toByteArray();
+		for (final var reference : listReferences("refs/")) {
+			tips.add(reference.hash());
 		}
 
-		return writeRawObject(data);
+		return tips;
 	}
 
-	public String writeRawObject(byte[] data) throws IOException, NoSuchAlgorithmException {
-		final var hashBytes = MessageDigest.getInstance("SHA-1").digest(data);
-		final var hash = HexFormat.of().formatHex(hashBytes);
+	public Set<String> listAlternateTips() throws IOException {
+		final var tips = new LinkedHashSet<String>();
 
-		final var first2 = hash.substring(0, 2);
-		final var first2Directory = getObjectsDirectory().resolve(first2);
-		Files.createDirectories(first2Directory);
+		for (final var alternate : getAlternates()) {
+			final Git repository;
+			try {
+				repository = openBare(alternate.getParent());
+			} catch (NoSuchFileException exception) {
+				continue;
+			}
 
-		final var remaining38 = hash.substring(2);
-		final var path = first2Directory.resolve(remaining38);
+			for (final var tip : repository.listTips()) {
+				final var commitHash = repository.peelToCommit(tip);
 
-		try (
-			final var outputStream = Files.newOutputStream(path);
-			final var deflaterOutputStream = new DeflaterOutputStream(outputStream);
-		) {
-			deflaterOutputStream.write(data);
+				if (commitHash != null) {
+					tips.add(commitHash);
+				}
+			}
 		}
 
-		return hash;
+		return tips;
+	}
+
+	private Map<String, String> collectPaths() throws IOException {
+		final var walker = new ObjectWalker(this);
+		walker.walk(listTips(), List.of(), null);
+
+		return walker.getPaths();
+	}
+
+	private static boolean isEmptyDirectory(Path directory) throws IOException {
+		try (final var entries = Files.list(directory)) {
+			return entries.findAny().isEmpty();
+		}
+	}
+
+	public static String hashRawObject(RawObject object) throws NoSuchAlgorithmException {
+		final var digest = MessageDigest.getInstance("SHA-1");
+		digest.update(object.type().getName().getBytes());
+		digest.update(SPACE_BYTES);
+		digest.update(String.valueOf(object.content().length).getBytes());
+		digest.update(NULL_BYTES);
+		digest.update(object.content());
+
+		return HEX.formatHex(digest.digest());
 	}
 
 	public String writeBlob(Path path) throws IOException, NoSuchAlgorithmException {
@@ -210,23 +946,62 @@ public class Git {
 		return writeObject(blob);
 	}
 
+	public static String hashBlob(Path path) throws IOException, NoSuchAlgorithmException {
+		return hashRawObject(new RawObject(ObjectType.BLOB, Files.readAllBytes(path)));
+	}
+
 	public String writeTree(Path root) throws IOException, NoSuchAlgorithmException {
-		final var fileNames = Files.list(root)
-			.map(Path::getFileName)
-			.filter(Predicate.not(FORBIDDEN_DIRECTORIES::contains))
-			.toList();
+		final var tracked = new HashSet<String>();
+
+		if (Files.exists(getIndexFile())) {
+			for (final var entry : readIndex().getEntries()) {
+				final var path = entry.path();
+				tracked.add(path);
+
+				for (var slash = path.indexOf('/'); slash != -1; slash = path.indexOf('/', slash + 1)) {
+					tracked.add(path.substring(0, slash));
+				}
+			}
+		}
+
+		final var hash = writeTree(root, "", IgnoreStack.load(this), tracked, false);
+
+		return hash == null ? writeObject(new Tree(List.of())) : hash;
+	}
+
+	private String writeTree(Path directory, String prefix, IgnoreStack ignores, Set<String> tracked, boolean ignored) throws IOException, NoSuchAlgorithmException {
+		final var directoryIgnores = ignores.enter(directory, prefix);
+
+		final List<Path> fileNames;
+		try (final var children = Files.list(directory)) {
+			fileNames = children
+				.map(Path::getFileName)
+				.filter(Predicate.not(FORBIDDEN_DIRECTORIES::contains))
+				.toList();
+		}
 
 		final var entries = new ArrayList<TreeEntry>();
 
 		for (final var fileName : fileNames) {
-			final var path = root.resolve(fileName);
+			final var path = directory.resolve(fileName);
+			final var relative = prefix + fileName;
+			final var isDirectory = Files.isDirectory(path);
+
+			final var childIgnored = ignored || directoryIgnores.isIgnored(relative, isDirectory);
+			if (childIgnored && !tracked.contains(relative)) {
+				continue;
+			}
 
 			String hash;
 			TreeEntryMode mode;
 
-			if (Files.isDirectory(path)) {
-				hash = writeTree(path);
+			if (isDirectory) {
+				hash = writeTree(path, relative + "/", directoryIgnores, tracked, childIgnored);
 				mode = TreeEntryMode.directory();
+
+				if (hash == null) {
+					continue;
+				}
 			} else if (Files.isRegularFile(path)) {
 				hash = writeBlob(path);
 
@@ -243,6 +1018,10 @@ public class Git {
 			entries.add(new TreeEntry(mode, fileName.toString(), hash));
 		}
 
+		if (entries.isEmpty()) {
+			return null;
+		}
+
 		Collections.sort(entries);
 		final var tree = new Tree(entries);
 
@@ -252,35 +1031,251 @@ public class Git {
 	public String writeCommit(String treeHash, String parentHash, AuthorSignature author, String message) throws NoSuchAlgorithmException, IOException {
 		return writeObject(new Commit(
 			treeHash,
-			parentHash,
+			parentHash == null ? List.of() : List.of(parentHash),
 			author,
 			author,
 			message
 		));
 	}
 
+	public void unpack(byte[] pack) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		unpack(Channels.newChannel(new ByteArrayInputStream(pack)));
+	}
+
+	public void unpack(Path pack) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		try (final var channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+			unpack(channel);
+		}
+	}
+
+	public void unpack(ReadableByteChannel pack) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		Files.createDirectories(getObjectsDirectory());
+
+		final var packParser = new PackParser(pack);
+		packParser.setBigFileThreshold(getBigFileThreshold());
+		packParser.setSpillDirectory(getObjectsDirectory());
+
+		final List<PackObject> objects;
+		try (final var phase = Trace.phase("parse pack")) {
+			objects = packParser.parse();
+		}
+
+		try {
+			try (final var phase = Trace.phase("write objects")) {
+				final var undeltifiedObjects = new ArrayList<RawObject>();
+
+				for (final var object : objects) {
+					if (object instanceof PackObject.Spilled spilled) {
+						final var path = getLooseObjectPath(spilled.hash());
+						Files.createDirectories(path.getParent());
+						Files.move(spilled.path(), path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+						continue;
+					}
+
+					if (object instanceof PackObject.Undeltified undeltified) {
+						undeltifiedObjects.add(new RawObject(undeltified.type(), undeltified.content()));
+					}
+				}
+
+				writeRawObjects(undeltifiedObjects);
+			}
+
+			try (final var phase = Trace.phase("resolve deltas")) {
+				for (final var object : objects) {
+					if (!(object instanceof PackObject.Deltified deltified)) {
+						continue;
+					}
+
+					final var base = readRawObject(deltified.baseHash());
+					final var content = DeltaApplier.apply(base.content(), deltified.delta());
+
+					writeRawObject(new RawObject(base.type(), content));
+				}
+			}
+		} finally {
+			PackParser.deleteSpilled(objects);
+		}
+	}
+
+	public void addRemote(String name, URI uri) throws IOException {
+		final var config = getConfig();
+		config.set("remote", name, "url", uri.toString());
+		config.set("remote", name, "fetch", RefSpec.defaultFetch(name).format());
+		saveConfig();
+	}
+
+	public List<ReferenceUpdate> fetch(String remoteName) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		final var config = getConfig();
+
+		final var url = config.get("remote", remoteName, "url")
+			.orElseThrow(() -> new IllegalArgumentException("unknown remote: " + remoteName));
+
+		var refSpecs = config.getAll("remote", remoteName, "fetch").stream()
+			.map(RefSpec::parse)
+			.toList();
+
+		if (refSpecs.isEmpty()) {
+			refSpecs = List.of(RefSpec.defaultFetch(remoteName));
+		}
+
+		final var transport = Transport.open(URI.create(url));
+
+		final List<Reference> remoteReferences;
+		try (final var phase = Trace.phase("ref discovery")) {
+			remoteReferences = transport.fetchReferences();
+		}
+
+		final var updates = new ArrayList<ReferenceUpdate>();
+		final var wants = new LinkedHashSet<String>();
+
+		for (final var reference : remoteReferences) {
+			for (final var refSpec : refSpecs) {
+				if (!refSpec.matches(reference.name())) {
+					continue;
+				}
+
+				final var localName = refSpec.map(reference.name());
+				updates.add(new ReferenceUpdate(localName, resolveReference(localName), reference.hash()));
+
+				if (!hasObject(reference.hash())) {
+					wants.add(reference.hash());
+				}
+
+				break;
+			}
+		}
+
+		if (!wants.isEmpty()) {
+			final var negotiator = new CommitNegotiator(this);
+
+			for (final var prefix : List.of(HEADS_PREFIX, REMOTES_PREFIX)) {
+				for (final var reference : listReferences(prefix)) {
+					negotiator.addTip(reference.hash());
+				}
+			}
+
+			for (final var tip : listAlternateTips()) {
+				negotiator.addTip(tip);
+			}
+
+			final var filter = config.get("remote", remoteName, "partialclonefilter")
+				.map(ObjectFilter::parse)
+				.orElse(null);
+
+			transport.fetch(this, wants, negotiator, filter);
+		}
+
+		for (final var update : updates) {
+			if (!update.isUnchanged()) {
+				updateReference(update.name(), update.newHash());
+			}
+		}
+
+		final var remoteHeadName = REMOTES_PREFIX + remoteName + "/" + HEAD;
+		if (readSymbolicReference(remoteHeadName) == null) {
+			final var remoteHead = transport.getRemoteHead(remoteReferences);
+
+			if (remoteHead != null) {
+				for (final var refSpec : refSpecs) {
+					if (refSpec.matches(remoteHead)) {
+						updateSymbolicReference(remoteHeadName, refSpec.map(remoteHead));
+						break;
+					}
+				}
+			}
+		}
+
+		return updates;
+	}
+
+	public CheckoutReport checkout(String commitHash, String branch, boolean force) throws IOException {
+		final var checkout = new Checkout(this);
+		checkout.setForce(force);
+
+		final var report = checkout.run(commitHash);
+
+		if (branch == null) {
+			updateReference(HEAD, commitHash);
+		} else {
+			if (resolveReference(HEADS_PREFIX + branch) == null) {
+				updateReference(HEADS_PREFIX + branch, commitHash);
+			}
+
+			updateSymbolicReference(HEAD, HEADS_PREFIX + branch);
+		}
+
+		return report;
+	}
+
 	public void checkout(Tree tree) throws FileNotFoundException, IOException {
 		checkout(tree, root);
 	}
 
 	public void checkout(Tree tree, Path root) throws FileNotFoundException, IOException {
+		final var sparse = getSparseRoot();
+
+		if (getPromisorRemote() != null) {
+			final var missingHashes = new LinkedHashSet<String>();
+			collectMissingBlobs(tree, sparse, missingHashes);
+
+			fetchPromisedObjects(missingHashes);
+		}
+
+		checkoutTree(tree, root, sparse);
+	}
+
+	private void collectMissingBlobs(Tree tree, SparseCheckout.Node sparse, Set<String> missingHashes) throws FileNotFoundException, IOException {
 		for (final var entry : tree.entries()) {
 			switch (entry.mode().type()) {
 				case REGULAR_FILE: {
-					final var blob = readBlob(entry.hash());
+					if (!hasObject(entry.hash())) {
+						missingHashes.add(entry.hash());
+					}
+
+					break;
+				}
+
+				case DIRECTORY: {
+					final var child = sparse.child(entry.name());
+
+					if (child != null) {
+						collectMissingBlobs(readTree(entry.hash()), child, missingHashes);
+					}
+
+					break;
+				}
+
+				default: {
+					break;
+				}
+			}
+		}
+	}
+
+	private void checkoutTree(Tree tree, Path root, SparseCheckout.Node sparse) throws FileNotFoundException, IOException {
+		for (final var entry : tree.entries()) {
+			switch (entry.mode().type()) {
+				case REGULAR_FILE:
+				case SYMBOLIC_LINK: {
 					final var path = root.resolve(entry.name());
 
-					checkout(blob, path);
+					checkout(entry.hash(), path, entry.mode().type().shifted() + entry.mode().permission());
 
 					break;
 				}
 
 				case DIRECTORY: {
+					final var child = sparse.child(entry.name());
+					if (child == null) {
+						break;
+					}
+
 					final var subTree = readTree(entry.hash());
 					final var subRoot = root.resolve(entry.name());
 
 					Files.createDirectories(subRoot);
-					checkout(subTree, subRoot);
+					checkoutTree(subTree, subRoot, child);
 
 					break;
 				}
@@ -293,13 +1288,86 @@ public class Git {
 	}
 
 	public void checkout(Blob blob, Path path) throws FileNotFoundException, IOException {
-		System.err.println("checkout %s".formatted(path));
-
 		Files.write(path, blob.data());
+		Counter.WRITTEN.add(blob.data().length);
+	}
+
+	public void checkout(Blob blob, Path path, int mode) throws FileNotFoundException, IOException {
+		if (mode == FileStat.SYMBOLIC_LINK_MODE && !Platform.isWindows()) {
+			Files.deleteIfExists(path);
+			Files.createSymbolicLink(path, Paths.get(new String(blob.data(), StandardCharsets.UTF_8)));
+			return;
+		}
+
+		if (Files.isSymbolicLink(path)) {
+			Files.delete(path);
+		}
+
+		checkout(blob, path);
+		applyExecutable(path, mode);
+	}
+
+	public void checkout(String hash, Path path, int mode) throws FileNotFoundException, IOException {
+		if (mode != FileStat.SYMBOLIC_LINK_MODE || Platform.isWindows()) {
+			final var looseObjectDatabase = getLooseObjectDatabase();
+			final var info = looseObjectDatabase.open(hash);
+
+			if (info != null && info.type() == ObjectType.BLOB && info.size() > getBigFileThreshold()) {
+				if (Files.isSymbolicLink(path)) {
+					Files.delete(path);
+				}
+
+				try (final var outputStream = Files.newOutputStream(path)) {
+					Counter.WRITTEN.add(looseObjectDatabase.transferTo(hash, outputStream));
+				}
+
+				applyExecutable(path, mode);
+				return;
+			}
+		}
+
+		checkout(readBlob(hash), path, mode);
+	}
+
+	private void applyExecutable(Path path, int mode) throws IOException {
+		if (mode == FileStat.EXECUTABLE_FILE_MODE && !Platform.isWindows()) {
+			final var permissions = Files.getPosixFilePermissions(path);
+
+			if (permissions.contains(PosixFilePermission.OWNER_READ)) {
+				permissions.add(PosixFilePermission.OWNER_EXECUTE);
+			}
+
+			if (permissions.contains(PosixFilePermission.GROUP_READ)) {
+				permissions.add(PosixFilePermission.GROUP_EXECUTE);
+			}
+
+			if (permissions.contains(PosixFilePermission.OTHERS_READ)) {
+				permissions.add(PosixFilePermission.OTHERS_EXECUTE);
+			}
+
+			Files.setPosixFilePermissions(path, permissions);
+		}
+	}
+
+	public void deleteEmptyDirectories(Collection<Path> directories) throws IOException {
+		final var sorted = new TreeSet<Path>(Comparator.reverseOrder());
+		sorted.addAll(directories);
+
+		for (var directory : sorted) {
+			while (!directory.equals(root) && directory.startsWith(root)) {
+				try {
+					Files.deleteIfExists(directory);
+				} catch (DirectoryNotEmptyException exception) {
+					break;
+				}
+
+				directory = directory.getParent();
+			}
+		}
 	}
 
 	public static Git init(Path root) throws IOException {
-		final var git = new Git(root);
+		final var git = new Git(root, root.resolve(DOT_GIT));
 
 		final var dotGit = git.getDotGit();
 		if (Files.exists(dotGit)) {
@@ -321,7 +1389,7 @@ public class Git {
 	}
 
 	public static Git open(Path root) throws IOException {
-		final var git = new Git(root);
+		final var git = new Git(root, root.resolve(DOT_GIT));
 
 		final var dotGit = git.getDotGit();
 		if (!Files.exists(dotGit)) {
@@ -331,71 +1399,129 @@ public class Git {
 		return git;
 	}
 
+	public static Git openBare(Path directory) throws IOException {
+		final var git = new Git(directory, directory);
+
+		if (!Files.isDirectory(git.getObjectsDirectory()) || !Files.isRegularFile(git.getHeadFile())) {
+			throw new NoSuchFileException(directory.toString());
+		}
+
+		return git;
+	}
+
 	public static Git clone(URI uri, Path path) throws IOException, DataFormatException, NoSuchAlgorithmException {
-		final var client = new GitClient(uri);
-		final var head = client.fetchReferences().getFirst();
-		final var pack = client.getPack(head);
+		return clone(uri, path, null);
+	}
 
-		final var packParser = new PackParser(ByteBuffer.wrap(pack));
-		final var objects = packParser.parse();
+	public static Git clone(URI uri, Path path, ObjectFilter filter) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		return clone(uri, path, filter, null);
+	}
 
-		final var git = init(path);
-		//		final var git = open(path);
+	public static Git clone(URI uri, Path path, ObjectFilter filter, Path reference) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		return clone(uri, path, filter, reference, false);
+	}
 
-		for (final var object : objects) {
-			if (!(object instanceof PackObject.Undeltified undeltified)) {
-				continue;
+	public static Git clone(URI uri, Path path, ObjectFilter filter, Path reference, boolean sparse) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		final var existed = Files.exists(path);
+		if (existed) {
+			try (final var entries = Files.list(path)) {
+				if (entries.findAny().isPresent()) {
+					throw new FileAlreadyExistsException(path.toString(), null, "destination path already exists and is not an empty directory");
+				}
 			}
-
-			final var type = undeltified.type();
-			final var hash = git.writeRawObject(new RawObject(type, undeltified.content()));
-			System.err.println("wrote %s %s".formatted(hash, type.getName()));
 		}
 
-		for (final var object : objects) {
-			if (!(object instanceof PackObject.Deltified deltified)) {
-				continue;
+		try {
+			return cloneInto(uri, path, filter, reference, sparse);
+		} catch (IOException | DataFormatException | NoSuchAlgorithmException | RuntimeException exception) {
+			try {
+				deleteClone(path, existed);
+			} catch (IOException cleanupException) {
+				exception.addSuppressed(cleanupException);
 			}
 
-			final var baseHash = deltified.baseHash();
-			final var base = git.readRawObject(baseHash);
-			final var baseType = base.type();
-
-			System.err.println("apply delta %s %s".formatted(baseHash, baseType.getName()));
+			throw exception;
+		}
+	}
 
-			final var content = new byte[deltified.size()];
-			final var buffer = ByteBuffer.wrap(content);
+	private static void deleteClone(Path path, boolean keepRoot) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
 
-			for (final var instruction : deltified.instructions()) {
-				if (instruction instanceof DeltaInstruction.Copy copy) {
-					buffer.put(base.content(), copy.offset(), copy.size());
-				} else if (instruction instanceof DeltaInstruction.Insert insert) {
-					buffer.put(insert.data());
-				} else {
-					throw new UnsupportedOperationException("unknown instruction: " + instruction);
+		try (final var paths = Files.walk(path)) {
+			for (final var child : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				if (!keepRoot || !child.equals(path)) {
+					Files.delete(child);
 				}
 			}
+		}
+	}
 
-			if (buffer.hasRemaining()) {
-				throw new IllegalStateException("buffer is not full");
-			}
+	private static Git cloneInto(URI uri, Path path, ObjectFilter filter, Path reference, boolean sparse) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		final Path referenceObjects;
+		if (reference != null) {
+			referenceObjects = (Files.isDirectory(reference.resolve(DOT_GIT)) ? open(reference) : openBare(reference)).getObjectsDirectory();
+		} else {
+			referenceObjects = null;
+		}
 
-			final var hash = git.writeRawObject(new RawObject(baseType, content));
-			System.err.println("wrote %s %s".formatted(hash, baseType.getName()));
+		final var git = init(path);
+		git.addRemote(DEFAULT_REMOTE, uri);
+
+		if (referenceObjects != null) {
+			git.addAlternate(referenceObjects);
+		}
+
+		if (sparse) {
+			git.setSparseCheckout(SparseCheckout.of(List.of()));
 		}
 
-		final var headCommit = git.readCommit(head.hash());
+		if (filter != null) {
+			final var config = git.getConfig();
+			config.set("core", null, "repositoryformatversion", "1");
+			config.set("extensions", null, "partialclone", DEFAULT_REMOTE);
+			config.set("remote", DEFAULT_REMOTE, "promisor", "true");
+			config.set("remote", DEFAULT_REMOTE, "partialclonefilter", filter.spec());
+			git.saveConfig();
+		}
+
+		git.fetch(DEFAULT_REMOTE);
+
+		final var remoteHeadName = REMOTES_PREFIX + DEFAULT_REMOTE + "/" + HEAD;
+		final var remoteBranchName = git.readSymbolicReference(remoteHeadName);
+		if (remoteBranchName == null) {
+			return git;
+		}
+
+		final var branch = remoteBranchName.substring((REMOTES_PREFIX + DEFAULT_REMOTE + "/").length());
+		final var hash = git.resolveReference(remoteBranchName);
+
+		git.updateReference(HEADS_PREFIX + branch, hash);
+		git.updateSymbolicReference(HEAD, HEADS_PREFIX + branch);
+
+		final var config = git.getConfig();
+		config.set("branch", branch, "remote", DEFAULT_REMOTE);
+		config.set("branch", branch, "merge", HEADS_PREFIX + branch);
+		git.saveConfig();
+
+		final var headCommit = git.readCommit(hash);
 		final var headTree = git.readTree(headCommit.treeHash());
 
-		git.checkout(headTree);
+		try (final var phase = Trace.phase("checkout")) {
+			git.checkout(headTree);
+		}
+
+		try (final var phase = Trace.phase("write index")) {
+			git.resetIndex(headCommit.treeHash());
+		}
 
 		return git;
 	}
 
-	@SuppressWarnings("rawtypes")
-	private static record RawObject(
-		ObjectType type,
-		byte[] content
+	private static record LoadedBitmapIndex(
+		PackObjectDatabase.Snapshot snapshot,
+		PackBitmapIndex index
 	) {}
 
 }
\ No newline at end of file
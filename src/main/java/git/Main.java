@@ -1,71 +1,352 @@
 package git;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
 import java.util.zip.DataFormatException;
 
+import git.batch.CatFileBatch;
+import git.batch.HashObjectBatch;
+import git.checkout.CheckoutReport;
 import git.domain.AuthorSignature;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.fsck.Fsck;
+import git.index.Index;
+import git.pack.PackFile;
+import git.pack.RepackOptions;
+import git.protocol.ObjectFilter;
+import git.protocol.UploadPackServer;
+import git.sparse.SparseCheckout;
+import git.status.Status;
+import git.tree.DiffFormat;
+import git.tree.LsTree;
+import git.tree.TreeDiff;
 
 public class Main {
 
 	public static final Path HERE = Paths.get(".");
+	public static final String FILTER_OPTION_PREFIX = "--filter=";
+	public static final String REFERENCE_OPTION_PREFIX = "--reference=";
+	public static final String PORT_OPTION_PREFIX = "--port=";
+	public static final int DEFAULT_SERVE_PORT = 8080;
+
+	private static Path workingDirectory = HERE;
 
 	public static void main(String[] args) throws IOException, NoSuchAlgorithmException, DataFormatException {
+		workingDirectory = HERE;
+
+		var start = 0;
+		while (start + 1 < args.length && "-C".equals(args[start])) {
+			workingDirectory = workingDirectory.resolve(args[start + 1]);
+			start += 2;
+		}
+
+		if (start != 0) {
+			args = Arrays.copyOfRange(args, start, args.length);
+		}
+
 		final var command = args[0];
 
 		switch (command) {
 			case "init" -> init();
-			case "cat-file" -> catFile(args[2]);
-			case "hash-object" -> hashFile(args[2]);
-			case "ls-tree" -> lsTree(args[2]);
+			case "cat-file" -> catFile(args);
+			case "hash-object" -> hashObject(args);
+			case "ls-tree" -> lsTree(args);
+			case "diff-tree" -> diffTree(args);
+			case "diff-files" -> diffFiles(args);
+			case "status" -> status(args);
 			case "write-tree" -> writeTree();
-			case "commit-tree" -> commitTree(args[1], args[3], args[5]);
-			case "clone" -> clone(args[1], args[2]);
+			case "commit-tree" -> commitTree(args);
+			case "clone" -> clone(args);
+			case "fetch" -> fetch(args.length > 1 ? args[1] : Git.DEFAULT_REMOTE);
+			case "serve", "upload-pack" -> serve(args);
+			case "gc" -> repack(RepackOptions.defaults().withAll(true).withDeleteRedundant(true));
+			case "repack" -> repack(parseRepackOptions(args));
+			case "multi-pack-index" -> multiPackIndex(args.length > 1 ? args[1] : "");
+			case "fsck" -> fsck(args, true);
+			case "verify-pack" -> fsck(args, false);
+			case "checkout", "switch" -> checkout(args);
+			case "sparse-checkout" -> sparseCheckout(args);
+			case "pack-refs" -> packRefs(List.of(args).contains("--all"), !List.of(args).contains("--no-prune"));
+			case "count-objects" -> countObjects(List.of(args).contains("-v"), List.of(args).contains("--reachable"));
 			default -> System.out.println("Unknown command: " + command);
 		}
 	}
 
 	public static void init() throws IOException {
-		Git.init(HERE);
+		Git.init(workingDirectory);
 		System.out.println("Initialized git directory");
 	}
 
-	public static void catFile(String hash) throws IOException {
-		final var git = Git.open(HERE);
-		final var blob = git.readBlob(hash);
+	public static void catFile(String[] args) throws IOException {
+		final var options = List.of(args);
+		final var batch = options.contains("--batch");
+
+		if (batch || options.contains("--batch-check")) {
+			final var git = Git.open(workingDirectory);
+			final var outputStream = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), Git.FILE_BUFFER_SIZE);
+
+			new CatFileBatch(git, batch, options.contains("--buffer")).run(System.in, outputStream);
+			return;
+		}
+
+		final var git = Git.open(workingDirectory);
+		final var blob = git.readBlob(args[2]);
 
 		System.out.write(blob.data());
 	}
 
-	public static void hashFile(String path) throws IOException, NoSuchAlgorithmException {
-		final var git = Git.open(HERE);
-		final var hash = git.writeBlob(Paths.get(path));
+	public static void hashObject(String[] args) throws IOException, NoSuchAlgorithmException {
+		var write = false;
+		var stdin = false;
+		var stdinPaths = false;
+		var threads = Runtime.getRuntime().availableProcessors();
+		final var paths = new ArrayList<Path>();
 
-		System.out.println(hash);
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			if ("-w".equals(argument)) {
+				write = true;
+			} else if ("--stdin".equals(argument)) {
+				stdin = true;
+			} else if ("--stdin-paths".equals(argument)) {
+				stdinPaths = true;
+			} else if (argument.startsWith("--threads=")) {
+				threads = Integer.parseInt(argument.substring("--threads=".length()));
+			} else {
+				paths.add(workingDirectory.resolve(argument));
+			}
+		}
+
+		final var git = write ? Git.open(workingDirectory) : null;
+		final var outputStream = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), Git.FILE_BUFFER_SIZE), false);
+
+		if (stdin) {
+			final var object = new RawObject(ObjectType.BLOB, System.in.readAllBytes());
+			outputStream.println(write ? git.writeRawObject(object) : Git.hashRawObject(object));
+		}
+
+		for (final var path : paths) {
+			outputStream.println(write ? git.writeBlob(path) : Git.hashBlob(path));
+		}
+
+		if (stdinPaths) {
+			new HashObjectBatch(git, write, threads).run(System.in, outputStream);
+		}
+
+		outputStream.flush();
+	}
+
+	public static void lsTree(String[] args) throws IOException {
+		final var git = Git.open(workingDirectory);
+		final var lsTree = new LsTree(git);
+		String treeIsh = null;
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			switch (argument) {
+				case "-r" -> lsTree.setRecursive(true);
+				case "-t" -> lsTree.setShowTrees(true);
+				case "-d" -> lsTree.setOnlyTrees(true);
+				case "-l", "--long" -> lsTree.setShowSizes(true);
+				case "--name-only", "--name-status" -> lsTree.setNameOnly(true);
+				case "-z" -> lsTree.setNullTerminated(true);
+				default -> {
+					if (argument.startsWith("-")) {
+						throw new IllegalArgumentException("unknown ls-tree option: " + argument);
+					}
+
+					treeIsh = argument;
+				}
+			}
+		}
+
+		if (treeIsh == null) {
+			throw new IllegalArgumentException("usage: ls-tree [-r] [-t] [-d] [-l] [--name-only] [-z] <tree-ish>");
+		}
+
+		final var treeHash = git.resolveTreeHash(treeIsh);
+		if (treeHash == null) {
+			throw new IllegalArgumentException("not a valid object name: " + treeIsh);
+		}
+
+		lsTree.list(treeHash, new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), Git.FILE_BUFFER_SIZE));
+	}
+
+	public static void diffTree(String[] args) throws IOException {
+		final var git = Git.open(workingDirectory);
+		final var treeDiff = new TreeDiff(git);
+		final var format = new DiffFormat();
+		final var treeIshes = new ArrayList<String>();
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			switch (argument) {
+				case "-r" -> treeDiff.setRecursive(true);
+				case "-t" -> {
+					treeDiff.setRecursive(true);
+					treeDiff.setShowTrees(true);
+				}
+				case "--name-only" -> format.setNameOnly(true);
+				case "--name-status" -> format.setNameStatus(true);
+				case "-z" -> format.setNullTerminated(true);
+				default -> {
+					if (argument.startsWith("-")) {
+						throw new IllegalArgumentException("unknown diff-tree option: " + argument);
+					}
+
+					treeIshes.add(argument);
+				}
+			}
+		}
+
+		if (treeIshes.size() != 2) {
+			throw new IllegalArgumentException("usage: diff-tree [-r] [-t] [--name-only | --name-status] [-z] <tree-ish> <tree-ish>");
+		}
+
+		final var treeHashes = new ArrayList<String>(2);
+		for (final var treeIsh : treeIshes) {
+			final var treeHash = git.resolveTreeHash(treeIsh);
+			if (treeHash == null) {
+				throw new IllegalArgumentException("not a valid object name: " + treeIsh);
+			}
+
+			treeHashes.add(treeHash);
+		}
+
+		format.write(treeDiff.diff(treeHashes.get(0), treeHashes.get(1)), new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), Git.FILE_BUFFER_SIZE));
+	}
+
+	public static void status(String[] args) throws IOException {
+		final var git = Git.open(workingDirectory);
+		var threads = Runtime.getRuntime().availableProcessors();
+		var showUntracked = true;
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			if (argument.startsWith("--threads=")) {
+				threads = Integer.parseInt(argument.substring("--threads=".length()));
+			} else if ("-uno".equals(argument) || "--untracked-files=no".equals(argument)) {
+				showUntracked = false;
+			} else if (!"-s".equals(argument) && !"--short".equals(argument) && !"--porcelain".equals(argument)) {
+				throw new IllegalArgumentException("unknown status option: " + argument);
+			}
+		}
+
+		final var status = new Status(git, threads);
+		status.setShowUntracked(showUntracked);
+
+		final var report = status.run();
+		final var lines = new TreeMap<String, char[]>(Index::comparePaths);
+
+		for (final var change : report.staged()) {
+			lines.computeIfAbsent(change.path(), (path) -> new char[] { ' ', ' ' })[0] = change.status().letter();
+		}
+
+		for (final var change : report.unstaged()) {
+			lines.computeIfAbsent(change.path(), (path) -> new char[] { ' ', ' ' })[1] = change.status().letter();
+		}
+
+		final var outputStream = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), Git.FILE_BUFFER_SIZE), false);
+
+		for (final var line : lines.entrySet()) {
+			outputStream.print(line.getValue());
+			outputStream.print(' ');
+			printQuoted(line.getKey(), outputStream);
+		}
+
+		for (final var path : report.untracked()) {
+			outputStream.print("?? ");
+			printQuoted(path, outputStream);
+		}
+
+		outputStream.flush();
 	}
 
-	public static void lsTree(String hash) throws IOException, NoSuchAlgorithmException {
-		final var git = Git.open(HERE);
-		final var tree = git.readTree(hash);
+	public static void diffFiles(String[] args) throws IOException {
+		final var git = Git.open(workingDirectory);
+		final var format = new DiffFormat();
+		var threads = Runtime.getRuntime().availableProcessors();
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			switch (argument) {
+				case "--name-only" -> format.setNameOnly(true);
+				case "--name-status" -> format.setNameStatus(true);
+				case "-z" -> format.setNullTerminated(true);
+				default -> {
+					if (!argument.startsWith("--threads=")) {
+						throw new IllegalArgumentException("unknown diff-files option: " + argument);
+					}
 
-		for (final var entry : tree.entries()) {
-			System.out.println(entry.name());
+					threads = Integer.parseInt(argument.substring("--threads=".length()));
+				}
+			}
 		}
+
+		final var status = new Status(git, threads);
+		status.setShowStaged(false);
+		status.setShowUntracked(false);
+
+		format.write(status.run().unstaged(), new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), Git.FILE_BUFFER_SIZE));
+	}
+
+	private static void printQuoted(String path, PrintStream outputStream) throws IOException {
+		final var bytes = path.getBytes(StandardCharsets.UTF_8);
+
+		LsTree.writeQuoted(bytes, bytes.length, outputStream);
+		outputStream.print('\n');
 	}
 
 	public static void writeTree() throws IOException, NoSuchAlgorithmException {
-		final var git = Git.open(HERE);
-		final var hash = git.writeTree(HERE);
+		final var git = Git.open(workingDirectory);
+		final var hash = git.writeTree(workingDirectory);
 
 		System.out.println(hash);
 	}
 
+	public static void commitTree(String[] args) throws IOException, NoSuchAlgorithmException {
+		final var treeHash = args[1];
+		String parentHash = null;
+		String message = null;
+
+		for (var index = 2; index < args.length; ++index) {
+			switch (args[index]) {
+				case "-p" -> parentHash = args[++index];
+				case "-m" -> message = args[++index];
+				default -> throw new IllegalArgumentException("unknown option: " + args[index]);
+			}
+		}
+
+		if (message == null) {
+			throw new IllegalArgumentException("commit message is required");
+		}
+
+		commitTree(treeHash, parentHash, message);
+	}
+
 	public static void commitTree(String treeHash, String parentHash, String message) throws IOException, NoSuchAlgorithmException {
-		final var git = Git.open(HERE);
+		final var git = Git.open(workingDirectory);
 
 		final var enzo = new AuthorSignature("Caceresenzo", "caceresenzo1502@gmail.com", ZonedDateTime.now());
 		final var hash = git.writeCommit(treeHash, parentHash, enzo, message);
@@ -73,10 +354,332 @@ public class Main {
 		System.out.println(hash);
 	}
 
-	public static void clone(String uri, String path) throws IOException, NoSuchAlgorithmException, DataFormatException {
-		Git.clone(URI.create(uri), Paths.get(path));
+	public static void clone(String[] args) throws IOException, NoSuchAlgorithmException, DataFormatException {
+		ObjectFilter filter = null;
+		Path reference = null;
+		var sparse = false;
+		final var positionals = new ArrayList<String>();
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			if (argument.startsWith(FILTER_OPTION_PREFIX)) {
+				filter = ObjectFilter.parse(argument.substring(FILTER_OPTION_PREFIX.length()));
+			} else if (argument.startsWith(REFERENCE_OPTION_PREFIX)) {
+				reference = workingDirectory.resolve(argument.substring(REFERENCE_OPTION_PREFIX.length()));
+			} else if ("--reference".equals(argument)) {
+				reference = workingDirectory.resolve(args[++index]);
+			} else if ("--sparse".equals(argument)) {
+				sparse = true;
+			} else {
+				positionals.add(argument);
+			}
+		}
+
+		final var uri = positionals.get(0);
+		final var path = positionals.get(1);
+
+		Git.clone(parseRemote(uri), workingDirectory.resolve(path), filter, reference, sparse);
 
 		System.out.println("Cloned git repository");
 	}
 
+	public static void serve(String[] args) throws IOException {
+		var port = DEFAULT_SERVE_PORT;
+		var root = workingDirectory;
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			if (argument.startsWith(PORT_OPTION_PREFIX)) {
+				port = Integer.parseInt(argument.substring(PORT_OPTION_PREFIX.length()));
+			} else {
+				root = workingDirectory.resolve(argument);
+			}
+		}
+
+		final var git = Files.isDirectory(root.resolve(Git.DOT_GIT)) ? Git.open(root) : Git.openBare(root);
+		final var server = new UploadPackServer(git, new InetSocketAddress(port));
+		server.start();
+
+		System.out.println("Serving %s on http://localhost:%d/".formatted(root.toAbsolutePath().normalize(), server.getPort()));
+	}
+
+	public static RepackOptions parseRepackOptions(String[] args) {
+		var options = RepackOptions.defaults();
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			if (argument.startsWith("--window=")) {
+				options = options.withWindow(Integer.parseInt(argument.substring("--window=".length())));
+			} else if (argument.startsWith("--depth=")) {
+				options = options.withDepth(Integer.parseInt(argument.substring("--depth=".length())));
+			} else if (argument.startsWith("--threads=")) {
+				options = options.withThreads(Integer.parseInt(argument.substring("--threads=".length())));
+			} else if (argument.equals("--write-bitmap-index")) {
+				options = options.withWriteBitmap(true);
+			} else if (argument.startsWith("-") && !argument.startsWith("--")) {
+				for (final var flag : argument.substring(1).toCharArray()) {
+					options = switch (flag) {
+						case 'a' -> options.withAll(true);
+						case 'd' -> options.withDeleteRedundant(true);
+						case 'f' -> options.withReuseDeltas(false);
+						case 'b' -> options.withWriteBitmap(true);
+						default -> throw new IllegalArgumentException("unknown repack flag: -" + flag);
+					};
+				}
+			} else {
+				throw new IllegalArgumentException("unknown repack argument: " + argument);
+			}
+		}
+
+		return options;
+	}
+
+	public static void repack(RepackOptions options) throws IOException, NoSuchAlgorithmException {
+		final var git = Git.open(workingDirectory);
+
+		if (!options.writeBitmap()) {
+			options = options.withWriteBitmap(git.getConfig().getBoolean("repack", null, "writeBitmaps", git.isBare()));
+		}
+
+		final var result = git.repack(options);
+
+		if (result == null) {
+			System.out.println("Nothing new to pack.");
+			return;
+		}
+
+		System.out.println("Packed %d objects (%d deltas, %d reused) into %s, pruned %d loose objects%s".formatted(result.objectCount(), result.deltaCount(), result.reusedCount(), result.packPath().getFileName(), result.prunedCount(), result.bitmapWritten() ? ", wrote bitmap" : ""));
+	}
+
+	public static void fsck(String[] args, boolean full) throws IOException {
+		final var git = Git.open(workingDirectory);
+
+		var threads = Runtime.getRuntime().availableProcessors();
+		final var indexPaths = new ArrayList<Path>();
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			if (argument.startsWith("--threads=")) {
+				threads = Integer.parseInt(argument.substring("--threads=".length()));
+			} else if (!full) {
+				indexPaths.add(PackFile.indexPathFor(workingDirectory.resolve(argument)));
+			} else {
+				throw new IllegalArgumentException("unknown fsck argument: " + argument);
+			}
+		}
+
+		var packs = git.getPacks();
+		if (!indexPaths.isEmpty()) {
+			packs = new ArrayList<>();
+
+			for (final var indexPath : indexPaths) {
+				packs.add(PackFile.open(indexPath));
+			}
+		}
+
+		final var report = new Fsck(git, threads).run(full, packs, full);
+
+		report.warnings().forEach((warning) -> System.err.println("warning: " + warning));
+		report.errors().forEach((error) -> System.err.println("error: " + error));
+		System.out.println(report.summary());
+
+		if (!report.isOk()) {
+			System.exit(1);
+		}
+	}
+
+	public static void packRefs(boolean all, boolean prune) throws IOException {
+		final var git = Git.open(workingDirectory);
+
+		git.getReferences().pack(all, prune);
+	}
+
+	public static void countObjects(boolean verbose, boolean reachable) throws IOException {
+		final var git = Git.open(workingDirectory);
+		final var counts = git.countObjects();
+
+		if (!verbose) {
+			System.out.println("%d objects, %d kilobytes".formatted(counts.count(), counts.size() / 1024));
+		} else {
+			System.out.println("count: " + counts.count());
+			System.out.println("size: " + counts.size() / 1024);
+			System.out.println("in-pack: " + counts.inPack());
+			System.out.println("packs: " + counts.packs());
+			System.out.println("size-pack: " + counts.sizePack() / 1024);
+			System.out.println("prune-packable: " + counts.prunePackable());
+			System.out.println("garbage: 0");
+			System.out.println("size-garbage: 0");
+		}
+
+		if (reachable) {
+			System.out.println("reachable: " + git.countReachableObjects());
+		}
+	}
+
+	public static void multiPackIndex(String subcommand) throws IOException, NoSuchAlgorithmException {
+		final var git = Git.open(workingDirectory);
+
+		switch (subcommand) {
+			case "write" -> {
+				final var index = git.writeMultiPackIndex();
+
+				if (index == null) {
+					System.out.println("No packs to index.");
+				} else {
+					System.out.println("Indexed %d objects from %d packs".formatted(index.getObjectCount(), index.getPackNames().size()));
+				}
+			}
+
+			case "verify" -> {
+				git.verifyMultiPackIndex();
+				System.out.println("multi-pack-index ok");
+			}
+
+			default -> System.out.println("usage: multi-pack-index (write|verify)");
+		}
+	}
+
+	public static void checkout(String[] args) throws IOException {
+		final var git = Git.open(workingDirectory);
+		final var switching = "switch".equals(args[0]);
+
+		var force = false;
+		var detach = false;
+		String newBranch = null;
+		final var positionals = new ArrayList<String>();
+
+		for (var index = 1; index < args.length; ++index) {
+			final var argument = args[index];
+
+			switch (argument) {
+				case "-f", "--force", "--discard-changes" -> force = true;
+				case "-d", "--detach" -> detach = true;
+				case "-c", "-b" -> newBranch = args[++index];
+				default -> positionals.add(argument);
+			}
+		}
+
+		if (positionals.isEmpty() && newBranch == null) {
+			System.err.println("fatal: missing branch or commit argument");
+			System.exit(1);
+		}
+
+		final var target = positionals.isEmpty() ? Git.HEAD : positionals.get(0);
+		final var commitHash = git.resolveObjectName(target);
+		if (commitHash == null) {
+			System.err.println("fatal: invalid reference: " + target);
+			System.exit(1);
+		}
+
+		String branch = newBranch;
+		if (branch == null && !detach && git.resolveReference(Git.HEADS_PREFIX + target) != null) {
+			branch = target;
+		}
+
+		if (branch == null && !detach && switching) {
+			System.err.println("fatal: a branch is expected, got '%s'; use --detach to switch to a commit".formatted(target));
+			System.exit(1);
+		}
+
+		if (newBranch != null && git.resolveReference(Git.HEADS_PREFIX + newBranch) != null) {
+			System.err.println("fatal: a branch named '%s' already exists".formatted(newBranch));
+			System.exit(1);
+		}
+
+		final CheckoutReport report;
+		try {
+			report = git.checkout(commitHash, branch, force);
+		} catch (IllegalStateException exception) {
+			System.err.println("error: " + exception.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		System.out.println("Updated %d paths (%d written, %d deleted)".formatted(report.changes().size(), report.writtenCount(), report.deletedCount()));
+
+		if (branch == null) {
+			System.out.println("HEAD is now at " + commitHash.substring(0, 7));
+		} else if (newBranch != null) {
+			System.out.println("Switched to a new branch '%s'".formatted(branch));
+		} else {
+			System.out.println("Switched to branch '%s'".formatted(branch));
+		}
+	}
+
+	public static void sparseCheckout(String[] args) throws IOException {
+		final var git = Git.open(workingDirectory);
+		final var subcommand = args.length > 1 ? args[1] : "";
+		final var directories = List.of(args).subList(Math.min(2, args.length), args.length).stream()
+			.filter((argument) -> !argument.startsWith("--"))
+			.toList();
+
+		switch (subcommand) {
+			case "set", "init" -> {
+				git.setSparseCheckout(SparseCheckout.of(directories));
+				git.applySparseCheckout();
+			}
+
+			case "add" -> {
+				final var current = git.getSparseCheckout();
+				if (current == null) {
+					System.err.println("fatal: no sparse-checkout to add to");
+					System.exit(1);
+				}
+
+				git.setSparseCheckout(current.with(directories));
+				git.applySparseCheckout();
+			}
+
+			case "list" -> {
+				final var current = git.getSparseCheckout();
+				if (current == null) {
+					System.err.println("fatal: this worktree is not sparse");
+					System.exit(1);
+				}
+
+				for (final var directory : current.getDirectories()) {
+					System.out.println(directory);
+				}
+			}
+
+			case "reapply" -> git.applySparseCheckout();
+
+			case "disable" -> {
+				git.setSparseCheckout(null);
+				git.applySparseCheckout();
+			}
+
+			default -> System.out.println("usage: sparse-checkout (set|add|list|reapply|disable) [<directory>...]");
+		}
+	}
+
+	public static URI parseRemote(String remote) {
+		if (remote.contains("://")) {
+			return URI.create(remote);
+		}
+
+		return workingDirectory.resolve(remote).toAbsolutePath().normalize().toUri();
+	}
+
+	public static void fetch(String remoteName) throws IOException, NoSuchAlgorithmException, DataFormatException {
+		final var git = Git.open(workingDirectory);
+		final var updates = git.fetch(remoteName);
+
+		for (final var update : updates) {
+			if (update.isUnchanged()) {
+				continue;
+			}
+
+			if (update.isCreation()) {
+				System.out.println(" * [new ref] %s".formatted(update.name()));
+			} else {
+				System.out.println("   %s..%s %s".formatted(update.oldHash().substring(0, 7), update.newHash().substring(0, 7), update.name()));
+			}
+		}
+	}
+
 }
\ No newline at end of file
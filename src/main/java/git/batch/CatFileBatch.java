@@ -0,0 +1,77 @@
+package git.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import git.Git;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class CatFileBatch {
+
+	private final Git git;
+	private final boolean contents;
+	private final boolean buffer;
+
+	public void run(InputStream inputStream, OutputStream outputStream) throws IOException {
+		final var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			final var name = line.strip();
+
+			if (!name.isEmpty()) {
+				process(name, outputStream);
+			}
+
+			if (!buffer) {
+				outputStream.flush();
+			}
+		}
+
+		outputStream.flush();
+	}
+
+	private void process(String name, OutputStream outputStream) throws IOException {
+		final var hash = git.resolveObjectName(name);
+		if (hash == null) {
+			writeMissing(name, outputStream);
+			return;
+		}
+
+		if (!contents) {
+			final var info = git.readObjectInfo(hash);
+			if (info == null) {
+				writeMissing(name, outputStream);
+				return;
+			}
+
+			writeHeader(hash, info.type().getName(), info.size(), outputStream);
+			return;
+		}
+
+		if (!git.hasObject(hash) && git.getPromisorRemote() == null) {
+			writeMissing(name, outputStream);
+			return;
+		}
+
+		final var object = git.readRawObject(hash);
+
+		writeHeader(hash, object.type().getName(), object.content().length, outputStream);
+		outputStream.write(object.content());
+		outputStream.write('\n');
+	}
+
+	private static void writeHeader(String hash, String type, long size, OutputStream outputStream) throws IOException {
+		outputStream.write("%s %s %d\n".formatted(hash, type, size).getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static void writeMissing(String name, OutputStream outputStream) throws IOException {
+		outputStream.write("%s missing\n".formatted(name).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package git.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import git.Git;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class HashObjectBatch {
+
+	public static final int PENDING_PER_THREAD = 16;
+
+	private final Git git;
+	private final boolean write;
+	private final int threads;
+
+	public void run(InputStream inputStream, PrintStream outputStream) throws IOException {
+		final var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		final var executor = Executors.newFixedThreadPool(threads);
+		final var pending = new ArrayDeque<Future<String>>();
+		final var maxPending = threads * PENDING_PER_THREAD;
+
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final var path = Paths.get(line);
+				pending.add(executor.submit(() -> hash(path)));
+
+				while (!pending.isEmpty() && (pending.size() >= maxPending || pending.peek().isDone() || !reader.ready())) {
+					outputStream.println(await(pending.poll()));
+				}
+
+				if (!reader.ready()) {
+					outputStream.flush();
+				}
+			}
+
+			while (!pending.isEmpty()) {
+				outputStream.println(await(pending.poll()));
+			}
+		} finally {
+			executor.shutdownNow();
+			outputStream.flush();
+		}
+	}
+
+	private String hash(Path path) throws IOException, NoSuchAlgorithmException {
+		if (write) {
+			return git.writeBlob(path);
+		}
+
+		return Git.hashBlob(path);
+	}
+
+	private static String await(Future<String> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IOException("hash-object interrupted", exception);
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			throw new IllegalStateException(exception.getCause());
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,344 @@
+package git.checkout;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.index.FileStat;
+import git.index.Index;
+import git.index.IndexEntry;
+import git.sparse.SparseCheckout;
+import git.status.Status;
+import git.trace.Trace;
+import git.tree.TreeChange;
+import git.tree.TreeDiff;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@RequiredArgsConstructor
+public class Checkout {
+
+	private final Git git;
+
+	@Setter
+	private boolean force;
+
+	private List<IndexEntry> entries;
+
+	public CheckoutReport run(String commitHash) throws IOException {
+		final var headHash = git.resolveReference(Git.HEAD);
+		final var oldTreeHash = headHash == null ? null : git.readCommit(headHash).treeHash();
+		final var newTreeHash = git.readCommit(commitHash).treeHash();
+
+		final Index index;
+		try (final var phase = Trace.phase("read index")) {
+			index = Files.exists(git.getIndexFile()) ? git.readIndex() : new Index(List.of(), null, null);
+		}
+
+		entries = new ArrayList<>(index.getEntries());
+
+		final List<TreeChange> changes;
+		try (final var phase = Trace.phase("diff trees")) {
+			final var treeDiff = new TreeDiff(git);
+			treeDiff.setRecursive(true);
+
+			changes = treeDiff.diff(oldTreeHash, newTreeHash);
+		}
+
+		final var sparseCheckout = git.getSparseCheckout();
+
+		if (!force) {
+			try (final var phase = Trace.phase("check worktree")) {
+				checkConflicts(changes, index);
+			}
+		}
+
+		final var missingHashes = new LinkedHashSet<String>();
+		for (final var change : changes) {
+			if (change.status() != TreeChange.Status.DELETED && isIncluded(sparseCheckout, change.path()) && change.newMode() != Status.GITLINK_MODE && !git.hasObject(change.newHash())) {
+				missingHashes.add(change.newHash());
+			}
+		}
+
+		if (!missingHashes.isEmpty()) {
+			git.fetchPromisedObjects(missingHashes);
+		}
+
+		final var root = git.getRoot();
+		final var removed = new HashSet<String>();
+		final var added = new ArrayList<IndexEntry>();
+		final var emptied = new HashSet<Path>();
+		var writtenCount = 0;
+		var deletedCount = 0;
+
+		try (final var phase = Trace.phase("update worktree")) {
+			for (final var change : changes) {
+				if (change.status() == TreeChange.Status.ADDED) {
+					continue;
+				}
+
+				final var position = find(change.path());
+				if (position >= 0 && entries.get(position).skipWorktree() || change.oldMode() == Status.GITLINK_MODE) {
+					continue;
+				}
+
+				if (change.status() == TreeChange.Status.MODIFIED) {
+					continue;
+				}
+
+				final var path = root.resolve(change.path());
+				if (Files.deleteIfExists(path)) {
+					++deletedCount;
+				}
+
+				if (change.status() == TreeChange.Status.DELETED) {
+					emptied.add(path.getParent());
+				}
+			}
+
+			git.deleteEmptyDirectories(emptied);
+
+			for (final var change : changes) {
+				final var position = find(change.path());
+
+				if (change.status() == TreeChange.Status.DELETED) {
+					if (position >= 0) {
+						removed.add(change.path());
+					}
+
+					continue;
+				}
+
+				final var entry = write(change, isIncluded(sparseCheckout, change.path()));
+				if (!entry.skipWorktree() && change.newMode() != Status.GITLINK_MODE) {
+					++writtenCount;
+				}
+
+				if (position >= 0) {
+					entries.set(position, entry);
+				} else {
+					added.add(entry);
+				}
+			}
+		}
+
+		try (final var phase = Trace.phase("write index")) {
+			if (!removed.isEmpty()) {
+				entries.removeIf((entry) -> removed.contains(entry.path()));
+			}
+
+			if (!added.isEmpty()) {
+				entries.addAll(added);
+				entries.sort((left, right) -> Index.comparePaths(left.path(), right.path()));
+			}
+
+			git.writeIndex(new Index(entries, Index.updateCacheTree(git, newTreeHash, index.getCacheTree()), null));
+		}
+
+		return new CheckoutReport(oldTreeHash, newTreeHash, changes, writtenCount, deletedCount);
+	}
+
+	private void checkConflicts(List<TreeChange> changes, Index index) throws IOException {
+		final var root = git.getRoot();
+		final var conflicts = new ArrayList<String>();
+		final var untracked = new ArrayList<String>();
+		final var directories = new ArrayList<String>();
+
+		for (final var change : changes) {
+			final var position = find(change.path());
+			final var entry = position >= 0 ? entries.get(position) : null;
+
+			if (change.status() == TreeChange.Status.ADDED) {
+				if (entry != null) {
+					if (!entry.hash().equals(change.newHash()) || entry.mode() != change.newMode()) {
+						conflicts.add(change.path());
+					}
+
+					continue;
+				}
+
+				final var path = root.resolve(change.path());
+				final var stat = FileStat.read(path);
+
+				if (stat == null) {
+					final var leading = findLeadingFile(change.path());
+
+					if (leading != null && find(leading) < 0 && !untracked.contains(leading)) {
+						untracked.add(leading);
+					}
+				} else if (stat.mode() == FileStat.DIRECTORY_MODE) {
+					if (change.newMode() != Status.GITLINK_MODE && containsUntracked(path)) {
+						directories.add(change.path());
+					}
+				} else if (!hash(path, stat).equals(change.newHash())) {
+					untracked.add(change.path());
+				}
+
+				continue;
+			}
+
+			if (entry == null || !entry.hash().equals(change.oldHash()) || entry.mode() != change.oldMode()) {
+				conflicts.add(change.path());
+				continue;
+			}
+
+			if (entry.skipWorktree() || entry.mode() == Status.GITLINK_MODE) {
+				continue;
+			}
+
+			final var path = root.resolve(entry.path());
+			final var stat = FileStat.read(path);
+			if (stat == null || stat.mode() == entry.mode() && entry.stat().matches(stat) && !entry.stat().isRacy(index.getTimestamp())) {
+				continue;
+			}
+
+			if (stat.mode() != entry.mode() || !hash(path, stat).equals(entry.hash())) {
+				conflicts.add(change.path());
+			}
+		}
+
+		if (!conflicts.isEmpty()) {
+			throw new IllegalStateException("your local changes to the following files would be overwritten by checkout:\n\t%s\nplease commit or stash them before switching".formatted(String.join("\n\t", conflicts)));
+		}
+
+		if (!untracked.isEmpty()) {
+			throw new IllegalStateException("the following untracked working tree files would be overwritten by checkout:\n\t%s\nplease move or remove them before switching".formatted(String.join("\n\t", untracked)));
+		}
+
+		if (!directories.isEmpty()) {
+			throw new IllegalStateException("updating the following directories would lose untracked files in them:\n\t%s".formatted(String.join("\n\t", directories)));
+		}
+	}
+
+	private String findLeadingFile(String path) throws IOException {
+		final var root = git.getRoot();
+
+		for (var end = path.indexOf('/'); end != -1; end = path.indexOf('/', end + 1)) {
+			final var leading = path.substring(0, end);
+			final var stat = FileStat.read(root.resolve(leading));
+
+			if (stat == null) {
+				return null;
+			}
+
+			if (stat.mode() != FileStat.DIRECTORY_MODE) {
+				return leading;
+			}
+		}
+
+		return null;
+	}
+
+	private boolean containsUntracked(Path directory) throws IOException {
+		final var root = git.getRoot();
+
+		try (final var paths = Files.walk(directory)) {
+			for (final var path : (Iterable<Path>) paths::iterator) {
+				if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+					continue;
+				}
+
+				if (find(root.relativize(path).toString().replace('\\', '/')) < 0) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private IndexEntry write(TreeChange change, boolean included) throws IOException {
+		final var nameLength = change.path().getBytes(StandardCharsets.UTF_8).length;
+		final var entry = IndexEntry.of(FileStat.NONE, change.newMode(), change.newHash(), change.path(), nameLength);
+
+		if (!included) {
+			return entry.withSkipWorktree(true);
+		}
+
+		final var path = git.getRoot().resolve(change.path());
+
+		try {
+			Files.createDirectories(path.getParent());
+		} catch (FileAlreadyExistsException exception) {
+			final var leading = findLeadingFile(change.path());
+			if (leading == null) {
+				throw exception;
+			}
+
+			Files.delete(git.getRoot().resolve(leading));
+			Files.createDirectories(path.getParent());
+		}
+
+		if (change.newMode() != Status.GITLINK_MODE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+			delete(path);
+		}
+
+		if (change.newMode() == Status.GITLINK_MODE) {
+			Files.createDirectories(path);
+			return entry;
+		}
+
+		git.checkout(change.newHash(), path, change.newMode());
+
+		return entry.withStat(FileStat.read(path));
+	}
+
+	private static void delete(Path directory) throws IOException {
+		try (final var paths = Files.walk(directory)) {
+			for (final var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	private int find(String path) {
+		var low = 0;
+		var high = entries.size() - 1;
+
+		while (low <= high) {
+			final var middle = (low + high) >>> 1;
+			final var comparison = Index.comparePaths(entries.get(middle).path(), path);
+
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+
+		return -1;
+	}
+
+	private static boolean isIncluded(SparseCheckout sparseCheckout, String path) {
+		return sparseCheckout == null || sparseCheckout.includes(path);
+	}
+
+	private static String hash(Path path, FileStat stat) throws IOException {
+		try {
+			if (stat.mode() == FileStat.SYMBOLIC_LINK_MODE) {
+				final var target = Files.readSymbolicLink(path).toString().getBytes(StandardCharsets.UTF_8);
+
+				return Git.hashRawObject(new RawObject(ObjectType.BLOB, target));
+			}
+
+			return Git.hashBlob(path);
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+}
\ No newline at end of file
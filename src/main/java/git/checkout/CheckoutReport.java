@@ -0,0 +1,13 @@
+package git.checkout;
+
+import java.util.List;
+
+import git.tree.TreeChange;
+
+public record CheckoutReport(
+	String oldTreeHash,
+	String newTreeHash,
+	List<TreeChange> changes,
+	int writtenCount,
+	int deletedCount
+) {}
\ No newline at end of file
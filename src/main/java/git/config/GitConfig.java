@@ -0,0 +1,192 @@
+package git.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public class GitConfig {
+
+	public static final Pattern SECTION_PATTERN = Pattern.compile("^\\[\\s*([\\w.-]+)(?:\\s+\"(.*)\")?\\s*\\]$");
+	public static final Pattern ENTRY_PATTERN = Pattern.compile("^([\\w-]+)\\s*(?:=\\s*(.*))?$");
+
+	private final Map<String, Map<String, List<String>>> sections = new LinkedHashMap<>();
+
+	public Optional<String> get(String section, String subsection, String key) {
+		final var values = getAll(section, subsection, key);
+		if (values.isEmpty()) {
+			return Optional.empty();
+		}
+
+		return Optional.of(values.getLast());
+	}
+
+	public List<String> getAll(String section, String subsection, String key) {
+		final var entries = sections.get(sectionKey(section, subsection));
+		if (entries == null) {
+			return Collections.emptyList();
+		}
+
+		return entries.getOrDefault(key.toLowerCase(), Collections.emptyList());
+	}
+
+	public boolean getBoolean(String section, String subsection, String key, boolean defaultValue) {
+		return get(section, subsection, key)
+			.map(GitConfig::parseBoolean)
+			.orElse(defaultValue);
+	}
+
+	public long getSize(String section, String subsection, String key, long defaultValue) {
+		return get(section, subsection, key)
+			.map(GitConfig::parseSize)
+			.orElse(defaultValue);
+	}
+
+	public void set(String section, String subsection, String key, String value) {
+		final var values = new ArrayList<String>();
+		values.add(value);
+
+		sections
+			.computeIfAbsent(sectionKey(section, subsection), (__) -> new LinkedHashMap<>())
+			.put(key.toLowerCase(), values);
+	}
+
+	public void add(String section, String subsection, String key, String value) {
+		sections
+			.computeIfAbsent(sectionKey(section, subsection), (__) -> new LinkedHashMap<>())
+			.computeIfAbsent(key.toLowerCase(), (__) -> new ArrayList<>())
+			.add(value);
+	}
+
+	public String format() {
+		final var builder = new StringBuilder();
+
+		for (final var section : sections.entrySet()) {
+			builder.append('[').append(section.getKey()).append("]\n");
+
+			for (final var entry : section.getValue().entrySet()) {
+				for (final var value : entry.getValue()) {
+					builder.append('\t').append(entry.getKey()).append(" = ").append(value).append('\n');
+				}
+			}
+		}
+
+		return builder.toString();
+	}
+
+	public void save(Path path) throws IOException {
+		Files.writeString(path, format());
+	}
+
+	public static GitConfig parse(String content) {
+		final var config = new GitConfig();
+
+		String currentSection = null;
+		for (var line : content.split("\n")) {
+			line = stripComment(line).strip();
+
+			if (line.isEmpty()) {
+				continue;
+			}
+
+			final var sectionMatcher = SECTION_PATTERN.matcher(line);
+			if (sectionMatcher.matches()) {
+				currentSection = sectionKey(sectionMatcher.group(1), sectionMatcher.group(2));
+				config.sections.computeIfAbsent(currentSection, (__) -> new LinkedHashMap<>());
+
+				continue;
+			}
+
+			final var entryMatcher = ENTRY_PATTERN.matcher(line);
+			if (currentSection == null || !entryMatcher.matches()) {
+				throw new IllegalArgumentException("invalid config line: " + line);
+			}
+
+			final var key = entryMatcher.group(1).toLowerCase();
+			final var value = entryMatcher.group(2) == null ? "true" : unquote(entryMatcher.group(2).strip());
+
+			config.sections.get(currentSection)
+				.computeIfAbsent(key, (__) -> new ArrayList<>())
+				.add(value);
+		}
+
+		return config;
+	}
+
+	public static GitConfig load(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return new GitConfig();
+		}
+
+		return parse(Files.readString(path));
+	}
+
+	public static boolean parseBoolean(String value) {
+		return switch (value.toLowerCase()) {
+			case "true", "yes", "on", "1" -> true;
+			case "false", "no", "off", "0", "" -> false;
+			default -> throw new IllegalArgumentException("invalid boolean: " + value);
+		};
+	}
+
+	public static long parseSize(String value) {
+		final var trimmed = value.trim().toLowerCase();
+		if (trimmed.isEmpty()) {
+			throw new IllegalArgumentException("invalid size: " + value);
+		}
+
+		final var unit = switch (trimmed.charAt(trimmed.length() - 1)) {
+			case 'k' -> 1024L;
+			case 'm' -> 1024L * 1024;
+			case 'g' -> 1024L * 1024 * 1024;
+			default -> 1L;
+		};
+
+		final var digits = unit == 1 ? trimmed : trimmed.substring(0, trimmed.length() - 1);
+
+		try {
+			return Math.multiplyExact(Long.parseLong(digits), unit);
+		} catch (NumberFormatException | ArithmeticException exception) {
+			throw new IllegalArgumentException("invalid size: " + value, exception);
+		}
+	}
+
+	private static String sectionKey(String section, String subsection) {
+		if (subsection == null) {
+			return section.toLowerCase();
+		}
+
+		return "%s \"%s\"".formatted(section.toLowerCase(), subsection);
+	}
+
+	private static String stripComment(String line) {
+		var quoted = false;
+
+		for (var index = 0; index < line.length(); ++index) {
+			final var character = line.charAt(index);
+
+			if (character == '"') {
+				quoted = !quoted;
+			} else if (!quoted && (character == '#' || character == ';')) {
+				return line.substring(0, index);
+			}
+		}
+
+		return line;
+	}
+
+	private static String unquote(String value) {
+		if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+			return value.substring(1, value.length() - 1);
+		}
+
+		return value;
+	}
+
+}
\ No newline at end of file
@@ -9,7 +9,7 @@ public record AuthorSignature(
 	ZonedDateTime when
 ) {
 
-	public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("XX");
+	public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("xx");
 
 	public String format() {
 		final var timeStamp = when.toEpochSecond();
@@ -1,9 +1,21 @@
 package git.domain;
 
+import java.util.List;
+
 public record Commit(
 	String treeHash,
-	String parentHash,
+	List<String> parentHashes,
 	AuthorSignature author,
 	AuthorSignature committer,
 	String message
-) implements GitObject {}
\ No newline at end of file
+) implements GitObject {
+
+	public String parentHash() {
+		if (parentHashes.isEmpty()) {
+			return null;
+		}
+
+		return parentHashes.getFirst();
+	}
+
+}
\ No newline at end of file
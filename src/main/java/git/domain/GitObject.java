@@ -1,3 +1,3 @@
 package git.domain;
 
-public sealed interface GitObject permits Blob, Commit, Tree {}
\ No newline at end of file
+public sealed interface GitObject permits Blob, Commit, Tree, Tag {}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package git.domain;
+
+public record ObjectCounts(
+	int count,
+	long size,
+	int inPack,
+	int packs,
+	long sizePack,
+	int prunePackable
+) {}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package git.domain;
+
+@SuppressWarnings("rawtypes")
+public record ObjectInfo(
+	ObjectType type,
+	long size
+) {}
\ No newline at end of file
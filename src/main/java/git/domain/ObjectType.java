@@ -11,6 +11,7 @@ import java.util.List;
 import git.domain.serial.BlobSerializer;
 import git.domain.serial.CommitSerializer;
 import git.domain.serial.ObjectContentSerializer;
+import git.domain.serial.TagSerializer;
 import git.domain.serial.TreeSerializer;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -26,8 +27,9 @@ public class ObjectType<T extends GitObject> {
 	public static final ObjectType<Blob> BLOB = new ObjectType<>("blob", Blob.class, new BlobSerializer());
 	public static final ObjectType<Tree> TREE = new ObjectType<>("tree", Tree.class, new TreeSerializer());
 	public static final ObjectType<Commit> COMMIT = new ObjectType<>("commit", Commit.class, new CommitSerializer());
+	public static final ObjectType<Tag> TAG = new ObjectType<>("tag", Tag.class, new TagSerializer());
 
-	public static final Collection<ObjectType> TYPES = List.of(BLOB, TREE, COMMIT);
+	public static final Collection<ObjectType> TYPES = List.of(BLOB, TREE, COMMIT, TAG);
 
 	private final String name;
 	private final Class<?> objectClass;
@@ -0,0 +1,7 @@
+package git.domain;
+
+@SuppressWarnings("rawtypes")
+public record RawObject(
+	ObjectType type,
+	byte[] content
+) {}
\ No newline at end of file
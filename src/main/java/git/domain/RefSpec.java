@@ -0,0 +1,59 @@
+package git.domain;
+
+public record RefSpec(
+	boolean force,
+	String source,
+	String destination
+) {
+
+	public boolean matches(String name) {
+		final var starIndex = source.indexOf('*');
+		if (starIndex == -1) {
+			return source.equals(name);
+		}
+
+		final var prefix = source.substring(0, starIndex);
+		final var suffix = source.substring(starIndex + 1);
+
+		return name.length() >= prefix.length() + suffix.length()
+			&& name.startsWith(prefix)
+			&& name.endsWith(suffix);
+	}
+
+	public String map(String name) {
+		final var starIndex = source.indexOf('*');
+		if (starIndex == -1) {
+			return destination;
+		}
+
+		final var prefix = source.substring(0, starIndex);
+		final var suffix = source.substring(starIndex + 1);
+		final var matched = name.substring(prefix.length(), name.length() - suffix.length());
+
+		return destination.replace("*", matched);
+	}
+
+	public String format() {
+		return "%s%s:%s".formatted(force ? "+" : "", source, destination);
+	}
+
+	public static RefSpec parse(String value) {
+		var force = false;
+		if (value.startsWith("+")) {
+			force = true;
+			value = value.substring(1);
+		}
+
+		final var parts = value.split(":", 2);
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("invalid refspec: " + value);
+		}
+
+		return new RefSpec(force, parts[0], parts[1]);
+	}
+
+	public static RefSpec defaultFetch(String remoteName) {
+		return new RefSpec(true, "refs/heads/*", "refs/remotes/%s/*".formatted(remoteName));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package git.domain;
+
+public record ReferenceUpdate(
+	String name,
+	String oldHash,
+	String newHash
+) {
+
+	public boolean isCreation() {
+		return oldHash == null;
+	}
+
+	public boolean isUnchanged() {
+		return newHash.equals(oldHash);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package git.domain;
+
+public record Tag(
+	String objectHash,
+	String objectType,
+	String name,
+	AuthorSignature tagger,
+	String message
+) implements GitObject {}
\ No newline at end of file
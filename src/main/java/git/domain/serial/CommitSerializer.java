@@ -6,6 +6,8 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.regex.Pattern;
 
@@ -34,8 +36,7 @@ public class CommitSerializer implements ObjectContentSerializer<Commit> {
 		dataOutputStream.write(commit.treeHash().getBytes());
 		dataOutputStream.write(NEW_LINE_BYTES);
 
-		final var parentHash = commit.parentHash();
-		if (parentHash != null) {
+		for (final var parentHash : commit.parentHashes()) {
 			dataOutputStream.write(PARENT_BYTES);
 			dataOutputStream.write(SPACE_BYTES);
 			dataOutputStream.write(parentHash.getBytes());
@@ -65,8 +66,10 @@ public class CommitSerializer implements ObjectContentSerializer<Commit> {
 	@Override
 	public Commit deserialize(DataInputStream dataInputStream) throws IOException {
 		final var headers = new HashMap<String, String>();
+		final var parentHashes = new ArrayList<String>();
 
 		final var buffer = new StringBuffer();
+		String previousKey = null;
 		int value;
 		while ((value = dataInputStream.read()) != -1) {
 			if (value == '\n') {
@@ -74,8 +77,18 @@ public class CommitSerializer implements ObjectContentSerializer<Commit> {
 					break;
 				}
 
-				final var parts = buffer.toString().split(" ", 2);
-				headers.put(parts[0], parts[1]);
+				if (buffer.charAt(0) == ' ' && previousKey != null) {
+					headers.merge(previousKey, buffer.substring(1), (a, b) -> a + "\n" + b);
+				} else {
+					final var parts = buffer.toString().split(" ", 2);
+					previousKey = parts[0];
+
+					if (PARENT.equals(previousKey)) {
+						parentHashes.add(parts[1]);
+					} else {
+						headers.put(previousKey, parts.length == 2 ? parts[1] : "");
+					}
+				}
 
 				buffer.setLength(0);
 			} else {
@@ -87,11 +100,10 @@ public class CommitSerializer implements ObjectContentSerializer<Commit> {
 		final var message = new String(messageBytes, 0, messageBytes.length - 1);
 
 		final var treeHash = headers.get(TREE);
-		final var parentHash = headers.get(PARENT);
 		final var author = parseAuthor(headers.get(AUTHOR));
 		final var committer = parseAuthor(headers.get(COMMITTER));
 
-		return new Commit(treeHash, parentHash, author, committer, message);
+		return new Commit(treeHash, Collections.unmodifiableList(parentHashes), author, committer, message);
 	}
 
 	public AuthorSignature parseAuthor(String content) {
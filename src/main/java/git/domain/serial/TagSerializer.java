@@ -0,0 +1,77 @@
+package git.domain.serial;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+import git.domain.Tag;
+
+public class TagSerializer implements ObjectContentSerializer<Tag> {
+
+	private static final byte[] SPACE_BYTES = { ' ' };
+	private static final byte[] NEW_LINE_BYTES = { '\n' };
+	public static final String OBJECT = "object";
+	private static final byte[] OBJECT_BYTES = OBJECT.getBytes();
+	public static final String TYPE = "type";
+	private static final byte[] TYPE_BYTES = TYPE.getBytes();
+	public static final String TAG = "tag";
+	private static final byte[] TAG_BYTES = TAG.getBytes();
+	public static final String TAGGER = "tagger";
+	private static final byte[] TAGGER_BYTES = TAGGER.getBytes();
+
+	private final CommitSerializer commitSerializer = new CommitSerializer();
+
+	@Override
+	public void serialize(Tag tag, DataOutputStream dataOutputStream) throws IOException {
+		serializeHeader(OBJECT_BYTES, tag.objectHash(), dataOutputStream);
+		serializeHeader(TYPE_BYTES, tag.objectType(), dataOutputStream);
+		serializeHeader(TAG_BYTES, tag.name(), dataOutputStream);
+		CommitSerializer.serializeAuthor(TAGGER_BYTES, tag.tagger(), dataOutputStream);
+
+		dataOutputStream.write(NEW_LINE_BYTES);
+
+		dataOutputStream.write(tag.message().getBytes());
+	}
+
+	private static void serializeHeader(byte[] keyBytes, String value, DataOutputStream dataOutputStream) throws IOException {
+		dataOutputStream.write(keyBytes);
+		dataOutputStream.write(SPACE_BYTES);
+		dataOutputStream.write(value.getBytes());
+		dataOutputStream.write(NEW_LINE_BYTES);
+	}
+
+	@Override
+	public Tag deserialize(DataInputStream dataInputStream) throws IOException {
+		final var headers = new HashMap<String, String>();
+
+		final var buffer = new StringBuffer();
+		int value;
+		while ((value = dataInputStream.read()) != -1) {
+			if (value == '\n') {
+				if (buffer.isEmpty()) {
+					break;
+				}
+
+				final var parts = buffer.toString().split(" ", 2);
+				headers.putIfAbsent(parts[0], parts.length == 2 ? parts[1] : "");
+
+				buffer.setLength(0);
+			} else {
+				buffer.append((char) value);
+			}
+		}
+
+		final var message = new String(dataInputStream.readAllBytes());
+
+		final var objectHash = headers.get(OBJECT);
+		if (objectHash == null) {
+			throw new IllegalStateException("tag without object");
+		}
+
+		final var tagger = commitSerializer.parseAuthor(headers.get(TAGGER));
+
+		return new Tag(objectHash, headers.get(TYPE), headers.get(TAG), tagger, message);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package git.domain.tree;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import git.Git;
+
+public class TreeCursor {
+
+	private final byte[] content;
+	private int position;
+
+	private int mode;
+	private int nameOffset;
+	private int nameLength;
+	private int hashOffset;
+
+	public TreeCursor(byte[] content) {
+		this.content = content;
+	}
+
+	public boolean next() {
+		if (position >= content.length) {
+			return false;
+		}
+
+		var value = 0;
+		while (content[position] != ' ') {
+			value = (value << 3) | (content[position++] - '0');
+		}
+
+		mode = value;
+		nameOffset = ++position;
+
+		while (content[position] != 0) {
+			++position;
+		}
+
+		nameLength = position - nameOffset;
+		hashOffset = ++position;
+		position += Git.HASH_BYTES_LENGTH;
+
+		if (position > content.length) {
+			throw new IllegalStateException("truncated tree entry");
+		}
+
+		return true;
+	}
+
+	public int mode() {
+		return mode;
+	}
+
+	public TreeEntryModeType type() {
+		return TreeEntryModeType.match(mode);
+	}
+
+	public boolean isDirectory() {
+		return (mode >> 12) == TreeEntryModeType.DIRECTORY.mask();
+	}
+
+	public String name() {
+		return new String(content, nameOffset, nameLength, StandardCharsets.UTF_8);
+	}
+
+	public int nameOffset() {
+		return nameOffset;
+	}
+
+	public int nameLength() {
+		return nameLength;
+	}
+
+	public byte[] content() {
+		return content;
+	}
+
+	public String hash() {
+		return Git.HEX.formatHex(content, hashOffset, hashOffset + Git.HASH_BYTES_LENGTH);
+	}
+
+	public int hashOffset() {
+		return hashOffset;
+	}
+
+	public int compareName(TreeCursor other) {
+		final var length = Math.min(nameLength, other.nameLength);
+		final var mismatch = Arrays.mismatch(content, nameOffset, nameOffset + length, other.content, other.nameOffset, other.nameOffset + length);
+
+		if (mismatch != -1) {
+			return Byte.compareUnsigned(content[nameOffset + mismatch], other.content[other.nameOffset + mismatch]);
+		}
+
+		return Integer.compare(nameTerminator(length), other.nameTerminator(length));
+	}
+
+	public boolean hashEquals(TreeCursor other) {
+		return Arrays.equals(content, hashOffset, hashOffset + Git.HASH_BYTES_LENGTH, other.content, other.hashOffset, other.hashOffset + Git.HASH_BYTES_LENGTH);
+	}
+
+	public void writeName(OutputStream outputStream) throws IOException {
+		outputStream.write(content, nameOffset, nameLength);
+	}
+
+	private int nameTerminator(int index) {
+		if (index < nameLength) {
+			return Byte.toUnsignedInt(content[nameOffset + index]);
+		}
+
+		return isDirectory() ? '/' : 0;
+	}
+
+}
\ No newline at end of file
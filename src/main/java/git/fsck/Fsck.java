@@ -0,0 +1,224 @@
+package git.fsck;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.domain.tree.TreeEntryModeType;
+import git.pack.PackFile;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class Fsck {
+
+	public static final int BATCH_SIZE = 512;
+
+	private final Git git;
+	private final int threads;
+
+	private final Set<String> present = ConcurrentHashMap.newKeySet();
+	private final Map<String, String> referencedBy = new ConcurrentHashMap<>();
+	private final Collection<String> errors = new ConcurrentLinkedQueue<>();
+	private final Collection<String> warnings = new ConcurrentLinkedQueue<>();
+	private final AtomicLong objectCount = new AtomicLong();
+	private final AtomicLong inflatedBytes = new AtomicLong();
+
+	public FsckReport run(boolean loose, List<PackFile> packs, boolean connectivity) throws IOException {
+		final var start = System.nanoTime();
+		final var tasks = new ArrayList<Callable<Void>>();
+		var diskBytes = 0L;
+
+		if (loose) {
+			final var hashes = git.listLooseObjects();
+
+			for (final var hash : hashes) {
+				diskBytes += Files.size(git.getLooseObjectPath(hash));
+			}
+
+			for (var from = 0; from < hashes.size(); from += BATCH_SIZE) {
+				final var batch = hashes.subList(from, Math.min(from + BATCH_SIZE, hashes.size()));
+
+				tasks.add(() -> {
+					for (final var hash : batch) {
+						check(hash, () -> git.readRawObject(hash));
+					}
+
+					return null;
+				});
+			}
+		}
+
+		for (final var pack : packs) {
+			diskBytes += pack.getSize() + pack.getIndex().getSize();
+
+			tasks.add(() -> {
+				if (!pack.getIndex().verifyChecksum()) {
+					errors.add("index checksum mismatch: " + pack.getPath().getFileName());
+				}
+
+				if (!pack.verifyChecksum()) {
+					errors.add("pack checksum mismatch: " + pack.getPath().getFileName());
+				}
+
+				return null;
+			});
+
+			final var packObjectCount = pack.getIndex().getObjectCount();
+			for (var from = 0; from < packObjectCount; from += BATCH_SIZE) {
+				final var first = from;
+				final var last = Math.min(from + BATCH_SIZE, packObjectCount);
+
+				tasks.add(() -> {
+					for (var position = first; position < last; ++position) {
+						checkPacked(pack, position);
+					}
+
+					return null;
+				});
+			}
+		}
+
+		execute(tasks);
+
+		var missingCount = 0;
+		if (connectivity) {
+			for (final var tip : git.listTips()) {
+				if (!present.contains(tip) && !isAlternate(tip)) {
+					errors.add("broken reference: %s points to a missing object".formatted(tip));
+				}
+			}
+
+			final var promised = git.getPromisorRemote() != null;
+			for (final var entry : referencedBy.entrySet()) {
+				if (present.contains(entry.getKey()) || isAlternate(entry.getKey())) {
+					continue;
+				}
+
+				++missingCount;
+
+				final var message = "missing object %s (referenced by %s)".formatted(entry.getKey(), entry.getValue());
+				if (promised) {
+					warnings.add(message);
+				} else {
+					errors.add(message);
+				}
+			}
+		}
+
+		return new FsckReport(objectCount.get(), inflatedBytes.get(), diskBytes, missingCount, System.nanoTime() - start, threads, List.copyOf(errors), List.copyOf(warnings));
+	}
+
+	private boolean isAlternate(String hash) throws IOException {
+		return !git.getAlternates().isEmpty() && git.hasObject(hash);
+	}
+
+	private void checkPacked(PackFile pack, int position) {
+		final var hash = pack.getIndex().getHash(position);
+		final var entry = pack.getEntry(position);
+
+		if (pack.getIndex().getVersion() != 1 && !pack.verifyCrc32(entry)) {
+			errors.add("crc32 mismatch for %s in %s".formatted(hash, pack.getPath().getFileName()));
+		}
+
+		check(hash, () -> pack.readAt(entry.offset()));
+	}
+
+	private void check(String hash, ObjectReader reader) {
+		final RawObject object;
+		try {
+			object = reader.read();
+		} catch (IOException | RuntimeException exception) {
+			errors.add("unreadable object %s: %s".formatted(hash, exception.getMessage()));
+			return;
+		}
+
+		objectCount.incrementAndGet();
+		inflatedBytes.addAndGet(object.content().length);
+
+		final String computed;
+		try {
+			computed = Git.hashRawObject(object);
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+
+		if (!computed.equals(hash)) {
+			errors.add("hash mismatch for %s: content hashes to %s".formatted(hash, computed));
+			return;
+		}
+
+		present.add(hash);
+
+		try {
+			if (object.type() == ObjectType.TREE) {
+				for (final var entry : ObjectType.TREE.deserialize(object.content()).entries()) {
+					if (entry.mode().type() != TreeEntryModeType.GITLINK) {
+						referencedBy.putIfAbsent(entry.hash(), "tree " + hash);
+					}
+				}
+			} else if (object.type() == ObjectType.COMMIT) {
+				final var commit = ObjectType.COMMIT.deserialize(object.content());
+
+				referencedBy.putIfAbsent(commit.treeHash(), "commit " + hash);
+				for (final var parentHash : commit.parentHashes()) {
+					referencedBy.putIfAbsent(parentHash, "commit " + hash);
+				}
+			} else if (object.type() == ObjectType.TAG) {
+				final var tag = ObjectType.TAG.deserialize(object.content());
+
+				referencedBy.putIfAbsent(tag.objectHash(), "tag " + hash);
+			}
+		} catch (IOException | RuntimeException exception) {
+			errors.add("malformed %s %s: %s".formatted(object.type().getName(), hash, exception.getMessage()));
+		}
+	}
+
+	private void execute(List<Callable<Void>> tasks) throws IOException {
+		final var executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			final var futures = new ArrayList<Future<Void>>(tasks.size());
+			for (final var task : tasks) {
+				futures.add(executor.submit(task));
+			}
+
+			for (final var future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IOException("fsck interrupted", exception);
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			throw new IllegalStateException(exception.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface ObjectReader {
+
+		RawObject read() throws IOException;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package git.fsck;
+
+import java.util.List;
+
+public record FsckReport(
+	long objectCount,
+	long inflatedBytes,
+	long diskBytes,
+	int missingCount,
+	long elapsedNanos,
+	int threads,
+	List<String> errors,
+	List<String> warnings
+) {
+
+	public static final double NANOS_PER_SECOND = 1e9;
+	public static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+	public boolean isOk() {
+		return errors.isEmpty();
+	}
+
+	public double elapsedSeconds() {
+		return elapsedNanos / NANOS_PER_SECOND;
+	}
+
+	public double objectsPerSecond() {
+		return objectCount / Math.max(elapsedSeconds(), Double.MIN_VALUE);
+	}
+
+	public double inflatedMegabytesPerSecond() {
+		return inflatedBytes / BYTES_PER_MEGABYTE / Math.max(elapsedSeconds(), Double.MIN_VALUE);
+	}
+
+	public double diskMegabytesPerSecond() {
+		return diskBytes / BYTES_PER_MEGABYTE / Math.max(elapsedSeconds(), Double.MIN_VALUE);
+	}
+
+	public String summary() {
+		return "checked %d objects (%.1f MiB inflated, %.1f MiB on disk) in %.2fs with %d threads: %.0f objects/s, %.1f MiB/s inflated, %.1f MiB/s on disk".formatted(
+			objectCount,
+			inflatedBytes / BYTES_PER_MEGABYTE,
+			diskBytes / BYTES_PER_MEGABYTE,
+			elapsedSeconds(),
+			threads,
+			objectsPerSecond(),
+			inflatedMegabytesPerSecond(),
+			diskMegabytesPerSecond()
+		);
+	}
+
+}
\ No newline at end of file
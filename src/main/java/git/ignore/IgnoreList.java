@@ -0,0 +1,87 @@
+package git.ignore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IgnoreList {
+
+	private final String base;
+	private final List<IgnoreRule> rules;
+	private final Map<String, List<Integer>> literals = new HashMap<>();
+	private final int[] others;
+
+	public IgnoreList(String base, List<IgnoreRule> rules) {
+		this.base = base;
+		this.rules = List.copyOf(rules);
+
+		final var others = new ArrayList<Integer>();
+		for (var index = this.rules.size() - 1; index >= 0; --index) {
+			final var rule = this.rules.get(index);
+
+			if (rule.basename() && rule.matcher() instanceof IgnoreMatcher.Literal literal) {
+				literals.computeIfAbsent(literal.literal(), (__) -> new ArrayList<>()).add(index);
+			} else {
+				others.add(index);
+			}
+		}
+
+		this.others = others.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	public boolean isEmpty() {
+		return rules.isEmpty();
+	}
+
+	public Boolean match(String path, String name, boolean directory) {
+		if (!path.startsWith(base)) {
+			return null;
+		}
+
+		final var relative = path.substring(base.length());
+		var best = -1;
+
+		final var candidates = literals.get(name);
+		if (candidates != null) {
+			for (final int index : candidates) {
+				if (rules.get(index).matches(relative, name, directory)) {
+					best = index;
+					break;
+				}
+			}
+		}
+
+		for (final var index : others) {
+			if (index <= best) {
+				break;
+			}
+
+			if (rules.get(index).matches(relative, name, directory)) {
+				best = index;
+				break;
+			}
+		}
+
+		if (best == -1) {
+			return null;
+		}
+
+		return !rules.get(best).negated();
+	}
+
+	public static IgnoreList parse(String content, String base) {
+		final var rules = new ArrayList<IgnoreRule>();
+
+		for (final var line : content.split("\n")) {
+			final var rule = IgnoreRule.parse(line);
+
+			if (rule != null) {
+				rules.add(rule);
+			}
+		}
+
+		return new IgnoreList(base, rules);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package git.ignore;
+
+public sealed interface IgnoreMatcher permits IgnoreMatcher.Literal, IgnoreMatcher.Prefix, IgnoreMatcher.Suffix, IgnoreMatcher.Glob {
+
+	public static final String SPECIAL_CHARACTERS = "*?[\\";
+
+	boolean matches(String text);
+
+	public static IgnoreMatcher compile(String pattern) {
+		final var firstSpecial = indexOfSpecial(pattern, 0);
+		if (firstSpecial == -1) {
+			return new Literal(pattern);
+		}
+
+		if (firstSpecial == pattern.length() - 1 && pattern.charAt(firstSpecial) == '*') {
+			return new Prefix(pattern.substring(0, firstSpecial));
+		}
+
+		if (firstSpecial == 0 && pattern.charAt(0) == '*' && indexOfSpecial(pattern, 1) == -1 && pattern.indexOf('/') == -1) {
+			return new Suffix(pattern.substring(1));
+		}
+
+		return new Glob(pattern);
+	}
+
+	private static int indexOfSpecial(String pattern, int from) {
+		for (var index = from; index < pattern.length(); ++index) {
+			if (SPECIAL_CHARACTERS.indexOf(pattern.charAt(index)) != -1) {
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	public static record Literal(
+		String literal
+	) implements IgnoreMatcher {
+
+		@Override
+		public boolean matches(String text) {
+			return literal.equals(text);
+		}
+
+	}
+
+	public static record Prefix(
+		String prefix
+	) implements IgnoreMatcher {
+
+		@Override
+		public boolean matches(String text) {
+			return text.startsWith(prefix) && text.indexOf('/', prefix.length()) == -1;
+		}
+
+	}
+
+	public static record Suffix(
+		String suffix
+	) implements IgnoreMatcher {
+
+		@Override
+		public boolean matches(String text) {
+			return text.endsWith(suffix) && text.lastIndexOf('/', text.length() - suffix.length() - 1) == -1;
+		}
+
+	}
+
+	public static record Glob(
+		String pattern
+	) implements IgnoreMatcher {
+
+		@Override
+		public boolean matches(String text) {
+			return WildMatch.matches(pattern, text);
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package git.ignore;
+
+public record IgnoreRule(
+	IgnoreMatcher matcher,
+	boolean negated,
+	boolean directoryOnly,
+	boolean basename
+) {
+
+	public boolean matches(String path, String name, boolean directory) {
+		if (directoryOnly && !directory) {
+			return false;
+		}
+
+		return matcher.matches(basename ? name : path);
+	}
+
+	public static IgnoreRule parse(String line) {
+		var end = line.length();
+		while (end > 0 && (line.charAt(end - 1) == ' ' || line.charAt(end - 1) == '\t' || line.charAt(end - 1) == '\r') && !isEscaped(line, end - 1)) {
+			--end;
+		}
+
+		var pattern = line.substring(0, end);
+		if (pattern.isEmpty() || pattern.startsWith("#")) {
+			return null;
+		}
+
+		final var negated = pattern.startsWith("!");
+		if (negated) {
+			pattern = pattern.substring(1);
+		}
+
+		final var directoryOnly = pattern.endsWith("/");
+		if (directoryOnly) {
+			pattern = pattern.substring(0, pattern.length() - 1);
+		}
+
+		final var basename = pattern.indexOf('/') == -1;
+		if (pattern.startsWith("/")) {
+			pattern = pattern.substring(1);
+		}
+
+		if (pattern.startsWith("\\#") || pattern.startsWith("\\!")) {
+			pattern = pattern.substring(1);
+		}
+
+		if (pattern.isEmpty()) {
+			return null;
+		}
+
+		return new IgnoreRule(IgnoreMatcher.compile(pattern), negated, directoryOnly, basename);
+	}
+
+	private static boolean isEscaped(String line, int index) {
+		var backslashes = 0;
+		while (index - backslashes - 1 >= 0 && line.charAt(index - backslashes - 1) == '\\') {
+			++backslashes;
+		}
+
+		return backslashes % 2 == 1;
+	}
+
+}
\ No newline at end of file
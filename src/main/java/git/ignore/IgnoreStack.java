@@ -0,0 +1,89 @@
+package git.ignore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import git.Git;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class IgnoreStack {
+
+	public static final String FILE_NAME = ".gitignore";
+	public static final IgnoreStack EMPTY = new IgnoreStack(null, null);
+
+	private final IgnoreStack parent;
+	private final IgnoreList list;
+
+	public boolean isIgnored(String path, boolean directory) {
+		final var slash = path.lastIndexOf('/');
+		final var name = slash == -1 ? path : path.substring(slash + 1);
+
+		for (var stack = this; stack.list != null; stack = stack.parent) {
+			final var ignored = stack.list.match(path, name, directory);
+
+			if (ignored != null) {
+				return ignored;
+			}
+		}
+
+		return false;
+	}
+
+	public IgnoreStack push(IgnoreList list) {
+		if (list == null || list.isEmpty()) {
+			return this;
+		}
+
+		return new IgnoreStack(this, list);
+	}
+
+	public IgnoreStack enter(Path directory, String prefix) throws IOException {
+		return push(read(directory.resolve(FILE_NAME), prefix));
+	}
+
+	public static IgnoreStack load(Git git) throws IOException {
+		final var excludesFile = git.getConfig().get("core", null, "excludesFile")
+			.map(IgnoreStack::expandHome)
+			.orElseGet(IgnoreStack::defaultExcludesFile);
+
+		return EMPTY
+			.push(excludesFile == null ? null : read(excludesFile, ""))
+			.push(read(git.getDotGit().resolve("info").resolve("exclude"), ""));
+	}
+
+	private static IgnoreList read(Path path, String prefix) throws IOException {
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+
+		return IgnoreList.parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), prefix);
+	}
+
+	private static Path expandHome(String path) {
+		if (path.startsWith("~/")) {
+			return Paths.get(System.getProperty("user.home"), path.substring(2));
+		}
+
+		return Paths.get(path);
+	}
+
+	private static Path defaultExcludesFile() {
+		final var configHome = System.getenv("XDG_CONFIG_HOME");
+		if (configHome != null && !configHome.isEmpty()) {
+			return Paths.get(configHome, "git", "ignore");
+		}
+
+		final var home = System.getProperty("user.home");
+		if (home == null) {
+			return null;
+		}
+
+		return Paths.get(home, ".config", "git", "ignore");
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,198 @@
+package git.ignore;
+
+public class WildMatch {
+
+	private static final int MATCH = 0;
+	private static final int NO_MATCH = 1;
+	private static final int ABORT_ALL = 2;
+	private static final int ABORT_TO_DOUBLE_STAR = 3;
+
+	public static boolean matches(String pattern, String text) {
+		return match(pattern, 0, text, 0) == MATCH;
+	}
+
+	private static int match(String pattern, int patternIndex, String text, int textIndex) {
+		for (; patternIndex < pattern.length(); ++patternIndex, ++textIndex) {
+			var patternCharacter = pattern.charAt(patternIndex);
+
+			if (textIndex >= text.length() && patternCharacter != '*') {
+				return ABORT_ALL;
+			}
+
+			switch (patternCharacter) {
+				case '\\' -> {
+					if (patternIndex + 1 < pattern.length()) {
+						patternCharacter = pattern.charAt(++patternIndex);
+					}
+
+					if (text.charAt(textIndex) != patternCharacter) {
+						return NO_MATCH;
+					}
+				}
+
+				case '?' -> {
+					if (text.charAt(textIndex) == '/') {
+						return NO_MATCH;
+					}
+				}
+
+				case '*' -> {
+					final var starStart = patternIndex;
+					var matchSlash = false;
+
+					if (patternIndex + 1 < pattern.length() && pattern.charAt(patternIndex + 1) == '*') {
+						while (patternIndex + 1 < pattern.length() && pattern.charAt(patternIndex + 1) == '*') {
+							++patternIndex;
+						}
+
+						final var afterStars = patternIndex + 1;
+						if ((starStart == 0 || pattern.charAt(starStart - 1) == '/') && (afterStars == pattern.length() || pattern.charAt(afterStars) == '/')) {
+							if (afterStars < pattern.length() && match(pattern, afterStars + 1, text, textIndex) == MATCH) {
+								return MATCH;
+							}
+
+							matchSlash = true;
+						}
+					}
+
+					++patternIndex;
+
+					if (patternIndex == pattern.length()) {
+						if (!matchSlash && text.indexOf('/', textIndex) != -1) {
+							return ABORT_TO_DOUBLE_STAR;
+						}
+
+						return MATCH;
+					}
+
+					if (!matchSlash && pattern.charAt(patternIndex) == '/') {
+						final var slash = text.indexOf('/', textIndex);
+						if (slash == -1) {
+							return NO_MATCH;
+						}
+
+						textIndex = slash;
+						continue;
+					}
+
+					for (; textIndex < text.length(); ++textIndex) {
+						final var result = match(pattern, patternIndex, text, textIndex);
+
+						if (result != NO_MATCH) {
+							if (!matchSlash || result != ABORT_TO_DOUBLE_STAR) {
+								return result;
+							}
+						} else if (!matchSlash && text.charAt(textIndex) == '/') {
+							return ABORT_TO_DOUBLE_STAR;
+						}
+					}
+
+					return ABORT_ALL;
+				}
+
+				case '[' -> {
+					final var end = matchClass(pattern, patternIndex + 1, text.charAt(textIndex));
+
+					if (end == -1) {
+						return ABORT_ALL;
+					}
+
+					if (end < -1 || text.charAt(textIndex) == '/') {
+						return NO_MATCH;
+					}
+
+					patternIndex = end;
+				}
+
+				default -> {
+					if (text.charAt(textIndex) != patternCharacter) {
+						return NO_MATCH;
+					}
+				}
+			}
+		}
+
+		return textIndex == text.length() ? MATCH : NO_MATCH;
+	}
+
+	private static int matchClass(String pattern, int index, char character) {
+		if (index >= pattern.length()) {
+			return -1;
+		}
+
+		final var negated = pattern.charAt(index) == '!' || pattern.charAt(index) == '^';
+		if (negated) {
+			++index;
+		}
+
+		var matched = false;
+		var previous = (char) 0;
+		var first = true;
+
+		while (index < pattern.length() && (first || pattern.charAt(index) != ']')) {
+			var current = pattern.charAt(index);
+			first = false;
+
+			if (current == '\\') {
+				if (++index >= pattern.length()) {
+					return -1;
+				}
+
+				current = pattern.charAt(index);
+				matched |= character == current;
+			} else if (current == '-' && previous != 0 && index + 1 < pattern.length() && pattern.charAt(index + 1) != ']') {
+				var high = pattern.charAt(++index);
+
+				if (high == '\\') {
+					if (++index >= pattern.length()) {
+						return -1;
+					}
+
+					high = pattern.charAt(index);
+				}
+
+				matched |= character >= previous && character <= high;
+				current = 0;
+			} else if (current == '[' && index + 1 < pattern.length() && pattern.charAt(index + 1) == ':') {
+				final var close = pattern.indexOf(":]", index + 2);
+				if (close == -1) {
+					matched |= character == '[';
+				} else {
+					matched |= matchNamedClass(pattern.substring(index + 2, close), character);
+					index = close + 1;
+					current = 0;
+				}
+			} else {
+				matched |= character == current;
+			}
+
+			previous = current;
+			++index;
+		}
+
+		if (index >= pattern.length()) {
+			return -1;
+		}
+
+		return matched != negated ? index : -2;
+	}
+
+	private static boolean matchNamedClass(String name, char character) {
+		return switch (name) {
+			case "alnum" -> Character.isLetterOrDigit(character);
+			case "alpha" -> Character.isLetter(character);
+			case "blank" -> character == ' ' || character == '\t';
+			case "cntrl" -> Character.isISOControl(character);
+			case "digit" -> character >= '0' && character <= '9';
+			case "graph" -> character > ' ' && character < 0x7f;
+			case "lower" -> Character.isLowerCase(character);
+			case "print" -> character >= ' ' && character < 0x7f;
+			case "punct" -> character > ' ' && character < 0x7f && !Character.isLetterOrDigit(character);
+			case "space" -> Character.isWhitespace(character);
+			case "upper" -> Character.isUpperCase(character);
+			case "xdigit" -> Character.digit(character, 16) != -1;
+			default -> false;
+		};
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package git.index;
+
+import java.util.Map;
+
+public record CacheTree(
+	int entryCount,
+	String hash,
+	Map<String, CacheTree> children
+) {
+
+	public boolean isValid() {
+		return entryCount >= 0;
+	}
+
+	public CacheTree child(String name) {
+		return children.get(name);
+	}
+
+}
\ No newline at end of file
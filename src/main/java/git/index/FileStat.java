@@ -0,0 +1,128 @@
+package git.index;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import git.domain.tree.TreeEntryModeType;
+import git.util.Platform;
+
+public record FileStat(
+	int ctimeSeconds,
+	int ctimeNanoseconds,
+	int mtimeSeconds,
+	int mtimeNanoseconds,
+	int device,
+	int inode,
+	int mode,
+	int userId,
+	int groupId,
+	int size
+) {
+
+	public static final String UNIX_ATTRIBUTES = "unix:ctime,lastModifiedTime,dev,ino,mode,uid,gid,size,isSymbolicLink,isDirectory";
+	public static final int REGULAR_FILE_MODE = 0100644;
+	public static final int EXECUTABLE_FILE_MODE = 0100755;
+	public static final int SYMBOLIC_LINK_MODE = 0120000;
+	public static final int DIRECTORY_MODE = 040000;
+	public static final int OWNER_EXECUTE = 0100;
+	public static final String NOT_A_DIRECTORY = "Not a directory";
+	public static final FileStat NONE = new FileStat(0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+	public boolean matches(FileStat other) {
+		return mtimeSeconds == other.mtimeSeconds
+			&& mtimeNanoseconds == other.mtimeNanoseconds
+			&& ctimeSeconds == other.ctimeSeconds
+			&& ctimeNanoseconds == other.ctimeNanoseconds
+			&& inode == other.inode
+			&& userId == other.userId
+			&& groupId == other.groupId
+			&& size == other.size;
+	}
+
+	public boolean isRacy(FileTime indexTime) {
+		if (indexTime == null) {
+			return true;
+		}
+
+		final var seconds = indexTime.to(TimeUnit.SECONDS);
+		if (Integer.toUnsignedLong(mtimeSeconds) != seconds) {
+			return Integer.toUnsignedLong(mtimeSeconds) > seconds;
+		}
+
+		return mtimeNanoseconds >= indexTime.toInstant().getNano();
+	}
+
+	public TreeEntryModeType type() {
+		return TreeEntryModeType.match(mode);
+	}
+
+	public static FileStat read(Path path) throws IOException {
+		try {
+			if (Platform.isWindows()) {
+				final var attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+				final var mtime = attributes.lastModifiedTime();
+				final var ctime = attributes.creationTime();
+
+				return new FileStat(
+					seconds(ctime), nanoseconds(ctime),
+					seconds(mtime), nanoseconds(mtime),
+					0, 0,
+					attributes.isDirectory() ? DIRECTORY_MODE : REGULAR_FILE_MODE,
+					0, 0,
+					(int) attributes.size()
+				);
+			}
+
+			final var attributes = Files.readAttributes(path, UNIX_ATTRIBUTES, LinkOption.NOFOLLOW_LINKS);
+			final var ctime = (FileTime) attributes.get("ctime");
+			final var mtime = (FileTime) attributes.get("lastModifiedTime");
+
+			final int mode;
+			if ((Boolean) attributes.get("isSymbolicLink")) {
+				mode = SYMBOLIC_LINK_MODE;
+			} else if ((Boolean) attributes.get("isDirectory")) {
+				mode = DIRECTORY_MODE;
+			} else if (((Integer) attributes.get("mode") & OWNER_EXECUTE) != 0) {
+				mode = EXECUTABLE_FILE_MODE;
+			} else {
+				mode = REGULAR_FILE_MODE;
+			}
+
+			return new FileStat(
+				seconds(ctime), nanoseconds(ctime),
+				seconds(mtime), nanoseconds(mtime),
+				((Long) attributes.get("dev")).intValue(),
+				((Long) attributes.get("ino")).intValue(),
+				mode,
+				(Integer) attributes.get("uid"),
+				(Integer) attributes.get("gid"),
+				((Long) attributes.get("size")).intValue()
+			);
+		} catch (NoSuchFileException | NotDirectoryException exception) {
+			return null;
+		} catch (FileSystemException exception) {
+			if (NOT_A_DIRECTORY.equals(exception.getReason())) {
+				return null;
+			}
+
+			throw exception;
+		}
+	}
+
+	private static int seconds(FileTime time) {
+		return (int) time.to(TimeUnit.SECONDS);
+	}
+
+	private static int nanoseconds(FileTime time) {
+		return time.toInstant().getNano();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,374 @@
+package git.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.tree.TreeCursor;
+import git.sparse.SparseCheckout;
+import git.util.LockFile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class Index {
+
+	public static final int SIGNATURE = 0x44495243;
+	public static final int VERSION = 2;
+	public static final int EXTENDED_VERSION = 3;
+	public static final int TREE_SIGNATURE = 0x54524545;
+	public static final int HEADER_SIZE = 12;
+	public static final int ENTRY_FIXED_SIZE = 62;
+
+	private final List<IndexEntry> entries;
+	private final CacheTree cacheTree;
+	private final FileTime timestamp;
+
+	public void write(Path path) throws IOException {
+		try (final var lock = LockFile.acquire(path)) {
+			lock.write(serialize());
+			lock.commit();
+		}
+	}
+
+	public byte[] serialize() throws IOException {
+		final var extended = entries.stream().anyMatch((entry) -> (entry.flags() & IndexEntry.EXTENDED_FLAG) != 0);
+
+		final var outputStream = new ByteArrayOutputStream();
+		final var dataOutputStream = new DataOutputStream(outputStream);
+
+		dataOutputStream.writeInt(SIGNATURE);
+		dataOutputStream.writeInt(extended ? EXTENDED_VERSION : VERSION);
+		dataOutputStream.writeInt(entries.size());
+
+		for (final var entry : entries) {
+			final var stat = entry.stat();
+			final var path = entry.path().getBytes(StandardCharsets.UTF_8);
+
+			dataOutputStream.writeInt(stat.ctimeSeconds());
+			dataOutputStream.writeInt(stat.ctimeNanoseconds());
+			dataOutputStream.writeInt(stat.mtimeSeconds());
+			dataOutputStream.writeInt(stat.mtimeNanoseconds());
+			dataOutputStream.writeInt(stat.device());
+			dataOutputStream.writeInt(stat.inode());
+			dataOutputStream.writeInt(entry.mode());
+			dataOutputStream.writeInt(stat.userId());
+			dataOutputStream.writeInt(stat.groupId());
+			dataOutputStream.writeInt(stat.size());
+			dataOutputStream.write(Git.HEX.parseHex(entry.hash()));
+			dataOutputStream.writeShort(entry.flags() & 0xffff);
+
+			var fixedSize = ENTRY_FIXED_SIZE;
+			if ((entry.flags() & IndexEntry.EXTENDED_FLAG) != 0) {
+				dataOutputStream.writeShort(entry.flags() >>> 16);
+				fixedSize += 2;
+			}
+
+			dataOutputStream.write(path);
+			dataOutputStream.write(new byte[entrySize(fixedSize, path.length) - fixedSize - path.length]);
+		}
+
+		if (cacheTree != null) {
+			final var extension = new ByteArrayOutputStream();
+			writeCacheTree("", cacheTree, extension);
+
+			dataOutputStream.writeInt(TREE_SIGNATURE);
+			dataOutputStream.writeInt(extension.size());
+			extension.writeTo(dataOutputStream);
+		}
+
+		dataOutputStream.flush();
+		outputStream.write(digest(outputStream.toByteArray(), outputStream.size()));
+
+		return outputStream.toByteArray();
+	}
+
+	private static void writeCacheTree(String name, CacheTree node, ByteArrayOutputStream outputStream) {
+		outputStream.writeBytes(name.getBytes(StandardCharsets.UTF_8));
+		outputStream.write(0);
+		outputStream.writeBytes("%d %d\n".formatted(node.entryCount(), node.children().size()).getBytes(StandardCharsets.US_ASCII));
+
+		if (node.isValid()) {
+			outputStream.writeBytes(Git.HEX.parseHex(node.hash()));
+		}
+
+		for (final var child : node.children().entrySet()) {
+			writeCacheTree(child.getKey(), child.getValue(), outputStream);
+		}
+	}
+
+	public static Index empty() {
+		return new Index(new ArrayList<>(), null, null);
+	}
+
+	public static Index read(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return empty();
+		}
+
+		final var timestamp = Files.getLastModifiedTime(path);
+
+		return parse(Files.readAllBytes(path), timestamp);
+	}
+
+	public static Index parse(byte[] bytes, FileTime timestamp) throws IOException {
+		if (bytes.length < HEADER_SIZE + Git.HASH_BYTES_LENGTH) {
+			throw new IOException("index file is too small");
+		}
+
+		final var contentLength = bytes.length - Git.HASH_BYTES_LENGTH;
+		if (!Arrays.equals(digest(bytes, contentLength), 0, Git.HASH_BYTES_LENGTH, bytes, contentLength, bytes.length)) {
+			throw new IOException("index checksum mismatch");
+		}
+
+		final var buffer = ByteBuffer.wrap(bytes, 0, contentLength);
+		if (buffer.getInt() != SIGNATURE) {
+			throw new IOException("invalid index signature");
+		}
+
+		final var version = buffer.getInt();
+		if (version != VERSION && version != EXTENDED_VERSION) {
+			throw new IOException("unsupported index version: " + version);
+		}
+
+		final var count = buffer.getInt();
+		final var entries = new ArrayList<IndexEntry>(count);
+
+		for (var index = 0; index < count; ++index) {
+			final var start = buffer.position();
+
+			final var ctimeSeconds = buffer.getInt();
+			final var ctimeNanoseconds = buffer.getInt();
+			final var mtimeSeconds = buffer.getInt();
+			final var mtimeNanoseconds = buffer.getInt();
+			final var device = buffer.getInt();
+			final var inode = buffer.getInt();
+			final var mode = buffer.getInt();
+			final var userId = buffer.getInt();
+			final var groupId = buffer.getInt();
+			final var size = buffer.getInt();
+
+			final var hash = new byte[Git.HASH_BYTES_LENGTH];
+			buffer.get(hash);
+
+			var flags = Short.toUnsignedInt(buffer.getShort());
+			var fixedSize = ENTRY_FIXED_SIZE;
+			if ((flags & IndexEntry.EXTENDED_FLAG) != 0) {
+				if (version < EXTENDED_VERSION) {
+					throw new IOException("extended index entry in version " + version);
+				}
+
+				flags |= Short.toUnsignedInt(buffer.getShort()) << 16;
+				fixedSize += 2;
+			}
+
+			final var nameOffset = buffer.position();
+			var nameEnd = nameOffset;
+			while (bytes[nameEnd] != 0) {
+				++nameEnd;
+			}
+
+			final var path = new String(bytes, nameOffset, nameEnd - nameOffset, StandardCharsets.UTF_8);
+			buffer.position(start + entrySize(fixedSize, nameEnd - nameOffset));
+
+			entries.add(new IndexEntry(
+				new FileStat(ctimeSeconds, ctimeNanoseconds, mtimeSeconds, mtimeNanoseconds, device, inode, mode, userId, groupId, size),
+				mode,
+				Git.HEX.formatHex(hash),
+				flags,
+				path
+			));
+		}
+
+		CacheTree cacheTree = null;
+		while (buffer.remaining() >= 8) {
+			final var signature = buffer.getInt();
+			final var size = buffer.getInt();
+			final var end = buffer.position() + size;
+
+			if (signature == TREE_SIGNATURE) {
+				final var extension = buffer.slice(buffer.position(), size);
+
+				readName(extension);
+				cacheTree = readCacheTree(extension);
+			} else if (signature >>> 24 < 'A' || signature >>> 24 > 'Z') {
+				throw new IOException("unsupported index extension: %08x".formatted(signature));
+			}
+
+			buffer.position(end);
+		}
+
+		return new Index(entries, cacheTree, timestamp);
+	}
+
+	private static CacheTree readCacheTree(ByteBuffer buffer) {
+		final var entryCount = Integer.parseInt(readUntil(buffer, ' '));
+		final var childCount = Integer.parseInt(readUntil(buffer, '\n'));
+
+		String hash = null;
+		if (entryCount >= 0) {
+			final var bytes = new byte[Git.HASH_BYTES_LENGTH];
+			buffer.get(bytes);
+
+			hash = Git.HEX.formatHex(bytes);
+		}
+
+		final var children = new LinkedHashMap<String, CacheTree>();
+		for (var index = 0; index < childCount; ++index) {
+			final var name = readName(buffer);
+			children.put(name, readCacheTree(buffer));
+		}
+
+		return new CacheTree(entryCount, hash, children);
+	}
+
+	private static String readName(ByteBuffer buffer) {
+		final var start = buffer.position();
+		while (buffer.get() != 0) {
+		}
+
+		final var bytes = new byte[buffer.position() - start - 1];
+		buffer.get(start, bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readUntil(ByteBuffer buffer, char terminator) {
+		final var builder = new StringBuilder();
+
+		byte value;
+		while ((value = buffer.get()) != terminator) {
+			builder.append((char) value);
+		}
+
+		return builder.toString();
+	}
+
+	private static int entrySize(int fixedSize, int nameLength) {
+		return (fixedSize + nameLength + 8) & ~7;
+	}
+
+	private static byte[] digest(byte[] bytes, int length) {
+		try {
+			final var digest = MessageDigest.getInstance("SHA-1");
+			digest.update(bytes, 0, length);
+
+			return digest.digest();
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	public static Index fromTree(Git git, String treeHash, Path root) throws IOException {
+		return fromTree(git, treeHash, root, SparseCheckout.Node.ALL);
+	}
+
+	public static Index fromTree(Git git, String treeHash, Path root, SparseCheckout.Node sparse) throws IOException {
+		final var entries = new ArrayList<IndexEntry>();
+		final var cacheTree = addTree(git, treeHash, "", root, sparse, entries);
+
+		return new Index(entries, cacheTree, null);
+	}
+
+	private static CacheTree addTree(Git git, String treeHash, String prefix, Path root, SparseCheckout.Node sparse, List<IndexEntry> entries) throws IOException {
+		final var object = git.readRawObject(treeHash);
+		if (object.type() != ObjectType.TREE) {
+			throw new IllegalArgumentException("not a tree object: " + treeHash);
+		}
+
+		final var start = entries.size();
+		final var children = new LinkedHashMap<String, CacheTree>();
+
+		final var cursor = new TreeCursor(object.content());
+		while (cursor.next()) {
+			final var name = cursor.name();
+			final var path = prefix + name;
+
+			if (cursor.isDirectory()) {
+				children.put(name, addTree(git, cursor.hash(), path + "/", root, sparse == null ? null : sparse.child(name), entries));
+				continue;
+			}
+
+			final var nameLength = path.getBytes(StandardCharsets.UTF_8).length;
+			if (sparse == null) {
+				entries.add(IndexEntry.of(FileStat.NONE, cursor.mode(), cursor.hash(), path, nameLength).withSkipWorktree(true));
+				continue;
+			}
+
+			var stat = FileStat.read(root.resolve(path));
+			if (stat == null) {
+				stat = FileStat.NONE;
+			}
+
+			entries.add(IndexEntry.of(stat, cursor.mode(), cursor.hash(), path, nameLength));
+		}
+
+		return new CacheTree(entries.size() - start, treeHash, children);
+	}
+
+	public static CacheTree updateCacheTree(Git git, String treeHash, CacheTree previous) throws IOException {
+		if (previous != null && previous.isValid() && previous.hash().equals(treeHash)) {
+			return previous;
+		}
+
+		final var object = git.readRawObject(treeHash);
+		if (object.type() != ObjectType.TREE) {
+			throw new IllegalArgumentException("not a tree object: " + treeHash);
+		}
+
+		final var children = new LinkedHashMap<String, CacheTree>();
+		var entryCount = 0;
+
+		final var cursor = new TreeCursor(object.content());
+		while (cursor.next()) {
+			if (!cursor.isDirectory()) {
+				++entryCount;
+				continue;
+			}
+
+			final var name = cursor.name();
+			final var child = updateCacheTree(git, cursor.hash(), previous == null ? null : previous.child(name));
+
+			children.put(name, child);
+			entryCount += child.entryCount();
+		}
+
+		return new CacheTree(entryCount, treeHash, children);
+	}
+
+	public static int comparePaths(String left, String right) {
+		final var leftLength = left.length();
+		final var rightLength = right.length();
+
+		var leftIndex = 0;
+		var rightIndex = 0;
+		while (leftIndex < leftLength && rightIndex < rightLength) {
+			final var leftCodePoint = left.codePointAt(leftIndex);
+			final var rightCodePoint = right.codePointAt(rightIndex);
+
+			if (leftCodePoint != rightCodePoint) {
+				return Integer.compare(leftCodePoint, rightCodePoint);
+			}
+
+			leftIndex += Character.charCount(leftCodePoint);
+			rightIndex += Character.charCount(rightCodePoint);
+		}
+
+		return Integer.compare(leftLength - leftIndex, rightLength - rightIndex);
+	}
+
+}
\ No newline at end of file
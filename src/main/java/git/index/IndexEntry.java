@@ -0,0 +1,42 @@
+package git.index;
+
+public record IndexEntry(
+	FileStat stat,
+	int mode,
+	String hash,
+	int flags,
+	String path
+) {
+
+	public static final int STAGE_MASK = 0x3000;
+	public static final int STAGE_SHIFT = 12;
+	public static final int NAME_MASK = 0xfff;
+	public static final int EXTENDED_FLAG = 0x4000;
+	public static final int SKIP_WORKTREE_FLAG = 0x4000 << 16;
+
+	public int stage() {
+		return (flags & STAGE_MASK) >> STAGE_SHIFT;
+	}
+
+	public boolean skipWorktree() {
+		return (flags & SKIP_WORKTREE_FLAG) != 0;
+	}
+
+	public IndexEntry withStat(FileStat stat) {
+		return new IndexEntry(stat, mode, hash, flags, path);
+	}
+
+	public IndexEntry withSkipWorktree(boolean skipWorktree) {
+		if (skipWorktree) {
+			return new IndexEntry(FileStat.NONE, mode, hash, flags | SKIP_WORKTREE_FLAG | EXTENDED_FLAG, path);
+		}
+
+		final var cleared = flags & ~SKIP_WORKTREE_FLAG;
+		return new IndexEntry(stat, mode, hash, (cleared >>> 16) == 0 ? cleared & ~EXTENDED_FLAG : cleared, path);
+	}
+
+	public static IndexEntry of(FileStat stat, int mode, String hash, String path, int nameLength) {
+		return new IndexEntry(stat, mode, hash, Math.min(nameLength, NAME_MASK), path);
+	}
+
+}
\ No newline at end of file
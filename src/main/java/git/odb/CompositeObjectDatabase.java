@@ -0,0 +1,66 @@
+package git.odb;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import git.domain.ObjectInfo;
+import git.domain.RawObject;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CompositeObjectDatabase implements WritableObjectDatabase {
+
+	private final List<ObjectDatabase> databases;
+	private final WritableObjectDatabase writer;
+
+	@Override
+	public boolean has(String hash) throws IOException {
+		for (final var database : databases) {
+			if (database.has(hash)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public ObjectInfo open(String hash) throws IOException {
+		for (final var database : databases) {
+			final var info = database.open(hash);
+
+			if (info != null) {
+				return info;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public RawObject read(String hash) throws IOException {
+		for (final var database : databases) {
+			final var object = database.read(hash);
+
+			if (object != null) {
+				return object;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public String insert(RawObject object) throws IOException {
+		return writer.insert(object);
+	}
+
+	@Override
+	public List<String> insertAll(Collection<RawObject> objects) throws IOException {
+		return writer.insertAll(objects);
+	}
+
+}
\ No newline at end of file
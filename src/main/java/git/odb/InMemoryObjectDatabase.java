@@ -0,0 +1,63 @@
+package git.odb;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import git.domain.ObjectInfo;
+import git.domain.RawObject;
+import git.trace.ObjectReadEvent;
+import git.trace.ObjectWriteEvent;
+
+public class InMemoryObjectDatabase implements WritableObjectDatabase {
+
+	private final Map<String, RawObject> objects = new ConcurrentHashMap<>();
+
+	@Override
+	public boolean has(String hash) {
+		return objects.containsKey(hash);
+	}
+
+	@Override
+	public ObjectInfo open(String hash) {
+		final var object = objects.get(hash);
+		if (object == null) {
+			return null;
+		}
+
+		return new ObjectInfo(object.type(), object.content().length);
+	}
+
+	@Override
+	public RawObject read(String hash) {
+		final var event = new ObjectReadEvent();
+		event.begin();
+
+		final var object = objects.get(hash);
+		if (object != null) {
+			event.complete(hash, object.type().getName(), object.content().length, "memory");
+		}
+
+		return object;
+	}
+
+	@Override
+	public String insert(RawObject object) {
+		final var event = new ObjectWriteEvent();
+		event.begin();
+
+		final var hash = ObjectDatabase.hash(object);
+		objects.putIfAbsent(hash, object);
+
+		event.complete(hash, object.content().length, 0);
+		return hash;
+	}
+
+	public int size() {
+		return objects.size();
+	}
+
+	public void clear() {
+		objects.clear();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package git.odb;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import git.Git;
+import git.domain.ObjectInfo;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.trace.Counter;
+import git.trace.ObjectReadEvent;
+import git.trace.ObjectWriteEvent;
+import git.util.CountingOutputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class LooseObjectDatabase implements WritableObjectDatabase {
+
+	public static final String TEMPORARY_PREFIX = "tmp_obj_";
+
+	@Getter
+	private final Path directory;
+
+	public Path getPath(String hash) {
+		final var first2 = hash.substring(0, 2);
+		final var remaining38 = hash.substring(2);
+
+		return directory.resolve(first2).resolve(remaining38);
+	}
+
+	@Override
+	public boolean has(String hash) {
+		return Files.exists(getPath(hash));
+	}
+
+	@Override
+	public ObjectInfo open(String hash) throws IOException {
+		try (final var inputStream = inflate(hash)) {
+			if (inputStream == null) {
+				return null;
+			}
+
+			final var type = ObjectType.byName(readHeaderField(inputStream, ' '));
+			final var size = Long.parseLong(readHeaderField(inputStream, 0));
+
+			return new ObjectInfo(type, size);
+		}
+	}
+
+	@Override
+	public RawObject read(String hash) throws IOException {
+		final var event = new ObjectReadEvent();
+		event.begin();
+
+		try (final var inputStream = inflate(hash)) {
+			if (inputStream == null) {
+				return null;
+			}
+
+			final var type = ObjectType.byName(readHeaderField(inputStream, ' '));
+			final var size = Long.parseLong(readHeaderField(inputStream, 0));
+			if (size > Integer.MAX_VALUE - 8) {
+				throw new IOException("object %s of %d bytes is too large to read in memory".formatted(hash, size));
+			}
+
+			final var content = inputStream.readNBytes((int) size);
+			Counter.INFLATED.add(content.length);
+
+			event.complete(hash, type.getName(), content.length, "loose");
+			return new RawObject(type, content);
+		}
+	}
+
+	public long transferTo(String hash, OutputStream outputStream) throws IOException {
+		try (final var inputStream = inflate(hash)) {
+			if (inputStream == null) {
+				throw new FileNotFoundException("object not found: " + hash);
+			}
+
+			readHeaderField(inputStream, ' ');
+			final var size = Long.parseLong(readHeaderField(inputStream, 0));
+
+			final var transferred = inputStream.transferTo(outputStream);
+			if (transferred != size) {
+				throw new IOException("object %s is %d bytes but declares %d".formatted(hash, transferred, size));
+			}
+
+			Counter.INFLATED.add(transferred);
+			return transferred;
+		}
+	}
+
+	@Override
+	public String insert(RawObject object) throws IOException {
+		return insert(object, null);
+	}
+
+	@Override
+	public List<String> insertAll(Collection<RawObject> objects) throws IOException {
+		final var hashes = new ArrayList<String>(objects.size());
+		final var createdDirectories = new HashSet<String>();
+
+		for (final var object : objects) {
+			hashes.add(insert(object, createdDirectories));
+		}
+
+		return hashes;
+	}
+
+	private String insert(RawObject object, Collection<String> createdDirectories) throws IOException {
+		final var event = new ObjectWriteEvent();
+		event.begin();
+
+		final var data = ObjectDatabase.frame(object);
+		final var hash = ObjectDatabase.hash(data);
+
+		final var first2 = hash.substring(0, 2);
+		final var first2Directory = directory.resolve(first2);
+		if (createdDirectories == null || createdDirectories.add(first2)) {
+			Files.createDirectories(first2Directory);
+		}
+
+		final var path = first2Directory.resolve(hash.substring(2));
+		if (Files.exists(path)) {
+			event.complete(hash, data.length, 0);
+			return hash;
+		}
+
+		final var temporary = Files.createTempFile(first2Directory, TEMPORARY_PREFIX, "");
+		final var countingOutputStream = new CountingOutputStream(Files.newOutputStream(temporary));
+
+		try {
+			try (final var deflaterOutputStream = new DeflaterOutputStream(countingOutputStream)) {
+				deflaterOutputStream.write(data);
+			}
+
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+
+		Counter.DEFLATED.add(data.length);
+		Counter.WRITTEN.add(countingOutputStream.getCount());
+
+		event.complete(hash, data.length, countingOutputStream.getCount());
+		return hash;
+	}
+
+	public List<String> list() throws IOException {
+		final var hashes = new ArrayList<String>();
+
+		if (!Files.isDirectory(directory)) {
+			return hashes;
+		}
+
+		try (final var directories = Files.list(directory)) {
+			for (final var fanOut : (Iterable<Path>) directories.sorted()::iterator) {
+				final var first2 = fanOut.getFileName().toString();
+				if (first2.length() != 2 || !Files.isDirectory(fanOut)) {
+					continue;
+				}
+
+				try (final var files = Files.list(fanOut)) {
+					for (final var file : (Iterable<Path>) files.sorted()::iterator) {
+						final var remaining38 = file.getFileName().toString();
+
+						if (remaining38.length() == Git.HASH_STRING_LENGTH - 2) {
+							hashes.add(first2 + remaining38);
+						}
+					}
+				}
+			}
+		}
+
+		return hashes;
+	}
+
+	private InputStream inflate(String hash) throws IOException {
+		try {
+			return new InflaterInputStream(new FileInputStream(getPath(hash).toFile()));
+		} catch (FileNotFoundException exception) {
+			return null;
+		}
+	}
+
+	private static String readHeaderField(InputStream inputStream, int terminator) throws IOException {
+		final var builder = new StringBuilder();
+
+		int value;
+		while ((value = inputStream.read()) != -1 && value != terminator) {
+			builder.append((char) value);
+		}
+
+		return builder.toString();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package git.odb;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import git.Git;
+import git.domain.ObjectInfo;
+import git.domain.RawObject;
+
+public interface ObjectDatabase {
+
+	boolean has(String hash) throws IOException;
+
+	ObjectInfo open(String hash) throws IOException;
+
+	RawObject read(String hash) throws IOException;
+
+	static byte[] frame(RawObject object) {
+		final var content = object.content();
+		final var header = "%s %d\0".formatted(object.type().getName(), content.length).getBytes(StandardCharsets.US_ASCII);
+
+		final var data = Arrays.copyOf(header, header.length + content.length);
+		System.arraycopy(content, 0, data, header.length, content.length);
+
+		return data;
+	}
+
+	static String hash(byte[] data) {
+		return Git.HEX.formatHex(digest().digest(data));
+	}
+
+	static String hash(RawObject object) {
+		final var digest = digest();
+		digest.update("%s %d\0".formatted(object.type().getName(), object.content().length).getBytes(StandardCharsets.US_ASCII));
+		digest.update(object.content());
+
+		return Git.HEX.formatHex(digest.digest());
+	}
+
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+package git.odb;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import git.domain.ObjectInfo;
+import git.domain.RawObject;
+import git.pack.MultiPackIndex;
+import git.pack.MultiPackIndexWriter;
+import git.pack.PackFile;
+import git.trace.ObjectReadEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class PackObjectDatabase implements ObjectDatabase {
+
+	@Getter
+	private final Path directory;
+
+	private volatile Snapshot snapshot;
+
+	public Path getMultiPackIndexFile() {
+		return directory.resolve(MultiPackIndex.FILE_NAME);
+	}
+
+	public Snapshot getSnapshot() throws IOException {
+		final var current = snapshot;
+		if (current != null) {
+			return current;
+		}
+
+		return load();
+	}
+
+	private synchronized Snapshot load() throws IOException {
+		if (snapshot == null) {
+			final var loaded = new ArrayList<PackFile>();
+
+			if (Files.isDirectory(directory)) {
+				try (final var paths = Files.list(directory)) {
+					for (final var path : (Iterable<Path>) paths.sorted()::iterator) {
+						if (path.getFileName().toString().endsWith(PackFile.INDEX_EXTENSION)) {
+							loaded.add(PackFile.open(path));
+						}
+					}
+				}
+			}
+
+			snapshot = loadMultiPackIndex(List.copyOf(loaded));
+		}
+
+		return snapshot;
+	}
+
+	private Snapshot loadMultiPackIndex(List<PackFile> loaded) throws IOException {
+		final var withoutIndex = new Snapshot(loaded, null, List.of(), loaded);
+
+		final var path = getMultiPackIndexFile();
+		if (!Files.exists(path)) {
+			return withoutIndex;
+		}
+
+		final var packByName = new HashMap<String, PackFile>();
+		for (final var pack : loaded) {
+			packByName.put(MultiPackIndexWriter.indexName(pack), pack);
+		}
+
+		final var index = MultiPackIndex.open(path);
+		final var coveredPacks = new ArrayList<PackFile>();
+		for (final var name : index.getPackNames()) {
+			final var pack = packByName.remove(name);
+
+			if (pack == null) {
+				return withoutIndex;
+			}
+
+			coveredPacks.add(pack);
+		}
+
+		final var uncoveredPacks = loaded.stream()
+			.filter(packByName::containsValue)
+			.toList();
+
+		return new Snapshot(loaded, index, List.copyOf(coveredPacks), uncoveredPacks);
+	}
+
+	public synchronized void reload() {
+		snapshot = null;
+	}
+
+	public List<PackFile> getPacks() throws IOException {
+		return getSnapshot().packs();
+	}
+
+	public MultiPackIndex getMultiPackIndex() throws IOException {
+		return getSnapshot().multiPackIndex();
+	}
+
+	public List<PackFile> getMultiPackIndexPacks() throws IOException {
+		return getSnapshot().multiPackIndexPacks();
+	}
+
+	public PackFile find(String hash) throws IOException {
+		return getSnapshot().find(hash);
+	}
+
+	@Override
+	public boolean has(String hash) throws IOException {
+		return find(hash) != null;
+	}
+
+	@Override
+	public ObjectInfo open(String hash) throws IOException {
+		final var pack = find(hash);
+		if (pack == null) {
+			return null;
+		}
+
+		final var position = pack.getIndex().find(hash);
+
+		return new ObjectInfo(pack.getObjectType(position).nativeType(), pack.getObjectSize(position));
+	}
+
+	@Override
+	public RawObject read(String hash) throws IOException {
+		final var event = new ObjectReadEvent();
+		event.begin();
+
+		final var object = readObject(hash);
+		if (object != null) {
+			event.complete(hash, object.type().getName(), object.content().length, "pack");
+		}
+
+		return object;
+	}
+
+	private RawObject readObject(String hash) throws IOException {
+		final var current = getSnapshot();
+		final var multiPackIndex = current.multiPackIndex();
+
+		if (multiPackIndex != null) {
+			final var position = multiPackIndex.find(hash);
+
+			if (position != -1) {
+				final var pack = current.multiPackIndexPacks().get(multiPackIndex.getPackId(position));
+
+				return pack.readAt(multiPackIndex.getOffset(position));
+			}
+		}
+
+		for (final var pack : current.uncoveredPacks()) {
+			final var object = pack.read(hash);
+
+			if (object != null) {
+				return object;
+			}
+		}
+
+		return null;
+	}
+
+	public static record Snapshot(
+		List<PackFile> packs,
+		MultiPackIndex multiPackIndex,
+		List<PackFile> multiPackIndexPacks,
+		List<PackFile> uncoveredPacks
+	) {
+
+		public PackFile find(String hash) {
+			if (multiPackIndex != null) {
+				final var position = multiPackIndex.find(hash);
+
+				if (position != -1) {
+					return multiPackIndexPacks.get(multiPackIndex.getPackId(position));
+				}
+			}
+
+			for (final var pack : uncoveredPacks) {
+				if (pack.contains(hash)) {
+					return pack;
+				}
+			}
+
+			return null;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package git.odb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import git.domain.RawObject;
+
+public interface WritableObjectDatabase extends ObjectDatabase {
+
+	String insert(RawObject object) throws IOException;
+
+	default List<String> insertAll(Collection<RawObject> objects) throws IOException {
+		final var hashes = new ArrayList<String>(objects.size());
+
+		for (final var object : objects) {
+			hashes.add(insert(object));
+		}
+
+		return hashes;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package git.pack;
+
+public class DeltaApplier {
+
+	public static byte[] apply(byte[] base, byte[] delta) {
+		return apply(base, delta, 0, delta.length);
+	}
+
+	public static byte[] apply(byte[] base, byte[] delta, int offset, int length) {
+		final var end = offset + length;
+		var position = offset;
+
+		var baseSize = 0L;
+		var shift = 0;
+		int read;
+		do {
+			read = readByte(delta, position++, end);
+			baseSize |= (long) (read & PackParser.SIZE_7_MASK) << shift;
+			shift += 7;
+		} while ((read & PackParser.SIZE_CONTINUE_MASK) != 0);
+
+		if (baseSize != base.length) {
+			throw new IllegalStateException("delta base size mismatch: expected %d, got %d".formatted(baseSize, base.length));
+		}
+
+		var resultSize = 0L;
+		shift = 0;
+		do {
+			read = readByte(delta, position++, end);
+			resultSize |= (long) (read & PackParser.SIZE_7_MASK) << shift;
+			shift += 7;
+		} while ((read & PackParser.SIZE_CONTINUE_MASK) != 0);
+
+		if (resultSize > Integer.MAX_VALUE) {
+			throw new IllegalStateException("delta result too large: " + resultSize);
+		}
+
+		final var result = new byte[(int) resultSize];
+		var written = 0;
+
+		while (position < end) {
+			final var command = Byte.toUnsignedInt(delta[position++]);
+
+			if (command == 0) {
+				throw new IllegalStateException("reserved delta opcode 0x00 at offset " + (position - 1 - offset));
+			}
+
+			if ((command & 0b1000_0000) == 0) {
+				if (position + command > end || written + command > result.length) {
+					throw new IllegalStateException("delta insert of %d bytes overflows".formatted(command));
+				}
+
+				System.arraycopy(delta, position, result, written, command);
+				position += command;
+				written += command;
+				continue;
+			}
+
+			var copyOffset = 0L;
+			for (var index = 0; index < 4; ++index) {
+				if ((command & (1 << index)) != 0) {
+					copyOffset |= (long) readByte(delta, position++, end) << (index * 8);
+				}
+			}
+
+			var copySize = 0;
+			for (var index = 0; index < 3; ++index) {
+				if ((command & (1 << (4 + index))) != 0) {
+					copySize |= readByte(delta, position++, end) << (index * 8);
+				}
+			}
+
+			if (copySize == 0) {
+				copySize = DeltaInstruction.MAX_COPY_SIZE;
+			}
+
+			if (copyOffset + copySize > base.length || written + copySize > result.length) {
+				throw new IllegalStateException("delta copy of %d bytes at %d overflows".formatted(copySize, copyOffset));
+			}
+
+			System.arraycopy(base, (int) copyOffset, result, written, copySize);
+			written += copySize;
+		}
+
+		if (written != result.length) {
+			throw new IllegalStateException("delta result size mismatch: expected %d, got %d".formatted(result.length, written));
+		}
+
+		return result;
+	}
+
+	private static int readByte(byte[] delta, int position, int end) {
+		if (position >= end) {
+			throw new IllegalStateException("delta is truncated");
+		}
+
+		return Byte.toUnsignedInt(delta[position]);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package git.pack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.Getter;
+
+public class DeltaIndex {
+
+	public static final int BLOCK_SIZE = 16;
+	public static final int MAX_CHAIN_LENGTH = 64;
+	public static final int HASH_MULTIPLIER = 0x01000193;
+
+	private static final int HASH_MULTIPLIER_POWER = power(HASH_MULTIPLIER, BLOCK_SIZE - 1);
+
+	@Getter
+	private final byte[] base;
+
+	private final int mask;
+	private final int[] heads;
+	private final int[] next;
+
+	public DeltaIndex(byte[] base) {
+		this.base = base;
+
+		final var blockCount = base.length / BLOCK_SIZE;
+		final var tableSize = Integer.highestOneBit(Math.max(blockCount, 1) * 2 - 1) << 1;
+
+		this.mask = tableSize - 1;
+		this.heads = new int[tableSize];
+		this.next = new int[blockCount];
+
+		Arrays.fill(heads, -1);
+
+		for (var block = blockCount - 1; block >= 0; --block) {
+			final var offset = block * BLOCK_SIZE;
+			final var slot = slot(hash(base, offset));
+
+			next[block] = heads[slot];
+			heads[slot] = block;
+		}
+	}
+
+	public List<DeltaInstruction> encode(byte[] target, int maxSize) {
+		final var instructions = new ArrayList<DeltaInstruction>();
+		var size = DeltaInstruction.sizeHeaderLength(base.length) + DeltaInstruction.sizeHeaderLength(target.length);
+
+		var insertStart = 0;
+		var position = 0;
+		var hash = target.length >= BLOCK_SIZE ? hash(target, 0) : 0;
+
+		while (position + BLOCK_SIZE <= target.length) {
+			var bestOffset = -1;
+			var bestLength = 0;
+			var bestBackward = 0;
+
+			var chainLength = 0;
+			for (var block = heads[slot(hash)]; block != -1 && chainLength < MAX_CHAIN_LENGTH; block = next[block], ++chainLength) {
+				final var offset = block * BLOCK_SIZE;
+
+				final var length = matchForward(offset, target, position);
+				if (length < BLOCK_SIZE) {
+					continue;
+				}
+
+				final var backward = matchBackward(offset, target, position, insertStart);
+				if (length + backward > bestLength + bestBackward) {
+					bestOffset = offset;
+					bestLength = length;
+					bestBackward = backward;
+				}
+			}
+
+			if (bestOffset == -1) {
+				if (size + position - insertStart > maxSize) {
+					return null;
+				}
+
+				final var outgoing = target[position];
+				++position;
+
+				if (position + BLOCK_SIZE <= target.length) {
+					hash = roll(hash, outgoing, target[position + BLOCK_SIZE - 1]);
+				}
+
+				continue;
+			}
+
+			size += addInserts(instructions, target, insertStart, position - bestBackward);
+			size += addCopies(instructions, bestOffset - bestBackward, bestLength + bestBackward);
+
+			if (size > maxSize) {
+				return null;
+			}
+
+			position += bestLength;
+			insertStart = position;
+
+			if (position + BLOCK_SIZE <= target.length) {
+				hash = hash(target, position);
+			}
+		}
+
+		size += addInserts(instructions, target, insertStart, target.length);
+		if (size > maxSize) {
+			return null;
+		}
+
+		return instructions;
+	}
+
+	public byte[] delta(byte[] target, int maxSize) {
+		final var instructions = encode(target, maxSize);
+		if (instructions == null) {
+			return null;
+		}
+
+		return DeltaInstruction.serialize(base.length, target.length, instructions);
+	}
+
+	private int matchForward(int offset, byte[] target, int position) {
+		final var limit = Math.min(base.length - offset, target.length - position);
+
+		final var mismatch = Arrays.mismatch(base, offset, offset + limit, target, position, position + limit);
+		return mismatch == -1 ? limit : mismatch;
+	}
+
+	private int matchBackward(int offset, byte[] target, int position, int insertStart) {
+		var length = 0;
+
+		while (offset - length > 0 && position - length > insertStart && base[offset - length - 1] == target[position - length - 1]) {
+			++length;
+		}
+
+		return length;
+	}
+
+	private static int addInserts(List<DeltaInstruction> instructions, byte[] target, int from, int to) {
+		var size = 0;
+
+		while (from < to) {
+			final var length = Math.min(to - from, DeltaInstruction.MAX_INSERT_SIZE);
+			final var instruction = DeltaInstruction.insert(Arrays.copyOfRange(target, from, from + length));
+
+			instructions.add(instruction);
+			size += instruction.serializedSize();
+			from += length;
+		}
+
+		return size;
+	}
+
+	private static int addCopies(List<DeltaInstruction> instructions, int offset, int length) {
+		var size = 0;
+
+		while (length > 0) {
+			final var chunk = Math.min(length, DeltaInstruction.MAX_COPY_SIZE);
+			final var instruction = DeltaInstruction.copy(offset, chunk);
+
+			instructions.add(instruction);
+			size += instruction.serializedSize();
+			offset += chunk;
+			length -= chunk;
+		}
+
+		return size;
+	}
+
+	private int slot(int hash) {
+		final var mixed = hash * 0x9e3779b1;
+
+		return (mixed ^ (mixed >>> 15)) & mask;
+	}
+
+	private static int hash(byte[] bytes, int offset) {
+		var hash = 0;
+
+		for (var index = 0; index < BLOCK_SIZE; ++index) {
+			hash = hash * HASH_MULTIPLIER + Byte.toUnsignedInt(bytes[offset + index]);
+		}
+
+		return hash;
+	}
+
+	private static int roll(int hash, byte outgoing, byte incoming) {
+		return (hash - Byte.toUnsignedInt(outgoing) * HASH_MULTIPLIER_POWER) * HASH_MULTIPLIER + Byte.toUnsignedInt(incoming);
+	}
+
+	private static int power(int value, int exponent) {
+		var result = 1;
+
+		for (var index = 0; index < exponent; ++index) {
+			result *= value;
+		}
+
+		return result;
+	}
+
+}
\ No newline at end of file
@@ -1,18 +1,103 @@
 package git.pack;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
 import git.pack.DeltaInstruction.Insert;
 import git.pack.DeltaInstruction.Copy;
 
 public sealed interface DeltaInstruction permits Copy, Insert {
 
+	public static final int MAX_COPY_SIZE = 0x10000;
+	public static final int MAX_INSERT_SIZE = 0x7f;
+
+	int serializedSize();
+
+	void serialize(OutputStream outputStream) throws IOException;
+
 	public record Copy(
 		int offset,
 		int size
-	) implements DeltaInstruction {}
+	) implements DeltaInstruction {
+
+		@Override
+		public int serializedSize() {
+			var serializedSize = 1;
+
+			for (var shift = 0; shift < Integer.SIZE; shift += 8) {
+				if (((offset >>> shift) & 0xff) != 0) {
+					++serializedSize;
+				}
+			}
+
+			for (var shift = 0; shift < 24; shift += 8) {
+				if (size != MAX_COPY_SIZE && ((size >>> shift) & 0xff) != 0) {
+					++serializedSize;
+				}
+			}
+
+			return serializedSize;
+		}
+
+		@Override
+		public void serialize(OutputStream outputStream) throws IOException {
+			if (size <= 0 || size > MAX_COPY_SIZE) {
+				throw new IllegalStateException("invalid copy size: " + size);
+			}
+
+			var command = 0b1000_0000;
+			final var arguments = new byte[7];
+			var argumentCount = 0;
+
+			for (var index = 0; index < 4; ++index) {
+				final var value = (offset >>> (index * 8)) & 0xff;
+
+				if (value != 0) {
+					command |= 1 << index;
+					arguments[argumentCount++] = (byte) value;
+				}
+			}
+
+			if (size != MAX_COPY_SIZE) {
+				for (var index = 0; index < 3; ++index) {
+					final var value = (size >>> (index * 8)) & 0xff;
+
+					if (value != 0) {
+						command |= 1 << (4 + index);
+						arguments[argumentCount++] = (byte) value;
+					}
+				}
+			}
+
+			outputStream.write(command);
+			outputStream.write(arguments, 0, argumentCount);
+		}
+
+	}
 
 	public record Insert(
 		byte[] data
-	) implements DeltaInstruction {}
+	) implements DeltaInstruction {
+
+		@Override
+		public int serializedSize() {
+			return 1 + data.length;
+		}
+
+		@Override
+		public void serialize(OutputStream outputStream) throws IOException {
+			if (data.length == 0 || data.length > MAX_INSERT_SIZE) {
+				throw new IllegalStateException("invalid insert size: " + data.length);
+			}
+
+			outputStream.write(data.length);
+			outputStream.write(data);
+		}
+
+	}
 
 	public static Copy copy(int offset, int size) {
 		return new Copy(offset, size);
@@ -22,4 +107,40 @@ public sealed interface DeltaInstruction permits Copy, Insert {
 		return new Insert(data);
 	}
 
+	public static byte[] serialize(int baseSize, int resultSize, List<DeltaInstruction> instructions) {
+		final var outputStream = new ByteArrayOutputStream();
+
+		try {
+			writeSize(outputStream, baseSize);
+			writeSize(outputStream, resultSize);
+
+			for (final var instruction : instructions) {
+				instruction.serialize(outputStream);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		return outputStream.toByteArray();
+	}
+
+	public static int sizeHeaderLength(int size) {
+		var length = 1;
+
+		while ((size >>>= 7) != 0) {
+			++length;
+		}
+
+		return length;
+	}
+
+	private static void writeSize(OutputStream outputStream, int size) throws IOException {
+		while ((size & ~PackParser.SIZE_7_MASK) != 0) {
+			outputStream.write((size & PackParser.SIZE_7_MASK) | PackParser.SIZE_CONTINUE_MASK);
+			size >>>= 7;
+		}
+
+		outputStream.write(size);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package git.pack;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import git.Git;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class DeltaSearch {
+
+	public static final int DEFAULT_WINDOW = 10;
+	public static final int DEFAULT_DEPTH = 50;
+	public static final int MIN_OBJECT_SIZE = 50;
+
+	private final Git git;
+	private final int window;
+	private final int depth;
+	private final int threads;
+
+	public Map<String, Delta> search(List<Candidate> candidates) throws IOException {
+		final var sorted = new ArrayList<Candidate>();
+		for (final var candidate : candidates) {
+			if (candidate.size() >= MIN_OBJECT_SIZE) {
+				sorted.add(candidate);
+			}
+		}
+
+		sorted.sort(Candidate.ORDER);
+
+		final var deltas = new ConcurrentHashMap<String, Delta>();
+		if (window <= 0 || depth <= 0 || sorted.size() < 2) {
+			return deltas;
+		}
+
+		final var segments = split(sorted, Math.max(1, Math.min(threads, sorted.size() / window)));
+		if (segments.size() == 1) {
+			searchSegment(segments.getFirst(), deltas);
+			return deltas;
+		}
+
+		final var executor = Executors.newFixedThreadPool(segments.size());
+		try {
+			final var futures = new ArrayList<Future<?>>();
+			for (final var segment : segments) {
+				futures.add(executor.submit(() -> {
+					searchSegment(segment, deltas);
+					return null;
+				}));
+			}
+
+			for (final var future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IOException("delta search interrupted", exception);
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			throw new IllegalStateException(exception.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return deltas;
+	}
+
+	private void searchSegment(List<Candidate> segment, Map<String, Delta> deltas) throws IOException {
+		final var entries = new ArrayDeque<WindowEntry>(window + 1);
+
+		for (final var candidate : segment) {
+			final var content = git.readRawObject(candidate.hash()).content();
+
+			Delta best = null;
+			var bestDepth = 0;
+
+			for (final var iterator = entries.descendingIterator(); iterator.hasNext();) {
+				final var entry = iterator.next();
+				final var base = entry.getCandidate();
+
+				if (base.type() != candidate.type() || entry.getDepth() >= depth || base.size() < candidate.size() / 32) {
+					continue;
+				}
+
+				final var limit = ((long) candidate.size() / 2 - Git.HASH_BYTES_LENGTH) * (depth - entry.getDepth()) / depth;
+				var maxSize = (int) Math.min(limit, Integer.MAX_VALUE);
+				if (best != null) {
+					maxSize = Math.min(maxSize, best.data().length - 1);
+				}
+
+				if (maxSize <= 0 || candidate.size() - base.size() >= maxSize) {
+					continue;
+				}
+
+				final var data = entry.index().delta(content, maxSize);
+				if (data != null) {
+					best = new Delta(base.hash(), data);
+					bestDepth = entry.getDepth() + 1;
+				}
+			}
+
+			if (best != null) {
+				deltas.put(candidate.hash(), best);
+			}
+
+			entries.addLast(new WindowEntry(candidate, content, bestDepth));
+			if (entries.size() > window) {
+				entries.removeFirst();
+			}
+		}
+	}
+
+	private static List<List<Candidate>> split(List<Candidate> sorted, int count) {
+		final var segments = new ArrayList<List<Candidate>>();
+		final var targetSize = (sorted.size() + count - 1) / count;
+
+		var from = 0;
+		while (from < sorted.size()) {
+			var to = Math.min(from + targetSize, sorted.size());
+
+			while (to < sorted.size() && sorted.get(to).nameHash() != 0 && sorted.get(to).nameHash() == sorted.get(to - 1).nameHash()) {
+				++to;
+			}
+
+			segments.add(sorted.subList(from, to));
+			from = to;
+		}
+
+		return segments;
+	}
+
+	public static int nameHash(String path) {
+		if (path == null) {
+			return 0;
+		}
+
+		var hash = 0;
+		for (var index = 0; index < path.length(); ++index) {
+			final var character = path.charAt(index);
+
+			if (!Character.isWhitespace(character)) {
+				hash = (hash >>> 2) + (character << 24);
+			}
+		}
+
+		return hash;
+	}
+
+	public static record Candidate(
+		String hash,
+		PackObjectType type,
+		int nameHash,
+		int size
+	) {
+
+		public static final Comparator<Candidate> ORDER = Comparator
+			.comparingInt((Candidate candidate) -> candidate.type().value())
+			.thenComparing(Candidate::nameHash, Integer::compareUnsigned)
+			.thenComparing(Comparator.comparingInt(Candidate::size).reversed());
+
+	}
+
+	public static record Delta(
+		String baseHash,
+		byte[] data
+	) {}
+
+	@RequiredArgsConstructor
+	private static class WindowEntry {
+
+		@Getter
+		private final Candidate candidate;
+		private final byte[] content;
+
+		@Getter
+		private final int depth;
+
+		private DeltaIndex index;
+
+		public DeltaIndex index() {
+			if (index == null) {
+				index = new DeltaIndex(content);
+			}
+
+			return index;
+		}
+
+	}
+
+}
\ No newline at end of file
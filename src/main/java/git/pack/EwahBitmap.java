@@ -0,0 +1,105 @@
+package git.pack;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class EwahBitmap {
+
+	public static final long MAX_RUNNING_LENGTH = 0xffff_ffffL;
+	public static final long MAX_LITERAL_COUNT = 0x7fff_ffffL;
+	public static final int RUNNING_LENGTH_SHIFT = 1;
+	public static final int LITERAL_COUNT_SHIFT = 33;
+
+	public static BitSet read(ByteBuffer buffer) {
+		final var bitSize = Integer.toUnsignedLong(buffer.getInt());
+		final var wordCount = buffer.getInt();
+
+		var words = new long[Math.toIntExact((bitSize + Long.SIZE - 1) / Long.SIZE)];
+		var position = 0;
+
+		var remaining = wordCount;
+		while (remaining > 0) {
+			final var marker = buffer.getLong();
+			--remaining;
+
+			final var runningBit = (marker & 1) != 0;
+			final var runningLength = Math.toIntExact((marker >>> RUNNING_LENGTH_SHIFT) & MAX_RUNNING_LENGTH);
+			final var literalCount = Math.toIntExact(marker >>> LITERAL_COUNT_SHIFT);
+
+			words = ensureCapacity(words, position + runningLength + literalCount);
+			if (runningBit) {
+				Arrays.fill(words, position, position + runningLength, -1L);
+			}
+
+			position += runningLength;
+
+			for (var index = 0; index < literalCount; ++index) {
+				words[position++] = buffer.getLong();
+			}
+
+			remaining -= literalCount;
+		}
+
+		@SuppressWarnings("unused")
+		final var lastMarkerPosition = buffer.getInt();
+
+		return BitSet.valueOf(words);
+	}
+
+	public static void write(BitSet bits, DataOutputStream outputStream) throws IOException {
+		final var words = bits.toLongArray();
+		final var encoded = new long[words.length * 2 + 1];
+		var encodedCount = 0;
+		var lastMarkerPosition = 0;
+
+		var index = 0;
+		do {
+			lastMarkerPosition = encodedCount++;
+
+			var runningBit = false;
+			var runningLength = 0L;
+			if (index < words.length && isClean(words[index])) {
+				runningBit = words[index] == -1L;
+
+				final var cleanWord = words[index];
+				while (index < words.length && words[index] == cleanWord && runningLength < MAX_RUNNING_LENGTH) {
+					++runningLength;
+					++index;
+				}
+			}
+
+			var literalCount = 0L;
+			while (index < words.length && !isClean(words[index]) && literalCount < MAX_LITERAL_COUNT) {
+				encoded[encodedCount++] = words[index++];
+				++literalCount;
+			}
+
+			encoded[lastMarkerPosition] = (runningBit ? 1 : 0) | (runningLength << RUNNING_LENGTH_SHIFT) | (literalCount << LITERAL_COUNT_SHIFT);
+		} while (index < words.length);
+
+		outputStream.writeInt(bits.length());
+		outputStream.writeInt(encodedCount);
+
+		for (var position = 0; position < encodedCount; ++position) {
+			outputStream.writeLong(encoded[position]);
+		}
+
+		outputStream.writeInt(lastMarkerPosition);
+	}
+
+	private static boolean isClean(long word) {
+		return word == 0 || word == -1L;
+	}
+
+	private static long[] ensureCapacity(long[] words, int size) {
+		if (size <= words.length) {
+			return words;
+		}
+
+		return Arrays.copyOf(words, Math.max(size, words.length * 2));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package git.pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import git.Git;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class MultiPackIndex {
+
+	public static final String FILE_NAME = "multi-pack-index";
+	public static final int SIGNATURE = 0x4d494458;
+	public static final int VERSION = 1;
+	public static final int HASH_VERSION = 1;
+	public static final int HEADER_SIZE = 12;
+	public static final int CHUNK_LOOKUP_ENTRY_SIZE = Integer.BYTES + Long.BYTES;
+	public static final int OBJECT_OFFSET_ENTRY_SIZE = 2 * Integer.BYTES;
+
+	public static final int CHUNK_PACK_NAMES = 0x504e414d;
+	public static final int CHUNK_OID_FANOUT = 0x4f494446;
+	public static final int CHUNK_OID_LOOKUP = 0x4f49444c;
+	public static final int CHUNK_OBJECT_OFFSETS = 0x4f4f4646;
+	public static final int CHUNK_LARGE_OFFSETS = 0x4c4f4646;
+
+	private final ByteBuffer buffer;
+
+	@Getter
+	private final List<String> packNames;
+
+	@Getter
+	private final int objectCount;
+
+	private final int fanoutPosition;
+	private final int lookupPosition;
+	private final int offsetsPosition;
+	private final int largeOffsetsPosition;
+
+	public String getHash(int index) {
+		final var bytes = new byte[Git.HASH_BYTES_LENGTH];
+		buffer.get(lookupPosition + index * Git.HASH_BYTES_LENGTH, bytes);
+
+		return Git.HEX.formatHex(bytes);
+	}
+
+	public int getPackId(int index) {
+		return buffer.getInt(offsetsPosition + index * OBJECT_OFFSET_ENTRY_SIZE);
+	}
+
+	public long getOffset(int index) {
+		final var offset = buffer.getInt(offsetsPosition + index * OBJECT_OFFSET_ENTRY_SIZE + Integer.BYTES);
+
+		if (largeOffsetsPosition == -1 || (offset & PackIndex.LARGE_OFFSET_MASK) == 0) {
+			return Integer.toUnsignedLong(offset);
+		}
+
+		return buffer.getLong(largeOffsetsPosition + (offset & ~PackIndex.LARGE_OFFSET_MASK) * Long.BYTES);
+	}
+
+	public byte[] getChecksum() {
+		final var bytes = new byte[Git.HASH_BYTES_LENGTH];
+		buffer.get(buffer.limit() - Git.HASH_BYTES_LENGTH, bytes);
+
+		return bytes;
+	}
+
+	public ByteBuffer getContent() {
+		return buffer.slice(0, buffer.limit() - Git.HASH_BYTES_LENGTH);
+	}
+
+	public int find(String hash) {
+		return find(Git.HEX.parseHex(hash));
+	}
+
+	public int find(byte[] hash) {
+		final var first = Byte.toUnsignedInt(hash[0]);
+
+		var low = first == 0 ? 0 : fanout(first - 1);
+		var high = fanout(first) - 1;
+
+		while (low <= high) {
+			final var middle = (low + high) >>> 1;
+			final var comparison = compare(middle, hash);
+
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+
+		return -1;
+	}
+
+	private int compare(int index, byte[] hash) {
+		final var position = lookupPosition + index * Git.HASH_BYTES_LENGTH;
+
+		for (var offset = 0; offset < Git.HASH_BYTES_LENGTH; ++offset) {
+			final var comparison = Integer.compare(Byte.toUnsignedInt(buffer.get(position + offset)), Byte.toUnsignedInt(hash[offset]));
+
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+
+		return 0;
+	}
+
+	private int fanout(int index) {
+		return buffer.getInt(fanoutPosition + index * Integer.BYTES);
+	}
+
+	public static MultiPackIndex open(Path path) throws IOException {
+		try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			return parse(buffer);
+		}
+	}
+
+	public static MultiPackIndex parse(ByteBuffer buffer) {
+		if (buffer.getInt(0) != SIGNATURE) {
+			throw new IllegalStateException("invalid multi-pack-index signature");
+		}
+
+		final var version = Byte.toUnsignedInt(buffer.get(4));
+		if (version != VERSION) {
+			throw new IllegalStateException("unsupported multi-pack-index version: " + version);
+		}
+
+		final var hashVersion = Byte.toUnsignedInt(buffer.get(5));
+		if (hashVersion != HASH_VERSION) {
+			throw new IllegalStateException("unsupported multi-pack-index hash version: " + hashVersion);
+		}
+
+		final var chunkCount = Byte.toUnsignedInt(buffer.get(6));
+		final var packCount = buffer.getInt(8);
+
+		var packNamesPosition = -1;
+		var packNamesEnd = -1;
+		var fanoutPosition = -1;
+		var lookupPosition = -1;
+		var offsetsPosition = -1;
+		var largeOffsetsPosition = -1;
+
+		for (var index = 0; index < chunkCount; ++index) {
+			final var entryPosition = HEADER_SIZE + index * CHUNK_LOOKUP_ENTRY_SIZE;
+			final var id = buffer.getInt(entryPosition);
+			final var offset = Math.toIntExact(buffer.getLong(entryPosition + Integer.BYTES));
+
+			switch (id) {
+				case CHUNK_PACK_NAMES -> {
+					packNamesPosition = offset;
+					packNamesEnd = Math.toIntExact(buffer.getLong(entryPosition + CHUNK_LOOKUP_ENTRY_SIZE + Integer.BYTES));
+				}
+
+				case CHUNK_OID_FANOUT -> fanoutPosition = offset;
+				case CHUNK_OID_LOOKUP -> lookupPosition = offset;
+				case CHUNK_OBJECT_OFFSETS -> offsetsPosition = offset;
+				case CHUNK_LARGE_OFFSETS -> largeOffsetsPosition = offset;
+				default -> {}
+			}
+		}
+
+		if (packNamesPosition == -1 || fanoutPosition == -1 || lookupPosition == -1 || offsetsPosition == -1) {
+			throw new IllegalStateException("multi-pack-index is missing a required chunk");
+		}
+
+		final var packNames = new ArrayList<String>(packCount);
+		var start = packNamesPosition;
+		for (var position = packNamesPosition; position < packNamesEnd && packNames.size() < packCount; ++position) {
+			if (buffer.get(position) == 0) {
+				final var bytes = new byte[position - start];
+				buffer.get(start, bytes);
+
+				packNames.add(new String(bytes, StandardCharsets.UTF_8));
+				start = position + 1;
+			}
+		}
+
+		if (packNames.size() != packCount) {
+			throw new IllegalStateException("multi-pack-index names %d packs, header says %d".formatted(packNames.size(), packCount));
+		}
+
+		final var objectCount = buffer.getInt(fanoutPosition + (PackIndex.FANOUT_SIZE - 1) * Integer.BYTES);
+
+		return new MultiPackIndex(buffer, Collections.unmodifiableList(packNames), objectCount, fanoutPosition, lookupPosition, offsetsPosition, largeOffsetsPosition);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,227 @@
+package git.pack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import git.Git;
+
+public class MultiPackIndexWriter {
+
+	public static byte[] write(List<PackFile> packs, OutputStream outputStream) throws IOException, NoSuchAlgorithmException {
+		final var sorted = new ArrayList<>(packs);
+		sorted.sort(Comparator.comparing(MultiPackIndexWriter::indexName));
+
+		final var modifiedTimes = new long[sorted.size()];
+		for (var packId = 0; packId < sorted.size(); ++packId) {
+			modifiedTimes[packId] = Files.getLastModifiedTime(sorted.get(packId).getPath()).to(TimeUnit.SECONDS);
+		}
+
+		final var listingOrder = listingOrder(sorted);
+
+		final var hashes = new ByteArrayOutputStream();
+		final var fanout = new int[PackIndex.FANOUT_SIZE];
+		final var packIds = new ArrayList<Integer>();
+		final var offsets = new ArrayList<Long>();
+
+		final var queue = new PriorityQueue<Cursor>(Comparator.comparing(Cursor::hash).thenComparingInt(Cursor::packId));
+		for (var packId = 0; packId < sorted.size(); ++packId) {
+			final var cursor = new Cursor(sorted.get(packId).getIndex(), packId);
+
+			if (cursor.hasRemaining()) {
+				queue.add(cursor.advance());
+			}
+		}
+
+		String previousHash = null;
+		while (!queue.isEmpty()) {
+			final var cursor = queue.poll();
+			final var hash = cursor.hash();
+
+			if (hash.equals(previousHash)) {
+				final var last = packIds.size() - 1;
+				final var lastPackId = packIds.get(last);
+
+				final var modifiedTime = modifiedTimes[cursor.packId()];
+				final var lastModifiedTime = modifiedTimes[lastPackId];
+
+				if (modifiedTime > lastModifiedTime || (modifiedTime == lastModifiedTime && listingOrder[cursor.packId()] < listingOrder[lastPackId])) {
+					packIds.set(last, cursor.packId());
+					offsets.set(last, cursor.offset());
+				}
+			} else {
+				hashes.write(Git.HEX.parseHex(hash));
+				++fanout[Integer.parseInt(hash.substring(0, 2), 16)];
+				packIds.add(cursor.packId());
+				offsets.add(cursor.offset());
+
+				previousHash = hash;
+			}
+
+			if (cursor.hasRemaining()) {
+				queue.add(cursor.advance());
+			}
+		}
+
+		final var packNames = new ByteArrayOutputStream();
+		for (final var pack : sorted) {
+			packNames.write(indexName(pack).getBytes(StandardCharsets.UTF_8));
+			packNames.write(0);
+		}
+
+		while (packNames.size() % Integer.BYTES != 0) {
+			packNames.write(0);
+		}
+
+		final var fanoutChunk = new ByteArrayOutputStream();
+		final var fanoutOutputStream = new DataOutputStream(fanoutChunk);
+		var cumulated = 0;
+		for (final var count : fanout) {
+			cumulated += count;
+			fanoutOutputStream.writeInt(cumulated);
+		}
+
+		final var offsetsChunk = new ByteArrayOutputStream();
+		final var offsetsOutputStream = new DataOutputStream(offsetsChunk);
+		final var largeOffsetsChunk = new ByteArrayOutputStream();
+		final var largeOffsetsOutputStream = new DataOutputStream(largeOffsetsChunk);
+
+		var largeOffsetCount = 0;
+		for (var index = 0; index < packIds.size(); ++index) {
+			final var offset = offsets.get(index);
+			offsetsOutputStream.writeInt(packIds.get(index));
+
+			if (offset > PackIndexWriter.MAX_SMALL_OFFSET) {
+				offsetsOutputStream.writeInt(PackIndex.LARGE_OFFSET_MASK | largeOffsetCount++);
+				largeOffsetsOutputStream.writeLong(offset);
+			} else {
+				offsetsOutputStream.writeInt((int) (long) offset);
+			}
+		}
+
+		final var chunks = new ArrayList<Chunk>();
+		chunks.add(new Chunk(MultiPackIndex.CHUNK_PACK_NAMES, packNames.toByteArray()));
+		chunks.add(new Chunk(MultiPackIndex.CHUNK_OID_FANOUT, fanoutChunk.toByteArray()));
+		chunks.add(new Chunk(MultiPackIndex.CHUNK_OID_LOOKUP, hashes.toByteArray()));
+		chunks.add(new Chunk(MultiPackIndex.CHUNK_OBJECT_OFFSETS, offsetsChunk.toByteArray()));
+		if (largeOffsetCount != 0) {
+			chunks.add(new Chunk(MultiPackIndex.CHUNK_LARGE_OFFSETS, largeOffsetsChunk.toByteArray()));
+		}
+
+		final var digest = MessageDigest.getInstance("SHA-1");
+		final var dataOutputStream = new DataOutputStream(new DigestOutputStream(outputStream, digest));
+
+		dataOutputStream.writeInt(MultiPackIndex.SIGNATURE);
+		dataOutputStream.writeByte(MultiPackIndex.VERSION);
+		dataOutputStream.writeByte(MultiPackIndex.HASH_VERSION);
+		dataOutputStream.writeByte(chunks.size());
+		dataOutputStream.writeByte(0);
+		dataOutputStream.writeInt(sorted.size());
+
+		long chunkOffset = MultiPackIndex.HEADER_SIZE + (chunks.size() + 1) * MultiPackIndex.CHUNK_LOOKUP_ENTRY_SIZE;
+		for (final var chunk : chunks) {
+			dataOutputStream.writeInt(chunk.id());
+			dataOutputStream.writeLong(chunkOffset);
+
+			chunkOffset += chunk.data().length;
+		}
+
+		dataOutputStream.writeInt(0);
+		dataOutputStream.writeLong(chunkOffset);
+
+		for (final var chunk : chunks) {
+			dataOutputStream.write(chunk.data());
+		}
+
+		dataOutputStream.flush();
+
+		final var checksum = digest.digest();
+		outputStream.write(checksum);
+
+		return checksum;
+	}
+
+	private static int[] listingOrder(List<PackFile> packs) throws IOException {
+		final var order = new int[packs.size()];
+		final var positions = new HashMap<String, Integer>();
+
+		final var directory = packs.get(0).getPath().getParent();
+		try (final var paths = Files.list(directory)) {
+			for (final var path : (Iterable<Path>) paths::iterator) {
+				final var fileName = path.getFileName().toString();
+
+				if (fileName.endsWith(PackFile.INDEX_EXTENSION)) {
+					positions.putIfAbsent(fileName, positions.size());
+				}
+			}
+		}
+
+		for (var packId = 0; packId < packs.size(); ++packId) {
+			order[packId] = positions.getOrDefault(indexName(packs.get(packId)), positions.size() + packId);
+		}
+
+		return order;
+	}
+
+	public static String indexName(PackFile pack) {
+		final var fileName = pack.getPath().getFileName().toString();
+
+		return fileName.substring(0, fileName.length() - PackFile.PACK_EXTENSION.length()) + PackFile.INDEX_EXTENSION;
+	}
+
+	private static record Chunk(
+		int id,
+		byte[] data
+	) {}
+
+	private static class Cursor {
+
+		private final PackIndex index;
+		private final int packId;
+		private int position = -1;
+		private String hash;
+
+		public Cursor(PackIndex index, int packId) {
+			this.index = index;
+			this.packId = packId;
+		}
+
+		public boolean hasRemaining() {
+			return position + 1 < index.getObjectCount();
+		}
+
+		public Cursor advance() {
+			++position;
+			hash = index.getHash(position);
+
+			return this;
+		}
+
+		public String hash() {
+			return hash;
+		}
+
+		public int packId() {
+			return packId;
+		}
+
+		public long offset() {
+			return index.getOffset(position);
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package git.pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import git.Git;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class PackBitmapIndex {
+
+	public static final String EXTENSION = ".bitmap";
+	public static final int SIGNATURE = 0x4249544d;
+	public static final int VERSION = 1;
+	public static final int FLAG_FULL_DAG = 0x1;
+	public static final int FLAG_HASH_CACHE = 0x4;
+	public static final int HEADER_SIZE = 12 + Git.HASH_BYTES_LENGTH;
+
+	@Getter
+	private final PackFile pack;
+
+	private final BitSet commits;
+	private final BitSet trees;
+	private final BitSet blobs;
+	private final BitSet tags;
+	private final Map<String, BitSet> bitmaps;
+	private final int[] nameHashes;
+
+	public BitSet getBitmap(String commitHash) {
+		return bitmaps.get(commitHash);
+	}
+
+	public Map<String, BitSet> getBitmaps() {
+		return Collections.unmodifiableMap(bitmaps);
+	}
+
+	public BitSet getTypeBitmap(PackObjectType type) {
+		return switch (type) {
+			case COMMIT -> commits;
+			case TREE -> trees;
+			case BLOB -> blobs;
+			case TAG -> tags;
+			default -> throw new IllegalArgumentException("no type bitmap for " + type);
+		};
+	}
+
+	public int getNameHash(String hash) {
+		if (nameHashes == null) {
+			return 0;
+		}
+
+		final var position = pack.getIndex().find(hash);
+		if (position == -1) {
+			return 0;
+		}
+
+		return nameHashes[position];
+	}
+
+	public static Path pathFor(PackFile pack) {
+		final var fileName = pack.getPath().getFileName().toString();
+		final var baseName = fileName.substring(0, fileName.length() - PackFile.PACK_EXTENSION.length());
+
+		return pack.getPath().resolveSibling(baseName + EXTENSION);
+	}
+
+	public static PackBitmapIndex open(PackFile pack) throws IOException {
+		try (final var channel = FileChannel.open(pathFor(pack), StandardOpenOption.READ)) {
+			final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			return parse(buffer, pack);
+		}
+	}
+
+	public static PackBitmapIndex parse(ByteBuffer buffer, PackFile pack) throws IOException {
+		if (buffer.getInt() != SIGNATURE) {
+			throw new IOException("invalid bitmap signature");
+		}
+
+		final var version = Short.toUnsignedInt(buffer.getShort());
+		if (version != VERSION) {
+			throw new IOException("unsupported bitmap version: " + version);
+		}
+
+		final var flags = Short.toUnsignedInt(buffer.getShort());
+		if ((flags & FLAG_FULL_DAG) == 0) {
+			throw new IOException("bitmap does not cover the full DAG");
+		}
+
+		final var entryCount = buffer.getInt();
+
+		final var packChecksum = new byte[Git.HASH_BYTES_LENGTH];
+		buffer.get(packChecksum);
+
+		if (!Arrays.equals(packChecksum, pack.getIndex().getPackChecksum())) {
+			throw new IOException("bitmap does not match " + pack.getPath().getFileName());
+		}
+
+		final var commits = EwahBitmap.read(buffer);
+		final var trees = EwahBitmap.read(buffer);
+		final var blobs = EwahBitmap.read(buffer);
+		final var tags = EwahBitmap.read(buffer);
+
+		final var decoded = new ArrayList<BitSet>(entryCount);
+		final var bitmaps = new HashMap<String, BitSet>(entryCount);
+
+		for (var index = 0; index < entryCount; ++index) {
+			final var position = buffer.getInt();
+			final var xorOffset = Byte.toUnsignedInt(buffer.get());
+
+			@SuppressWarnings("unused")
+			final var entryFlags = buffer.get();
+
+			final var bitmap = EwahBitmap.read(buffer);
+			if (xorOffset != 0) {
+				bitmap.xor(decoded.get(index - xorOffset));
+			}
+
+			decoded.add(bitmap);
+			bitmaps.put(pack.getIndex().getHash(position), bitmap);
+		}
+
+		int[] nameHashes = null;
+		if ((flags & FLAG_HASH_CACHE) != 0) {
+			nameHashes = new int[pack.getIndex().getObjectCount()];
+
+			for (var index = 0; index < nameHashes.length; ++index) {
+				nameHashes[index] = buffer.getInt();
+			}
+		}
+
+		return new PackBitmapIndex(pack, commits, trees, blobs, tags, bitmaps, nameHashes);
+	}
+
+}
\ No newline at end of file
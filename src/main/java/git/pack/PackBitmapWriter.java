@@ -0,0 +1,247 @@
+package git.pack;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import git.Git;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class PackBitmapWriter {
+
+	public static final int SELECTION_INTERVAL = 100;
+
+	private final Git git;
+	private final PackFile pack;
+
+	public boolean write(Collection<String> tips, Map<String, String> paths, OutputStream outputStream) throws IOException, NoSuchAlgorithmException {
+		final var index = pack.getIndex();
+		final var objectCount = index.getObjectCount();
+
+		final var types = new PackObjectType[objectCount];
+		final var typeBitmaps = new HashMap<PackObjectType, BitSet>();
+		for (final var type : List.of(PackObjectType.COMMIT, PackObjectType.TREE, PackObjectType.BLOB, PackObjectType.TAG)) {
+			typeBitmaps.put(type, new BitSet(objectCount));
+		}
+
+		for (var position = 0; position < objectCount; ++position) {
+			typeBitmaps.get(resolveType(position, types)).set(pack.getPackOrder(position));
+		}
+
+		final var commits = sortCommits(tips, types);
+		if (commits == null) {
+			return false;
+		}
+
+		final var selected = new HashSet<String>();
+		for (final var tip : tips) {
+			final var position = index.find(tip);
+
+			if (position != -1 && types[position] == PackObjectType.COMMIT) {
+				selected.add(tip);
+			}
+		}
+
+		for (var order = 0; order < commits.size(); order += SELECTION_INTERVAL) {
+			selected.add(commits.get(order).hash());
+		}
+
+		final var pendingChildren = new HashMap<String, Integer>();
+		for (final var commit : commits) {
+			for (final var parentHash : commit.parentHashes()) {
+				pendingChildren.merge(parentHash, 1, Integer::sum);
+			}
+		}
+
+		final var live = new HashMap<String, BitSet>();
+		final var bitmaps = new LinkedHashMap<String, BitSet>();
+
+		for (final var commit : commits) {
+			final var bitmap = new BitSet(objectCount);
+
+			for (final var parentHash : commit.parentHashes()) {
+				bitmap.or(live.get(parentHash));
+
+				if (pendingChildren.merge(parentHash, -1, Integer::sum) == 0) {
+					live.remove(parentHash);
+				}
+			}
+
+			bitmap.set(pack.getPackOrder(index.find(commit.hash())));
+			if (!addTree(commit.treeHash(), bitmap)) {
+				return false;
+			}
+
+			if (pendingChildren.getOrDefault(commit.hash(), 0) != 0) {
+				live.put(commit.hash(), bitmap);
+			}
+
+			if (selected.contains(commit.hash())) {
+				bitmaps.put(commit.hash(), bitmap);
+			}
+		}
+
+		final var digest = MessageDigest.getInstance("SHA-1");
+		final var dataOutputStream = new DataOutputStream(new DigestOutputStream(outputStream, digest));
+
+		dataOutputStream.writeInt(PackBitmapIndex.SIGNATURE);
+		dataOutputStream.writeShort(PackBitmapIndex.VERSION);
+		dataOutputStream.writeShort(PackBitmapIndex.FLAG_FULL_DAG | PackBitmapIndex.FLAG_HASH_CACHE);
+		dataOutputStream.writeInt(bitmaps.size());
+		dataOutputStream.write(index.getPackChecksum());
+
+		for (final var type : List.of(PackObjectType.COMMIT, PackObjectType.TREE, PackObjectType.BLOB, PackObjectType.TAG)) {
+			EwahBitmap.write(typeBitmaps.get(type), dataOutputStream);
+		}
+
+		for (final var entry : bitmaps.entrySet()) {
+			dataOutputStream.writeInt(index.find(entry.getKey()));
+			dataOutputStream.writeByte(0);
+			dataOutputStream.writeByte(0);
+			EwahBitmap.write(entry.getValue(), dataOutputStream);
+		}
+
+		for (var position = 0; position < objectCount; ++position) {
+			dataOutputStream.writeInt(DeltaSearch.nameHash(paths.get(index.getHash(position))));
+		}
+
+		dataOutputStream.flush();
+		outputStream.write(digest.digest());
+
+		return true;
+	}
+
+	private PackObjectType resolveType(int position, PackObjectType[] types) {
+		if (types[position] == null) {
+			final var entry = pack.getEntry(position);
+
+			if (entry.isDelta()) {
+				types[position] = resolveType(pack.getIndex().find(entry.baseHash()), types);
+			} else {
+				types[position] = entry.header().type();
+			}
+		}
+
+		return types[position];
+	}
+
+	private List<CommitNode> sortCommits(Collection<String> tips, PackObjectType[] types) throws IOException {
+		final var index = pack.getIndex();
+		final var sorted = new ArrayList<CommitNode>();
+		final var visited = new HashSet<String>();
+		final var emitted = new HashSet<String>();
+		final var stack = new ArrayDeque<CommitNode>();
+
+		for (final var tip : tips) {
+			final var position = index.find(tip);
+			if (position == -1) {
+				return null;
+			}
+
+			if (types[position] != PackObjectType.COMMIT || !visited.add(tip)) {
+				continue;
+			}
+
+			stack.push(readCommit(tip));
+
+			while (!stack.isEmpty()) {
+				final var node = stack.peek();
+
+				String next = null;
+				for (final var parentHash : node.parentHashes()) {
+					if (!visited.contains(parentHash)) {
+						next = parentHash;
+						break;
+					}
+				}
+
+				if (next == null) {
+					stack.pop();
+
+					if (emitted.add(node.hash())) {
+						sorted.add(node);
+					}
+
+					continue;
+				}
+
+				if (index.find(next) == -1) {
+					return null;
+				}
+
+				visited.add(next);
+				stack.push(readCommit(next));
+			}
+		}
+
+		return sorted;
+	}
+
+	private CommitNode readCommit(String hash) throws IOException {
+		final var commit = git.readCommit(hash);
+
+		return new CommitNode(hash, commit.treeHash(), commit.parentHashes());
+	}
+
+	private boolean addTree(String hash, BitSet bitmap) throws IOException {
+		final var packOrder = pack.getPackOrder(hash);
+		if (packOrder == -1) {
+			return false;
+		}
+
+		if (bitmap.get(packOrder)) {
+			return true;
+		}
+
+		bitmap.set(packOrder);
+
+		for (final var entry : git.readTree(hash).entries()) {
+			switch (entry.mode().type()) {
+				case DIRECTORY: {
+					if (!addTree(entry.hash(), bitmap)) {
+						return false;
+					}
+
+					break;
+				}
+
+				case REGULAR_FILE:
+				case SYMBOLIC_LINK: {
+					final var blobPackOrder = pack.getPackOrder(entry.hash());
+					if (blobPackOrder == -1) {
+						return false;
+					}
+
+					bitmap.set(blobPackOrder);
+					break;
+				}
+
+				case GITLINK: {
+					break;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private static record CommitNode(
+		String hash,
+		String treeHash,
+		List<String> parentHashes
+	) {}
+
+}
\ No newline at end of file
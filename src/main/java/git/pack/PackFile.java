@@ -0,0 +1,401 @@
+package git.pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import git.Git;
+import git.domain.RawObject;
+import lombok.Getter;
+
+public class PackFile {
+
+	public static final String PACK_EXTENSION = ".pack";
+	public static final String INDEX_EXTENSION = ".idx";
+	public static final long DELTA_BASE_CACHE_LIMIT = 16 * 1024 * 1024;
+	public static final int DELTA_SIZES_MAX_LENGTH = 20;
+	public static final long WINDOW_SIZE = 1L << 30;
+	public static final int WINDOW_OVERLAP = 64;
+
+	@Getter
+	private final Path path;
+
+	@Getter
+	private final PackIndex index;
+
+	private final ByteBuffer[] windows;
+	private final long windowSize;
+	private final long size;
+	private final Map<Long, RawObject> deltaBaseCache = new LinkedHashMap<>(16, 0.75f, true);
+	private long deltaBaseCacheSize;
+	private long[] sortedOffsets;
+	private int[] positionBySortedIndex;
+	private int[] sortedIndexByPosition;
+
+	private PackFile(Path path, PackIndex index, ByteBuffer[] windows, long windowSize, long size) {
+		this.path = path;
+		this.index = index;
+		this.windows = windows;
+		this.windowSize = windowSize;
+		this.size = size;
+	}
+
+	public boolean contains(String hash) {
+		return index.contains(hash);
+	}
+
+	public RawObject read(String hash) throws IOException {
+		final var position = index.find(hash);
+		if (position == -1) {
+			return null;
+		}
+
+		return readAt(index.getOffset(position));
+	}
+
+	public RawObject readAt(long offset) throws IOException {
+		final var entry = at(offset);
+		final var header = PackParser.parseObjectHeader(entry);
+
+		try {
+			return switch (header.type()) {
+				case COMMIT, TREE, BLOB, TAG -> new RawObject(header.type().nativeType(), inflate(offset, entry, header.size()));
+
+				case OFS_DELTA -> {
+					final var baseOffset = offset - PackParser.parseOffsetDelta(entry);
+					final var base = readBase(baseOffset);
+
+					yield applyDelta(base, inflate(offset, entry, header.size()));
+				}
+
+				case REF_DELTA -> {
+					final var hashBytes = new byte[Git.HASH_BYTES_LENGTH];
+					entry.get(hashBytes);
+
+					final var basePosition = index.find(hashBytes);
+					if (basePosition == -1) {
+						throw new IllegalStateException("delta base not in pack: " + Git.HEX.formatHex(hashBytes));
+					}
+
+					final var base = readBase(index.getOffset(basePosition));
+
+					yield applyDelta(base, inflate(offset, entry, header.size()));
+				}
+			};
+		} catch (DataFormatException exception) {
+			throw new IOException("corrupt pack entry at %d in %s".formatted(offset, path), exception);
+		}
+	}
+
+	public Entry getEntry(String hash) {
+		final var position = index.find(hash);
+		if (position == -1) {
+			return null;
+		}
+
+		return getEntry(position);
+	}
+
+	public Entry getEntry(int position) {
+		final var offset = index.getOffset(position);
+		final var entry = at(offset);
+		final var header = PackParser.parseObjectHeader(entry);
+
+		String baseHash = null;
+		if (header.type() == PackObjectType.OFS_DELTA) {
+			baseHash = getHashAt(offset - PackParser.parseOffsetDelta(entry));
+		} else if (header.type() == PackObjectType.REF_DELTA) {
+			final var hashBytes = new byte[Git.HASH_BYTES_LENGTH];
+			entry.get(hashBytes);
+
+			baseHash = Git.HEX.formatHex(hashBytes);
+		}
+
+		return new Entry(position, offset, dataOffset(offset, entry), getEndOffset(offset), header, baseHash);
+	}
+
+	public List<ByteBuffer> slices(long from, long to) {
+		final var slices = new ArrayList<ByteBuffer>();
+
+		var offset = from;
+		while (offset < to) {
+			final var window = (int) (offset / windowSize);
+			final var start = window * windowSize;
+			final var end = Math.min(to, start + windowSize);
+
+			slices.add(windows[window].slice((int) (offset - start), (int) (end - offset)));
+			offset = end;
+		}
+
+		return slices;
+	}
+
+	public boolean verifyCrc32(Entry entry) {
+		final var crc32 = new CRC32();
+		for (final var slice : slices(entry.offset(), entry.endOffset())) {
+			crc32.update(slice);
+		}
+
+		return (int) crc32.getValue() == index.getCrc32(entry.position());
+	}
+
+	public byte[] getChecksum() {
+		final var bytes = new byte[Git.HASH_BYTES_LENGTH];
+		at(size - Git.HASH_BYTES_LENGTH).get(bytes);
+
+		return bytes;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public boolean verifyChecksum() throws NoSuchAlgorithmException {
+		final var digest = MessageDigest.getInstance("SHA-1");
+		for (final var slice : slices(0, size - Git.HASH_BYTES_LENGTH)) {
+			digest.update(slice);
+		}
+
+		final var checksum = getChecksum();
+		return MessageDigest.isEqual(digest.digest(), checksum) && MessageDigest.isEqual(checksum, index.getPackChecksum());
+	}
+
+	public long getEndOffset(long offset) {
+		loadReverseIndex();
+
+		final var sortedIndex = Arrays.binarySearch(sortedOffsets, offset);
+		if (sortedIndex < 0) {
+			throw new IllegalArgumentException("no entry at offset: " + offset);
+		}
+
+		if (sortedIndex + 1 == sortedOffsets.length) {
+			return size - Git.HASH_BYTES_LENGTH;
+		}
+
+		return sortedOffsets[sortedIndex + 1];
+	}
+
+	public String getHashAt(long offset) {
+		loadReverseIndex();
+
+		final var sortedIndex = Arrays.binarySearch(sortedOffsets, offset);
+		if (sortedIndex < 0) {
+			throw new IllegalArgumentException("no entry at offset: " + offset);
+		}
+
+		return index.getHash(positionBySortedIndex[sortedIndex]);
+	}
+
+	public int getPackOrder(int position) {
+		loadReverseIndex();
+
+		return sortedIndexByPosition[position];
+	}
+
+	public int getPositionAtPackOrder(int packOrder) {
+		loadReverseIndex();
+
+		return positionBySortedIndex[packOrder];
+	}
+
+	public int getPackOrder(String hash) {
+		final var position = index.find(hash);
+		if (position == -1) {
+			return -1;
+		}
+
+		return getPackOrder(position);
+	}
+
+	public PackObjectType getObjectType(int position) {
+		var entry = getEntry(position);
+
+		while (entry.isDelta()) {
+			entry = getEntry(entry.baseHash());
+		}
+
+		return entry.header().type();
+	}
+
+	public long getObjectSize(int position) throws IOException {
+		final var entry = getEntry(position);
+		if (!entry.isDelta()) {
+			return entry.header().size();
+		}
+
+		final var inflater = new Inflater();
+		try {
+			final var slices = slices(entry.dataOffset(), entry.endOffset()).iterator();
+
+			final var header = new byte[DELTA_SIZES_MAX_LENGTH];
+			var length = 0;
+
+			while (length < header.length && !inflater.finished()) {
+				if (inflater.needsInput()) {
+					if (!slices.hasNext()) {
+						break;
+					}
+
+					inflater.setInput(slices.next());
+				}
+
+				final var inflated = inflater.inflate(header, length, header.length - length);
+				if (inflated == 0 && inflater.needsDictionary()) {
+					throw new DataFormatException("delta needs a preset dictionary");
+				}
+
+				length += inflated;
+			}
+
+			final var buffer = ByteBuffer.wrap(header, 0, length);
+			PackParser.parseVariableLengthIntegerLittleEndian(buffer);
+
+			return PackParser.parseVariableLengthIntegerLittleEndian(buffer);
+		} catch (DataFormatException exception) {
+			throw new IOException("corrupt delta at %d in %s".formatted(entry.offset(), path), exception);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private synchronized void loadReverseIndex() {
+		if (sortedOffsets != null) {
+			return;
+		}
+
+		final var objectCount = index.getObjectCount();
+		final var offsets = new long[objectCount];
+
+		for (var position = 0; position < objectCount; ++position) {
+			offsets[position] = index.getOffset(position);
+		}
+
+		final var sorted = offsets.clone();
+		Arrays.sort(sorted);
+
+		final var positions = new int[objectCount];
+		final var sortedIndexes = new int[objectCount];
+
+		for (var position = 0; position < objectCount; ++position) {
+			final var sortedIndex = Arrays.binarySearch(sorted, offsets[position]);
+
+			positions[sortedIndex] = position;
+			sortedIndexes[position] = sortedIndex;
+		}
+
+		positionBySortedIndex = positions;
+		sortedIndexByPosition = sortedIndexes;
+		sortedOffsets = sorted;
+	}
+
+	private ByteBuffer at(long offset) {
+		final var window = (int) (offset / windowSize);
+
+		return windows[window].duplicate().position((int) (offset - window * windowSize));
+	}
+
+	private long dataOffset(long offset, ByteBuffer entry) {
+		return offset - offset % windowSize + entry.position();
+	}
+
+	private byte[] inflate(long offset, ByteBuffer entry, long inflatedSize) throws DataFormatException {
+		return PackParser.inflate(slices(dataOffset(offset, entry), size - Git.HASH_BYTES_LENGTH), inflatedSize);
+	}
+
+	private RawObject readBase(long offset) throws IOException {
+		synchronized (deltaBaseCache) {
+			final var cached = deltaBaseCache.get(offset);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		final var base = readAt(offset);
+
+		synchronized (deltaBaseCache) {
+			if (deltaBaseCache.put(offset, base) == null) {
+				deltaBaseCacheSize += base.content().length;
+			}
+
+			final var iterator = deltaBaseCache.values().iterator();
+			while (deltaBaseCacheSize > DELTA_BASE_CACHE_LIMIT && iterator.hasNext()) {
+				deltaBaseCacheSize -= iterator.next().content().length;
+				iterator.remove();
+			}
+		}
+
+		return base;
+	}
+
+	private static RawObject applyDelta(RawObject base, byte[] delta) {
+		return new RawObject(base.type(), DeltaApplier.apply(base.content(), delta));
+	}
+
+	public static record Entry(
+		int position,
+		long offset,
+		long dataOffset,
+		long endOffset,
+		PackObjectHeader header,
+		String baseHash
+	) {
+
+		public boolean isDelta() {
+			return baseHash != null;
+		}
+
+	}
+
+	public static Path indexPathFor(Path path) {
+		final var fileName = path.getFileName().toString();
+
+		if (fileName.endsWith(INDEX_EXTENSION)) {
+			return path;
+		}
+
+		if (fileName.endsWith(PACK_EXTENSION)) {
+			return path.resolveSibling(fileName.substring(0, fileName.length() - PACK_EXTENSION.length()) + INDEX_EXTENSION);
+		}
+
+		return path.resolveSibling(fileName + INDEX_EXTENSION);
+	}
+
+	public static PackFile open(Path indexPath) throws IOException {
+		return open(indexPath, WINDOW_SIZE);
+	}
+
+	static PackFile open(Path indexPath, long windowSize) throws IOException {
+		final var fileName = indexPath.getFileName().toString();
+		final var baseName = fileName.substring(0, fileName.length() - INDEX_EXTENSION.length());
+		final var packPath = indexPath.resolveSibling(baseName + PACK_EXTENSION);
+
+		final var index = PackIndex.open(indexPath);
+
+		try (final var channel = FileChannel.open(packPath, StandardOpenOption.READ)) {
+			final var size = channel.size();
+			final var windows = new ByteBuffer[(int) Math.max(1, (size + windowSize - 1) / windowSize)];
+
+			for (var window = 0; window < windows.length; ++window) {
+				final var start = window * windowSize;
+				final var length = Math.min(size - start, windowSize + WINDOW_OVERLAP);
+
+				windows[window] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.max(0, length));
+			}
+
+			return new PackFile(packPath, index, windows, windowSize, size);
+		}
+	}
+
+}
\ No newline at end of file
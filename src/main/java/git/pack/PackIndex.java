@@ -0,0 +1,173 @@
+package git.pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import git.Git;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class PackIndex {
+
+	public static final int MAGIC = 0xff744f63;
+	public static final int FANOUT_SIZE = 256;
+	public static final int V1_ENTRY_SIZE = Integer.BYTES + Git.HASH_BYTES_LENGTH;
+	public static final int LARGE_OFFSET_MASK = 0x8000_0000;
+
+	private final ByteBuffer buffer;
+
+	@Getter
+	private final int version;
+
+	@Getter
+	private final int objectCount;
+
+	private final int fanoutPosition;
+
+	public String getHash(int index) {
+		final var bytes = new byte[Git.HASH_BYTES_LENGTH];
+		buffer.get(hashPosition(index), bytes);
+
+		return Git.HEX.formatHex(bytes);
+	}
+
+	public long getOffset(int index) {
+		if (version == 1) {
+			return Integer.toUnsignedLong(buffer.getInt(fanoutPosition + FANOUT_SIZE * Integer.BYTES + index * V1_ENTRY_SIZE));
+		}
+
+		final var offsetsPosition = crcsPosition() + objectCount * Integer.BYTES;
+		final var offset = buffer.getInt(offsetsPosition + index * Integer.BYTES);
+
+		if ((offset & LARGE_OFFSET_MASK) == 0) {
+			return offset;
+		}
+
+		final var largeOffsetsPosition = offsetsPosition + objectCount * Integer.BYTES;
+		return buffer.getLong(largeOffsetsPosition + (offset & ~LARGE_OFFSET_MASK) * Long.BYTES);
+	}
+
+	public int getCrc32(int index) {
+		if (version == 1) {
+			throw new UnsupportedOperationException("version 1 index has no crc32");
+		}
+
+		return buffer.getInt(crcsPosition() + index * Integer.BYTES);
+	}
+
+	public byte[] getPackChecksum() {
+		final var bytes = new byte[Git.HASH_BYTES_LENGTH];
+		buffer.get(buffer.limit() - 2 * Git.HASH_BYTES_LENGTH, bytes);
+
+		return bytes;
+	}
+
+	public boolean verifyChecksum() throws NoSuchAlgorithmException {
+		final var digest = MessageDigest.getInstance("SHA-1");
+		digest.update(buffer.slice(0, buffer.limit() - Git.HASH_BYTES_LENGTH));
+
+		final var checksum = new byte[Git.HASH_BYTES_LENGTH];
+		buffer.get(buffer.limit() - Git.HASH_BYTES_LENGTH, checksum);
+
+		return MessageDigest.isEqual(digest.digest(), checksum);
+	}
+
+	public long getSize() {
+		return buffer.limit();
+	}
+
+	public int find(String hash) {
+		return find(Git.HEX.parseHex(hash));
+	}
+
+	public int find(byte[] hash) {
+		final var first = Byte.toUnsignedInt(hash[0]);
+
+		var low = first == 0 ? 0 : fanout(first - 1);
+		var high = fanout(first) - 1;
+
+		while (low <= high) {
+			final var middle = (low + high) >>> 1;
+			final var comparison = compare(middle, hash);
+
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+
+		return -1;
+	}
+
+	public boolean contains(String hash) {
+		return find(hash) != -1;
+	}
+
+	private int compare(int index, byte[] hash) {
+		final var position = hashPosition(index);
+
+		for (var offset = 0; offset < Git.HASH_BYTES_LENGTH; ++offset) {
+			final var comparison = Integer.compare(Byte.toUnsignedInt(buffer.get(position + offset)), Byte.toUnsignedInt(hash[offset]));
+
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+
+		return 0;
+	}
+
+	private int fanout(int index) {
+		return buffer.getInt(fanoutPosition + index * Integer.BYTES);
+	}
+
+	private int hashPosition(int index) {
+		final var tablePosition = fanoutPosition + FANOUT_SIZE * Integer.BYTES;
+
+		if (version == 1) {
+			return tablePosition + index * V1_ENTRY_SIZE + Integer.BYTES;
+		}
+
+		return tablePosition + index * Git.HASH_BYTES_LENGTH;
+	}
+
+	private int crcsPosition() {
+		return hashPosition(0) + objectCount * Git.HASH_BYTES_LENGTH;
+	}
+
+	public static PackIndex open(Path path) throws IOException {
+		try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			return parse(buffer);
+		}
+	}
+
+	public static PackIndex parse(ByteBuffer buffer) {
+		if (buffer.getInt(0) != MAGIC) {
+			final var objectCount = buffer.getInt((FANOUT_SIZE - 1) * Integer.BYTES);
+
+			return new PackIndex(buffer, 1, objectCount, 0);
+		}
+
+		final var version = buffer.getInt(Integer.BYTES);
+		if (version != 2) {
+			throw new IllegalStateException("unsupported index version: " + version);
+		}
+
+		final var fanoutPosition = 2 * Integer.BYTES;
+		final var objectCount = buffer.getInt(fanoutPosition + (FANOUT_SIZE - 1) * Integer.BYTES);
+
+		return new PackIndex(buffer, version, objectCount, fanoutPosition);
+	}
+
+}
\ No newline at end of file
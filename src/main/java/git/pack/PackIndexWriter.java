@@ -0,0 +1,71 @@
+package git.pack;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import git.Git;
+
+public class PackIndexWriter {
+
+	public static final long MAX_SMALL_OFFSET = Integer.MAX_VALUE;
+
+	public static byte[] write(List<PackWriter.WrittenObject> objects, byte[] packChecksum, OutputStream outputStream) throws IOException, NoSuchAlgorithmException {
+		final var sorted = new ArrayList<>(objects);
+		sorted.sort(Comparator.comparing(PackWriter.WrittenObject::hash));
+
+		final var digest = MessageDigest.getInstance("SHA-1");
+		final var dataOutputStream = new DataOutputStream(new DigestOutputStream(outputStream, digest));
+
+		dataOutputStream.writeInt(PackIndex.MAGIC);
+		dataOutputStream.writeInt(2);
+
+		final var fanout = new int[PackIndex.FANOUT_SIZE];
+		for (final var object : sorted) {
+			++fanout[Integer.parseInt(object.hash().substring(0, 2), 16)];
+		}
+
+		var cumulated = 0;
+		for (final var count : fanout) {
+			cumulated += count;
+			dataOutputStream.writeInt(cumulated);
+		}
+
+		for (final var object : sorted) {
+			dataOutputStream.write(Git.HEX.parseHex(object.hash()));
+		}
+
+		for (final var object : sorted) {
+			dataOutputStream.writeInt(object.crc32());
+		}
+
+		final var largeOffsets = new ArrayList<Long>();
+		for (final var object : sorted) {
+			if (object.offset() > MAX_SMALL_OFFSET) {
+				dataOutputStream.writeInt(PackIndex.LARGE_OFFSET_MASK | largeOffsets.size());
+				largeOffsets.add(object.offset());
+			} else {
+				dataOutputStream.writeInt((int) object.offset());
+			}
+		}
+
+		for (final var offset : largeOffsets) {
+			dataOutputStream.writeLong(offset);
+		}
+
+		dataOutputStream.write(packChecksum);
+		dataOutputStream.flush();
+
+		final var checksum = digest.digest();
+		outputStream.write(checksum);
+
+		return checksum;
+	}
+
+}
\ No newline at end of file
@@ -1,13 +1,14 @@
 package git.pack;
 
-import java.util.List;
+import java.nio.file.Path;
 
 import git.domain.ObjectType;
 import git.pack.PackObject.Deltified;
+import git.pack.PackObject.Spilled;
 import git.pack.PackObject.Undeltified;
 
 @SuppressWarnings("rawtypes")
-public sealed interface PackObject permits Undeltified, Deltified {
+public sealed interface PackObject permits Undeltified, Deltified, Spilled {
 
 	public record Undeltified(
 		ObjectType type,
@@ -16,16 +17,26 @@ public sealed interface PackObject permits Undeltified, Deltified {
 
 	public record Deltified(
 		String baseHash,
-		int size,
-		List<DeltaInstruction> instructions
+		byte[] delta
+	) implements PackObject {}
+
+	public record Spilled(
+		ObjectType type,
+		String hash,
+		long size,
+		Path path
 	) implements PackObject {}
 
 	public static Undeltified undeltified(ObjectType type, byte[] content) {
 		return new Undeltified(type, content);
 	}
 
-	public static Deltified deltified(String bashHash, int size, List<DeltaInstruction> instructions) {
-		return new Deltified(bashHash, size, instructions);
+	public static Spilled spilled(ObjectType type, String hash, long size, Path path) {
+		return new Spilled(type, hash, size, path);
+	}
+
+	public static Deltified deltified(String bashHash, byte[] delta) {
+		return new Deltified(bashHash, delta);
 	}
 
 }
\ No newline at end of file
@@ -2,5 +2,5 @@ package git.pack;
 
 public record PackObjectHeader(
 	PackObjectType type,
-	int size
+	long size
 ) {}
\ No newline at end of file
@@ -17,7 +17,7 @@ public enum PackObjectType {
 	COMMIT(1, ObjectType.COMMIT),
 	TREE(2, ObjectType.TREE),
 	BLOB(3, ObjectType.BLOB),
-	TAG(4, null),
+	TAG(4, ObjectType.TAG),
 	OFS_DELTA(6, null),
 	REF_DELTA(7, null);
 
@@ -33,10 +33,6 @@ public enum PackObjectType {
 	private final ObjectType nativeType;
 
 	public static PackObjectType valueOf(int value) {
-		if (value == 4) {
-			throw new UnsupportedOperationException("TAG");
-		}
-
 		final var type = MAPPING.get(value);
 		if (type == null) {
 			throw new IllegalArgumentException("invalid value: " + value);
@@ -45,4 +41,14 @@ public enum PackObjectType {
 		return type;
 	}
 
+	public static PackObjectType of(ObjectType nativeType) {
+		for (final var type : values()) {
+			if (type.nativeType() == nativeType && nativeType != null) {
+				return type;
+			}
+		}
+
+		throw new IllegalArgumentException("no pack type for: " + nativeType.getName());
+	}
+
 }
\ No newline at end of file
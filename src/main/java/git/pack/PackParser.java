@@ -1,15 +1,26 @@
 package git.pack;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
 
 import git.Git;
+import git.domain.ObjectType;
+import git.trace.Counter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 
 @RequiredArgsConstructor
@@ -20,65 +31,268 @@ public class PackParser {
 	public static final int SIZE_7_MASK = 0b0111_1111;
 	public static final int SIZE_CONTINUE_MASK = 0b1000_0000;
 
-	private final ByteBuffer buffer;
+	public static final int HEADER_SIZE = 12;
+	public static final int MAX_ENTRY_HEADER_SIZE = 10 + Git.HASH_BYTES_LENGTH;
+	public static final int READ_BUFFER_SIZE = 64 * 1024;
+	public static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).limit(0);
+	private final MessageDigest digest = createDigest();
+
+	@Setter
+	private long bigFileThreshold = Long.MAX_VALUE;
+
+	@Setter
+	private Path spillDirectory;
+
+	private int hashedPosition;
 
 	@SneakyThrows
 	public List<PackObject> parse() throws IOException, DataFormatException {
-		parseSignature();
-		parseVersion();
+		final var objects = new ArrayList<PackObject>();
 
-		final var objectCount = buffer.getInt();
-		final var objects = new ArrayList<PackObject>(objectCount);
-		final var objectByOffset = new HashMap<Integer, Object>(objectCount);
+		try {
+			fill(HEADER_SIZE);
+			parseSignature();
+			parseVersion();
 
-		for (var index = 0; index < objectCount; ++index) {
-			final var header = parseObjectHeader();
-			final var type = header.type();
-			final var bufferPosition = buffer.position();
+			final var objectCount = Integer.toUnsignedLong(buffer.getInt());
 
-			final PackObject object = switch (type) {
-				case COMMIT:
-				case TREE:
-				case BLOB: {
-					final var content = inflate(header.size());
+			for (var index = 0L; index < objectCount; ++index) {
+				fill(MAX_ENTRY_HEADER_SIZE);
 
-					yield PackObject.undeltified(type.nativeType(), content);
-				}
+				final var header = parseObjectHeader();
+				final var type = header.type();
+
+				final PackObject object = switch (type) {
+					case COMMIT:
+					case TREE:
+					case BLOB:
+					case TAG: {
+						if (spillDirectory != null && header.size() > bigFileThreshold) {
+							yield spill(type.nativeType(), header.size());
+						}
+
+						final var content = inflate(header.size());
+
+						yield PackObject.undeltified(type.nativeType(), content);
+					}
+
+					case OFS_DELTA: {
+						throw new UnsupportedOperationException();
+					}
+
+					case REF_DELTA: {
+						final var hashBytes = new byte[Git.HASH_BYTES_LENGTH];
+						buffer.get(hashBytes);
+
+						final var baseHash = Git.HEX.formatHex(hashBytes);
+
+						final var delta = inflate(header.size());
+
+						yield PackObject.deltified(baseHash, delta);
+					}
+				};
+
+				objects.add(object);
+			}
+
+			verifyTrailer();
+		} catch (Throwable throwable) {
+			deleteSpilled(objects);
+			throw throwable;
+		}
+
+		return objects;
+	}
+
+	public static void deleteSpilled(Collection<PackObject> objects) throws IOException {
+		for (final var object : objects) {
+			if (object instanceof PackObject.Spilled spilled) {
+				Files.deleteIfExists(spilled.path());
+			}
+		}
+	}
+
+	public void verifyTrailer() throws IOException {
+		updateDigest();
+		fill(Git.HASH_BYTES_LENGTH);
+
+		if (buffer.remaining() < Git.HASH_BYTES_LENGTH) {
+			throw new IOException("pack is truncated: missing trailer checksum");
+		}
 
-				case TAG: {
-					throw new UnsupportedOperationException();
+		final var expected = new byte[Git.HASH_BYTES_LENGTH];
+		buffer.get(expected);
+
+		final var actual = digest.digest();
+		if (!MessageDigest.isEqual(expected, actual)) {
+			throw new IOException("pack trailer checksum mismatch: expected %s, computed %s".formatted(Git.HEX.formatHex(expected), Git.HEX.formatHex(actual)));
+		}
+
+		var trailing = (long) buffer.remaining();
+		buffer.position(buffer.limit());
+
+		while (refill()) {
+			trailing += buffer.remaining();
+			buffer.position(buffer.limit());
+		}
+
+		if (trailing != 0) {
+			throw new IOException("pack has %d trailing bytes after its checksum".formatted(trailing));
+		}
+	}
+
+	private byte[] inflate(long size) throws IOException, DataFormatException {
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new DataFormatException("entry of %d bytes is too large to inflate in memory".formatted(size));
+		}
+
+		final var inflated = new byte[(int) size];
+		final var inflater = new Inflater();
+
+		try {
+			inflater.setInput(buffer);
+
+			var offset = 0;
+			while (offset < inflated.length) {
+				final var length = inflate(inflater, inflated, offset, inflated.length - offset);
+				if (length == 0) {
+					throw new DataFormatException("entry size mismatch: expected %d, got %d".formatted(size, offset));
 				}
 
-				case OFS_DELTA: {
-					throw new UnsupportedOperationException();
+				offset += length;
+			}
+
+			finish(inflater, size);
+			Counter.INFLATED.add(inflated.length);
+
+			return inflated;
+		} finally {
+			inflater.end();
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private PackObject spill(ObjectType type, long size) throws IOException, DataFormatException {
+		final var temporary = Files.createTempFile(spillDirectory, "tmp_obj_", "");
+		final var objectDigest = createDigest();
+		final var inflater = new Inflater();
+
+		try (final var outputStream = new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), SPILL_BUFFER_SIZE))) {
+			final var header = "%s %d\0".formatted(type.getName(), size).getBytes();
+			objectDigest.update(header);
+			outputStream.write(header);
+
+			inflater.setInput(buffer);
+
+			final var chunk = new byte[SPILL_BUFFER_SIZE];
+			var written = 0L;
+
+			while (written < size) {
+				final var length = inflate(inflater, chunk, 0, (int) Math.min(chunk.length, size - written));
+				if (length == 0) {
+					break;
 				}
 
-				case REF_DELTA: {
-					final var hashBytes = new byte[Git.HASH_BYTES_LENGTH];
-					buffer.get(hashBytes);
+				objectDigest.update(chunk, 0, length);
+				outputStream.write(chunk, 0, length);
+				written += length;
+			}
+
+			if (written != size) {
+				throw new DataFormatException("entry size mismatch: expected %d, got %d".formatted(size, written));
+			}
+
+			finish(inflater, size);
 
-					final var baseHash = Git.HEX.formatHex(hashBytes);
+			Counter.INFLATED.add(written);
+			Counter.DEFLATED.add(header.length + written);
+		} catch (IOException | DataFormatException exception) {
+			Files.deleteIfExists(temporary);
+			throw exception;
+		} finally {
+			inflater.end();
+		}
 
-					final var content = inflate(header.size());
-					final var contentBuffer = ByteBuffer.wrap(content);
+		Counter.WRITTEN.add(Files.size(temporary));
 
-					@SuppressWarnings("unused")
-					final var baseObjectSize = parseVariableLengthIntegerLittleEndian(contentBuffer);
-					final var newObjectSize = parseVariableLengthIntegerLittleEndian(contentBuffer);
+		return PackObject.spilled(type, Git.HEX.formatHex(objectDigest.digest()), size, temporary);
+	}
+
+	private int inflate(Inflater inflater, byte[] output, int offset, int length) throws IOException, DataFormatException {
+		while (true) {
+			final var inflated = inflater.inflate(output, offset, length);
+			if (inflated != 0 || inflater.finished()) {
+				return inflated;
+			}
 
-					final var instructions = parseDeltaInstructions(contentBuffer);
+			if (inflater.needsDictionary()) {
+				throw new DataFormatException("entry needs a preset dictionary");
+			}
 
-					yield PackObject.deltified(baseHash, newObjectSize, instructions);
+			if (inflater.needsInput()) {
+				if (!refill()) {
+					throw new DataFormatException("pack is truncated inside an entry");
 				}
-			};
 
-			if (object != null) {
-				objects.add(object);
-				objectByOffset.put(bufferPosition, buffer);
+				inflater.setInput(buffer);
 			}
 		}
+	}
 
-		return objects;
+	private void finish(Inflater inflater, long size) throws IOException, DataFormatException {
+		final var extra = new byte[1];
+
+		while (!inflater.finished()) {
+			if (inflate(inflater, extra, 0, extra.length) != 0) {
+				throw new DataFormatException("entry size mismatch: expected %d, got more".formatted(size));
+			}
+		}
+	}
+
+	private void fill(int length) throws IOException {
+		while (buffer.remaining() < length) {
+			if (!refill()) {
+				return;
+			}
+		}
+	}
+
+	private boolean refill() throws IOException {
+		updateDigest();
+
+		buffer.compact();
+		final var before = buffer.position();
+
+		try {
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) == -1) {
+					break;
+				}
+			}
+		} finally {
+			buffer.flip();
+			hashedPosition = 0;
+		}
+
+		return buffer.limit() > before;
+	}
+
+	private void updateDigest() {
+		final var position = buffer.position();
+
+		digest.update(buffer.slice(hashedPosition, position - hashedPosition));
+		hashedPosition = position;
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
 	}
 
 	public void parseSignature() {
@@ -100,10 +314,14 @@ public class PackParser {
 	}
 
 	public PackObjectHeader parseObjectHeader() {
+		return parseObjectHeader(buffer);
+	}
+
+	public static PackObjectHeader parseObjectHeader(ByteBuffer buffer) {
 		var read = Byte.toUnsignedInt(buffer.get());
 
 		final var type = PackObjectType.valueOf((read & TYPE_MASK) >> 4);
-		var size = read & SIZE_4_MASK;
+		long size = read & SIZE_4_MASK;
 
 		if ((read & SIZE_CONTINUE_MASK) == 0) {
 			return new PackObjectHeader(type, size);
@@ -113,55 +331,62 @@ public class PackParser {
 		return new PackObjectHeader(type, size);
 	}
 
-	public byte[] inflate(int size) throws DataFormatException {
+	public static byte[] inflate(List<ByteBuffer> input, long size) throws DataFormatException {
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new DataFormatException("entry of %d bytes is too large to inflate in memory".formatted(size));
+		}
+
 		final var inflater = new Inflater();
-		inflater.setInput(buffer);
 
-		final var inflated = new byte[size];
-		inflater.inflate(inflated);
+		try {
+			final var chunks = input.iterator();
 
-		return inflated;
-	}
+			final var inflated = new byte[(int) size];
+			var offset = 0;
 
-	public List<DeltaInstruction> parseDeltaInstructions(ByteBuffer buffer) {
-		final var instructions = new ArrayList<DeltaInstruction>();
+			while (offset < inflated.length) {
+				final var length = inflateSome(inflater, chunks, inflated, offset, inflated.length - offset);
+				if (length == 0) {
+					throw new DataFormatException("entry size mismatch: expected %d, got %d".formatted(size, offset));
+				}
 
-		while (buffer.hasRemaining()) {
-			final var first = Byte.toUnsignedInt(buffer.get());
+				offset += length;
+			}
 
-			if (first == 0) {
-				throw new IllegalStateException("unsuppoted 00000000 instruction");
+			final var extra = new byte[1];
+			while (!inflater.finished()) {
+				if (inflateSome(inflater, chunks, extra, 0, extra.length) != 0) {
+					throw new DataFormatException("entry size mismatch: expected %d, got more".formatted(size));
+				}
 			}
 
-			final var command = first & 0b1000_0000;
+			Counter.INFLATED.add(inflated.length);
 
-			if (command == 0) {
-				final var size = first & 0b0111_1111;
+			return inflated;
+		} finally {
+			inflater.end();
+		}
+	}
 
-				final var bytes = new byte[size];
-				buffer.get(bytes);
+	private static int inflateSome(Inflater inflater, Iterator<ByteBuffer> chunks, byte[] output, int offset, int length) throws DataFormatException {
+		while (true) {
+			if (inflater.needsInput() && !inflater.finished()) {
+				if (!chunks.hasNext()) {
+					throw new DataFormatException("entry is truncated");
+				}
 
-				instructions.add(DeltaInstruction.insert(bytes));
-			} else {
-				final var hasOffset1 = (first & 0b0000_0001) != 0;
-				final var hasOffset2 = (first & 0b0000_0010) != 0;
-				final var hasOffset3 = (first & 0b0000_0100) != 0;
-				final var hasOffset4 = (first & 0b0000_1000) != 0;
-				final var hasSize1 = (first & 0b0001_0000) != 0;
-				final var hasSize2 = (first & 0b0010_0000) != 0;
-				final var hasSize3 = (first & 0b0100_0000) != 0;
+				inflater.setInput(chunks.next());
+			}
 
-				final var offset = parseVariableLengthInteger(buffer, hasOffset1, hasOffset2, hasOffset3, hasOffset4);
-				var size = parseVariableLengthInteger(buffer, hasSize1, hasSize2, hasSize3);
-				if (size == 0) {
-					size = 0x10000;
-				}
+			final var inflated = inflater.inflate(output, offset, length);
+			if (inflated != 0 || inflater.finished()) {
+				return inflated;
+			}
 
-				instructions.add(DeltaInstruction.copy(offset, size));
+			if (inflater.needsDictionary()) {
+				throw new DataFormatException("entry needs a preset dictionary");
 			}
 		}
-
-		return instructions;
 	}
 
 	public static int parseVariableLengthInteger(ByteBuffer buffer, boolean... enabledStates) {
@@ -180,14 +405,14 @@ public class PackParser {
 		return value;
 	}
 
-	public static int parseVariableLengthIntegerLittleEndian(ByteBuffer buffer) {
-		var value = 0;
+	public static long parseVariableLengthIntegerLittleEndian(ByteBuffer buffer) {
+		var value = 0L;
 		var shift = 0;
 
 		while (true) {
 			final var read = Byte.toUnsignedInt(buffer.get());
 
-			value |= (read & SIZE_7_MASK) << shift;
+			value |= (long) (read & SIZE_7_MASK) << shift;
 			if ((read & SIZE_CONTINUE_MASK) == 0) {
 				break;
 			}
@@ -198,4 +423,16 @@ public class PackParser {
 		return value;
 	}
 
+	public static long parseOffsetDelta(ByteBuffer buffer) {
+		var read = Byte.toUnsignedInt(buffer.get());
+		long offset = read & SIZE_7_MASK;
+
+		while ((read & SIZE_CONTINUE_MASK) != 0) {
+			read = Byte.toUnsignedInt(buffer.get());
+			offset = ((offset + 1) << 7) | (read & SIZE_7_MASK);
+		}
+
+		return offset;
+	}
+
 }
\ No newline at end of file
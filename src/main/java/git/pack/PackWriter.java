@@ -0,0 +1,329 @@
+package git.pack;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import git.Git;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@RequiredArgsConstructor
+public class PackWriter {
+
+	public static final byte[] SIGNATURE = "PACK".getBytes();
+	public static final int VERSION = 2;
+
+	private final Git git;
+
+	@Setter
+	private int window = DeltaSearch.DEFAULT_WINDOW;
+
+	@Setter
+	private int depth = DeltaSearch.DEFAULT_DEPTH;
+
+	@Setter
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	@Setter
+	private boolean reuseDeltas = true;
+
+	@Setter
+	private boolean offsetDeltas = false;
+
+	@Setter
+	private Map<String, String> paths = Map.of();
+
+	@Setter
+	private PackBitmapIndex bitmapIndex;
+
+	@Getter
+	private int reusedCount;
+
+	@Getter
+	private int deltaCount;
+
+	@Getter
+	private final List<WrittenObject> writtenObjects = new ArrayList<>();
+
+	private final Map<String, Long> offsets = new HashMap<>();
+	private Map<String, DeltaSearch.Delta> deltas = Map.of();
+
+	public byte[] write(Collection<String> hashes, OutputStream outputStream) throws IOException {
+		final var included = new LinkedHashSet<String>(hashes);
+		final var written = new HashSet<String>();
+
+		deltas = new DeltaSearch(git, window, depth, threads).search(collectCandidates(included));
+
+		final var digest = createDigest();
+		final var trackingOutputStream = new TrackingOutputStream(new DigestOutputStream(outputStream, digest));
+
+		trackingOutputStream.write(SIGNATURE);
+		trackingOutputStream.write(ByteBuffer.allocate(Integer.BYTES * 2).putInt(VERSION).putInt(included.size()).array());
+
+		for (final var hash : included) {
+			writeEntry(hash, included, written, trackingOutputStream);
+		}
+
+		final var checksum = digest.digest();
+		outputStream.write(checksum);
+
+		return checksum;
+	}
+
+	private void writeEntry(String hash, Set<String> included, Set<String> written, TrackingOutputStream outputStream) throws IOException {
+		if (!written.add(hash)) {
+			return;
+		}
+
+		final var delta = deltas.get(hash);
+		if (delta != null) {
+			writeEntry(delta.baseHash(), included, written, outputStream);
+
+			outputStream.startEntry();
+			writeDeltaHeader(outputStream, delta.baseHash(), delta.data().length);
+			deflate(delta.data(), outputStream);
+			addWrittenObject(outputStream.endEntry(hash));
+
+			++deltaCount;
+			return;
+		}
+
+		final var pack = git.findPack(hash);
+		if (pack != null && reuseEntry(hash, pack, pack.getEntry(hash), included, written, outputStream)) {
+			++reusedCount;
+			return;
+		}
+
+		final var object = git.readRawObject(hash);
+		final var content = object.content();
+
+		outputStream.startEntry();
+		writeObjectHeader(outputStream, PackObjectType.of(object.type()), content.length);
+		deflate(content, outputStream);
+		addWrittenObject(outputStream.endEntry(hash));
+	}
+
+	private List<DeltaSearch.Candidate> collectCandidates(Set<String> included) throws IOException {
+		final var excluded = new HashSet<String>();
+
+		if (reuseDeltas) {
+			for (final var hash : included) {
+				final var pack = git.findPack(hash);
+				if (pack == null) {
+					continue;
+				}
+
+				final var entry = pack.getEntry(hash);
+				if (entry.isDelta() && included.contains(entry.baseHash())) {
+					excluded.add(hash);
+					excluded.add(entry.baseHash());
+				}
+			}
+		}
+
+		final var bigFileThreshold = git.getBigFileThreshold();
+		final var candidates = new ArrayList<DeltaSearch.Candidate>();
+		for (final var hash : included) {
+			if (excluded.contains(hash)) {
+				continue;
+			}
+
+			final var pack = git.findPack(hash);
+			final var entry = pack != null ? pack.getEntry(hash) : null;
+
+			PackObjectType type;
+			long size;
+			if (entry != null && !entry.isDelta()) {
+				type = entry.header().type();
+				size = entry.header().size();
+			} else {
+				final var object = git.readRawObject(hash);
+				type = PackObjectType.of(object.type());
+				size = object.content().length;
+			}
+
+			if (size > bigFileThreshold) {
+				continue;
+			}
+
+			candidates.add(new DeltaSearch.Candidate(hash, type, nameHash(hash), Math.toIntExact(size)));
+		}
+
+		return candidates;
+	}
+
+	private int nameHash(String hash) {
+		final var path = paths.get(hash);
+		if (path == null && bitmapIndex != null) {
+			return bitmapIndex.getNameHash(hash);
+		}
+
+		return DeltaSearch.nameHash(path);
+	}
+
+	private void writeDeltaHeader(TrackingOutputStream outputStream, String baseHash, long size) throws IOException {
+		final var baseOffset = offsets.get(baseHash);
+
+		if (offsetDeltas && baseOffset != null) {
+			writeObjectHeader(outputStream, PackObjectType.OFS_DELTA, size);
+			writeOffsetDelta(outputStream, outputStream.getEntryOffset() - baseOffset);
+		} else {
+			writeObjectHeader(outputStream, PackObjectType.REF_DELTA, size);
+			outputStream.write(Git.HEX.parseHex(baseHash));
+		}
+	}
+
+	private boolean reuseEntry(String hash, PackFile pack, PackFile.Entry entry, Set<String> included, Set<String> written, TrackingOutputStream outputStream) throws IOException {
+		if (entry.isDelta() && (!reuseDeltas || !included.contains(entry.baseHash()))) {
+			return false;
+		}
+
+		if (!pack.verifyCrc32(entry)) {
+			return false;
+		}
+
+		if (!entry.isDelta()) {
+			outputStream.startEntry();
+			copy(pack.slices(entry.offset(), entry.endOffset()), outputStream);
+			addWrittenObject(outputStream.endEntry(hash));
+
+			return true;
+		}
+
+		writeEntry(entry.baseHash(), included, written, outputStream);
+
+		outputStream.startEntry();
+		if (entry.header().type() == PackObjectType.REF_DELTA && !offsetDeltas) {
+			copy(pack.slices(entry.offset(), entry.endOffset()), outputStream);
+		} else {
+			writeDeltaHeader(outputStream, entry.baseHash(), entry.header().size());
+			copy(pack.slices(entry.dataOffset(), entry.endOffset()), outputStream);
+		}
+		addWrittenObject(outputStream.endEntry(hash));
+
+		return true;
+	}
+
+	private void addWrittenObject(WrittenObject object) {
+		writtenObjects.add(object);
+		offsets.put(object.hash(), object.offset());
+	}
+
+	public static void writeObjectHeader(OutputStream outputStream, PackObjectType type, long size) throws IOException {
+		var read = (type.value() << 4) | (int) (size & PackParser.SIZE_4_MASK);
+		size >>>= 4;
+
+		while (size != 0) {
+			outputStream.write(read | PackParser.SIZE_CONTINUE_MASK);
+
+			read = (int) (size & PackParser.SIZE_7_MASK);
+			size >>>= 7;
+		}
+
+		outputStream.write(read);
+	}
+
+	public static void writeOffsetDelta(OutputStream outputStream, long offset) throws IOException {
+		final var bytes = new byte[10];
+		var position = bytes.length - 1;
+
+		bytes[position] = (byte) (offset & PackParser.SIZE_7_MASK);
+		while ((offset >>>= 7) != 0) {
+			bytes[--position] = (byte) (PackParser.SIZE_CONTINUE_MASK | (--offset & PackParser.SIZE_7_MASK));
+		}
+
+		outputStream.write(bytes, position, bytes.length - position);
+	}
+
+	public static void deflate(byte[] content, OutputStream outputStream) throws IOException {
+		final var deflater = new Deflater();
+
+		try {
+			final var deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater);
+			deflaterOutputStream.write(content);
+			deflaterOutputStream.finish();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static void copy(List<ByteBuffer> buffers, OutputStream outputStream) throws IOException {
+		final var channel = Channels.newChannel(outputStream);
+
+		for (final var buffer : buffers) {
+			channel.write(buffer);
+		}
+	}
+
+	public static record WrittenObject(
+		String hash,
+		long offset,
+		int crc32
+	) {}
+
+	private static class TrackingOutputStream extends FilterOutputStream {
+
+		private final CRC32 crc32 = new CRC32();
+		private long count;
+		private long entryOffset;
+
+		public TrackingOutputStream(OutputStream outputStream) {
+			super(outputStream);
+		}
+
+		public void startEntry() {
+			crc32.reset();
+			entryOffset = count;
+		}
+
+		public long getEntryOffset() {
+			return entryOffset;
+		}
+
+		public WrittenObject endEntry(String hash) {
+			return new WrittenObject(hash, entryOffset, (int) crc32.getValue());
+		}
+
+		@Override
+		public void write(int value) throws IOException {
+			out.write(value);
+			crc32.update(value);
+			++count;
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			out.write(bytes, offset, length);
+			crc32.update(bytes, offset, length);
+			count += length;
+		}
+
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package git.pack;
+
+public record RepackOptions(
+	boolean all,
+	boolean deleteRedundant,
+	boolean reuseDeltas,
+	int window,
+	int depth,
+	int threads,
+	boolean writeBitmap
+) {
+
+	public static RepackOptions defaults() {
+		return new RepackOptions(false, false, true, DeltaSearch.DEFAULT_WINDOW, DeltaSearch.DEFAULT_DEPTH, Runtime.getRuntime().availableProcessors(), false);
+	}
+
+	public RepackOptions withAll(boolean all) {
+		return new RepackOptions(all, deleteRedundant, reuseDeltas, window, depth, threads, writeBitmap);
+	}
+
+	public RepackOptions withDeleteRedundant(boolean deleteRedundant) {
+		return new RepackOptions(all, deleteRedundant, reuseDeltas, window, depth, threads, writeBitmap);
+	}
+
+	public RepackOptions withReuseDeltas(boolean reuseDeltas) {
+		return new RepackOptions(all, deleteRedundant, reuseDeltas, window, depth, threads, writeBitmap);
+	}
+
+	public RepackOptions withWindow(int window) {
+		return new RepackOptions(all, deleteRedundant, reuseDeltas, window, depth, threads, writeBitmap);
+	}
+
+	public RepackOptions withDepth(int depth) {
+		return new RepackOptions(all, deleteRedundant, reuseDeltas, window, depth, threads, writeBitmap);
+	}
+
+	public RepackOptions withThreads(int threads) {
+		return new RepackOptions(all, deleteRedundant, reuseDeltas, window, depth, threads, writeBitmap);
+	}
+
+	public RepackOptions withWriteBitmap(boolean writeBitmap) {
+		return new RepackOptions(all, deleteRedundant, reuseDeltas, window, depth, threads, writeBitmap);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package git.pack;
+
+import java.nio.file.Path;
+
+public record RepackResult(
+	Path packPath,
+	int objectCount,
+	int reusedCount,
+	int deltaCount,
+	int prunedCount,
+	boolean bitmapWritten
+) {}
\ No newline at end of file
@@ -1,15 +1,26 @@
 package git.protocol;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.DataFormatException;
 
 import git.Git;
 import git.domain.Reference;
+import git.trace.Counter;
+import git.trace.Trace;
 import lombok.RequiredArgsConstructor;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
@@ -19,15 +30,32 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 
 @RequiredArgsConstructor
-public class GitClient {
+public class GitClient implements Transport {
 
 	public static final MediaType X_GIT_UPLOAD_PACK_REQUEST = MediaType.parse("application/x-git-upload-pack-request");
 
+	public static final String MULTI_ACK_DETAILED = "multi_ack_detailed";
+	public static final String FILTER = "filter";
+	public static final String OFS_DELTA = "ofs-delta";
+	public static final String ALLOW_TIP_SHA1_IN_WANT = "allow-tip-sha1-in-want";
+	public static final String ALLOW_REACHABLE_SHA1_IN_WANT = "allow-reachable-sha1-in-want";
+	public static final String ALLOW_ANY_SHA1_IN_WANT = "allow-any-sha1-in-want";
+	public static final String ZERO_HASH = "0".repeat(Git.HASH_STRING_LENGTH);
+
+	public static final int INITIAL_FLUSH = 16;
+	public static final int LARGE_FLUSH = 1024;
+	public static final int MAX_IN_VAIN = 256;
+
 	private final OkHttpClient httpClient = new OkHttpClient();
 	private final URI baseUri;
+	private final Set<String> capabilities = new LinkedHashSet<>();
+	private final Set<String> advertisedHashes = new HashSet<>();
 
+	@Override
 	public List<Reference> fetchReferences() throws IOException {
 		final var references = new ArrayList<Reference>();
+		capabilities.clear();
+		advertisedHashes.clear();
 
 		final var request = new Request.Builder()
 			.url(
@@ -69,6 +97,19 @@ public class GitClient {
 
 				final var name = new String(bytes, startIndex, endIndex - startIndex);
 
+				if (endIndex != bytes.length && bytes[endIndex] == '\0') {
+					final var capabilitiesLine = new String(bytes, endIndex + 1, bytes.length - endIndex - 1).strip();
+
+					for (final var capability : capabilitiesLine.split(" ")) {
+						capabilities.add(capability);
+					}
+				}
+
+				if (ZERO_HASH.equals(hash)) {
+					continue;
+				}
+
+				advertisedHashes.add(hash);
 				references.add(new Reference(name, hash));
 			}
 		}
@@ -76,13 +117,237 @@ public class GitClient {
 		return references;
 	}
 
+	public boolean hasCapability(String name) {
+		return capabilities.contains(name);
+	}
+
+	public List<String> getCapabilityValues(String name) {
+		final var prefix = name + "=";
+
+		return capabilities.stream()
+			.filter((capability) -> capability.startsWith(prefix))
+			.map((capability) -> capability.substring(prefix.length()))
+			.toList();
+	}
+
+	@Override
+	public String getRemoteHead(List<Reference> remoteReferences) {
+		for (final var symbolicReference : getCapabilityValues("symref")) {
+			final var parts = symbolicReference.split(":", 2);
+
+			if (parts.length == 2 && Git.HEAD.equals(parts[0])) {
+				return parts[1];
+			}
+		}
+
+		final var head = remoteReferences.stream()
+			.filter((reference) -> Git.HEAD.equals(reference.name()))
+			.findFirst()
+			.orElse(null);
+
+		if (head == null) {
+			return null;
+		}
+
+		String candidate = null;
+		for (final var reference : remoteReferences) {
+			if (!reference.name().startsWith(Git.HEADS_PREFIX) || !reference.hash().equals(head.hash())) {
+				continue;
+			}
+
+			final var name = reference.name();
+			if (name.equals(Git.HEADS_PREFIX + "master") || name.equals(Git.HEADS_PREFIX + "main")) {
+				return name;
+			}
+
+			if (candidate == null) {
+				candidate = name;
+			}
+		}
+
+		return candidate;
+	}
+
+	@Override
+	public void fetch(Git git, Collection<String> wants, Negotiator negotiator, ObjectFilter filter) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		Files.createDirectories(git.getObjectsDirectory());
+
+		final var pack = Files.createTempFile(git.getObjectsDirectory(), "tmp_pack_", "");
+		try {
+			try (
+				final var phase = Trace.phase("download pack");
+				final var outputStream = new BufferedOutputStream(Files.newOutputStream(pack), Git.FILE_BUFFER_SIZE);
+			) {
+				fetchPack(wants, negotiator, filter, outputStream);
+			}
+
+			Counter.DOWNLOADED.add(Files.size(pack));
+			git.unpack(pack);
+		} finally {
+			Files.deleteIfExists(pack);
+		}
+	}
+
 	public byte[] getPack(Reference reference) throws IOException {
-		final var requestLines = List.of(
-			PacketLine.data("want %s\n".formatted(reference.hash())),
-			PacketLine.flush(),
-			PacketLine.data("done\n")
-		);
+		return fetchPack(List.of(reference.hash()), Negotiator.none(), null);
+	}
+
+	public byte[] fetchPack(Collection<String> wants, Negotiator negotiator, ObjectFilter filter) throws IOException {
+		final var outputStream = new ByteArrayOutputStream();
+		fetchPack(wants, negotiator, filter, outputStream);
+
+		return outputStream.toByteArray();
+	}
+
+	public void fetchPack(Collection<String> wants, Negotiator negotiator, ObjectFilter filter, OutputStream outputStream) throws IOException {
+		checkUnadvertisedWants(wants);
+
+		final var requestCapabilities = new ArrayList<String>();
+
+		if (filter != null) {
+			if (hasCapability(FILTER)) {
+				requestCapabilities.add(FILTER);
+			} else {
+				System.err.println("warning: filtering not recognized by server, ignoring");
+				filter = null;
+			}
+		}
+
+		final var negotiate = hasCapability(MULTI_ACK_DETAILED);
+		if (negotiate) {
+			requestCapabilities.add(MULTI_ACK_DETAILED);
+		}
+
+		final var commons = new LinkedHashSet<String>();
+
+		if (negotiate) {
+			var flushCount = INITIAL_FLUSH;
+			var inVain = 0;
+			var ready = false;
+
+			while (!ready) {
+				final var haves = negotiator.nextHaves(flushCount);
+				if (haves.isEmpty()) {
+					break;
+				}
+
+				final var requestLines = createWantLines(wants, requestCapabilities, filter);
+				for (final var have : commons) {
+					requestLines.add(PacketLine.data("have %s\n".formatted(have)));
+				}
+
+				for (final var have : haves) {
+					requestLines.add(PacketLine.data("have %s\n".formatted(have)));
+				}
+
+				requestLines.add(PacketLine.flush());
+
+				var foundCommon = false;
+				try (
+					final var response = uploadPack(requestLines);
+					final var responseBody = response.body();
+					final var inputStream = responseBody.byteStream();
+				) {
+					PacketLine line;
+					while ((line = parsePacketLine(inputStream)) != null) {
+						if (!(line instanceof PacketLine.Data data)) {
+							continue;
+						}
+
+						final var acknowledgement = parseAcknowledgement(data);
+						if (acknowledgement == null) {
+							break;
+						}
+
+						if (commons.add(acknowledgement.hash())) {
+							negotiator.acknowledge(acknowledgement.hash());
+							foundCommon = true;
+						}
+
+						if (acknowledgement.status() == Acknowledgement.Status.READY) {
+							ready = true;
+						}
+					}
+				}
+
+				if (foundCommon) {
+					inVain = 0;
+				} else if (!commons.isEmpty()) {
+					inVain += haves.size();
+
+					if (inVain >= MAX_IN_VAIN) {
+						break;
+					}
+				}
+
+				flushCount = nextFlushCount(flushCount);
+			}
+		}
+
+		final var requestLines = createWantLines(wants, requestCapabilities, filter);
+		for (final var have : commons) {
+			requestLines.add(PacketLine.data("have %s\n".formatted(have)));
+		}
+
+		requestLines.add(PacketLine.data("done\n"));
+
+		try (
+			final var response = uploadPack(requestLines);
+			final var responseBody = response.body();
+			final var inputStream = responseBody.byteStream();
+		) {
+			while (true) {
+				final var line = parsePacketLine(inputStream);
+				if (!(line instanceof PacketLine.Data data)) {
+					throw new IllegalStateException("expected acknowledgement packet line: " + line);
+				}
+
+				final var acknowledgement = parseAcknowledgement(data);
+				if (acknowledgement == null || acknowledgement.status() == Acknowledgement.Status.FINAL) {
+					break;
+				}
+			}
+
+			inputStream.transferTo(outputStream);
+		}
+	}
+
+	private void checkUnadvertisedWants(Collection<String> wants) {
+		if (hasCapability(ALLOW_TIP_SHA1_IN_WANT) || hasCapability(ALLOW_REACHABLE_SHA1_IN_WANT) || hasCapability(ALLOW_ANY_SHA1_IN_WANT)) {
+			return;
+		}
+
+		for (final var want : wants) {
+			if (!advertisedHashes.contains(want)) {
+				throw new IllegalStateException("server does not allow request for unadvertised object " + want);
+			}
+		}
+	}
+
+	private List<PacketLine> createWantLines(Collection<String> wants, List<String> requestCapabilities, ObjectFilter filter) {
+		final var lines = new ArrayList<PacketLine>();
+
+		var first = true;
+		for (final var want : new LinkedHashSet<>(wants)) {
+			if (first && !requestCapabilities.isEmpty()) {
+				lines.add(PacketLine.data("want %s %s\n".formatted(want, String.join(" ", requestCapabilities))));
+			} else {
+				lines.add(PacketLine.data("want %s\n".formatted(want)));
+			}
+
+			first = false;
+		}
 
+		if (filter != null) {
+			lines.add(PacketLine.data("filter %s\n".formatted(filter.spec())));
+		}
+
+		lines.add(PacketLine.flush());
+
+		return lines;
+	}
+
+	private Response uploadPack(List<PacketLine> requestLines) throws IOException {
 		final var outputStream = new ByteArrayOutputStream();
 		for (final var line : requestLines) {
 			line.serialize(outputStream);
@@ -98,27 +363,60 @@ public class GitClient {
 			.post(RequestBody.create(outputStream.toByteArray(), X_GIT_UPLOAD_PACK_REQUEST))
 			.build();
 
-		try (
-			final var response = httpClient.newCall(request).execute();
-			final var responseBody = response.body();
-			final var inputStream = responseBody.byteStream();
-		) {
-			if (!response.isSuccessful()) {
-				throw new IllegalStateException("response is not successful: " + response.code());
-			}
+		final var response = httpClient.newCall(request).execute();
+		if (!response.isSuccessful()) {
+			response.close();
+			throw new IllegalStateException("response is not successful: " + response.code());
+		}
 
-			final var first = parsePacketLine(inputStream);
-			if (!(first instanceof PacketLine.Data data)) {
-				throw new IllegalStateException("first packet line must be data: " + first);
-			}
+		return response;
+	}
 
-			final var nak = new String(data.content(), 0, 3);
-			if (!"NAK".equals(nak)) {
-				throw new IllegalStateException("first packet line must be nak: " + nak);
-			}
+	public static Acknowledgement parseAcknowledgement(PacketLine.Data data) {
+		final var line = new String(data.content(), StandardCharsets.US_ASCII).strip();
+
+		if ("NAK".equals(line)) {
+			return null;
+		}
+
+		if (line.startsWith("ERR ")) {
+			throw new IllegalStateException("remote error: " + line.substring("ERR ".length()));
+		}
+
+		final var parts = line.split(" ");
+		if (parts.length < 2 || !"ACK".equals(parts[0])) {
+			throw new IllegalStateException("invalid acknowledgement: " + line);
+		}
+
+		if (parts.length == 2) {
+			return new Acknowledgement(parts[1], Acknowledgement.Status.FINAL);
+		}
 
-			return inputStream.readAllBytes();
+		return new Acknowledgement(parts[1], Acknowledgement.Status.valueOf(parts[2].toUpperCase()));
+	}
+
+	public static int nextFlushCount(int count) {
+		if (count < LARGE_FLUSH) {
+			return count << 1;
 		}
+
+		return count * 11 / 10;
+	}
+
+	public static record Acknowledgement(
+		String hash,
+		Status status
+	) {
+
+		public static enum Status {
+
+			FINAL,
+			CONTINUE,
+			COMMON,
+			READY;
+
+		}
+
 	}
 
 	public List<PacketLine> parsePacketLines(Response response) throws IOException {
@@ -146,20 +444,7 @@ public class GitClient {
 	}
 
 	public PacketLine parsePacketLine(InputStream inputStream) throws IOException {
-		final var sizeBuffer = new byte[4];
-
-		if (inputStream.read(sizeBuffer) != sizeBuffer.length) {
-			return null;
-		}
-
-		final var size = Integer.parseInt(new String(sizeBuffer, StandardCharsets.US_ASCII), 16);
-
-		if (size == 0) {
-			return PacketLine.flush();
-		}
-
-		final var content = inputStream.readNBytes(size - sizeBuffer.length);
-		return PacketLine.data(content);
+		return PacketLine.read(inputStream);
 	}
 
 }
\ No newline at end of file
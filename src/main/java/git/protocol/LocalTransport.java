@@ -0,0 +1,171 @@
+package git.protocol;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+
+import git.Git;
+import git.domain.Reference;
+import git.pack.PackFile;
+import git.trace.Trace;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class LocalTransport implements Transport {
+
+	public static final String SCHEME = "file";
+
+	private final Git source;
+
+	@Override
+	public List<Reference> fetchReferences() throws IOException {
+		final var references = new ArrayList<Reference>();
+
+		final var headHash = source.resolveReference(Git.HEAD);
+		if (headHash != null) {
+			references.add(new Reference(Git.HEAD, headHash));
+		}
+
+		references.addAll(source.listReferences("refs/"));
+
+		return references;
+	}
+
+	@Override
+	public String getRemoteHead(List<Reference> references) {
+		try {
+			return source.readSymbolicReference(Git.HEAD);
+		} catch (IOException exception) {
+			return null;
+		}
+	}
+
+	@Override
+	public void fetch(Git git, Collection<String> wants, Negotiator negotiator, ObjectFilter filter) throws IOException, DataFormatException, NoSuchAlgorithmException {
+		try (final var phase = Trace.phase("link objects")) {
+			final var referenced = !git.getAlternates().isEmpty();
+			inheritAlternates(git);
+
+			if (!referenced) {
+				linkObjects(source.getObjectsDirectory(), git.getObjectsDirectory());
+			} else {
+				final var alternatePacks = listAlternatePacks(git);
+
+				linkObjects(source.getObjectsDirectory(), git.getObjectsDirectory(), (relative) -> {
+					final var directory = relative.getName(0).toString();
+					final var name = relative.getName(1).toString();
+
+					if ("pack".equals(directory)) {
+						return alternatePacks.contains(name);
+					}
+
+					return git.hasObject(directory + name);
+				});
+			}
+		}
+
+		git.reloadPacks();
+	}
+
+	private void inheritAlternates(Git git) throws IOException {
+		final var existing = new HashSet<Path>(git.getAlternates());
+		existing.add(git.getObjectsDirectory().toAbsolutePath().normalize());
+
+		for (final var alternate : source.getAlternates()) {
+			if (existing.add(alternate)) {
+				git.addAlternate(alternate);
+			}
+		}
+	}
+
+	private static Set<String> listAlternatePacks(Git git) throws IOException {
+		final var names = new HashSet<String>();
+
+		for (final var alternate : git.getAlternates()) {
+			final var packDirectory = alternate.resolve("pack");
+			if (!Files.isDirectory(packDirectory)) {
+				continue;
+			}
+
+			try (final var paths = Files.list(packDirectory)) {
+				paths.forEach((path) -> names.add(path.getFileName().toString()));
+			}
+		}
+
+		return names;
+	}
+
+	public static void linkObjects(Path sourceDirectory, Path targetDirectory) throws IOException {
+		linkObjects(sourceDirectory, targetDirectory, (relative) -> false);
+	}
+
+	public static void linkObjects(Path sourceDirectory, Path targetDirectory, ObjectFileFilter skip) throws IOException {
+		final var files = new ArrayList<Path>();
+
+		try (final var paths = Files.walk(sourceDirectory)) {
+			for (final var path : (Iterable<Path>) paths::iterator) {
+				final var relative = sourceDirectory.relativize(path);
+
+				if (Files.isRegularFile(path) && isObjectFile(relative) && !skip.test(relative)) {
+					files.add(path);
+				}
+			}
+		}
+
+		files.sort(Comparator.comparing((Path path) -> path.getFileName().toString().endsWith(PackFile.INDEX_EXTENSION)));
+
+		for (final var file : files) {
+			final var target = targetDirectory.resolve(sourceDirectory.relativize(file));
+			if (Files.exists(target)) {
+				continue;
+			}
+
+			Files.createDirectories(target.getParent());
+
+			try {
+				Files.createLink(target, file);
+			} catch (IOException | UnsupportedOperationException exception) {
+				Files.copy(file, target);
+			}
+		}
+	}
+
+	private static boolean isObjectFile(Path relative) {
+		if (relative.getNameCount() != 2) {
+			return false;
+		}
+
+		final var directory = relative.getName(0).toString();
+		final var name = relative.getName(1).toString();
+
+		if ("pack".equals(directory)) {
+			return name.startsWith("pack-") && !name.endsWith(".keep") && !name.startsWith("tmp_");
+		}
+
+		return directory.length() == 2 && name.length() == Git.HASH_STRING_LENGTH - 2;
+	}
+
+	@FunctionalInterface
+	public interface ObjectFileFilter {
+
+		boolean test(Path relative) throws IOException;
+
+	}
+
+	public static LocalTransport open(Path path) throws IOException {
+		if (Files.isDirectory(path.resolve(Git.DOT_GIT))) {
+			return new LocalTransport(Git.open(path));
+		}
+
+		return new LocalTransport(Git.openBare(path));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package git.protocol;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+public interface Negotiator {
+
+	List<String> nextHaves(int count) throws IOException;
+
+	void acknowledge(String hash) throws IOException;
+
+	public static Negotiator none() {
+		return new Negotiator() {
+
+			@Override
+			public List<String> nextHaves(int count) {
+				return Collections.emptyList();
+			}
+
+			@Override
+			public void acknowledge(String hash) {}
+
+		};
+	}
+
+}
\ No newline at end of file
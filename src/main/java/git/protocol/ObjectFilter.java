@@ -0,0 +1,37 @@
+package git.protocol;
+
+import git.config.GitConfig;
+import git.domain.ObjectType;
+
+@SuppressWarnings("rawtypes")
+public record ObjectFilter(
+	String spec,
+	long blobLimit
+) {
+
+	public static final String BLOB_NONE = "blob:none";
+	public static final String BLOB_LIMIT_PREFIX = "blob:limit=";
+
+	public boolean includes(ObjectType type, long size) {
+		if (type != ObjectType.BLOB) {
+			return true;
+		}
+
+		return size < blobLimit;
+	}
+
+	public static ObjectFilter parse(String spec) {
+		if (BLOB_NONE.equals(spec)) {
+			return new ObjectFilter(spec, 0);
+		}
+
+		if (spec.startsWith(BLOB_LIMIT_PREFIX)) {
+			final var limit = GitConfig.parseSize(spec.substring(BLOB_LIMIT_PREFIX.length()));
+
+			return new ObjectFilter(spec, limit);
+		}
+
+		throw new IllegalArgumentException("unsupported filter: " + spec);
+	}
+
+}
\ No newline at end of file
@@ -1,7 +1,9 @@
 package git.protocol;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 public sealed interface PacketLine permits PacketLine.Data, PacketLine.Flush {
 
@@ -9,6 +11,15 @@ public sealed interface PacketLine permits PacketLine.Data, PacketLine.Flush {
 
 	public static record Data(byte[] content) implements PacketLine {
 
+		public String text() {
+			var length = content.length;
+			if (length != 0 && content[length - 1] == '\n') {
+				--length;
+			}
+
+			return new String(content, 0, length, StandardCharsets.UTF_8);
+		}
+
 		@Override
 		public void serialize(OutputStream outputStream) throws IOException {
 			final var size = "%04x".formatted(content.length + 4).getBytes();
@@ -47,4 +58,25 @@ public sealed interface PacketLine permits PacketLine.Data, PacketLine.Flush {
 		return Flush.INSTANCE;
 	}
 
+	public static PacketLine read(InputStream inputStream) throws IOException {
+		final var sizeBuffer = inputStream.readNBytes(4);
+
+		if (sizeBuffer.length != 4) {
+			return null;
+		}
+
+		final var size = Integer.parseInt(new String(sizeBuffer, StandardCharsets.US_ASCII), 16);
+
+		if (size == 0) {
+			return flush();
+		}
+
+		if (size < 4) {
+			throw new IllegalStateException("invalid packet line size: " + size);
+		}
+
+		final var content = inputStream.readNBytes(size - sizeBuffer.length);
+		return data(content);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package git.protocol;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+import git.Git;
+import git.domain.Reference;
+
+public interface Transport {
+
+	List<Reference> fetchReferences() throws IOException;
+
+	String getRemoteHead(List<Reference> references);
+
+	void fetch(Git git, Collection<String> wants, Negotiator negotiator, ObjectFilter filter) throws IOException, DataFormatException, NoSuchAlgorithmException;
+
+	public static Transport open(URI uri) throws IOException {
+		if (LocalTransport.SCHEME.equals(uri.getScheme())) {
+			return LocalTransport.open(Paths.get(uri));
+		}
+
+		return new GitClient(uri);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,256 @@
+package git.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import git.Git;
+import git.domain.Reference;
+import git.pack.PackWriter;
+import git.walk.BitmapWalker;
+import git.walk.ObjectWalker;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class UploadPack {
+
+	public static final String SERVICE = "git-upload-pack";
+	public static final List<String> CAPABILITIES = List.of(
+		GitClient.MULTI_ACK_DETAILED,
+		GitClient.FILTER,
+		GitClient.OFS_DELTA,
+		"allow-tip-sha1-in-want",
+		"allow-reachable-sha1-in-want",
+		"no-progress"
+	);
+
+	private final Git git;
+
+	public void advertise(OutputStream outputStream) throws IOException {
+		PacketLine.data("# service=%s\n".formatted(SERVICE)).serialize(outputStream);
+		PacketLine.flush().serialize(outputStream);
+
+		final var references = new ArrayList<Reference>();
+
+		final var headHash = git.resolveReference(Git.HEAD);
+		if (headHash != null) {
+			references.add(new Reference(Git.HEAD, headHash));
+		}
+
+		references.addAll(git.listReferences("refs/"));
+
+		final var capabilities = new ArrayList<>(CAPABILITIES);
+
+		final var headTarget = git.readSymbolicReference(Git.HEAD);
+		if (headTarget != null && headHash != null) {
+			capabilities.add("symref=%s:%s".formatted(Git.HEAD, headTarget));
+		}
+
+		final var capabilitiesLine = String.join(" ", capabilities);
+
+		if (references.isEmpty()) {
+			PacketLine.data("%s capabilities^{}\0%s\n".formatted(GitClient.ZERO_HASH, capabilitiesLine)).serialize(outputStream);
+		}
+
+		var first = true;
+		for (final var reference : references) {
+			if (first) {
+				PacketLine.data("%s %s\0%s\n".formatted(reference.hash(), reference.name(), capabilitiesLine)).serialize(outputStream);
+				first = false;
+			} else {
+				PacketLine.data("%s %s\n".formatted(reference.hash(), reference.name())).serialize(outputStream);
+			}
+		}
+
+		PacketLine.flush().serialize(outputStream);
+	}
+
+	public void serve(InputStream inputStream, OutputStream outputStream) throws IOException {
+		final var wants = new LinkedHashSet<String>();
+		final var requestCapabilities = new HashSet<String>();
+		ObjectFilter filter = null;
+
+		PacketLine line;
+		while ((line = PacketLine.read(inputStream)) instanceof PacketLine.Data data) {
+			final var text = data.text();
+
+			if (text.startsWith("want ")) {
+				final var parts = text.split(" ");
+				wants.add(parts[1]);
+
+				for (var index = 2; index < parts.length; ++index) {
+					requestCapabilities.add(parts[index]);
+				}
+			} else if (text.startsWith("filter ")) {
+				filter = ObjectFilter.parse(text.substring("filter ".length()));
+			} else if (!text.startsWith("shallow ") && !text.startsWith("deepen")) {
+				throw new IllegalStateException("unexpected line: " + text);
+			}
+		}
+
+		final var bitmapWalker = BitmapWalker.open(git);
+
+		final var unreachable = findUnreachable(wants, bitmapWalker);
+		if (unreachable != null) {
+			PacketLine.data("ERR upload-pack: not our ref %s\n".formatted(unreachable)).serialize(outputStream);
+			return;
+		}
+
+		final var multiAcknowledge = requestCapabilities.contains(GitClient.MULTI_ACK_DETAILED);
+		final var commons = new ArrayList<String>();
+		var done = false;
+
+		final var readiness = multiAcknowledge && bitmapWalker != null ? new Readiness(bitmapWalker, wants) : null;
+
+		while ((line = PacketLine.read(inputStream)) instanceof PacketLine.Data data) {
+			final var text = data.text();
+
+			if (text.startsWith("have ")) {
+				final var hash = text.substring("have ".length());
+
+				if (git.hasObject(hash)) {
+					commons.add(hash);
+
+					if (readiness != null && readiness.acknowledge(hash)) {
+						PacketLine.data("ACK %s ready\n".formatted(hash)).serialize(outputStream);
+					} else if (multiAcknowledge) {
+						PacketLine.data("ACK %s common\n".formatted(hash)).serialize(outputStream);
+					}
+				}
+			} else if ("done".equals(text)) {
+				done = true;
+				break;
+			} else {
+				throw new IllegalStateException("unexpected line: " + text);
+			}
+		}
+
+		if (!done) {
+			PacketLine.data("NAK\n").serialize(outputStream);
+			return;
+		}
+
+		if (multiAcknowledge && !commons.isEmpty()) {
+			PacketLine.data("ACK %s\n".formatted(commons.getLast())).serialize(outputStream);
+		} else {
+			PacketLine.data("NAK\n").serialize(outputStream);
+		}
+
+		final var writer = new PackWriter(git);
+
+		var objects = bitmapWalker != null ? bitmapWalker.walk(wants, commons, filter) : null;
+		if (objects == null) {
+			final var walker = new ObjectWalker(git);
+			objects = walker.walk(wants, commons, filter);
+
+			writer.setPaths(walker.getPaths());
+		} else {
+			writer.setBitmapIndex(bitmapWalker.getBitmapIndex());
+		}
+
+		writer.setOffsetDeltas(requestCapabilities.contains(GitClient.OFS_DELTA));
+		writer.write(objects, outputStream);
+	}
+
+	private String findUnreachable(Collection<String> wants, BitmapWalker bitmapWalker) throws IOException {
+		final var tips = git.listTips();
+		final var pending = new ArrayList<String>();
+
+		for (final var want : wants) {
+			if (!git.hasObject(want)) {
+				return want;
+			}
+
+			if (!tips.contains(want)) {
+				pending.add(want);
+			}
+		}
+
+		if (pending.isEmpty()) {
+			return null;
+		}
+
+		final var roots = new LinkedHashSet<String>(tips);
+		for (final var tip : tips) {
+			final var commitHash = git.peelToCommit(tip);
+
+			if (commitHash != null) {
+				roots.add(commitHash);
+			}
+		}
+
+		if (bitmapWalker != null) {
+			final var reachable = bitmapWalker.reach(roots);
+
+			if (reachable != null) {
+				final var pack = bitmapWalker.getBitmapIndex().getPack();
+
+				for (final var want : pending) {
+					final var packOrder = pack.getPackOrder(want);
+
+					if (packOrder == -1 || !reachable.get(packOrder)) {
+						return want;
+					}
+				}
+
+				return null;
+			}
+		}
+
+		final var reachable = new HashSet<String>(new ObjectWalker(git).walk(roots, List.of(), null));
+		for (final var want : pending) {
+			if (!reachable.contains(want)) {
+				return want;
+			}
+		}
+
+		return null;
+	}
+
+	@RequiredArgsConstructor
+	private static class Readiness {
+
+		private final BitmapWalker walker;
+		private final Collection<String> wants;
+		private final Set<String> satisfied = new HashSet<>();
+		private Map<String, BitSet> reachable;
+
+		public boolean acknowledge(String hash) throws IOException {
+			if (reachable == null) {
+				reachable = new HashMap<>();
+
+				for (final var want : wants) {
+					final var bitmap = walker.reach(List.of(want));
+					if (bitmap == null) {
+						return false;
+					}
+
+					reachable.put(want, bitmap);
+				}
+			}
+
+			if (reachable.size() != wants.size()) {
+				return false;
+			}
+
+			for (final var entry : reachable.entrySet()) {
+				if (walker.contains(entry.getValue(), hash)) {
+					satisfied.add(entry.getKey());
+				}
+			}
+
+			return satisfied.size() == wants.size();
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package git.protocol;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import git.Git;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class UploadPackServer {
+
+	public static final String INFO_REFS_PATH = "/info/refs";
+	public static final String UPLOAD_PACK_PATH = "/" + UploadPack.SERVICE;
+	public static final String ADVERTISEMENT_CONTENT_TYPE = "application/x-git-upload-pack-advertisement";
+	public static final String RESULT_CONTENT_TYPE = "application/x-git-upload-pack-result";
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Git git;
+	private final InetSocketAddress address;
+	private HttpServer server;
+
+	public void start() throws IOException {
+		server = HttpServer.create(address, 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	public void stop() {
+		server.stop(0);
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			final var path = exchange.getRequestURI().getPath();
+			final var method = exchange.getRequestMethod();
+
+			if ("GET".equals(method) && path.endsWith(INFO_REFS_PATH)) {
+				final var query = exchange.getRequestURI().getQuery();
+				if (query == null || !query.contains("service=" + UploadPack.SERVICE)) {
+					exchange.sendResponseHeaders(403, -1);
+					return;
+				}
+
+				git.reloadPacks();
+				respond(exchange, ADVERTISEMENT_CONTENT_TYPE, (outputStream) -> new UploadPack(git).advertise(outputStream));
+			} else if ("POST".equals(method) && path.endsWith(UPLOAD_PACK_PATH)) {
+				final var inputStream = openRequestBody(exchange);
+
+				respond(exchange, RESULT_CONTENT_TYPE, (outputStream) -> new UploadPack(git).serve(inputStream, outputStream));
+			} else {
+				exchange.sendResponseHeaders(404, -1);
+			}
+		} catch (IOException | RuntimeException exception) {
+			System.err.println("upload-pack: %s".formatted(exception));
+			throw exception;
+		}
+	}
+
+	private InputStream openRequestBody(HttpExchange exchange) throws IOException {
+		final var inputStream = exchange.getRequestBody();
+
+		if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+			return new GZIPInputStream(inputStream);
+		}
+
+		return inputStream;
+	}
+
+	private void respond(HttpExchange exchange, String contentType, ResponseWriter writer) throws IOException {
+		final var headers = exchange.getResponseHeaders();
+		headers.set("Content-Type", contentType);
+		headers.set("Cache-Control", "no-cache");
+
+		exchange.sendResponseHeaders(200, 0);
+
+		try (final var outputStream = new BufferedOutputStream(exchange.getResponseBody(), BUFFER_SIZE)) {
+			writer.write(outputStream);
+		}
+	}
+
+	@FunctionalInterface
+	private static interface ResponseWriter {
+
+		void write(OutputStream outputStream) throws IOException;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package git.refs;
+
+public record PackedReference(
+	String name,
+	String hash,
+	String peeledHash
+) {}
\ No newline at end of file
@@ -0,0 +1,243 @@
+package git.refs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import git.Git;
+import git.util.Platform;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class PackedReferences {
+
+	public static final String HEADER_PREFIX = "# pack-refs with:";
+	public static final String HEADER = HEADER_PREFIX + " sorted \n";
+	public static final String SORTED_TRAIT = "sorted";
+	public static final byte PEELED_MARKER = '^';
+	public static final int MINIMUM_LINE_LENGTH = Git.HASH_STRING_LENGTH + 2;
+	public static final Comparator<String> NAME_ORDER = (left, right) -> Arrays.compareUnsigned(left.getBytes(StandardCharsets.UTF_8), right.getBytes(StandardCharsets.UTF_8));
+
+	public static final PackedReferences EMPTY = new PackedReferences(ByteBuffer.allocate(0), 0);
+
+	private final ByteBuffer buffer;
+	private final int start;
+
+	public PackedReference find(String name) {
+		final var key = name.getBytes(StandardCharsets.UTF_8);
+		final var record = lowerBound(key);
+
+		if (record < buffer.limit() && compareName(record, key) == 0) {
+			return read(record);
+		}
+
+		return null;
+	}
+
+	public List<PackedReference> list(String prefix) {
+		final var key = prefix.getBytes(StandardCharsets.UTF_8);
+		final var references = new ArrayList<PackedReference>();
+
+		for (var record = lowerBound(key); record < buffer.limit() && hasPrefix(record, key); record = nextRecord(record)) {
+			references.add(read(record));
+		}
+
+		return references;
+	}
+
+	public int size() {
+		var count = 0;
+
+		for (var record = start; record < buffer.limit(); record = nextRecord(record)) {
+			++count;
+		}
+
+		return count;
+	}
+
+	private int lowerBound(byte[] key) {
+		var low = start;
+		var high = buffer.limit();
+
+		while (low < high) {
+			final var record = recordStart(low + (high - low) / 2);
+
+			if (compareName(record, key) < 0) {
+				low = nextRecord(record);
+			} else {
+				high = record;
+			}
+		}
+
+		return low;
+	}
+
+	private int recordStart(int position) {
+		position = lineStart(position);
+
+		if (buffer.get(position) == PEELED_MARKER) {
+			position = lineStart(position - 1);
+		}
+
+		return position;
+	}
+
+	private int lineStart(int position) {
+		while (position > start && buffer.get(position - 1) != '\n') {
+			--position;
+		}
+
+		return position;
+	}
+
+	private int lineEnd(int position) {
+		while (position < buffer.limit() && buffer.get(position) != '\n') {
+			++position;
+		}
+
+		return position;
+	}
+
+	private int nextRecord(int record) {
+		var position = lineEnd(record) + 1;
+
+		if (position < buffer.limit() && buffer.get(position) == PEELED_MARKER) {
+			position = lineEnd(position) + 1;
+		}
+
+		return Math.min(position, buffer.limit());
+	}
+
+	private int compareName(int record, byte[] key) {
+		final var end = lineEnd(record);
+		var position = record + Git.HASH_STRING_LENGTH + 1;
+
+		if (end - record < MINIMUM_LINE_LENGTH || buffer.get(position - 1) != ' ') {
+			throw new IllegalStateException("malformed packed-refs line at offset " + record);
+		}
+
+		for (var index = 0; index < key.length; ++index, ++position) {
+			if (position == end) {
+				return -1;
+			}
+
+			final var comparison = Byte.compareUnsigned(buffer.get(position), key[index]);
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+
+		return position == end ? 0 : 1;
+	}
+
+	private boolean hasPrefix(int record, byte[] prefix) {
+		final var end = lineEnd(record);
+		final var position = record + Git.HASH_STRING_LENGTH + 1;
+
+		if (end - position < prefix.length) {
+			return false;
+		}
+
+		for (var index = 0; index < prefix.length; ++index) {
+			if (buffer.get(position + index) != prefix[index]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private PackedReference read(int record) {
+		final var end = lineEnd(record);
+		final var hash = string(record, record + Git.HASH_STRING_LENGTH);
+		final var name = string(record + Git.HASH_STRING_LENGTH + 1, end);
+
+		String peeledHash = null;
+		if (end + 1 < buffer.limit() && buffer.get(end + 1) == PEELED_MARKER) {
+			peeledHash = string(end + 2, end + 2 + Git.HASH_STRING_LENGTH);
+		}
+
+		return new PackedReference(name, hash, peeledHash);
+	}
+
+	private String string(int from, int to) {
+		final var bytes = new byte[to - from];
+		buffer.get(from, bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public static PackedReferences open(Path path) throws IOException {
+		try {
+			if (Platform.isWindows()) {
+				return parse(ByteBuffer.wrap(Files.readAllBytes(path)));
+			}
+
+			try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			}
+		} catch (NoSuchFileException exception) {
+			return EMPTY;
+		}
+	}
+
+	public static PackedReferences parse(ByteBuffer buffer) {
+		var start = 0;
+		var sorted = false;
+
+		if (buffer.limit() > 0 && buffer.get(0) == '#') {
+			while (start < buffer.limit() && buffer.get(start) != '\n') {
+				++start;
+			}
+
+			final var bytes = new byte[start];
+			buffer.get(0, bytes);
+
+			final var header = new String(bytes, StandardCharsets.UTF_8);
+			if (header.startsWith(HEADER_PREFIX)) {
+				sorted = List.of(header.substring(HEADER_PREFIX.length()).strip().split(" ")).contains(SORTED_TRAIT);
+			}
+
+			start = Math.min(start + 1, buffer.limit());
+		}
+
+		final var packedReferences = new PackedReferences(buffer, start);
+		if (sorted) {
+			return packedReferences;
+		}
+
+		final var references = new ArrayList<PackedReference>();
+		for (var record = start; record < buffer.limit(); record = packedReferences.nextRecord(record)) {
+			references.add(packedReferences.read(record));
+		}
+
+		references.sort(Comparator.comparing(PackedReference::name, NAME_ORDER));
+
+		return parse(ByteBuffer.wrap(serialize(references)));
+	}
+
+	public static byte[] serialize(Collection<PackedReference> references) {
+		final var builder = new StringBuilder(HEADER);
+
+		for (final var reference : references) {
+			builder.append(reference.hash()).append(' ').append(reference.name()).append('\n');
+
+			if (reference.peeledHash() != null) {
+				builder.append((char) PEELED_MARKER).append(reference.peeledHash()).append('\n');
+			}
+		}
+
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,293 @@
+package git.refs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import git.domain.Reference;
+import git.util.LockFile;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ReferenceDatabase {
+
+	public static final String PACKED_REFERENCES = "packed-refs";
+	public static final String SYMBOLIC_REFERENCE_PREFIX = "ref: ";
+	public static final String REFS_PREFIX = "refs/";
+	public static final String TAGS_PREFIX = "refs/tags/";
+	public static final int MAX_SYMBOLIC_REFERENCE_DEPTH = 5;
+
+	private final Path directory;
+
+	private PackedReferences packed;
+	private FileTime packedModifiedTime;
+	private long packedSize = -1;
+
+	public Path getPackedReferencesFile() {
+		return directory.resolve(PACKED_REFERENCES);
+	}
+
+	public synchronized PackedReferences getPackedReferences() throws IOException {
+		final var path = getPackedReferencesFile();
+
+		BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (NoSuchFileException exception) {
+			packed = PackedReferences.EMPTY;
+			packedModifiedTime = null;
+			packedSize = -1;
+
+			return packed;
+		}
+
+		if (packed == null || !attributes.lastModifiedTime().equals(packedModifiedTime) || attributes.size() != packedSize) {
+			packed = PackedReferences.open(path);
+			packedModifiedTime = attributes.lastModifiedTime();
+			packedSize = attributes.size();
+		}
+
+		return packed;
+	}
+
+	public String resolve(String name) throws IOException {
+		var current = name;
+
+		for (var depth = 0; depth < MAX_SYMBOLIC_REFERENCE_DEPTH; ++depth) {
+			final var content = readLoose(current);
+			if (content == null) {
+				final var reference = getPackedReferences().find(current);
+
+				return reference != null ? reference.hash() : null;
+			}
+
+			if (!content.startsWith(SYMBOLIC_REFERENCE_PREFIX)) {
+				return content;
+			}
+
+			current = content.substring(SYMBOLIC_REFERENCE_PREFIX.length());
+		}
+
+		throw new IllegalStateException("symbolic reference too deep: " + name);
+	}
+
+	public String readSymbolic(String name) throws IOException {
+		final var content = readLoose(name);
+		if (content == null || !content.startsWith(SYMBOLIC_REFERENCE_PREFIX)) {
+			return null;
+		}
+
+		return content.substring(SYMBOLIC_REFERENCE_PREFIX.length());
+	}
+
+	public List<Reference> list(String prefix) throws IOException {
+		final var hashByName = new TreeMap<String, String>(PackedReferences.NAME_ORDER);
+
+		for (final var reference : getPackedReferences().list(prefix)) {
+			hashByName.put(reference.name(), reference.hash());
+		}
+
+		for (final var name : listLoose(prefix)) {
+			final var hash = resolve(name);
+
+			if (hash != null) {
+				hashByName.put(name, hash);
+			}
+		}
+
+		final var references = new ArrayList<Reference>(hashByName.size());
+		for (final var entry : hashByName.entrySet()) {
+			references.add(new Reference(entry.getKey(), entry.getValue()));
+		}
+
+		return references;
+	}
+
+	public void update(String name, String hash) throws IOException {
+		update(name, hash, null);
+	}
+
+	public void update(String name, String hash, String expectedHash) throws IOException {
+		write(name, hash + "\n", expectedHash);
+	}
+
+	public void updateSymbolic(String name, String target) throws IOException {
+		write(name, SYMBOLIC_REFERENCE_PREFIX + target + "\n", null);
+	}
+
+	public void delete(String name) throws IOException {
+		final var path = pathOf(name);
+
+		try (
+			final var lock = lockReference(path);
+			final var packedLock = LockFile.acquire(getPackedReferencesFile())
+		) {
+			final var references = new ArrayList<PackedReference>();
+			var found = false;
+
+			for (final var reference : getPackedReferences().list("")) {
+				if (reference.name().equals(name)) {
+					found = true;
+				} else {
+					references.add(reference);
+				}
+			}
+
+			if (found) {
+				packedLock.write(PackedReferences.serialize(references));
+				packedLock.commit();
+			}
+
+			Files.deleteIfExists(path);
+		}
+
+		pruneEmptyDirectories(path.getParent());
+	}
+
+	public int pack(boolean all, boolean prune) throws IOException {
+		try (final var packedLock = LockFile.acquire(getPackedReferencesFile())) {
+			final var referenceByName = new TreeMap<String, PackedReference>(PackedReferences.NAME_ORDER);
+			for (final var reference : getPackedReferences().list("")) {
+				referenceByName.put(reference.name(), reference);
+			}
+
+			final var packedLoose = new TreeMap<String, String>();
+			for (final var name : listLoose(REFS_PREFIX)) {
+				if (!all && !name.startsWith(TAGS_PREFIX)) {
+					continue;
+				}
+
+				final var content = readLoose(name);
+				if (content == null || content.startsWith(SYMBOLIC_REFERENCE_PREFIX)) {
+					continue;
+				}
+
+				final var previous = referenceByName.get(name);
+				final var peeledHash = previous != null && previous.hash().equals(content) ? previous.peeledHash() : null;
+
+				referenceByName.put(name, new PackedReference(name, content, peeledHash));
+				packedLoose.put(name, content);
+			}
+
+			packedLock.write(PackedReferences.serialize(referenceByName.values()));
+			packedLock.commit();
+
+			if (prune) {
+				for (final var entry : packedLoose.entrySet()) {
+					pruneLoose(entry.getKey(), entry.getValue());
+				}
+			}
+
+			return packedLoose.size();
+		}
+	}
+
+	private void pruneLoose(String name, String hash) throws IOException {
+		final var path = pathOf(name);
+
+		try (final var lock = lockReference(path)) {
+			if (hash.equals(readLoose(name))) {
+				Files.deleteIfExists(path);
+			}
+		} catch (FileAlreadyExistsException exception) {
+			return;
+		}
+
+		pruneEmptyDirectories(path.getParent());
+	}
+
+	private void write(String name, String content, String expectedHash) throws IOException {
+		final var path = pathOf(name);
+
+		try (final var lock = lockReference(path)) {
+			if (expectedHash != null) {
+				final var currentHash = resolve(name);
+
+				if (!Objects.equals(expectedHash, currentHash)) {
+					throw new IOException("cannot lock ref '%s': is at %s but expected %s".formatted(name, currentHash, expectedHash));
+				}
+			}
+
+			lock.write(content.getBytes(StandardCharsets.UTF_8));
+			lock.commit();
+		}
+	}
+
+	private LockFile lockReference(Path path) throws IOException {
+		Files.createDirectories(path.getParent());
+
+		return LockFile.acquire(path);
+	}
+
+	private String readLoose(String name) throws IOException {
+		final var path = pathOf(name);
+
+		try {
+			if (!Files.isRegularFile(path)) {
+				return null;
+			}
+
+			return Files.readString(path).strip();
+		} catch (NoSuchFileException exception) {
+			return null;
+		}
+	}
+
+	private List<String> listLoose(String prefix) throws IOException {
+		final var names = new ArrayList<String>();
+
+		final var slash = prefix.lastIndexOf('/');
+		final var root = directory.resolve(prefix.substring(0, slash + 1));
+		if (!Files.isDirectory(root)) {
+			return names;
+		}
+
+		try (final var paths = Files.walk(root)) {
+			for (final var path : (Iterable<Path>) paths::iterator) {
+				if (!Files.isRegularFile(path) || path.getFileName().toString().endsWith(LockFile.SUFFIX)) {
+					continue;
+				}
+
+				final var name = directory.relativize(path).toString().replace('\\', '/');
+				if (name.startsWith(prefix)) {
+					names.add(name);
+				}
+			}
+		}
+
+		return names;
+	}
+
+	private void pruneEmptyDirectories(Path path) throws IOException {
+		final var refs = directory.resolve(REFS_PREFIX);
+
+		while (path != null && path.startsWith(refs) && !path.equals(refs)) {
+			try {
+				Files.delete(path);
+			} catch (DirectoryNotEmptyException | NoSuchFileException exception) {
+				return;
+			}
+
+			path = path.getParent();
+		}
+	}
+
+	private Path pathOf(String name) {
+		if (name.isEmpty() || name.contains("..") || name.startsWith("/") || name.endsWith(LockFile.SUFFIX) || name.endsWith("/")) {
+			throw new IllegalArgumentException("invalid reference name: " + name);
+		}
+
+		return directory.resolve(name);
+	}
+
+}
\ No newline at end of file
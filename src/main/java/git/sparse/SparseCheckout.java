@@ -0,0 +1,232 @@
+package git.sparse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SparseCheckout {
+
+	public static final String ROOT_FILES_PATTERN = "/*";
+	public static final String ROOT_DIRECTORIES_PATTERN = "!/*/";
+	public static final String DIRECTORIES_SUFFIX = "*/";
+	public static final String SPECIAL_CHARACTERS = "\\*?[]!#";
+
+	@Getter
+	private final Node root;
+
+	public boolean includes(String path) {
+		var node = root;
+		var start = 0;
+
+		while (!node.isRecursive()) {
+			final var slash = path.indexOf('/', start);
+			if (slash == -1) {
+				return true;
+			}
+
+			node = node.child(path.substring(start, slash));
+			if (node == null) {
+				return false;
+			}
+
+			start = slash + 1;
+		}
+
+		return true;
+	}
+
+	public List<String> getDirectories() {
+		final var directories = new ArrayList<String>();
+		collectDirectories(root, "", directories);
+
+		return directories;
+	}
+
+	private static void collectDirectories(Node node, String prefix, List<String> directories) {
+		for (final var entry : node.children.entrySet()) {
+			final var path = prefix + entry.getKey();
+
+			if (entry.getValue().isRecursive()) {
+				directories.add(path);
+			} else {
+				collectDirectories(entry.getValue(), path + "/", directories);
+			}
+		}
+	}
+
+	public String format() {
+		final var builder = new StringBuilder();
+		builder.append(ROOT_FILES_PATTERN).append('\n');
+		builder.append(ROOT_DIRECTORIES_PATTERN).append('\n');
+
+		format(root, "/", builder);
+
+		return builder.toString();
+	}
+
+	private static void format(Node node, String prefix, StringBuilder builder) {
+		for (final var entry : node.children.entrySet()) {
+			final var path = prefix + escape(entry.getKey()) + "/";
+			final var child = entry.getValue();
+
+			builder.append(path).append('\n');
+
+			if (!child.isRecursive()) {
+				builder.append('!').append(path).append(DIRECTORIES_SUFFIX).append('\n');
+				format(child, path, builder);
+			}
+		}
+	}
+
+	public SparseCheckout with(Collection<String> directories) {
+		final var all = new ArrayList<String>(getDirectories());
+		all.addAll(directories);
+
+		return of(all);
+	}
+
+	public static SparseCheckout of(Collection<String> directories) {
+		final var root = new Node();
+
+		for (final var directory : directories) {
+			final var normalized = normalize(directory);
+
+			if (normalized.isEmpty()) {
+				root.recursive = true;
+			} else {
+				root.add(normalized.split("/"), true);
+			}
+		}
+
+		return new SparseCheckout(root);
+	}
+
+	public static SparseCheckout parse(String content) {
+		final var included = new ArrayList<String>();
+		final var parents = new ArrayList<String>();
+
+		for (final var line : content.split("\n")) {
+			final var pattern = line.strip();
+
+			if (pattern.isEmpty() || pattern.startsWith("#") || pattern.equals(ROOT_FILES_PATTERN) || pattern.equals(ROOT_DIRECTORIES_PATTERN)) {
+				continue;
+			}
+
+			if (pattern.startsWith("!/") && pattern.endsWith("/" + DIRECTORIES_SUFFIX) && pattern.length() > 5) {
+				parents.add(unescape(pattern.substring(2, pattern.length() - DIRECTORIES_SUFFIX.length() - 1), line));
+			} else if (pattern.startsWith("/") && pattern.endsWith("/") && pattern.length() > 2) {
+				included.add(unescape(pattern.substring(1, pattern.length() - 1), line));
+			} else {
+				throw new IllegalStateException("sparse-checkout pattern is not in cone mode: " + line);
+			}
+		}
+
+		included.removeAll(parents);
+
+		final var sparseCheckout = of(included);
+		for (final var parent : parents) {
+			sparseCheckout.root.add(normalize(parent).split("/"), false);
+		}
+
+		return sparseCheckout;
+	}
+
+	private static String normalize(String directory) {
+		var normalized = directory.replace('\\', '/');
+
+		while (normalized.startsWith("/")) {
+			normalized = normalized.substring(1);
+		}
+
+		while (normalized.endsWith("/")) {
+			normalized = normalized.substring(0, normalized.length() - 1);
+		}
+
+		return normalized;
+	}
+
+	private static String escape(String name) {
+		final var builder = new StringBuilder(name.length());
+
+		for (var index = 0; index < name.length(); ++index) {
+			final var character = name.charAt(index);
+
+			if (SPECIAL_CHARACTERS.indexOf(character) != -1) {
+				builder.append('\\');
+			}
+
+			builder.append(character);
+		}
+
+		return builder.toString();
+	}
+
+	private static String unescape(String pattern, String line) {
+		final var builder = new StringBuilder(pattern.length());
+
+		for (var index = 0; index < pattern.length(); ++index) {
+			final var character = pattern.charAt(index);
+
+			if (character == '\\' && index + 1 < pattern.length()) {
+				builder.append(pattern.charAt(++index));
+			} else if (character == '*' || character == '?' || character == '[') {
+				throw new IllegalStateException("sparse-checkout pattern is not in cone mode: " + line);
+			} else {
+				builder.append(character);
+			}
+		}
+
+		return builder.toString();
+	}
+
+	public static final class Node {
+
+		public static final Node ALL = new Node(true);
+
+		private final Map<String, Node> children = new TreeMap<>();
+		private boolean recursive;
+
+		private Node() {}
+
+		private Node(boolean recursive) {
+			this.recursive = recursive;
+		}
+
+		public boolean isRecursive() {
+			return recursive;
+		}
+
+		public Node child(String name) {
+			if (recursive) {
+				return this;
+			}
+
+			return children.get(name);
+		}
+
+		private void add(String[] segments, boolean recursive) {
+			var node = this;
+
+			for (final var segment : segments) {
+				if (node.recursive) {
+					return;
+				}
+
+				node = node.children.computeIfAbsent(segment, (__) -> new Node());
+			}
+
+			if (recursive) {
+				node.recursive = true;
+				node.children.clear();
+			}
+		}
+
+	}
+
+}
\ No newline at end of file
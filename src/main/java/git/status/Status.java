@@ -0,0 +1,331 @@
+package git.status;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+import git.domain.tree.TreeCursor;
+import git.ignore.IgnoreStack;
+import git.index.CacheTree;
+import git.index.FileStat;
+import git.index.Index;
+import git.index.IndexEntry;
+import git.trace.Trace;
+import git.tree.TreeChange;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@RequiredArgsConstructor
+public class Status {
+
+	public static final int GITLINK_MODE = 0160000;
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final Git git;
+	private final int threads;
+
+	@Setter
+	private boolean showStaged = true;
+
+	@Setter
+	private boolean showUntracked = true;
+
+	private List<IndexEntry> entries;
+	private List<TreeChange> staged;
+	private int position;
+
+	public StatusReport run() throws IOException {
+		final var index = git.readIndex();
+		entries = new ArrayList<>(index.getEntries());
+
+		final var unstaged = new ArrayList<TreeChange>();
+		int rehashedCount;
+
+		try (final var phase = Trace.phase("refresh index")) {
+			rehashedCount = refresh(index, unstaged);
+		}
+
+		staged = new ArrayList<>();
+		position = 0;
+
+		if (showStaged) {
+			try (final var phase = Trace.phase("diff index")) {
+				compare(git.resolveTreeHash(Git.HEAD), "", index.getCacheTree());
+			}
+		}
+
+		final var untracked = new ArrayList<String>();
+		if (showUntracked) {
+			try (final var phase = Trace.phase("untracked")) {
+				collectUntracked(untracked);
+			}
+		}
+
+		staged.sort((left, right) -> Index.comparePaths(left.path(), right.path()));
+		unstaged.sort((left, right) -> Index.comparePaths(left.path(), right.path()));
+		untracked.sort(Index::comparePaths);
+
+		return new StatusReport(staged, unstaged, untracked, entries.size(), rehashedCount);
+	}
+
+	private int refresh(Index index, List<TreeChange> unstaged) throws IOException {
+		final var root = git.getRoot();
+		final var candidates = new ArrayList<Integer>();
+		final var stats = new ArrayList<FileStat>();
+
+		for (var position = 0; position < entries.size(); ++position) {
+			final var entry = entries.get(position);
+			if (entry.stage() != 0 || entry.mode() == GITLINK_MODE || entry.skipWorktree()) {
+				continue;
+			}
+
+			final var stat = FileStat.read(root.resolve(entry.path()));
+			if (stat == null || stat.mode() == FileStat.DIRECTORY_MODE) {
+				unstaged.add(new TreeChange(TreeChange.Status.DELETED, entry.mode(), 0, entry.hash(), TreeChange.NULL_HASH, entry.path()));
+				continue;
+			}
+
+			if ((stat.mode() >> 12) != (entry.mode() >> 12)) {
+				unstaged.add(new TreeChange(TreeChange.Status.TYPE_CHANGED, entry.mode(), stat.mode(), entry.hash(), TreeChange.NULL_HASH, entry.path()));
+				continue;
+			}
+
+			if (stat.mode() == entry.mode() && entry.stat().matches(stat) && !entry.stat().isRacy(index.getTimestamp())) {
+				continue;
+			}
+
+			candidates.add(position);
+			stats.add(stat);
+		}
+
+		if (candidates.isEmpty()) {
+			return 0;
+		}
+
+		final var hashes = rehash(candidates, stats);
+
+		var refreshed = false;
+		for (var candidate = 0; candidate < candidates.size(); ++candidate) {
+			final var position = candidates.get(candidate);
+			final var entry = entries.get(position);
+			final var stat = stats.get(candidate);
+
+			if (!hashes.get(candidate).equals(entry.hash()) || stat.mode() != entry.mode()) {
+				unstaged.add(new TreeChange(TreeChange.Status.MODIFIED, entry.mode(), stat.mode(), entry.hash(), TreeChange.NULL_HASH, entry.path()));
+			} else {
+				entries.set(position, entry.withStat(stat));
+				refreshed = true;
+			}
+		}
+
+		if (refreshed) {
+			try {
+				git.writeIndex(new Index(entries, index.getCacheTree(), null));
+			} catch (FileAlreadyExistsException exception) {
+				return candidates.size();
+			}
+		}
+
+		return candidates.size();
+	}
+
+	private List<String> rehash(List<Integer> candidates, List<FileStat> stats) throws IOException {
+		final var root = git.getRoot();
+		final var executor = Executors.newFixedThreadPool(Math.min(threads, candidates.size()));
+
+		try {
+			final var futures = new ArrayList<Future<String>>(candidates.size());
+			for (var candidate = 0; candidate < candidates.size(); ++candidate) {
+				final var path = root.resolve(entries.get(candidates.get(candidate)).path());
+				final var symbolicLink = stats.get(candidate).mode() == FileStat.SYMBOLIC_LINK_MODE;
+
+				futures.add(executor.submit(() -> hash(path, symbolicLink)));
+			}
+
+			final var hashes = new ArrayList<String>(futures.size());
+			for (final var future : futures) {
+				hashes.add(future.get());
+			}
+
+			return hashes;
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IOException("status interrupted", exception);
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			throw new IllegalStateException(exception.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static String hash(Path path, boolean symbolicLink) throws IOException, NoSuchAlgorithmException {
+		if (symbolicLink) {
+			final var target = Files.readSymbolicLink(path).toString().getBytes(StandardCharsets.UTF_8);
+
+			return Git.hashRawObject(new RawObject(ObjectType.BLOB, target));
+		}
+
+		return Git.hashBlob(path);
+	}
+
+	private void compare(String treeHash, String prefix, CacheTree node) throws IOException {
+		if (node != null && node.isValid() && node.hash().equals(treeHash)) {
+			position += node.entryCount();
+			return;
+		}
+
+		final var cursor = new TreeCursor(treeHash == null ? EMPTY : git.readRawObject(treeHash).content());
+		var hasTree = cursor.next();
+
+		while (true) {
+			IndexEntry entry = null;
+			if (position < entries.size() && entries.get(position).path().startsWith(prefix)) {
+				entry = entries.get(position);
+
+				if (entry.stage() != 0) {
+					++position;
+					continue;
+				}
+			}
+
+			if (!hasTree && entry == null) {
+				break;
+			}
+
+			var indexName = "";
+			var indexDirectory = false;
+			if (entry != null) {
+				final var rest = entry.path().substring(prefix.length());
+				final var slash = rest.indexOf('/');
+
+				indexDirectory = slash != -1;
+				indexName = indexDirectory ? rest.substring(0, slash) : rest;
+			}
+
+			final var treeName = hasTree ? cursor.name() : "";
+			final var comparison = !hasTree ? 1 : entry == null ? -1 : Index.comparePaths(sortKey(treeName, cursor.isDirectory()), sortKey(indexName, indexDirectory));
+
+			if (comparison < 0) {
+				if (cursor.isDirectory()) {
+					compare(cursor.hash(), prefix + treeName + "/", null);
+				} else {
+					staged.add(new TreeChange(TreeChange.Status.DELETED, cursor.mode(), 0, cursor.hash(), TreeChange.NULL_HASH, prefix + treeName));
+				}
+
+				hasTree = cursor.next();
+			} else if (comparison > 0) {
+				if (indexDirectory) {
+					compare(null, prefix + indexName + "/", node == null ? null : node.child(indexName));
+				} else {
+					staged.add(new TreeChange(TreeChange.Status.ADDED, 0, entry.mode(), TreeChange.NULL_HASH, entry.hash(), entry.path()));
+					++position;
+				}
+			} else {
+				if (indexDirectory) {
+					compare(cursor.hash(), prefix + indexName + "/", node == null ? null : node.child(indexName));
+				} else {
+					if (cursor.mode() != entry.mode() || !cursor.hash().equals(entry.hash())) {
+						final var status = (cursor.mode() >> 12) == (entry.mode() >> 12) ? TreeChange.Status.MODIFIED : TreeChange.Status.TYPE_CHANGED;
+						staged.add(new TreeChange(status, cursor.mode(), entry.mode(), cursor.hash(), entry.hash(), entry.path()));
+					}
+
+					++position;
+				}
+
+				hasTree = cursor.next();
+			}
+		}
+	}
+
+	private static String sortKey(String name, boolean directory) {
+		return directory ? name + "/" : name;
+	}
+
+	private void collectUntracked(List<String> untracked) throws IOException {
+		final var tracked = new HashSet<String>();
+		final var trackedDirectories = new HashSet<String>();
+
+		for (final var entry : entries) {
+			final var path = entry.path();
+			tracked.add(path);
+
+			for (var slash = path.indexOf('/'); slash != -1; slash = path.indexOf('/', slash + 1)) {
+				trackedDirectories.add(path.substring(0, slash));
+			}
+		}
+
+		collectUntracked(git.getRoot(), "", IgnoreStack.load(git), tracked, trackedDirectories, untracked);
+	}
+
+	private void collectUntracked(Path directory, String prefix, IgnoreStack ignores, Set<String> tracked, Set<String> trackedDirectories, List<String> untracked) throws IOException {
+		final var directoryIgnores = ignores.enter(directory, prefix);
+
+		try (final var children = Files.list(directory)) {
+			for (final var child : (Iterable<Path>) children::iterator) {
+				final var name = child.getFileName().toString();
+				if (prefix.isEmpty() && Git.DOT_GIT.equals(name)) {
+					continue;
+				}
+
+				final var path = prefix + name;
+				if (tracked.contains(path)) {
+					continue;
+				}
+
+				final var isDirectory = Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS);
+				if (directoryIgnores.isIgnored(path, isDirectory)) {
+					continue;
+				}
+
+				if (isDirectory && trackedDirectories.contains(path)) {
+					collectUntracked(child, path + "/", directoryIgnores, tracked, trackedDirectories, untracked);
+				} else if (!isDirectory) {
+					untracked.add(path);
+				} else if (containsUntracked(child, path + "/", directoryIgnores)) {
+					untracked.add(path + "/");
+				}
+			}
+		}
+	}
+
+	private static boolean containsUntracked(Path directory, String prefix, IgnoreStack ignores) throws IOException {
+		final var directoryIgnores = ignores.enter(directory, prefix);
+
+		try (final var children = Files.list(directory)) {
+			for (final var child : (Iterable<Path>) children::iterator) {
+				final var path = prefix + child.getFileName();
+				final var isDirectory = Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS);
+
+				if (directoryIgnores.isIgnored(path, isDirectory)) {
+					continue;
+				}
+
+				if (!isDirectory || containsUntracked(child, path + "/", directoryIgnores)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package git.status;
+
+import java.util.List;
+
+import git.tree.TreeChange;
+
+public record StatusReport(
+	List<TreeChange> staged,
+	List<TreeChange> unstaged,
+	List<String> untracked,
+	int entryCount,
+	int rehashedCount
+) {
+
+	public boolean isClean() {
+		return staged.isEmpty() && unstaged.isEmpty() && untracked.isEmpty();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package git.trace;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+@RequiredArgsConstructor
+@Accessors(fluent = true)
+public enum Counter {
+
+	DOWNLOADED("downloaded"),
+	INFLATED("inflated"),
+	DEFLATED("deflated"),
+	WRITTEN("written");
+
+	@Getter
+	private final String label;
+
+	private final LongAdder bytes = new LongAdder();
+
+	public void add(long count) {
+		bytes.add(count);
+	}
+
+	public long get() {
+		return bytes.sum();
+	}
+
+}
\ No newline at end of file
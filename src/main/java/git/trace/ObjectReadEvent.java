@@ -0,0 +1,39 @@
+package git.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("git.ObjectRead")
+@Label("Object Read")
+@Category("Git")
+public class ObjectReadEvent extends Event {
+
+	@Label("Hash")
+	String hash;
+
+	@Label("Type")
+	String type;
+
+	@Label("Size")
+	@DataAmount
+	long size;
+
+	@Label("Source")
+	String source;
+
+	public void complete(String hash, String type, long size, String source) {
+		end();
+
+		if (shouldCommit()) {
+			this.hash = hash;
+			this.type = type;
+			this.size = size;
+			this.source = source;
+			commit();
+		}
+	}
+
+}
\ No newline at end of file
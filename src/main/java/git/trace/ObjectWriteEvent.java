@@ -0,0 +1,36 @@
+package git.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("git.ObjectWrite")
+@Label("Object Write")
+@Category("Git")
+public class ObjectWriteEvent extends Event {
+
+	@Label("Hash")
+	String hash;
+
+	@Label("Size")
+	@DataAmount
+	long size;
+
+	@Label("Compressed Size")
+	@DataAmount
+	long compressedSize;
+
+	public void complete(String hash, long size, long compressedSize) {
+		end();
+
+		if (shouldCommit()) {
+			this.hash = hash;
+			this.size = size;
+			this.compressedSize = compressedSize;
+			commit();
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package git.trace;
+
+public class Phase implements AutoCloseable {
+
+	private final String name;
+	private final long start;
+	private final PhaseEvent event = new PhaseEvent();
+
+	Phase(String name) {
+		this.name = name;
+		this.start = System.nanoTime();
+
+		event.begin();
+	}
+
+	@Override
+	public void close() {
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.phase = name;
+			event.commit();
+		}
+
+		Trace.performance(System.nanoTime() - start, name);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package git.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("git.Phase")
+@Label("Phase")
+@Category("Git")
+public class PhaseEvent extends Event {
+
+	@Label("Phase")
+	String phase;
+
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package git.trace;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+public class Trace {
+
+	public static final String PERFORMANCE_VARIABLE = "GIT_TRACE_PERFORMANCE";
+	public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSS");
+	public static final double NANOS_PER_SECOND = 1e9;
+
+	private static final long START = System.nanoTime();
+	private static final PrintStream PERFORMANCE = openPerformanceStream(System.getenv(PERFORMANCE_VARIABLE));
+
+	static {
+		if (PERFORMANCE != null) {
+			Runtime.getRuntime().addShutdownHook(new Thread(Trace::printSummary));
+		}
+	}
+
+	public static boolean isPerformanceEnabled() {
+		return PERFORMANCE != null;
+	}
+
+	public static Phase phase(String name) {
+		return new Phase(name);
+	}
+
+	public static void performance(long elapsedNanos, String message) {
+		if (PERFORMANCE == null) {
+			return;
+		}
+
+		PERFORMANCE.println("%s performance: %.9f s: %s".formatted(LocalTime.now().format(TIME_FORMATTER), elapsedNanos / NANOS_PER_SECOND, message));
+	}
+
+	private static void printSummary() {
+		final var builder = new StringBuilder("total");
+
+		for (final var counter : Counter.values()) {
+			builder.append(", %s %d bytes".formatted(counter.label(), counter.get()));
+		}
+
+		performance(System.nanoTime() - START, builder.toString());
+		PERFORMANCE.flush();
+	}
+
+	private static PrintStream openPerformanceStream(String value) {
+		if (value == null) {
+			return null;
+		}
+
+		switch (value.toLowerCase()) {
+			case "", "0", "false", "no", "off": {
+				return null;
+			}
+
+			case "1", "2", "true", "yes", "on": {
+				return System.err;
+			}
+
+			default: {
+				if (!value.startsWith("/")) {
+					return null;
+				}
+
+				try {
+					return new PrintStream(new FileOutputStream(value, true), true);
+				} catch (IOException exception) {
+					System.err.println("warning: could not open %s for %s: %s".formatted(value, PERFORMANCE_VARIABLE, exception.getMessage()));
+					return null;
+				}
+			}
+		}
+	}
+
+}
\ No newline at end of file
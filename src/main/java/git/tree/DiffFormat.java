@@ -0,0 +1,47 @@
+package git.tree;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import lombok.Setter;
+
+public class DiffFormat {
+
+	@Setter
+	private boolean nameOnly;
+
+	@Setter
+	private boolean nameStatus;
+
+	@Setter
+	private boolean nullTerminated;
+
+	public void write(List<TreeChange> changes, OutputStream outputStream) throws IOException {
+		final var separator = nullTerminated ? 0 : '\t';
+		final var terminator = nullTerminated ? 0 : '\n';
+
+		for (final var change : changes) {
+			if (nameStatus) {
+				outputStream.write(change.status().letter());
+				outputStream.write(separator);
+			} else if (!nameOnly) {
+				outputStream.write(":%06o %06o %s %s %c".formatted(change.oldMode(), change.newMode(), change.oldHash(), change.newHash(), change.status().letter()).getBytes(StandardCharsets.US_ASCII));
+				outputStream.write(separator);
+			}
+
+			final var bytes = change.path().getBytes(StandardCharsets.UTF_8);
+			if (nullTerminated) {
+				outputStream.write(bytes);
+			} else {
+				LsTree.writeQuoted(bytes, bytes.length, outputStream);
+			}
+
+			outputStream.write(terminator);
+		}
+
+		outputStream.flush();
+	}
+
+}
\ No newline at end of file
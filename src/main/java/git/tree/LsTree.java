@@ -0,0 +1,204 @@
+package git.tree;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.tree.TreeCursor;
+import git.domain.tree.TreeEntryModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@RequiredArgsConstructor
+public class LsTree {
+
+	public static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+	public static final int SIZE_WIDTH = 7;
+
+	private final Git git;
+
+	@Setter
+	private boolean recursive;
+
+	@Setter
+	private boolean showTrees;
+
+	@Setter
+	private boolean onlyTrees;
+
+	@Setter
+	private boolean showSizes;
+
+	@Setter
+	private boolean nameOnly;
+
+	@Setter
+	private boolean nullTerminated;
+
+	private byte[] path = new byte[256];
+	private final byte[] line = new byte[128];
+
+	public void list(String treeHash, OutputStream outputStream) throws IOException {
+		walk(treeHash, 0, outputStream);
+		outputStream.flush();
+	}
+
+	private void walk(String treeHash, int prefixLength, OutputStream outputStream) throws IOException {
+		final var object = git.readRawObject(treeHash);
+		if (object.type() != ObjectType.TREE) {
+			throw new IllegalArgumentException("not a tree object: " + treeHash);
+		}
+
+		final var cursor = new TreeCursor(object.content());
+		while (cursor.next()) {
+			final var directory = cursor.isDirectory();
+			if (onlyTrees && !directory) {
+				continue;
+			}
+
+			final var pathLength = appendName(cursor, prefixLength);
+
+			if (directory && recursive) {
+				if (showTrees || onlyTrees) {
+					writeEntry(cursor, pathLength, outputStream);
+				}
+
+				path[pathLength] = '/';
+				walk(cursor.hash(), pathLength + 1, outputStream);
+			} else {
+				writeEntry(cursor, pathLength, outputStream);
+			}
+		}
+	}
+
+	private int appendName(TreeCursor cursor, int prefixLength) {
+		final var pathLength = prefixLength + cursor.nameLength();
+
+		if (pathLength + 1 > path.length) {
+			path = Arrays.copyOf(path, Math.max(pathLength + 1, path.length * 2));
+		}
+
+		System.arraycopy(cursor.content(), cursor.nameOffset(), path, prefixLength, cursor.nameLength());
+
+		return pathLength;
+	}
+
+	private void writeEntry(TreeCursor cursor, int pathLength, OutputStream outputStream) throws IOException {
+		if (!nameOnly) {
+			final var type = cursor.type();
+			var length = 0;
+
+			final var mode = cursor.mode();
+			for (var shift = 15; shift >= 0; shift -= 3) {
+				line[length++] = (byte) ('0' + ((mode >> shift) & 0b111));
+			}
+
+			line[length++] = ' ';
+			length = append(typeName(type), length);
+			line[length++] = ' ';
+
+			final var content = cursor.content();
+			for (var index = 0; index < Git.HASH_BYTES_LENGTH; ++index) {
+				final var value = Byte.toUnsignedInt(content[cursor.hashOffset() + index]);
+
+				line[length++] = HEX_DIGITS[value >>> 4];
+				line[length++] = HEX_DIGITS[value & 0xf];
+			}
+
+			if (showSizes) {
+				final var size = type == TreeEntryModeType.REGULAR_FILE || type == TreeEntryModeType.SYMBOLIC_LINK
+					? String.valueOf(git.readObjectInfo(cursor.hash()).size())
+					: "-";
+
+				line[length++] = ' ';
+				for (var padding = size.length(); padding < SIZE_WIDTH; ++padding) {
+					line[length++] = ' ';
+				}
+
+				length = append(size, length);
+			}
+
+			line[length++] = '\t';
+			outputStream.write(line, 0, length);
+		}
+
+		if (nullTerminated) {
+			outputStream.write(path, 0, pathLength);
+			outputStream.write(0);
+		} else {
+			writeQuoted(path, pathLength, outputStream);
+			outputStream.write('\n');
+		}
+	}
+
+	private int append(String value, int offset) {
+		for (var index = 0; index < value.length(); ++index) {
+			line[offset++] = (byte) value.charAt(index);
+		}
+
+		return offset;
+	}
+
+	public static String typeName(TreeEntryModeType type) {
+		return switch (type) {
+			case DIRECTORY -> ObjectType.TREE.getName();
+			case GITLINK -> ObjectType.COMMIT.getName();
+			default -> ObjectType.BLOB.getName();
+		};
+	}
+
+	public static void writeQuoted(byte[] bytes, int length, OutputStream outputStream) throws IOException {
+		var quote = false;
+		for (var index = 0; index < length && !quote; ++index) {
+			quote = needsQuoting(bytes[index]);
+		}
+
+		if (!quote) {
+			outputStream.write(bytes, 0, length);
+			return;
+		}
+
+		outputStream.write('"');
+
+		for (var index = 0; index < length; ++index) {
+			final var value = Byte.toUnsignedInt(bytes[index]);
+
+			final var escape = switch (value) {
+				case 0x07 -> 'a';
+				case '\b' -> 'b';
+				case '\t' -> 't';
+				case '\n' -> 'n';
+				case 0x0b -> 'v';
+				case '\f' -> 'f';
+				case '\r' -> 'r';
+				case '"' -> '"';
+				case '\\' -> '\\';
+				default -> 0;
+			};
+
+			if (escape != 0) {
+				outputStream.write('\\');
+				outputStream.write(escape);
+			} else if (needsQuoting(bytes[index])) {
+				outputStream.write('\\');
+				outputStream.write('0' + ((value >> 6) & 0b111));
+				outputStream.write('0' + ((value >> 3) & 0b111));
+				outputStream.write('0' + (value & 0b111));
+			} else {
+				outputStream.write(value);
+			}
+		}
+
+		outputStream.write('"');
+	}
+
+	private static boolean needsQuoting(byte value) {
+		final var unsigned = Byte.toUnsignedInt(value);
+
+		return unsigned < 0x20 || unsigned == '"' || unsigned == '\\' || unsigned >= 0x7f;
+	}
+
+}
\ No newline at end of file
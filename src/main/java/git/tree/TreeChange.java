@@ -0,0 +1,33 @@
+package git.tree;
+
+public record TreeChange(
+	Status status,
+	int oldMode,
+	int newMode,
+	String oldHash,
+	String newHash,
+	String path
+) {
+
+	public static final String NULL_HASH = "0".repeat(40);
+
+	public enum Status {
+
+		ADDED('A'),
+		DELETED('D'),
+		MODIFIED('M'),
+		TYPE_CHANGED('T');
+
+		private final char letter;
+
+		Status(char letter) {
+			this.letter = letter;
+		}
+
+		public char letter() {
+			return letter;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package git.tree;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.domain.tree.TreeCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@RequiredArgsConstructor
+public class TreeDiff {
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final Git git;
+
+	@Setter
+	private boolean recursive;
+
+	@Setter
+	private boolean showTrees;
+
+	private byte[] path = new byte[256];
+	private List<TreeChange> changes;
+
+	public List<TreeChange> diff(String oldTreeHash, String newTreeHash) throws IOException {
+		changes = new ArrayList<>();
+
+		if (!Objects.equals(oldTreeHash, newTreeHash)) {
+			walk(oldTreeHash, newTreeHash, 0);
+		}
+
+		return changes;
+	}
+
+	private void walk(String oldTreeHash, String newTreeHash, int prefixLength) throws IOException {
+		final var oldCursor = new TreeCursor(read(oldTreeHash));
+		final var newCursor = new TreeCursor(read(newTreeHash));
+
+		var hasOld = oldCursor.next();
+		var hasNew = newCursor.next();
+
+		while (hasOld || hasNew) {
+			final var comparison = !hasOld ? 1 : !hasNew ? -1 : oldCursor.compareName(newCursor);
+
+			if (comparison < 0) {
+				removed(oldCursor, prefixLength);
+				hasOld = oldCursor.next();
+			} else if (comparison > 0) {
+				added(newCursor, prefixLength);
+				hasNew = newCursor.next();
+			} else {
+				if (oldCursor.mode() != newCursor.mode() || !oldCursor.hashEquals(newCursor)) {
+					modified(oldCursor, newCursor, prefixLength);
+				}
+
+				hasOld = oldCursor.next();
+				hasNew = newCursor.next();
+			}
+		}
+	}
+
+	private void removed(TreeCursor cursor, int prefixLength) throws IOException {
+		final var pathLength = appendName(cursor, prefixLength);
+
+		final var descend = descend(cursor);
+		if (!descend || showTrees) {
+			emit(TreeChange.Status.DELETED, cursor.mode(), 0, cursor.hash(), TreeChange.NULL_HASH, pathLength);
+		}
+
+		if (descend) {
+			walk(cursor.hash(), null, appendSeparator(pathLength));
+		}
+	}
+
+	private void added(TreeCursor cursor, int prefixLength) throws IOException {
+		final var pathLength = appendName(cursor, prefixLength);
+
+		final var descend = descend(cursor);
+		if (!descend || showTrees) {
+			emit(TreeChange.Status.ADDED, 0, cursor.mode(), TreeChange.NULL_HASH, cursor.hash(), pathLength);
+		}
+
+		if (descend) {
+			walk(null, cursor.hash(), appendSeparator(pathLength));
+		}
+	}
+
+	private void modified(TreeCursor oldCursor, TreeCursor newCursor, int prefixLength) throws IOException {
+		final var pathLength = appendName(newCursor, prefixLength);
+
+		final var descend = descend(newCursor);
+		if (!descend || showTrees) {
+			final var status = (oldCursor.mode() >> 12) == (newCursor.mode() >> 12) ? TreeChange.Status.MODIFIED : TreeChange.Status.TYPE_CHANGED;
+			emit(status, oldCursor.mode(), newCursor.mode(), oldCursor.hash(), newCursor.hash(), pathLength);
+		}
+
+		if (descend) {
+			walk(oldCursor.hash(), newCursor.hash(), appendSeparator(pathLength));
+		}
+	}
+
+	private boolean descend(TreeCursor cursor) {
+		return recursive && cursor.isDirectory();
+	}
+
+	private int appendSeparator(int pathLength) {
+		path[pathLength] = '/';
+		return pathLength + 1;
+	}
+
+	private int appendName(TreeCursor cursor, int prefixLength) {
+		final var pathLength = prefixLength + cursor.nameLength();
+
+		if (pathLength + 1 > path.length) {
+			path = Arrays.copyOf(path, Math.max(pathLength + 1, path.length * 2));
+		}
+
+		System.arraycopy(cursor.content(), cursor.nameOffset(), path, prefixLength, cursor.nameLength());
+
+		return pathLength;
+	}
+
+	private void emit(TreeChange.Status status, int oldMode, int newMode, String oldHash, String newHash, int pathLength) {
+		changes.add(new TreeChange(status, oldMode, newMode, oldHash, newHash, new String(path, 0, pathLength, StandardCharsets.UTF_8)));
+	}
+
+	private byte[] read(String treeHash) throws IOException {
+		if (treeHash == null) {
+			return EMPTY;
+		}
+
+		final var object = git.readRawObject(treeHash);
+		if (object.type() != ObjectType.TREE) {
+			throw new IllegalArgumentException("not a tree object: " + treeHash);
+		}
+
+		return object.content();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package git.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import lombok.Getter;
+
+public class CountingOutputStream extends FilterOutputStream {
+
+	@Getter
+	private long count;
+
+	public CountingOutputStream(OutputStream outputStream) {
+		super(outputStream);
+	}
+
+	@Override
+	public void write(int value) throws IOException {
+		out.write(value);
+		++count;
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) throws IOException {
+		out.write(bytes, offset, length);
+		count += length;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package git.util;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class LockFile implements AutoCloseable {
+
+	public static final String SUFFIX = ".lock";
+
+	@Getter
+	private final Path target;
+
+	@Getter
+	private final Path path;
+
+	private boolean committed;
+
+	public void write(byte[] content) throws IOException {
+		Files.write(path, content, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	public void commit() throws IOException {
+		Files.move(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		committed = true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!committed) {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	public static LockFile acquire(Path target) throws IOException {
+		final var path = target.resolveSibling(target.getFileName() + SUFFIX);
+
+		try {
+			Files.createFile(path);
+		} catch (FileAlreadyExistsException exception) {
+			throw new FileAlreadyExistsException(path.toString(), null, "unable to lock, another process may be holding it");
+		}
+
+		return new LockFile(target, path);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package git.walk;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.pack.PackBitmapIndex;
+import git.pack.PackObjectType;
+import git.protocol.ObjectFilter;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class BitmapWalker {
+
+	private final Git git;
+	@Getter
+	private final PackBitmapIndex bitmapIndex;
+
+	public List<String> walk(Collection<String> wants, Collection<String> haves, ObjectFilter filter) throws IOException {
+		final var result = reach(wants);
+		if (result == null) {
+			return null;
+		}
+
+		final var excluded = reach(haves);
+		if (excluded == null) {
+			return null;
+		}
+
+		result.andNot(excluded);
+		applyFilter(result, filter);
+
+		final var pack = bitmapIndex.getPack();
+		for (final var want : wants) {
+			final var packOrder = pack.getPackOrder(want);
+
+			if (!excluded.get(packOrder) && pack.getObjectType(pack.getPositionAtPackOrder(packOrder)) == PackObjectType.BLOB) {
+				result.set(packOrder);
+			}
+		}
+
+		return toHashes(result);
+	}
+
+	public BitSet reach(Collection<String> tips) throws IOException {
+		final var pack = bitmapIndex.getPack();
+		final var result = new BitSet(pack.getIndex().getObjectCount());
+		final var pending = new ArrayDeque<String>();
+
+		final var tipQueue = new ArrayDeque<String>(tips);
+		while (!tipQueue.isEmpty()) {
+			final var tip = tipQueue.pop();
+
+			final var packOrder = pack.getPackOrder(tip);
+			if (packOrder == -1) {
+				return null;
+			}
+
+			final var type = pack.getObjectType(pack.getPositionAtPackOrder(packOrder));
+			switch (type) {
+				case COMMIT -> pending.push(tip);
+				case TREE -> {
+					if (!addTree(tip, result)) {
+						return null;
+					}
+				}
+
+				case TAG -> {
+					result.set(packOrder);
+					tipQueue.push(git.readTag(tip).objectHash());
+				}
+
+				default -> result.set(packOrder);
+			}
+		}
+
+		while (!pending.isEmpty()) {
+			final var hash = pending.pop();
+
+			final var packOrder = pack.getPackOrder(hash);
+			if (packOrder == -1) {
+				return null;
+			}
+
+			if (result.get(packOrder)) {
+				continue;
+			}
+
+			final var bitmap = bitmapIndex.getBitmap(hash);
+			if (bitmap != null) {
+				result.or(bitmap);
+				continue;
+			}
+
+			result.set(packOrder);
+
+			final var commit = git.readCommit(hash);
+			if (!addTree(commit.treeHash(), result)) {
+				return null;
+			}
+
+			for (final var parentHash : commit.parentHashes()) {
+				pending.push(parentHash);
+			}
+		}
+
+		return result;
+	}
+
+	public boolean contains(BitSet bitmap, String hash) {
+		final var packOrder = bitmapIndex.getPack().getPackOrder(hash);
+
+		return packOrder != -1 && bitmap.get(packOrder);
+	}
+
+	public List<String> toHashes(BitSet bitmap) {
+		final var pack = bitmapIndex.getPack();
+		final var hashes = new ArrayList<String>(bitmap.cardinality());
+
+		for (var packOrder = bitmap.nextSetBit(0); packOrder >= 0; packOrder = bitmap.nextSetBit(packOrder + 1)) {
+			hashes.add(pack.getIndex().getHash(pack.getPositionAtPackOrder(packOrder)));
+		}
+
+		return hashes;
+	}
+
+	private void applyFilter(BitSet result, ObjectFilter filter) throws IOException {
+		if (filter == null) {
+			return;
+		}
+
+		final var blobs = bitmapIndex.getTypeBitmap(PackObjectType.BLOB);
+		if (filter.blobLimit() == 0) {
+			result.andNot(blobs);
+			return;
+		}
+
+		final var pack = bitmapIndex.getPack();
+		final var candidates = (BitSet) result.clone();
+		candidates.and(blobs);
+
+		for (var packOrder = candidates.nextSetBit(0); packOrder >= 0; packOrder = candidates.nextSetBit(packOrder + 1)) {
+			final var size = pack.getObjectSize(pack.getPositionAtPackOrder(packOrder));
+
+			if (!filter.includes(ObjectType.BLOB, size)) {
+				result.clear(packOrder);
+			}
+		}
+	}
+
+	private boolean addTree(String hash, BitSet result) throws IOException {
+		final var pack = bitmapIndex.getPack();
+
+		final var packOrder = pack.getPackOrder(hash);
+		if (packOrder == -1) {
+			return false;
+		}
+
+		if (result.get(packOrder)) {
+			return true;
+		}
+
+		result.set(packOrder);
+
+		for (final var entry : git.readTree(hash).entries()) {
+			switch (entry.mode().type()) {
+				case DIRECTORY: {
+					if (!addTree(entry.hash(), result)) {
+						return false;
+					}
+
+					break;
+				}
+
+				case REGULAR_FILE:
+				case SYMBOLIC_LINK: {
+					final var blobPackOrder = pack.getPackOrder(entry.hash());
+					if (blobPackOrder == -1) {
+						return false;
+					}
+
+					result.set(blobPackOrder);
+					break;
+				}
+
+				case GITLINK: {
+					break;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	public static BitmapWalker open(Git git) throws IOException {
+		final var bitmapIndex = git.getBitmapIndex();
+		if (bitmapIndex == null) {
+			return null;
+		}
+
+		return new BitmapWalker(git, bitmapIndex);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package git.walk;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import git.Git;
+import git.protocol.Negotiator;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class CommitNegotiator implements Negotiator {
+
+	private final Git git;
+	private final Map<String, Node> nodes = new HashMap<>();
+	private final PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingLong(Node::time).reversed());
+
+	public void addTip(String hash) throws IOException {
+		enqueue(hash);
+	}
+
+	@Override
+	public List<String> nextHaves(int count) throws IOException {
+		final var haves = new ArrayList<String>(count);
+
+		while (haves.size() < count && !queue.isEmpty()) {
+			final var node = queue.poll();
+			if (node.common) {
+				continue;
+			}
+
+			haves.add(node.hash);
+
+			for (final var parentHash : node.parentHashes) {
+				enqueue(parentHash);
+			}
+		}
+
+		return haves;
+	}
+
+	@Override
+	public void acknowledge(String hash) {
+		final var node = nodes.get(hash);
+		if (node == null) {
+			return;
+		}
+
+		final var pending = new ArrayDeque<Node>();
+		pending.add(node);
+
+		while (!pending.isEmpty()) {
+			final var current = pending.poll();
+			if (current.common) {
+				continue;
+			}
+
+			current.common = true;
+
+			for (final var parentHash : current.parentHashes) {
+				final var parent = nodes.get(parentHash);
+
+				if (parent != null) {
+					pending.add(parent);
+				}
+			}
+		}
+	}
+
+	private void enqueue(String hash) throws IOException {
+		if (nodes.containsKey(hash) || !git.hasObject(hash)) {
+			return;
+		}
+
+		final var commit = git.readCommit(hash);
+		final var time = commit.committer().when().toEpochSecond();
+
+		final var node = new Node(hash, time, commit.parentHashes(), false);
+		nodes.put(hash, node);
+		queue.add(node);
+	}
+
+	@AllArgsConstructor
+	private static class Node {
+
+		private final String hash;
+		private final long time;
+		private final List<String> parentHashes;
+		private boolean common;
+
+		public long time() {
+			return time;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package git.walk;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import git.Git;
+import git.domain.ObjectType;
+import git.protocol.ObjectFilter;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ObjectWalker {
+
+	private final Git git;
+
+	@Getter
+	private final Map<String, String> paths = new HashMap<>();
+
+	public List<String> walk(Collection<String> wants, Collection<String> haves, ObjectFilter filter) throws IOException {
+		final var uninterestingCommits = new HashSet<String>();
+		final var uninteresting = new HashSet<String>();
+
+		final var haveCommits = new ArrayList<String>();
+		for (final var have : haves) {
+			if (git.hasObject(have) && git.readObjectInfo(have).type() == ObjectType.COMMIT) {
+				haveCommits.add(have);
+			}
+		}
+
+		collectAncestors(haveCommits, uninterestingCommits);
+		for (final var have : haveCommits) {
+			markTree(git.readCommit(have).treeHash(), uninteresting);
+		}
+
+		final var objects = new ArrayList<String>();
+		final var seen = new HashSet<String>();
+		final var rootTrees = new ArrayList<String>();
+		final var pending = new ArrayDeque<String>();
+
+		for (final var want : wants) {
+			var hash = want;
+			var type = git.readObjectInfo(hash).type();
+
+			while (type == ObjectType.TAG) {
+				if (seen.add(hash)) {
+					objects.add(hash);
+				}
+
+				hash = git.readTag(hash).objectHash();
+				type = git.readObjectInfo(hash).type();
+			}
+
+			if (type == ObjectType.COMMIT) {
+				pending.push(hash);
+			} else if (type == ObjectType.TREE) {
+				rootTrees.add(hash);
+			} else if (seen.add(hash)) {
+				objects.add(hash);
+			}
+		}
+
+		while (!pending.isEmpty()) {
+			final var hash = pending.pop();
+			if (uninterestingCommits.contains(hash) || !seen.add(hash)) {
+				continue;
+			}
+
+			final var commit = git.readCommit(hash);
+			objects.add(hash);
+			rootTrees.add(commit.treeHash());
+
+			for (final var parentHash : commit.parentHashes()) {
+				if (uninterestingCommits.contains(parentHash)) {
+					markTree(git.readCommit(parentHash).treeHash(), uninteresting);
+				} else {
+					pending.push(parentHash);
+				}
+			}
+		}
+
+		for (final var rootTree : rootTrees) {
+			addTree(rootTree, "", filter, uninteresting, seen, objects);
+		}
+
+		return objects;
+	}
+
+	private void addTree(String hash, String path, ObjectFilter filter, Set<String> uninteresting, Set<String> seen, List<String> objects) throws IOException {
+		if (uninteresting.contains(hash) || !seen.add(hash)) {
+			return;
+		}
+
+		objects.add(hash);
+		paths.put(hash, path.isEmpty() ? path : path.substring(0, path.length() - 1));
+
+		for (final var entry : git.readTree(hash).entries()) {
+			switch (entry.mode().type()) {
+				case DIRECTORY: {
+					addTree(entry.hash(), path + entry.name() + "/", filter, uninteresting, seen, objects);
+					break;
+				}
+
+				case REGULAR_FILE:
+				case SYMBOLIC_LINK: {
+					final var blobHash = entry.hash();
+
+					if (!uninteresting.contains(blobHash) && isIncluded(blobHash, filter) && seen.add(blobHash)) {
+						objects.add(blobHash);
+						paths.put(blobHash, path + entry.name());
+					}
+
+					break;
+				}
+
+				case GITLINK: {
+					break;
+				}
+			}
+		}
+	}
+
+	private boolean isIncluded(String blobHash, ObjectFilter filter) throws IOException {
+		if (filter == null) {
+			return true;
+		}
+
+		if (filter.blobLimit() == 0) {
+			return false;
+		}
+
+		return filter.includes(ObjectType.BLOB, git.readObjectInfo(blobHash).size());
+	}
+
+	private void collectAncestors(Collection<String> tips, Set<String> ancestors) throws IOException {
+		final var pending = new ArrayDeque<String>(tips);
+
+		while (!pending.isEmpty()) {
+			final var hash = pending.pop();
+			if (!ancestors.add(hash)) {
+				continue;
+			}
+
+			for (final var parentHash : git.readCommit(hash).parentHashes()) {
+				if (git.hasObject(parentHash)) {
+					pending.push(parentHash);
+				}
+			}
+		}
+	}
+
+	private void markTree(String hash, Set<String> uninteresting) throws IOException {
+		if (!uninteresting.add(hash)) {
+			return;
+		}
+
+		for (final var entry : git.readTree(hash).entries()) {
+			switch (entry.mode().type()) {
+				case DIRECTORY: {
+					markTree(entry.hash(), uninteresting);
+					break;
+				}
+
+				case REGULAR_FILE:
+				case SYMBOLIC_LINK: {
+					uninteresting.add(entry.hash());
+					break;
+				}
+
+				case GITLINK: {
+					break;
+				}
+			}
+		}
+	}
+
+}
\ No newline at end of file
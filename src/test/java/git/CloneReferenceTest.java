@@ -0,0 +1,130 @@
+package git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.domain.AuthorSignature;
+import git.domain.Tag;
+import git.protocol.UploadPackServer;
+
+class CloneReferenceTest {
+
+	@Test
+	void referenceWithAnnotatedTag(@TempDir Path temporary) throws Exception {
+		final var sourceRoot = temporary.resolve("source");
+		Files.createDirectories(sourceRoot);
+		Files.writeString(sourceRoot.resolve("hello.txt"), "hello\n");
+
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+
+		final var source = Git.init(sourceRoot);
+		final var firstCommit = source.writeCommit(source.writeTree(sourceRoot), null, author, "first");
+		source.updateReference("refs/heads/master", firstCommit);
+
+		final var server = new UploadPackServer(source, new InetSocketAddress("localhost", 0));
+		server.start();
+
+		try {
+			final var uri = URI.create("http://localhost:%d/".formatted(server.getPort()));
+
+			final var referenceRoot = temporary.resolve("reference");
+			final var reference = Git.clone(uri, referenceRoot);
+
+			final var blobHash = reference.readTree(reference.readCommit(firstCommit).treeHash()).entries().getFirst().hash();
+			final var commitTag = reference.writeObject(new Tag(firstCommit, "commit", "v1", author, "release\n"));
+			final var nestedTag = reference.writeObject(new Tag(commitTag, "tag", "v1-nested", author, "nested\n"));
+			final var blobTag = reference.writeObject(new Tag(blobHash, "blob", "v1-blob", author, "blob\n"));
+			reference.updateReference("refs/tags/v1", commitTag);
+			reference.updateReference("refs/tags/v1-nested", nestedTag);
+			reference.updateReference("refs/tags/v1-blob", blobTag);
+			reference.updateReference("refs/tags/hello", blobHash);
+
+			assertEquals(firstCommit, reference.peelToCommit(nestedTag));
+			assertEquals(null, reference.peelToCommit(blobTag));
+
+			Files.writeString(sourceRoot.resolve("hello.txt"), "hello again\n");
+			final var secondCommit = source.writeCommit(source.writeTree(sourceRoot), firstCommit, author, "second");
+			source.updateReference("refs/heads/master", secondCommit);
+
+			final var cloneRoot = temporary.resolve("clone");
+			final var clone = Git.clone(uri, cloneRoot, null, referenceRoot);
+
+			assertEquals(Set.of(firstCommit), clone.listAlternateTips());
+			assertEquals("hello again\n", Files.readString(cloneRoot.resolve("hello.txt")));
+			assertTrue(clone.hasObject(firstCommit));
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	void failedCloneRemovesTarget(@TempDir Path temporary) throws Exception {
+		final int port;
+		try (final var socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		final var uri = URI.create("http://localhost:%d/".formatted(port));
+
+		final var cloneRoot = temporary.resolve("clone");
+		assertThrows(IOException.class, () -> Git.clone(uri, cloneRoot));
+		assertFalse(Files.exists(cloneRoot));
+
+		final var emptyRoot = temporary.resolve("empty");
+		Files.createDirectories(emptyRoot);
+		assertThrows(IOException.class, () -> Git.clone(uri, emptyRoot));
+		assertTrue(Files.isDirectory(emptyRoot));
+		try (final var entries = Files.list(emptyRoot)) {
+			assertEquals(0, entries.count());
+		}
+	}
+
+	@Test
+	void localCloneKeepsSourceAlternates(@TempDir Path temporary) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+
+		final var baseRoot = temporary.resolve("base");
+		Files.createDirectories(baseRoot);
+		Files.writeString(baseRoot.resolve("hello.txt"), "hello\n");
+
+		final var base = Git.init(baseRoot);
+		final var firstCommit = base.writeCommit(base.writeTree(baseRoot), null, author, "first");
+		base.updateReference("refs/heads/master", firstCommit);
+
+		final var sharedRoot = temporary.resolve("shared");
+		Files.createDirectories(sharedRoot);
+		final var shared = Git.init(sharedRoot);
+		shared.addAlternate(base.getObjectsDirectory());
+
+		Files.copy(baseRoot.resolve("hello.txt"), sharedRoot.resolve("hello.txt"));
+		Files.writeString(sharedRoot.resolve("world.txt"), "world\n");
+		final var secondCommit = shared.writeCommit(shared.writeTree(sharedRoot), firstCommit, author, "second");
+		shared.updateReference("refs/heads/master", secondCommit);
+
+		assertFalse(Files.exists(shared.getLooseObjectPath(firstCommit)));
+
+		final var cloneRoot = temporary.resolve("clone");
+		final var clone = Git.clone(sharedRoot.toUri(), cloneRoot);
+
+		assertEquals(List.of(base.getObjectsDirectory().toAbsolutePath().normalize()), clone.getAlternates());
+		assertEquals("hello\n", Files.readString(cloneRoot.resolve("hello.txt")));
+		assertEquals("world\n", Files.readString(cloneRoot.resolve("world.txt")));
+		assertTrue(clone.hasObject(firstCommit));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package git.checkout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.AuthorSignature;
+import git.index.IndexEntry;
+
+class CheckoutTest {
+
+	@Test
+	void switchCommits(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		Files.createDirectories(root.resolve("a/b"));
+		Files.writeString(root.resolve("hello.txt"), "hello\n");
+		Files.writeString(root.resolve("a/b/kept.txt"), "kept\n");
+		Files.writeString(root.resolve("a/changed.txt"), "first\n");
+		final var firstCommit = git.writeCommit(git.writeTree(root), null, author, "first");
+
+		Files.writeString(root.resolve("a/changed.txt"), "second\n");
+		Files.createDirectories(root.resolve("c/d"));
+		Files.writeString(root.resolve("c/d/added.txt"), "added\n");
+		final var secondCommit = git.writeCommit(git.writeTree(root), firstCommit, author, "second");
+
+		git.updateReference("refs/heads/master", secondCommit);
+		git.resetIndex(git.readCommit(secondCommit).treeHash());
+
+		final var report = git.checkout(firstCommit, null, false);
+
+		assertEquals(2, report.changes().size());
+		assertEquals(1, report.writtenCount());
+		assertEquals(1, report.deletedCount());
+		assertEquals("first\n", Files.readString(root.resolve("a/changed.txt")));
+		assertFalse(Files.exists(root.resolve("c")));
+		assertEquals(firstCommit, git.resolveReference(Git.HEAD));
+
+		final var index = git.readIndex();
+		assertEquals(git.readCommit(firstCommit).treeHash(), index.getCacheTree().hash());
+		assertEquals(3, index.getCacheTree().entryCount());
+		assertEquals(List.of("a/b/kept.txt", "a/changed.txt", "hello.txt"), index.getEntries().stream().map(IndexEntry::path).toList());
+
+		Files.writeString(root.resolve("a/changed.txt"), "local\n");
+		assertThrows(IllegalStateException.class, () -> git.checkout(secondCommit, "master", false));
+
+		git.checkout(secondCommit, "master", true);
+		assertEquals("second\n", Files.readString(root.resolve("a/changed.txt")));
+		assertEquals("added\n", Files.readString(root.resolve("c/d/added.txt")));
+		assertEquals("refs/heads/master", git.readSymbolicReference(Git.HEAD));
+	}
+
+	@Test
+	void fileAndDirectoryTransitions(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		Files.writeString(root.resolve("kept.txt"), "kept\n");
+		final var emptyCommit = git.writeCommit(git.writeTree(root), null, author, "empty");
+
+		Files.writeString(root.resolve("p"), "file\n");
+		final var fileCommit = git.writeCommit(git.writeTree(root), emptyCommit, author, "file");
+
+		Files.delete(root.resolve("p"));
+		Files.createDirectories(root.resolve("p"));
+		Files.writeString(root.resolve("p/x"), "x\n");
+		final var directoryCommit = git.writeCommit(git.writeTree(root), fileCommit, author, "directory");
+
+		git.updateReference("refs/heads/master", directoryCommit);
+		git.resetIndex(git.readCommit(directoryCommit).treeHash());
+
+		git.checkout(fileCommit, null, false);
+		assertEquals("file\n", Files.readString(root.resolve("p")));
+		assertEquals(List.of("kept.txt", "p"), git.readIndex().getEntries().stream().map(IndexEntry::path).toList());
+
+		git.checkout(directoryCommit, null, false);
+		assertEquals("x\n", Files.readString(root.resolve("p/x")));
+		assertEquals(List.of("kept.txt", "p/x"), git.readIndex().getEntries().stream().map(IndexEntry::path).toList());
+
+		git.checkout(emptyCommit, null, false);
+		assertFalse(Files.exists(root.resolve("p")));
+
+		Files.writeString(root.resolve("p"), "untracked\n");
+		final var untrackedFile = assertThrows(IllegalStateException.class, () -> git.checkout(directoryCommit, null, false));
+		assertTrue(untrackedFile.getMessage().contains("untracked working tree files"));
+		assertEquals("untracked\n", Files.readString(root.resolve("p")));
+
+		Files.delete(root.resolve("p"));
+		Files.createDirectories(root.resolve("p"));
+		Files.writeString(root.resolve("p/untracked"), "untracked\n");
+		final var untrackedDirectory = assertThrows(IllegalStateException.class, () -> git.checkout(fileCommit, null, false));
+		assertTrue(untrackedDirectory.getMessage().contains("untracked files in them"));
+		assertTrue(Files.exists(root.resolve("p/untracked")));
+
+		git.checkout(fileCommit, null, true);
+		assertEquals("file\n", Files.readString(root.resolve("p")));
+	}
+
+	@Test
+	void largeLooseBlobsAreStreamed(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		git.getConfig().set("core", null, "bigFileThreshold", "16");
+		git.saveConfig();
+
+		final var content = "large content that is over the threshold\n".repeat(64);
+		Files.writeString(root.resolve("large.txt"), content);
+		final var largeCommit = git.writeCommit(git.writeTree(root), null, author, "large");
+
+		Files.writeString(root.resolve("large.txt"), "small\n");
+		final var smallCommit = git.writeCommit(git.writeTree(root), largeCommit, author, "small");
+
+		git.updateReference("refs/heads/master", smallCommit);
+		git.resetIndex(git.readCommit(smallCommit).treeHash());
+
+		git.checkout(largeCommit, null, false);
+		assertEquals(content, Files.readString(root.resolve("large.txt")));
+
+		final var hugeHash = "0123456789abcdef0123456789abcdef01234567";
+		final var hugePath = git.getLooseObjectDatabase().getPath(hugeHash);
+		Files.createDirectories(hugePath.getParent());
+		try (final var outputStream = new DeflaterOutputStream(Files.newOutputStream(hugePath))) {
+			outputStream.write("blob 3000000000\0".getBytes(StandardCharsets.US_ASCII));
+		}
+
+		final var tooLarge = assertThrows(IOException.class, () -> git.readBlob(hugeHash));
+		assertTrue(tooLarge.getMessage().contains("too large"));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package git.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RefSpecTest {
+
+	@Test
+	void parse() {
+		final var refSpec = RefSpec.parse("+refs/heads/*:refs/remotes/origin/*");
+
+		assertTrue(refSpec.force());
+		assertEquals("refs/heads/*", refSpec.source());
+		assertEquals("refs/remotes/origin/*", refSpec.destination());
+		assertEquals("+refs/heads/*:refs/remotes/origin/*", refSpec.format());
+	}
+
+	@Test
+	void map() {
+		final var refSpec = RefSpec.defaultFetch("origin");
+
+		assertTrue(refSpec.matches("refs/heads/feature/x"));
+		assertFalse(refSpec.matches("refs/tags/v1"));
+		assertEquals("refs/remotes/origin/feature/x", refSpec.map("refs/heads/feature/x"));
+	}
+
+}
\ No newline at end of file
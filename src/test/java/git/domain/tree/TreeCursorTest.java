@@ -0,0 +1,45 @@
+package git.domain.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import git.Git;
+
+class TreeCursorTest {
+
+	@Test
+	void compareName() {
+		assertEquals(0, Integer.signum(cursor("100644", "a", 1).compareName(cursor("100755", "a", 2))));
+		assertTrue(cursor("100644", "a", 1).compareName(cursor("40000", "a", 1)) < 0);
+		assertTrue(cursor("40000", "a", 1).compareName(cursor("100644", "a.txt", 1)) > 0);
+		assertTrue(cursor("40000", "a", 1).compareName(cursor("100644", "a0", 1)) < 0);
+		assertTrue(cursor("100644", "b", 1).compareName(cursor("100644", "ab", 1)) > 0);
+	}
+
+	@Test
+	void hashEquals() {
+		assertTrue(cursor("100644", "a", 7).hashEquals(cursor("40000", "b", 7)));
+		assertFalse(cursor("100644", "a", 7).hashEquals(cursor("100644", "a", 8)));
+	}
+
+	private static TreeCursor cursor(String mode, String name, int hashByte) {
+		final var outputStream = new ByteArrayOutputStream();
+		outputStream.writeBytes("%s %s\0".formatted(mode, name).getBytes(StandardCharsets.UTF_8));
+
+		final var hash = new byte[Git.HASH_BYTES_LENGTH];
+		hash[Git.HASH_BYTES_LENGTH - 1] = (byte) hashByte;
+		outputStream.writeBytes(hash);
+
+		final var cursor = new TreeCursor(outputStream.toByteArray());
+		assertTrue(cursor.next());
+
+		return cursor;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package git.fsck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.AuthorSignature;
+import git.domain.Tag;
+import git.pack.PackFile;
+import git.pack.RepackOptions;
+
+class FsckTest {
+
+	@Test
+	void corruptPackedObject(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		Files.writeString(root.resolve("hello.txt"), "hello world\n".repeat(64));
+		final var blobHash = Git.hashBlob(root.resolve("hello.txt"));
+		final var commit = git.writeCommit(git.writeTree(root), null, author, "first");
+		git.updateReference("refs/heads/master", commit);
+
+		git.repack(RepackOptions.defaults().withAll(true).withDeleteRedundant(true));
+
+		final var packPath = git.getPacks().getFirst().getPath();
+		final var indexPath = PackFile.indexPathFor(packPath);
+		assertEquals(indexPath, PackFile.indexPathFor(indexPath));
+		assertEquals(indexPath, PackFile.indexPathFor(packPath.resolveSibling(packPath.getFileName().toString().replace(".pack", ""))));
+
+		final var clean = new Fsck(git, 1).run(false, List.of(PackFile.open(indexPath)), false);
+		assertTrue(clean.isOk(), clean.errors().toString());
+		assertEquals(3, clean.objectCount());
+
+		final var pack = PackFile.open(indexPath);
+		final var entry = pack.getEntry(blobHash);
+		final var bytes = Files.readAllBytes(packPath);
+		bytes[Math.toIntExact(entry.dataOffset()) + 4] ^= 0x55;
+
+		packPath.toFile().setWritable(true);
+		Files.write(packPath, bytes);
+
+		final var report = new Fsck(git, 1).run(false, List.of(PackFile.open(indexPath)), false);
+		assertFalse(report.isOk());
+		assertTrue(report.errors().stream().anyMatch((error) -> error.startsWith("pack checksum mismatch")), report.errors().toString());
+		assertTrue(report.errors().stream().anyMatch((error) -> error.contains(blobHash)), report.errors().toString());
+	}
+
+	@Test
+	void tagPointingAtMissingObject(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		Files.writeString(root.resolve("hello.txt"), "hello\n");
+		final var commit = git.writeCommit(git.writeTree(root), null, author, "first");
+		git.updateReference("refs/heads/master", commit);
+
+		final var missing = "0123456789abcdef0123456789abcdef01234567";
+		final var tag = git.writeObject(new Tag(missing, "commit", "broken", author, "broken\n"));
+		git.updateReference("refs/tags/broken", tag);
+
+		final var report = new Fsck(git, 1).run(true, List.of(), true);
+		assertFalse(report.isOk());
+		assertTrue(report.errors().contains("missing object %s (referenced by tag %s)".formatted(missing, tag)), report.errors().toString());
+	}
+
+}
\ No newline at end of file
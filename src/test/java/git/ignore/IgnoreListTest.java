@@ -0,0 +1,76 @@
+package git.ignore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class IgnoreListTest {
+
+	@Test
+	void wildMatch() {
+		final String[][] cases = {
+			{ "foo", "foo", "true" },
+			{ "bar", "foo", "false" },
+			{ "???", "foo", "true" },
+			{ "??", "foo", "false" },
+			{ "*f", "foo", "false" },
+			{ "*ob*a*r*", "foobar", "true" },
+			{ "foo/*", "foo/bar", "true" },
+			{ "foo/*", "foo/bar/baz", "false" },
+			{ "*/foo", "x/y/foo", "false" },
+			{ "**/foo", "foo", "true" },
+			{ "**/foo", "a/b/foo", "true" },
+			{ "foo/**", "foo/a/b", "true" },
+			{ "foo/**", "foo", "false" },
+			{ "a/**/b", "a/b", "true" },
+			{ "a/**/b", "a/x/y/b", "true" },
+			{ "a**b", "a/b", "false" },
+			{ "[a-c]at", "bat", "true" },
+			{ "[!a-c]at", "bat", "false" },
+			{ "[]]", "]", "true" },
+			{ "[[:digit:]]x", "5x", "true" },
+			{ "a[/]b", "a/b", "false" },
+			{ "\\*", "*", "true" },
+			{ "\\*", "a", "false" },
+		};
+
+		for (final var testCase : cases) {
+			assertEquals(Boolean.parseBoolean(testCase[2]), WildMatch.matches(testCase[0], testCase[1]), testCase[0] + " ~ " + testCase[1]);
+		}
+	}
+
+	@Test
+	void compile() {
+		assertInstanceOf(IgnoreMatcher.Literal.class, IgnoreMatcher.compile("target"));
+		assertInstanceOf(IgnoreMatcher.Prefix.class, IgnoreMatcher.compile("build/out*"));
+		assertInstanceOf(IgnoreMatcher.Suffix.class, IgnoreMatcher.compile("*.log"));
+		assertInstanceOf(IgnoreMatcher.Glob.class, IgnoreMatcher.compile("*.[oa]"));
+		assertInstanceOf(IgnoreMatcher.Glob.class, IgnoreMatcher.compile("*/x.log"));
+	}
+
+	@Test
+	void match() {
+		final var list = IgnoreList.parse("""
+			*.log
+			!important.log
+			target/
+			/local
+			docs/gen
+			trailing\\\s\s
+			""", "sub/");
+
+		assertEquals(true, list.match("sub/a/b.log", "b.log", false));
+		assertEquals(false, list.match("sub/important.log", "important.log", false));
+		assertEquals(true, list.match("sub/x/target", "target", true));
+		assertNull(list.match("sub/x/target", "target", false));
+		assertEquals(true, list.match("sub/local", "local", false));
+		assertNull(list.match("sub/x/local", "local", false));
+		assertEquals(true, list.match("sub/docs/gen", "gen", true));
+		assertNull(list.match("sub/x/docs/gen", "gen", true));
+		assertEquals(true, list.match("sub/trailing ", "trailing ", false));
+		assertNull(list.match("other/b.log", "b.log", false));
+	}
+
+}
\ No newline at end of file
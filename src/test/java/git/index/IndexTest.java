@@ -0,0 +1,52 @@
+package git.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class IndexTest {
+
+	@Test
+	void roundTrip() throws IOException {
+		final var stat = new FileStat(1, 2, 3, 4, 5, 6, FileStat.REGULAR_FILE_MODE, 7, 8, 9);
+		final var executableStat = new FileStat(1, 2, 3, 4, 5, 6, FileStat.EXECUTABLE_FILE_MODE, 7, 8, 9);
+		final var entries = new ArrayList<>(List.of(
+			IndexEntry.of(stat, FileStat.REGULAR_FILE_MODE, "a".repeat(40), "a.txt", 5),
+			IndexEntry.of(executableStat, FileStat.EXECUTABLE_FILE_MODE, "b".repeat(40), "dir/long-name-" + "x".repeat(30), 44)
+		));
+
+		final var children = new LinkedHashMap<String, CacheTree>();
+		children.put("dir", new CacheTree(1, "c".repeat(40), Map.of()));
+
+		final var index = new Index(entries, new CacheTree(-1, null, children), null);
+		final var parsed = Index.parse(index.serialize(), null);
+
+		assertEquals(entries, parsed.getEntries());
+		assertEquals(-1, parsed.getCacheTree().entryCount());
+		assertEquals("c".repeat(40), parsed.getCacheTree().child("dir").hash());
+	}
+
+	@Test
+	void checksum() throws IOException {
+		final var bytes = Index.empty().serialize();
+		bytes[bytes.length - 1] ^= 1;
+
+		assertThrows(IOException.class, () -> Index.parse(bytes, null));
+	}
+
+	@Test
+	void comparePaths() {
+		assertTrue(Index.comparePaths("a.txt", "a/b") < 0);
+		assertTrue(Index.comparePaths("a", "a/b") < 0);
+		assertTrue(Index.comparePaths("￿", "😀") < 0);
+	}
+
+}
\ No newline at end of file
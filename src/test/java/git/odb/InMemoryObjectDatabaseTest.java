@@ -0,0 +1,55 @@
+package git.odb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import git.domain.ObjectInfo;
+import git.domain.ObjectType;
+import git.domain.RawObject;
+
+class InMemoryObjectDatabaseTest {
+
+	private static final String HELLO_HASH = "ce013625030ba8dba906f756967f9e9ca394464a";
+
+	@Test
+	void insertAndRead() {
+		final var database = new InMemoryObjectDatabase();
+		final var object = new RawObject(ObjectType.BLOB, "hello\n".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(HELLO_HASH, database.insert(object));
+		assertEquals(HELLO_HASH, database.insert(object));
+		assertEquals(1, database.size());
+
+		assertTrue(database.has(HELLO_HASH));
+		assertSame(object, database.read(HELLO_HASH));
+		assertEquals(new ObjectInfo(ObjectType.BLOB, 6), database.open(HELLO_HASH));
+
+		assertFalse(database.has("0".repeat(40)));
+		assertNull(database.read("0".repeat(40)));
+	}
+
+	@Test
+	void composite() throws IOException {
+		final var reader = new InMemoryObjectDatabase();
+		final var writer = new InMemoryObjectDatabase();
+		final var composite = new CompositeObjectDatabase(List.of(reader, writer), writer);
+
+		final var existing = reader.insert(new RawObject(ObjectType.BLOB, "hello\n".getBytes(StandardCharsets.UTF_8)));
+		final var inserted = composite.insertAll(List.of(new RawObject(ObjectType.BLOB, new byte[0])));
+
+		assertTrue(composite.has(existing));
+		assertEquals(List.of("e69de29bb2d1d6434b8b29ae775ad8c2e48c5391"), inserted);
+		assertEquals(1, writer.size());
+		assertFalse(reader.has(inserted.get(0)));
+	}
+
+}
\ No newline at end of file
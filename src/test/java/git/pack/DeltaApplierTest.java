@@ -0,0 +1,29 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class DeltaApplierTest {
+
+	@Test
+	void copyAndInsert() {
+		final var base = "hello world".getBytes();
+		final var delta = new byte[] { 11, 10, (byte) 0b1001_0000, 6, 3, 'W', 'o', 'w' };
+
+		assertArrayEquals("hello Wow".getBytes(), DeltaApplier.apply(base, new byte[] { 11, 9, (byte) 0b1001_0000, 6, 3, 'W', 'o', 'w' }));
+		assertThrows(IllegalStateException.class, () -> DeltaApplier.apply(base, delta));
+	}
+
+	@Test
+	void rejectsInvalidDeltas() {
+		final var base = "hello world".getBytes();
+
+		assertThrows(IllegalStateException.class, () -> DeltaApplier.apply(base, new byte[] { 10, 1, 1, 'x' }));
+		assertThrows(IllegalStateException.class, () -> DeltaApplier.apply(base, new byte[] { 11, 1, 0 }));
+		assertThrows(IllegalStateException.class, () -> DeltaApplier.apply(base, new byte[] { 11, 4, (byte) 0b1001_0001, 10, 4 }));
+		assertThrows(IllegalStateException.class, () -> DeltaApplier.apply(base, new byte[] { 11, 2, 3, 'a' }));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DeltaIndexTest {
+
+	@Test
+	void roundTrip() {
+		final var random = new Random(42);
+
+		final var base = new byte[200_000];
+		random.nextBytes(base);
+
+		final var inserted = new byte[100];
+		random.nextBytes(inserted);
+
+		final var target = new byte[base.length + inserted.length];
+		System.arraycopy(base, 0, target, 0, 50_000);
+		System.arraycopy(inserted, 0, target, 50_000, inserted.length);
+		System.arraycopy(base, 50_000, target, 50_000 + inserted.length, base.length - 50_000);
+
+		final var delta = new DeltaIndex(base).delta(target, Integer.MAX_VALUE);
+		assertNotNull(delta);
+		assertTrue(delta.length < 500, "delta too large: " + delta.length);
+
+		assertArrayEquals(target, DeltaApplier.apply(base, delta));
+	}
+
+	@Test
+	void unrelatedExceedsLimit() {
+		final var random = new Random(7);
+
+		final var base = new byte[4096];
+		final var target = new byte[4096];
+		random.nextBytes(base);
+		random.nextBytes(target);
+
+		assertNull(new DeltaIndex(base).delta(target, target.length / 2));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+class EwahBitmapTest {
+
+	@Test
+	void roundTrip() throws IOException {
+		final var bits = new BitSet();
+		bits.set(3);
+		bits.set(64, 64 * 40);
+		bits.set(64 * 100 + 7);
+		bits.set(64 * 101 + 9);
+		bits.set(64 * 5000);
+
+		assertEquals(bits, readBack(bits));
+	}
+
+	@Test
+	void empty() throws IOException {
+		assertEquals(new BitSet(), readBack(new BitSet()));
+	}
+
+	private static BitSet readBack(BitSet bits) throws IOException {
+		final var outputStream = new ByteArrayOutputStream();
+		EwahBitmap.write(bits, new DataOutputStream(outputStream));
+
+		final var buffer = ByteBuffer.wrap(outputStream.toByteArray());
+		final var read = EwahBitmap.read(buffer);
+		assertEquals(0, buffer.remaining());
+
+		return read;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.AuthorSignature;
+
+class MultiPackIndexTest {
+
+	@Test
+	void overlappingPacks(@TempDir Path root) throws Exception {
+		final var git = createOverlappingPacks(root);
+		final var packs = git.getPacks();
+
+		final var base = Instant.parse("2026-01-01T00:00:00Z");
+		for (var packId = 0; packId < packs.size(); ++packId) {
+			Files.setLastModifiedTime(packs.get(packId).getPath(), FileTime.from(base.plusSeconds(packs.size() - packId)));
+		}
+
+		final var multiPackIndex = write(packs);
+		assertEquals(packs.stream().map(MultiPackIndexWriter::indexName).toList(), multiPackIndex.getPackNames());
+
+		final var hashes = new TreeSet<String>();
+		for (final var pack : packs) {
+			final var index = pack.getIndex();
+
+			for (var position = 0; position < index.getObjectCount(); ++position) {
+				hashes.add(index.getHash(position));
+			}
+		}
+
+		assertEquals(hashes.size(), multiPackIndex.getObjectCount());
+
+		var duplicates = 0;
+		var position = 0;
+		for (final var hash : hashes) {
+			assertEquals(hash, multiPackIndex.getHash(position));
+			assertEquals(position, multiPackIndex.find(hash));
+
+			final var containing = new ArrayList<Integer>();
+			for (var packId = 0; packId < packs.size(); ++packId) {
+				if (packs.get(packId).getIndex().contains(hash)) {
+					containing.add(packId);
+				}
+			}
+
+			if (containing.size() > 1) {
+				++duplicates;
+			}
+
+			final var packId = multiPackIndex.getPackId(position);
+			assertEquals(containing.getFirst(), packId, hash);
+
+			final var index = packs.get(packId).getIndex();
+			assertEquals(index.getOffset(index.find(hash)), multiPackIndex.getOffset(position), hash);
+
+			++position;
+		}
+
+		assertTrue(duplicates > 0);
+		assertEquals(-1, multiPackIndex.find("0".repeat(Git.HASH_STRING_LENGTH)));
+	}
+
+	@Test
+	void newestPackWinsAndTiesFollowListingOrder(@TempDir Path root) throws Exception {
+		final var git = createOverlappingPacks(root);
+		final var packs = git.getPacks();
+
+		final var base = Instant.parse("2026-01-01T00:00:00Z");
+		for (var packId = 0; packId < packs.size(); ++packId) {
+			Files.setLastModifiedTime(packs.get(packId).getPath(), FileTime.from(base.plusSeconds(packId)));
+		}
+
+		final var newest = packs.size() - 1;
+		final var shared = Git.hashBlob(root.resolve("shared.txt"));
+
+		var multiPackIndex = write(packs);
+		assertEquals(newest, multiPackIndex.getPackId(multiPackIndex.find(shared)));
+
+		for (var packId = 0; packId < packs.size(); ++packId) {
+			Files.setLastModifiedTime(packs.get(packId).getPath(), FileTime.from(base.plusMillis(100 * packId)));
+		}
+
+		final var listed = new ArrayList<String>();
+		try (final var paths = Files.list(git.getPackDirectory())) {
+			paths.map((path) -> path.getFileName().toString()).filter((name) -> name.endsWith(PackFile.INDEX_EXTENSION)).forEach(listed::add);
+		}
+
+		multiPackIndex = write(packs);
+		assertEquals(listed.getFirst(), multiPackIndex.getPackNames().get(multiPackIndex.getPackId(multiPackIndex.find(shared))));
+	}
+
+	@Test
+	void chunkLayout(@TempDir Path root) throws Exception {
+		final var git = createOverlappingPacks(root);
+		final var packs = git.getPacks();
+
+		git.writeMultiPackIndex();
+
+		final var bytes = Files.readAllBytes(git.getMultiPackIndexFile());
+		final var buffer = ByteBuffer.wrap(bytes);
+
+		assertEquals(MultiPackIndex.SIGNATURE, buffer.getInt(0));
+		assertEquals(MultiPackIndex.VERSION, buffer.get(4));
+		assertEquals(MultiPackIndex.HASH_VERSION, buffer.get(5));
+		assertEquals(4, buffer.get(6));
+		assertEquals(0, buffer.get(7));
+		assertEquals(packs.size(), buffer.getInt(8));
+
+		final var ids = List.of(MultiPackIndex.CHUNK_PACK_NAMES, MultiPackIndex.CHUNK_OID_FANOUT, MultiPackIndex.CHUNK_OID_LOOKUP, MultiPackIndex.CHUNK_OBJECT_OFFSETS, 0);
+		final var offsets = new HashMap<Integer, Long>();
+
+		var previous = (long) MultiPackIndex.HEADER_SIZE + ids.size() * MultiPackIndex.CHUNK_LOOKUP_ENTRY_SIZE;
+		for (var index = 0; index < ids.size(); ++index) {
+			final var entry = MultiPackIndex.HEADER_SIZE + index * MultiPackIndex.CHUNK_LOOKUP_ENTRY_SIZE;
+			final var offset = buffer.getLong(entry + Integer.BYTES);
+
+			assertEquals(ids.get(index), buffer.getInt(entry));
+			if (index == 0) {
+				assertEquals(previous, offset);
+			} else {
+				assertTrue(offset >= previous);
+			}
+
+			offsets.put(ids.get(index), offset);
+			previous = offset;
+		}
+
+		assertEquals(bytes.length - Git.HASH_BYTES_LENGTH, offsets.get(0));
+		assertEquals(0, offsets.get(MultiPackIndex.CHUNK_OID_FANOUT) % Integer.BYTES);
+
+		final var objectCount = git.getMultiPackIndex().getObjectCount();
+		assertEquals(PackIndex.FANOUT_SIZE * Integer.BYTES, offsets.get(MultiPackIndex.CHUNK_OID_LOOKUP) - offsets.get(MultiPackIndex.CHUNK_OID_FANOUT));
+		assertEquals((long) objectCount * Git.HASH_BYTES_LENGTH, offsets.get(MultiPackIndex.CHUNK_OBJECT_OFFSETS) - offsets.get(MultiPackIndex.CHUNK_OID_LOOKUP));
+		assertEquals((long) objectCount * MultiPackIndex.OBJECT_OFFSET_ENTRY_SIZE, offsets.get(0) - offsets.get(MultiPackIndex.CHUNK_OBJECT_OFFSETS));
+		assertEquals(objectCount, buffer.getInt((int) (offsets.get(MultiPackIndex.CHUNK_OID_FANOUT) + (PackIndex.FANOUT_SIZE - 1) * Integer.BYTES)));
+
+		final var names = new String(bytes, offsets.get(MultiPackIndex.CHUNK_PACK_NAMES).intValue(), (int) (offsets.get(MultiPackIndex.CHUNK_OID_FANOUT) - offsets.get(MultiPackIndex.CHUNK_PACK_NAMES)));
+		assertEquals(String.join("\0", git.getMultiPackIndex().getPackNames()), names.replaceAll("\0+$", ""));
+
+		final var digest = MessageDigest.getInstance("SHA-1");
+		digest.update(bytes, 0, bytes.length - Git.HASH_BYTES_LENGTH);
+		assertArrayEquals(digest.digest(), git.getMultiPackIndex().getChecksum());
+		assertNotEquals(0, objectCount);
+	}
+
+	private static MultiPackIndex write(List<PackFile> packs) throws Exception {
+		final var outputStream = new ByteArrayOutputStream();
+		MultiPackIndexWriter.write(packs, outputStream);
+
+		return MultiPackIndex.parse(ByteBuffer.wrap(outputStream.toByteArray()));
+	}
+
+	private static Git createOverlappingPacks(Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		String parent = null;
+		for (var round = 0; round < 3; ++round) {
+			Files.writeString(root.resolve("shared.txt"), "shared\n");
+			Files.writeString(root.resolve("round-%d.txt".formatted(round)), "round %d\n".formatted(round));
+
+			final var treeHash = git.writeTree(root);
+			parent = git.writeCommit(treeHash, parent, author, "round " + round);
+			git.updateReference("refs/heads/master", parent);
+
+			git.repack(RepackOptions.defaults().withAll(true));
+		}
+
+		final var packs = git.getPacks();
+		assertEquals(3, packs.size());
+
+		return git;
+	}
+
+}
\ No newline at end of file
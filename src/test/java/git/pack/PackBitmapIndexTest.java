@@ -0,0 +1,73 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.AuthorSignature;
+import git.domain.tree.TreeEntryModeType;
+
+class PackBitmapIndexTest {
+
+	@Test
+	void hashCacheInIndexOrder(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		final var expected = new HashMap<String, String>();
+		for (final var name : new String[] { "a.txt", "src/main/Main.java", "src/test/MainTest.java", "docs/README.md", "zz/last.c" }) {
+			final var path = root.resolve(name);
+			Files.createDirectories(path.getParent());
+			Files.writeString(path, "content of %s\n".formatted(name));
+
+			expected.put(Git.hashBlob(path), name);
+		}
+
+		final var treeHash = git.writeTree(root);
+		addTrees(git, treeHash, "", expected);
+
+		final var commit = git.writeCommit(treeHash, null, author, "first");
+		git.updateReference("refs/heads/master", commit);
+
+		git.repack(RepackOptions.defaults().withAll(true).withDeleteRedundant(true).withWriteBitmap(true));
+
+		final var pack = git.getPacks().getFirst();
+		final var index = pack.getIndex();
+		final var objectCount = index.getObjectCount();
+
+		final var bytes = Files.readAllBytes(PackBitmapIndex.pathFor(pack));
+		final var hashCache = ByteBuffer.wrap(bytes, bytes.length - Git.HASH_BYTES_LENGTH - objectCount * Integer.BYTES, objectCount * Integer.BYTES);
+
+		final var bitmapIndex = PackBitmapIndex.open(pack);
+		assertNotNull(bitmapIndex.getBitmap(commit));
+
+		for (var position = 0; position < objectCount; ++position) {
+			final var hash = index.getHash(position);
+			final var nameHash = DeltaSearch.nameHash(expected.get(hash));
+
+			assertEquals(nameHash, hashCache.getInt(), hash);
+			assertEquals(nameHash, bitmapIndex.getNameHash(hash), hash);
+		}
+	}
+
+	private static void addTrees(Git git, String hash, String path, Map<String, String> expected) throws Exception {
+		expected.put(hash, path);
+
+		for (final var entry : git.readTree(hash).entries()) {
+			if (entry.mode().type() == TreeEntryModeType.DIRECTORY) {
+				addTrees(git, entry.hash(), path.isEmpty() ? entry.name() : path + "/" + entry.name(), expected);
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.Blob;
+
+class PackFileTest {
+
+	@Test
+	void rejectsEntriesWhoseSizeDoesNotMatch(@TempDir Path root) throws Exception {
+		final var git = Git.init(root);
+		final var hash = git.writeObject(new Blob("hello\n".getBytes()));
+		git.repack(RepackOptions.defaults().withAll(true).withDeleteRedundant(true));
+
+		final var original = git.getPacks().getFirst();
+		final var indexPath = PackFile.indexPathFor(original.getPath());
+		final var offset = Math.toIntExact(original.getIndex().getOffset(original.getIndex().find(hash)));
+		final var bytes = Files.readAllBytes(original.getPath());
+
+		assertEquals(0x36, bytes[offset]);
+		assertArrayEquals("hello\n".getBytes(), PackFile.open(indexPath).read(hash).content());
+
+		for (final var header : new int[] { 0x37, 0x35 }) {
+			final var corrupt = bytes.clone();
+			corrupt[offset] = (byte) header;
+
+			final var path = Files.createDirectories(root.resolve("corrupt-" + header)).resolve(original.getPath().getFileName());
+			Files.write(path, corrupt);
+			Files.copy(indexPath, PackFile.indexPathFor(path));
+
+			final var exception = assertThrows(IOException.class, () -> PackFile.open(PackFile.indexPathFor(path)).read(hash));
+			final var cause = assertInstanceOf(DataFormatException.class, exception.getCause());
+			assertTrue(cause.getMessage().contains("entry size mismatch"), cause.getMessage());
+		}
+	}
+
+	@Test
+	void readsAcrossWindows(@TempDir Path root) throws Exception {
+		final var git = Git.init(root);
+		final var random = new Random(42);
+
+		final var hashes = new ArrayList<String>();
+		final var text = new StringBuilder();
+		for (var round = 0; round < 20; ++round) {
+			for (var line = 0; line < 50; ++line) {
+				text.append("line %d of round %d: %d\n".formatted(line, round, random.nextInt()));
+			}
+
+			hashes.add(git.writeObject(new Blob(text.toString().getBytes())));
+		}
+
+		git.repack(RepackOptions.defaults().withAll(true).withDeleteRedundant(true));
+
+		final var whole = git.getPacks().getFirst();
+		final var indexPath = PackFile.indexPathFor(whole.getPath());
+
+		for (final var windowSize : new long[] { 100, 4096 }) {
+			final var windowed = PackFile.open(indexPath, windowSize);
+
+			assertEquals(whole.getSize(), windowed.getSize());
+			assertArrayEquals(whole.getChecksum(), windowed.getChecksum());
+			assertTrue(windowed.verifyChecksum());
+
+			var deltas = 0;
+			for (final var hash : hashes) {
+				assertArrayEquals(whole.read(hash).content(), windowed.read(hash).content(), hash);
+
+				final var position = windowed.getIndex().find(hash);
+				final var entry = windowed.getEntry(position);
+				assertEquals(whole.getEntry(position), entry);
+				assertTrue(windowed.verifyCrc32(entry), hash);
+				assertEquals(whole.getObjectSize(position), windowed.getObjectSize(position));
+
+				if (entry.isDelta()) {
+					++deltas;
+				}
+			}
+
+			assertTrue(deltas > 0);
+		}
+	}
+
+}
\ No newline at end of file
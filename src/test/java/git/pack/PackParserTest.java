@@ -0,0 +1,126 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.Blob;
+
+class PackParserTest {
+
+	public static final int BIG_SIZE = 200 * 1024;
+
+	@Test
+	void spillsBigEntries(@TempDir Path temporary) throws Exception {
+		final var big = randomBytes(BIG_SIZE);
+		final var source = Git.init(temporary.resolve("source"));
+		final var smallHash = source.writeObject(new Blob("small\n".getBytes()));
+		final var bigHash = source.writeObject(new Blob(big));
+		final var pack = writePack(source, List.of(smallHash, bigHash));
+
+		final var spillDirectory = Files.createDirectories(temporary.resolve("spill"));
+		final var parser = new PackParser(Channels.newChannel(new ByteArrayInputStream(pack)));
+		parser.setBigFileThreshold(1024);
+		parser.setSpillDirectory(spillDirectory);
+
+		final var objects = parser.parse();
+
+		assertEquals(2, objects.size());
+		assertArrayEquals("small\n".getBytes(), assertInstanceOf(PackObject.Undeltified.class, objects.get(0)).content());
+
+		final var spilled = assertInstanceOf(PackObject.Spilled.class, objects.get(1));
+		assertEquals(bigHash, spilled.hash());
+		assertEquals(BIG_SIZE, spilled.size());
+		assertTrue(Files.exists(spilled.path()));
+
+		final var target = Git.init(temporary.resolve("target"));
+		target.getConfig().set("core", null, "bigFileThreshold", "1k");
+		target.saveConfig();
+
+		target.unpack(pack);
+
+		assertArrayEquals(big, target.readBlob(bigHash).data());
+		assertArrayEquals("small\n".getBytes(), target.readBlob(smallHash).data());
+		assertEquals(List.of(), listTemporaryFiles(target));
+	}
+
+	@Test
+	void corruptTrailerLeavesNothingBehind(@TempDir Path temporary) throws Exception {
+		final var source = Git.init(temporary.resolve("source"));
+		final var smallHash = source.writeObject(new Blob("small\n".getBytes()));
+		final var bigHash = source.writeObject(new Blob(randomBytes(BIG_SIZE)));
+		final var pack = writePack(source, List.of(smallHash, bigHash));
+		pack[pack.length - 1] ^= 1;
+
+		final var target = Git.init(temporary.resolve("target"));
+		target.getConfig().set("core", null, "bigFileThreshold", "1k");
+		target.saveConfig();
+
+		final var exception = assertThrows(IOException.class, () -> target.unpack(pack));
+		assertTrue(exception.getMessage().contains("trailer checksum mismatch"), exception.getMessage());
+
+		assertFalse(target.hasObject(smallHash));
+		assertFalse(target.hasObject(bigHash));
+		assertEquals(List.of(), listTemporaryFiles(target));
+	}
+
+	@Test
+	void rejectsCorruptOrTruncatedPacks(@TempDir Path temporary) throws Exception {
+		final var source = Git.init(temporary.resolve("source"));
+		final var hash = source.writeObject(new Blob("hello\n".getBytes()));
+		final var pack = writePack(source, List.of(hash));
+
+		assertEquals(1, new PackParser(Channels.newChannel(new ByteArrayInputStream(pack))).parse().size());
+
+		final var corrupt = pack.clone();
+		corrupt[corrupt.length - 1] ^= 1;
+		final var mismatch = assertThrows(IOException.class, () -> new PackParser(Channels.newChannel(new ByteArrayInputStream(corrupt))).parse());
+		assertTrue(mismatch.getMessage().contains("trailer checksum mismatch"), mismatch.getMessage());
+
+		final var truncated = Arrays.copyOf(pack, pack.length - 1);
+		final var missing = assertThrows(IOException.class, () -> new PackParser(Channels.newChannel(new ByteArrayInputStream(truncated))).parse());
+		assertTrue(missing.getMessage().contains("truncated"), missing.getMessage());
+
+		final var trailing = Arrays.copyOf(pack, pack.length + 3);
+		final var extra = assertThrows(IOException.class, () -> new PackParser(Channels.newChannel(new ByteArrayInputStream(trailing))).parse());
+		assertTrue(extra.getMessage().contains("3 trailing bytes"), extra.getMessage());
+	}
+
+	private static byte[] writePack(Git git, List<String> hashes) throws IOException {
+		final var outputStream = new ByteArrayOutputStream();
+		new PackWriter(git).write(hashes, outputStream);
+
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] randomBytes(int size) {
+		final var bytes = new byte[size];
+		new Random(42).nextBytes(bytes);
+
+		return bytes;
+	}
+
+	private static List<Path> listTemporaryFiles(Git git) throws IOException {
+		try (final var paths = Files.walk(git.getObjectsDirectory())) {
+			return paths.filter((path) -> path.getFileName().toString().startsWith("tmp_")).toList();
+		}
+	}
+
+}
\ No newline at end of file
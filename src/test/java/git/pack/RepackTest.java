@@ -0,0 +1,81 @@
+package git.pack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.AuthorSignature;
+import git.domain.RawObject;
+
+class RepackTest {
+
+	@Test
+	void gcPacksLooseObjects(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		Files.createDirectories(root.resolve("a"));
+		Files.writeString(root.resolve("hello.txt"), "hello world\n".repeat(64));
+		Files.writeString(root.resolve("a/b.txt"), "b\n");
+		final var firstCommit = git.writeCommit(git.writeTree(root), null, author, "first");
+
+		Files.writeString(root.resolve("hello.txt"), "hello world\n".repeat(64) + "again\n");
+		final var secondCommit = git.writeCommit(git.writeTree(root), firstCommit, author, "second");
+		git.updateReference("refs/heads/master", secondCommit);
+
+		final var objects = new HashMap<String, RawObject>();
+		for (final var hash : git.listLooseObjects()) {
+			objects.put(hash, git.readRawObject(hash));
+		}
+
+		final var options = RepackOptions.defaults().withAll(true).withDeleteRedundant(true);
+		final var result = git.repack(options);
+
+		assertEquals(objects.size(), result.objectCount());
+		assertEquals(objects.size(), result.prunedCount());
+		assertTrue(git.listLooseObjects().isEmpty());
+
+		final var pack = PackFile.open(PackFile.indexPathFor(result.packPath()));
+		assertEquals(objects.size(), pack.getIndex().getObjectCount());
+
+		for (final var entry : objects.entrySet()) {
+			final var packed = pack.read(entry.getKey());
+
+			assertEquals(entry.getValue().type(), packed.type());
+			assertArrayEquals(entry.getValue().content(), packed.content());
+			assertArrayEquals(entry.getValue().content(), git.readRawObject(entry.getKey()).content());
+		}
+
+		Files.writeString(root.resolve("kept.txt"), "kept\n");
+		final var keptHash = Git.hashBlob(root.resolve("kept.txt"));
+		final var thirdCommit = git.writeCommit(git.writeTree(root), secondCommit, author, "third");
+		git.updateReference("refs/heads/master", thirdCommit);
+
+		final var corruptPath = git.getLooseObjectPath(keptHash);
+		corruptPath.toFile().setWritable(true);
+		try (final var outputStream = new DeflaterOutputStream(Files.newOutputStream(corruptPath))) {
+			outputStream.write("blob 6\0other\n".getBytes(StandardCharsets.US_ASCII));
+		}
+
+		final var looseHashes = git.listLooseObjects();
+		final var failure = assertThrows(IOException.class, () -> git.repack(options));
+		assertTrue(failure.getMessage().startsWith("pack verification failed for " + keptHash), failure.getMessage());
+
+		assertEquals(looseHashes, git.listLooseObjects());
+		assertTrue(Files.exists(result.packPath()));
+	}
+
+}
\ No newline at end of file
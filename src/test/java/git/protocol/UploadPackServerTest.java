@@ -0,0 +1,230 @@
+package git.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+import git.Git;
+import git.domain.AuthorSignature;
+import git.domain.Blob;
+import git.domain.Tag;
+import git.pack.RepackOptions;
+
+class UploadPackServerTest {
+
+	@Test
+	void cloneAndFetch(@TempDir Path temporary) throws Exception {
+		final var sourceRoot = temporary.resolve("source");
+		Files.createDirectories(sourceRoot.resolve("directory"));
+		Files.writeString(sourceRoot.resolve("hello.txt"), "hello\n");
+		Files.writeString(sourceRoot.resolve("directory/world.txt"), "world\n");
+
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+
+		final var source = Git.init(sourceRoot);
+		final var firstCommit = source.writeCommit(source.writeTree(sourceRoot), null, author, "first");
+		source.updateReference("refs/heads/master", firstCommit);
+
+		final var server = new UploadPackServer(source, new InetSocketAddress("localhost", 0));
+		server.start();
+
+		try {
+			final var uri = URI.create("http://localhost:%d/".formatted(server.getPort()));
+
+			final var cloneRoot = temporary.resolve("clone");
+			final var clone = Git.clone(uri, cloneRoot);
+
+			assertEquals("hello\n", Files.readString(cloneRoot.resolve("hello.txt")));
+			assertEquals("world\n", Files.readString(cloneRoot.resolve("directory/world.txt")));
+
+			Files.writeString(sourceRoot.resolve("hello.txt"), "hello again\n");
+			final var secondCommit = source.writeCommit(source.writeTree(sourceRoot), firstCommit, author, "second");
+			source.updateReference("refs/heads/master", secondCommit);
+
+			clone.fetch(Git.DEFAULT_REMOTE);
+
+			assertEquals(secondCommit, clone.resolveReference("refs/remotes/origin/master"));
+			assertEquals("hello again\n", new String(clone.readBlob(clone.readTree(clone.readCommit(secondCommit).treeHash()).entries().get(1).hash()).data()));
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	void wantsMustBeReachable(@TempDir Path temporary) throws Exception {
+		final var sourceRoot = temporary.resolve("source");
+		Files.createDirectories(sourceRoot);
+		Files.writeString(sourceRoot.resolve("hello.txt"), "hello\n");
+
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+
+		final var source = Git.init(sourceRoot);
+		final var commit = source.writeCommit(source.writeTree(sourceRoot), null, author, "first");
+		source.updateReference("refs/heads/master", commit);
+
+		final var reachable = source.readTree(source.readCommit(commit).treeHash()).entries().getFirst().hash();
+		final var unreachable = source.writeObject(new Blob("secret\n".getBytes()));
+
+		final var server = new UploadPackServer(source, new InetSocketAddress("localhost", 0));
+		server.start();
+
+		try {
+			final var uri = URI.create("http://localhost:%d/".formatted(server.getPort()));
+
+			for (final var bitmap : List.of(false, true)) {
+				if (bitmap) {
+					source.repack(RepackOptions.defaults().withAll(true).withWriteBitmap(true));
+				}
+
+				final var client = Git.init(temporary.resolve("client-" + bitmap));
+				final var transport = Transport.open(uri);
+				transport.fetchReferences();
+
+				transport.fetch(client, List.of(reachable), Negotiator.none(), null);
+				assertTrue(client.hasObject(reachable));
+
+				final var exception = assertThrows(IllegalStateException.class, () -> transport.fetch(client, List.of(unreachable), Negotiator.none(), null));
+				assertTrue(exception.getMessage().contains("not our ref " + unreachable), exception.getMessage());
+				assertFalse(client.hasObject(unreachable));
+			}
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	void partialCloneFetchesBlobsLazily(@TempDir Path temporary) throws Exception {
+		final var sourceRoot = temporary.resolve("source");
+		Files.createDirectories(sourceRoot);
+		Files.writeString(sourceRoot.resolve("hello.txt"), "hello\n");
+		Files.writeString(sourceRoot.resolve("removed.txt"), "removed\n");
+
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+
+		final var source = Git.init(sourceRoot);
+		final var firstCommit = source.writeCommit(source.writeTree(sourceRoot), null, author, "first");
+		final var removed = Git.hashBlob(sourceRoot.resolve("removed.txt"));
+
+		Files.delete(sourceRoot.resolve("removed.txt"));
+		final var secondCommit = source.writeCommit(source.writeTree(sourceRoot), firstCommit, author, "second");
+		source.updateReference("refs/heads/master", secondCommit);
+
+		final var server = new UploadPackServer(source, new InetSocketAddress("localhost", 0));
+		server.start();
+
+		try {
+			final var uri = URI.create("http://localhost:%d/".formatted(server.getPort()));
+
+			final var cloneRoot = temporary.resolve("clone");
+			final var clone = Git.clone(uri, cloneRoot, ObjectFilter.parse(ObjectFilter.BLOB_NONE));
+
+			assertEquals("hello\n", Files.readString(cloneRoot.resolve("hello.txt")));
+			assertEquals(Git.DEFAULT_REMOTE, clone.getPromisorRemote());
+			assertFalse(clone.hasObject(removed));
+
+			assertEquals("removed\n", new String(clone.readBlob(removed).data()));
+			assertTrue(clone.hasObject(removed));
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	void unadvertisedWantsNeedCapability(@TempDir Path temporary) throws Exception {
+		final var advertised = "1".repeat(Git.HASH_STRING_LENGTH);
+		final var unadvertised = "2".repeat(Git.HASH_STRING_LENGTH);
+
+		final var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", (exchange) -> {
+			try (exchange) {
+				final var outputStream = new ByteArrayOutputStream();
+				PacketLine.data("# service=%s\n".formatted(UploadPack.SERVICE)).serialize(outputStream);
+				PacketLine.flush().serialize(outputStream);
+				PacketLine.data("%s refs/heads/master\0%s %s\n".formatted(advertised, GitClient.OFS_DELTA, GitClient.FILTER)).serialize(outputStream);
+				PacketLine.flush().serialize(outputStream);
+
+				exchange.getResponseHeaders().set("Content-Type", UploadPackServer.ADVERTISEMENT_CONTENT_TYPE);
+				exchange.sendResponseHeaders(200, outputStream.size());
+				outputStream.writeTo(exchange.getResponseBody());
+			}
+		});
+		server.start();
+
+		try {
+			final var client = Git.init(temporary.resolve("client"));
+			final var transport = Transport.open(URI.create("http://localhost:%d/".formatted(server.getAddress().getPort())));
+			transport.fetchReferences();
+
+			final var exception = assertThrows(IllegalStateException.class, () -> transport.fetch(client, List.of(unadvertised), Negotiator.none(), null));
+			assertEquals("server does not allow request for unadvertised object " + unadvertised, exception.getMessage());
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void tagWantsArePeeled(@TempDir Path temporary) throws Exception {
+		final var sourceRoot = temporary.resolve("source");
+		Files.createDirectories(sourceRoot);
+		Files.writeString(sourceRoot.resolve("hello.txt"), "hello\n");
+
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+
+		final var source = Git.init(sourceRoot);
+		final var master = source.writeCommit(source.writeTree(sourceRoot), null, author, "first");
+		source.updateReference("refs/heads/master", master);
+
+		Files.writeString(sourceRoot.resolve("release.txt"), "release\n");
+		final var releaseTree = source.writeTree(sourceRoot);
+		final var release = source.writeCommit(releaseTree, null, author, "release");
+		final var releaseBlob = Git.hashBlob(sourceRoot.resolve("release.txt"));
+
+		final var tag = source.writeObject(new Tag(release, "commit", "v1", author, "release\n"));
+		final var nestedTag = source.writeObject(new Tag(tag, "tag", "v1-nested", author, "nested\n"));
+		source.updateReference("refs/tags/v1", nestedTag);
+
+		final var server = new UploadPackServer(source, new InetSocketAddress("localhost", 0));
+		server.start();
+
+		try {
+			final var uri = URI.create("http://localhost:%d/".formatted(server.getPort()));
+
+			final var reachableCount = source.countReachableObjects();
+
+			for (final var bitmap : List.of(false, true)) {
+				if (bitmap) {
+					source.repack(RepackOptions.defaults().withAll(true).withDeleteRedundant(true).withWriteBitmap(true));
+					assertEquals(reachableCount, source.countReachableObjects());
+				}
+
+				final var client = Git.init(temporary.resolve("client-" + bitmap));
+				final var transport = Transport.open(uri);
+				transport.fetchReferences();
+				transport.fetch(client, List.of(nestedTag), Negotiator.none(), null);
+
+				for (final var hash : List.of(nestedTag, tag, release, releaseTree, releaseBlob)) {
+					assertTrue(client.hasObject(hash), hash);
+				}
+
+				assertEquals(release, client.peelToCommit(nestedTag));
+			}
+		} finally {
+			server.stop();
+		}
+	}
+
+}
\ No newline at end of file
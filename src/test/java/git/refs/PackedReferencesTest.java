@@ -0,0 +1,65 @@
+package git.refs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PackedReferencesTest {
+
+	private static final String A = "a".repeat(40);
+	private static final String B = "b".repeat(40);
+	private static final String C = "c".repeat(40);
+
+	@Test
+	void sorted() {
+		final var packed = parse("""
+			# pack-refs with: peeled fully-peeled sorted\s
+			%s refs/heads/main
+			%s refs/tags/v1
+			^%s
+			%s refs/tags/v1.1
+			%s refs/tags/v2
+			""".formatted(A, B, C, A, B));
+
+		assertEquals(A, packed.find("refs/heads/main").hash());
+		assertEquals(new PackedReference("refs/tags/v1", B, C), packed.find("refs/tags/v1"));
+		assertNull(packed.find("refs/tags/v1.1").peeledHash());
+		assertNull(packed.find("refs/tags/v"));
+		assertNull(packed.find("refs/tags/v3"));
+		assertNull(packed.find("refs/heads"));
+
+		assertEquals(List.of("refs/tags/v1", "refs/tags/v1.1"), packed.list("refs/tags/v1").stream().map(PackedReference::name).toList());
+		assertEquals(4, packed.size());
+	}
+
+	@Test
+	void unsorted() {
+		final var packed = parse("""
+			%s refs/tags/b
+			%s refs/tags/a
+			^%s
+			%s refs/heads/main
+			""".formatted(A, B, C, C));
+
+		assertEquals(new PackedReference("refs/tags/a", B, C), packed.find("refs/tags/a"));
+		assertEquals(A, packed.find("refs/tags/b").hash());
+		assertEquals(C, packed.find("refs/heads/main").hash());
+		assertEquals(List.of("refs/heads/main", "refs/tags/a", "refs/tags/b"), packed.list("").stream().map(PackedReference::name).toList());
+	}
+
+	@Test
+	void empty() {
+		assertNull(parse("").find("refs/heads/main"));
+		assertEquals(List.of(), parse(PackedReferences.HEADER).list("refs/"));
+	}
+
+	private static PackedReferences parse(String content) {
+		return PackedReferences.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
\ No newline at end of file
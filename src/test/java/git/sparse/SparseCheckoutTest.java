@@ -0,0 +1,61 @@
+package git.sparse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SparseCheckoutTest {
+
+	@Test
+	void includes() {
+		final var sparseCheckout = SparseCheckout.of(List.of("services/billing/", "/libs", "services/billing/api"));
+
+		assertTrue(sparseCheckout.includes("README.md"));
+		assertTrue(sparseCheckout.includes("services/pom.xml"));
+		assertTrue(sparseCheckout.includes("services/billing/src/Main.java"));
+		assertTrue(sparseCheckout.includes("libs/a/b/c.txt"));
+		assertFalse(sparseCheckout.includes("services/search/pom.xml"));
+		assertFalse(sparseCheckout.includes("docs/index.md"));
+
+		final var services = sparseCheckout.getRoot().child("services");
+		assertFalse(services.isRecursive());
+		assertNull(services.child("search"));
+
+		final var billing = services.child("billing");
+		assertTrue(billing.isRecursive());
+		assertSame(billing, billing.child("anything"));
+
+		assertEquals(List.of("libs", "services/billing"), sparseCheckout.getDirectories());
+	}
+
+	@Test
+	void format() {
+		final var content = """
+			/*
+			!/*/
+			/libs/
+			/services/
+			!/services/*/
+			/services/bill\\*ing/
+			""";
+
+		final var sparseCheckout = SparseCheckout.parse(content);
+
+		assertEquals(List.of("libs", "services/bill*ing"), sparseCheckout.getDirectories());
+		assertEquals(content, sparseCheckout.format());
+	}
+
+	@Test
+	void notCone() {
+		assertThrows(IllegalStateException.class, () -> SparseCheckout.parse("*.java\n"));
+		assertThrows(IllegalStateException.class, () -> SparseCheckout.parse("/src/*/test/\n"));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package git.status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import git.Git;
+import git.domain.AuthorSignature;
+import git.tree.TreeChange;
+
+class StatusTest {
+
+	@Test
+	void directoryReplacedByFile(@TempDir Path root) throws Exception {
+		final var author = new AuthorSignature("hello", "world@java.lang", ZonedDateTime.now());
+		final var git = Git.init(root);
+
+		Files.createDirectories(root.resolve("p"));
+		Files.writeString(root.resolve("p/x"), "x\n");
+		Files.writeString(root.resolve("y"), "y\n");
+		final var commit = git.writeCommit(git.writeTree(root), null, author, "first");
+
+		git.updateReference("refs/heads/master", commit);
+		git.resetIndex(git.readCommit(commit).treeHash());
+
+		Files.delete(root.resolve("p/x"));
+		Files.delete(root.resolve("p"));
+		Files.writeString(root.resolve("p"), "file\n");
+
+		final var report = new Status(git, 1).run();
+
+		assertEquals(List.of(), report.staged());
+		assertEquals(List.of("p/x"), report.unstaged().stream().map(TreeChange::path).toList());
+		assertEquals(TreeChange.Status.DELETED, report.unstaged().getFirst().status());
+		assertEquals(List.of("p"), report.untracked());
+	}
+
+}
\ No newline at end of file
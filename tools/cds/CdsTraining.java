@@ -0,0 +1,120 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+
+import git.Git;
+import git.Main;
+import git.batch.CatFileBatch;
+import git.batch.HashObjectBatch;
+
+public class CdsTraining {
+
+	public static final int FILE_COUNT = 32;
+	public static final String SCRATCH_PREFIX = "cds-training-";
+
+	public static void main(String[] args) throws Exception {
+		if (args.length != 1) {
+			System.err.println("usage: java -XX:ArchiveClassesAtExit=<archive> -cp <jar> CdsTraining.java <parent-directory>");
+			System.exit(2);
+		}
+
+		final var parent = Paths.get(args[0]).toAbsolutePath().normalize();
+		Files.createDirectories(parent);
+
+		final var scratch = Files.createTempDirectory(parent, SCRATCH_PREFIX);
+		try (final var entries = Files.list(scratch)) {
+			if (entries.findAny().isPresent()) {
+				throw new IllegalStateException("scratch directory is not empty: " + scratch);
+			}
+		}
+
+		final var standardOutput = System.out;
+
+		try {
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+			train(scratch);
+		} finally {
+			System.setOut(standardOutput);
+
+			delete(scratch);
+		}
+	}
+
+	private static void train(Path scratch) throws Exception {
+		final var here = scratch.toString();
+
+		Main.main(new String[] { "-C", here, "init" });
+
+		final var directory = scratch.resolve("training");
+		Files.createDirectories(directory);
+
+		final var paths = new StringBuilder();
+		for (var index = 0; index < FILE_COUNT; ++index) {
+			final var path = directory.resolve("file-%02d.txt".formatted(index));
+			Files.writeString(path, "training file %d\n".formatted(index).repeat(index + 1));
+
+			paths.append(path).append('\n');
+		}
+
+		final var git = Git.open(scratch);
+		new HashObjectBatch(git, true, Runtime.getRuntime().availableProcessors()).run(input(paths.toString()), System.out);
+
+		final var treeHash = git.writeTree(scratch);
+		final var blobHash = Git.hashBlob(directory.resolve("file-01.txt"));
+
+		Main.main(new String[] { "-C", here, "write-tree" });
+		final var rootCommitHash = capture("-C", here, "commit-tree", treeHash, "-m", "training");
+		Main.main(new String[] { "-C", here, "commit-tree", treeHash, "-p", rootCommitHash, "-m", "training" });
+		Main.main(new String[] { "-C", here, "cat-file", "-p", blobHash });
+		Main.main(new String[] { "-C", here, "ls-tree", "--name-only", treeHash });
+		new CatFileBatch(git, false, false).run(input(treeHash + "\n" + blobHash + "\n"), System.out);
+		new CatFileBatch(git, true, true).run(input(treeHash + "\n" + blobHash + "\n"), System.out);
+
+		Main.main(new String[] { "-C", here, "gc" });
+		Main.main(new String[] { "-C", here, "cat-file", "-p", blobHash });
+		Main.main(new String[] { "-C", here, "count-objects", "-v" });
+		Main.main(new String[] { "-C", here, "verify-pack" });
+	}
+
+	private static String capture(String... args) throws Exception {
+		final var output = System.out;
+		final var buffer = new ByteArrayOutputStream();
+
+		try {
+			System.setOut(new PrintStream(buffer));
+			Main.main(args);
+		} finally {
+			System.setOut(output);
+		}
+
+		return buffer.toString().trim();
+	}
+
+	private static InputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes());
+	}
+
+	private static void delete(Path scratch) throws IOException {
+		if (!scratch.getFileName().toString().startsWith(SCRATCH_PREFIX)) {
+			throw new IllegalStateException("refusing to delete " + scratch);
+		}
+
+		try (final var paths = Files.walk(scratch)) {
+			for (final var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				if (!path.startsWith(scratch)) {
+					throw new IllegalStateException("refusing to delete " + path);
+				}
+
+				Files.delete(path);
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+#!/bin/sh
+#
+# Same as your_git.sh, but starts the JVM from an AppCDS archive trained on the
+# common commands. The jar and archive are only rebuilt when sources change.
+set -e
+root=$(cd "$(dirname "$0")" && pwd)
+target=/tmp/codecrafters-git-target
+jar="$target/java_git.jar"
+archive="$target/java_git.jsa"
+
+if [ ! -f "$jar" ] || [ ! -f "$archive" ] || [ -n "$(find "$root/src/main" "$root/tools/cds" "$root/pom.xml" -newer "$jar" 2>/dev/null | head -n 1)" ]; then
+	(cd "$root" && mvn -B --quiet package -Pappcds -DskipTests -Ddir="$target")
+fi
+
+case "$1" in
+	clone|fetch|gc|repack|fsck|verify-pack|multi-pack-index|serve|upload-pack)
+		compiler=
+		;;
+	*)
+		compiler=-XX:TieredStopAtLevel=1
+		;;
+esac
+
+exec java -XX:SharedArchiveFile="$archive" $compiler -jar "$jar" "$@"